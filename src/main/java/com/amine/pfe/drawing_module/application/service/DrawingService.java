@@ -1,13 +1,34 @@
 package com.amine.pfe.drawing_module.application.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.UUID;
 
 import org.springframework.stereotype.Service;
 
+import com.amine.pfe.drawing_module.domain.dto.BulkEditRequest;
+import com.amine.pfe.drawing_module.domain.dto.BulkEditResult;
+import com.amine.pfe.drawing_module.domain.dto.EditSessionRequest;
+import com.amine.pfe.drawing_module.domain.dto.EditSessionResult;
+import com.amine.pfe.drawing_module.domain.dto.FeatureOverlayRequest;
 import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
 import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateResult;
+import com.amine.pfe.drawing_module.domain.dto.SyncUploadRequest;
+import com.amine.pfe.drawing_module.domain.dto.SyncUploadResult;
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditRequest;
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditResult;
+import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.FeatureLease;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
 import com.amine.pfe.drawing_module.domain.model.LayerSchema;
+import com.amine.pfe.drawing_module.domain.model.SyncWindow;
+import com.amine.pfe.drawing_module.domain.port.out.EditSessionPort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeasePort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureOverlayPort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureSyncPort;
 import com.amine.pfe.drawing_module.domain.port.out.LayerManagerPort;
+import com.amine.pfe.drawing_module.domain.port.out.TopologyEditPort;
 
 import lombok.RequiredArgsConstructor;
 
@@ -16,11 +37,20 @@ import lombok.RequiredArgsConstructor;
 public class DrawingService {
     
     private final LayerManagerPort layerManager;
+    private final EditSessionPort editSession;
+    private final FeatureSyncPort featureSync;
+    private final FeatureLeasePort featureLeases;
+    private final TopologyEditPort topologyEdit;
+    private final FeatureOverlayPort featureOverlay;
 
     public LayerSchema getLayerSchema(UUID layerId) {
         return layerManager.getLayerSchema(layerId);
     }
 
+    public Feature getFeature(UUID layerId, String featureId, String crs) {
+        return layerManager.getFeature(layerId, featureId, crs);
+    }
+
     public FeatureUpdateResult updateFeature(UUID layerId, String featureId, FeatureUpdateRequest updateRequest) {
         return layerManager.updateFeature(layerId, featureId, updateRequest);
     }
@@ -29,7 +59,59 @@ public class DrawingService {
         return layerManager.insertFeature(layerId, insertRequest);
     }
 
-    public FeatureUpdateResult deleteFeature(UUID layerId, String featureId) {
-        return layerManager.deleteFeature(layerId, featureId);
+    public FeatureUpdateResult deleteFeature(UUID layerId, String featureId, String leaseToken) {
+        return layerManager.deleteFeature(layerId, featureId, leaseToken);
+    }
+
+    public BulkEditResult deleteFeatures(UUID layerId, BulkEditRequest request) {
+        return layerManager.deleteFeatures(layerId, request);
+    }
+
+    public BulkEditResult updateFeatures(UUID layerId, BulkEditRequest request) {
+        return layerManager.updateFeatures(layerId, request);
+    }
+
+    public EditSessionResult executeEditSession(EditSessionRequest request) {
+        return editSession.executeEditSession(request);
+    }
+
+    public TopologyEditResult editBoundary(UUID layerId, String featureId, TopologyEditRequest request) {
+        return topologyEdit.editBoundary(layerId, featureId, request);
+    }
+
+    public TopologyEditResult splitFeature(UUID layerId, String featureId, FeatureOverlayRequest request) {
+        return featureOverlay.split(layerId, featureId, request);
+    }
+
+    public TopologyEditResult mergeFeatures(UUID layerId, FeatureOverlayRequest request) {
+        return featureOverlay.merge(layerId, request);
+    }
+
+    public TopologyEditResult clipFeature(UUID layerId, String featureId, FeatureOverlayRequest request) {
+        return featureOverlay.clip(layerId, featureId, request);
+    }
+
+    public SyncWindow openSync(UUID layerId, Long since) {
+        return featureSync.openSync(layerId, since);
+    }
+
+    public void writeChanges(SyncWindow window, GeometryEncoding encoding, OutputStream out) throws IOException {
+        featureSync.writeChanges(window, encoding, out);
+    }
+
+    public SyncUploadResult uploadSync(UUID layerId, SyncUploadRequest request) {
+        return featureSync.upload(layerId, request);
+    }
+
+    public FeatureLease acquireLease(UUID layerId, String featureId, String holder, Duration ttl) {
+        return featureLeases.acquire(layerId, featureId, holder, ttl);
+    }
+
+    public FeatureLease renewLease(UUID layerId, String featureId, UUID token, Duration ttl) {
+        return featureLeases.renew(layerId, featureId, token, ttl);
+    }
+
+    public boolean releaseLease(UUID layerId, String featureId, UUID token) {
+        return featureLeases.release(layerId, featureId, token);
     }
 }
@@ -0,0 +1,41 @@
+package com.amine.pfe.drawing_module.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "drawing.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = false;
+
+    // Édition ou lecture d'une feature : nombreuses, courtes, sensibles à la latence
+    private Budget interactive = new Budget(64, 96, Duration.ofSeconds(2));
+
+    // Sessions d'édition, éditions en masse, synchronisation : peu nombreuses, longues
+    private Budget bulk = new Budget(4, 32, Duration.ofSeconds(30));
+
+    // Poids des workspaces dans le partage d'une classe (1 par défaut)
+    private Map<String, Integer> workspaceWeights = new HashMap<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Budget {
+        // Requêtes de la classe en cours vers GeoServer
+        private int maxConcurrent;
+        // Requêtes en attente au-delà desquelles la classe refuse (429) ; chacune occupe un thread Tomcat
+        private int maxQueued;
+        // Attente maximale ; refusée d'emblée si l'attente estimée la dépasse
+        private Duration latencyTarget;
+    }
+}
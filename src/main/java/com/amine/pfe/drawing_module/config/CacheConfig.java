@@ -0,0 +1,11 @@
+package com.amine.pfe.drawing_module.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String LAYER_CATALOGS = "layerCatalogs";
+    public static final String LAYER_SCHEMAS = "layerSchemas";
+}
@@ -0,0 +1,49 @@
+package com.amine.pfe.drawing_module.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "drawing.audit")
+public class EditAuditProperties {
+
+    public enum OverflowPolicy {
+        // La trace est abandonnée et comptée, l'édition n'attend jamais
+        DROP,
+        // L'édition attend une place au plus blockTimeout, puis la trace est abandonnée
+        BLOCK
+    }
+
+    // Désactivé par défaut : aucune trace d'audit
+    private boolean enabled = false;
+
+    // Création de la table partitionnée au démarrage si elle n'existe pas (db/edit-audit.sql)
+    private boolean initializeSchema = true;
+
+    // Arrondie à la puissance de deux supérieure
+    private int queueCapacity = 65_536;
+
+    // Lignes par COPY ; un lot incomplet part au plus tard après flushInterval
+    private int batchSize = 1_000;
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    private OverflowPolicy overflow = OverflowPolicy.DROP;
+    private Duration blockTimeout = Duration.ofMillis(50);
+
+    // Nouvelles tentatives d'un lot rejeté par la base, délai doublé à chaque fois ; au-delà le lot est abandonné
+    private int maxRetries = 3;
+    private Duration retryBackoff = Duration.ofMillis(200);
+
+    // Partitions mensuelles créées à l'avance ; au-delà de retentionMonths elles sont supprimées (0 = conservées)
+    private int premakeMonths = 2;
+    private int retentionMonths = 0;
+    private long partitionIntervalMs = 3_600_000;
+
+    // Attente de l'écriture des traces restantes à l'arrêt
+    private Duration shutdownTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,30 @@
+package com.amine.pfe.drawing_module.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "drawing.journal")
+public class EditJournalProperties {
+
+    // Journal désactivé par défaut : aucune écriture disque
+    private boolean enabled = false;
+
+    private String directory = "./data/journal";
+
+    // Taille d'un segment mappé en mémoire ; un nouveau segment est ouvert quand il est plein
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    // fsync groupé avant l'envoi à GeoServer ; sans fsync, seul un crash de l'OS peut perdre des éditions
+    private boolean fsync = true;
+
+    // Un segment scellé est recopié puis supprimé quand ses éditions en attente pèsent moins que ce ratio
+    private double compactionRatio = 0.25;
+
+    // Rejeu périodique des éditions en attente, en plus du démarrage et du retour de GeoServer
+    private long replayIntervalMs = 10_000;
+}
@@ -0,0 +1,26 @@
+package com.amine.pfe.drawing_module.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "drawing.batching")
+public class FeatureBatchingProperties {
+
+    // Désactivé par défaut : chaque édition unitaire part dans sa propre transaction
+    private boolean enabled = false;
+
+    // Attente maximale ajoutée à une édition ; la fenêtre effective suit l'intervalle entre arrivées
+    private Duration maxDelay = Duration.ofMillis(5);
+
+    // Un lot plein part sans attendre la fin de la fenêtre
+    private int maxBatchSize = 50;
+
+    // Poids de la dernière mesure dans la moyenne mobile de l'intervalle entre arrivées
+    private double smoothing = 0.2;
+}
@@ -0,0 +1,25 @@
+package com.amine.pfe.drawing_module.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "drawing.fingerprint")
+public class FeatureFingerprintProperties {
+
+    // Mises à jour identiques à la dernière écriture répondues sans transaction WFS-T. Les empreintes sont
+    // locales à l'instance : à n'activer que si elle est seule à écrire les couches (ni autre instance derrière
+    // le répartiteur, ni QGIS/SQL), sinon une écriture revenant à un contenu antérieur serait perdue
+    private boolean enabled = false;
+
+    // 20 octets par entrée, alloués au démarrage ; au-delà, les entrées les plus anciennes sont remplacées
+    private int maxEntries = 1_000_000;
+
+    // Borne la fenêtre pendant laquelle une édition faite hors du module (QGIS, SQL) peut être masquée
+    private Duration ttl = Duration.ofMinutes(10);
+}
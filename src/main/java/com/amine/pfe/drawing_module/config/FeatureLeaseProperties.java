@@ -0,0 +1,37 @@
+package com.amine.pfe.drawing_module.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "drawing.lease")
+public class FeatureLeaseProperties {
+
+    // Désactivé par défaut : aucune vérification de bail sur les éditions
+    private boolean enabled = false;
+
+    // Création de la table des baux au démarrage si elle n'existe pas (db/feature-lease.sql)
+    private boolean initializeSchema = true;
+
+    private Duration defaultTtl = Duration.ofMinutes(2);
+    private Duration maxTtl = Duration.ofMinutes(30);
+
+    // Verrous consultatifs PostgreSQL (classid, objid) : classid isole ce module des autres utilisateurs de la base,
+    // objid est la bande de la feature ; la même bande désigne le verrou local de l'instance
+    private int lockNamespace = 0x44524157;
+    private int stripes = 1024;
+
+    // Attente maximale d'un verrou consultatif détenu par une autre instance
+    private Duration lockTimeout = Duration.ofSeconds(2);
+
+    // Baux relus par chaque édition gardés en mémoire ; 0 = relus à chaque édition.
+    // Au-delà de 0, un bail accordé par une autre instance peut être ignoré pendant cette durée.
+    private Duration checkCacheTtl = Duration.ZERO;
+
+    private long purgeIntervalMs = 600_000;
+}
@@ -0,0 +1,34 @@
+package com.amine.pfe.drawing_module.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "drawing.sync")
+public class FeatureSyncProperties {
+
+    // Désactivé par défaut : aucune écriture dans le journal des changements
+    private boolean enabled = false;
+
+    // Création des tables du journal au démarrage si elles n'existent pas (db/feature-change-log.sql)
+    private boolean initializeSchema = true;
+
+    // Les changements plus récents ne sont pas encore servis : une transaction plus ancienne peut être en cours
+    private Duration settleDelay = Duration.ofSeconds(2);
+
+    // Features relues par GetFeature ; limite aussi la longueur de l'URL (liste featureID)
+    private int pageSize = 200;
+
+    // Au-delà, les suppressions sont purgées : un jeton plus ancien impose un rechargement complet
+    private Duration tombstoneRetention = Duration.ofDays(30);
+
+    private long compactionIntervalMs = 3_600_000;
+
+    // Écriture d'un téléchargement en flux (GET .../sync) ; les autres réponses asynchrones gardent le délai global
+    private Duration streamTimeout = Duration.ofMinutes(10);
+}
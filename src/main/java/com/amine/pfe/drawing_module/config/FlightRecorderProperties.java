@@ -0,0 +1,37 @@
+package com.amine.pfe.drawing_module.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "drawing.diagnostics.flight-recorder")
+public class FlightRecorderProperties {
+
+    // Fichiers .jfr des enregistrements bornés et des vidages du tampon circulaire
+    private String directory = "./data/jfr";
+
+    // Configuration JFR du JDK : "default" (~1 % de surcoût) ou "profile" (plus détaillée)
+    private String settings = "profile";
+
+    // Durée maximale d'un enregistrement démarré via l'endpoint d'administration
+    private Duration maxDuration = Duration.ofMinutes(30);
+
+    // Enregistrement continu en mémoire/disque, vidé automatiquement sur requête lente
+    private boolean ringBufferEnabled = false;
+
+    private Duration ringBufferMaxAge = Duration.ofMinutes(2);
+
+    private DataSize ringBufferMaxSize = DataSize.ofMegabytes(64);
+
+    // Seuil de latence d'une requête /drawing/** au-delà duquel le tampon est vidé
+    private Duration slowRequestThreshold = Duration.ofSeconds(5);
+
+    // Un vidage au plus par intervalle : une rafale de requêtes lentes ne remplit pas le disque
+    private Duration minDumpInterval = Duration.ofMinutes(1);
+}
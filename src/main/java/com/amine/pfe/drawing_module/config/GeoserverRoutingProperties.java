@@ -0,0 +1,47 @@
+package com.amine.pfe.drawing_module.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "geoserver.routing")
+public class GeoserverRoutingProperties {
+
+    public enum Balancing {
+        LEAST_OUTSTANDING,
+        EWMA
+    }
+
+    private Balancing balancing = Balancing.LEAST_OUTSTANDING;
+
+    // Lissage de la latence EWMA (poids de la dernière mesure)
+    private double ewmaAlpha = 0.3;
+
+    private long healthCheckIntervalMs = 10_000;
+    private String healthCheckPath = "/rest/about/version.json";
+    private int healthCheckTimeoutMs = 2_000;
+
+    // Éjection d'un endpoint après N erreurs consécutives
+    private int ejectionThreshold = 3;
+    private long ejectionDurationMs = 30_000;
+
+    // Pools additionnels ; geoserver.url reste le pool par défaut
+    private Map<String, Pool> pools = new LinkedHashMap<>();
+
+    @Data
+    public static class Pool {
+        private String primary;
+        private List<String> replicas = new ArrayList<>();
+        private List<String> workspaces = new ArrayList<>();
+        // Couches au format workspace:layer, prioritaires sur les workspaces
+        private List<String> layers = new ArrayList<>();
+    }
+}
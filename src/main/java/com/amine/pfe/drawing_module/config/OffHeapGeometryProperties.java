@@ -0,0 +1,22 @@
+package com.amine.pfe.drawing_module.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "drawing.geometry.off-heap")
+public class OffHeapGeometryProperties {
+
+    // Désactivé par défaut : toutes les géométries restent sur le tas
+    private boolean enabled = false;
+
+    // Taille du GeoJSON à partir de laquelle les coordonnées sont lues hors tas (environ 40 octets par sommet)
+    private DataSize threshold = DataSize.ofMegabytes(1);
+
+    // Mémoire directe conservée dans le pool entre deux requêtes ; le total reste borné par -XX:MaxDirectMemorySize
+    private DataSize maxPooled = DataSize.ofMegabytes(256);
+}
@@ -0,0 +1,36 @@
+package com.amine.pfe.drawing_module.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.amine.pfe.drawing_module.domain.port.in.DrawingWebPort;
+import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.domain.port.out.EditSessionPort;
+import com.amine.pfe.drawing_module.domain.port.out.LayerManagerPort;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+import com.amine.pfe.drawing_module.infrastructure.service.LayerCacheWarmup;
+import com.amine.pfe.drawing_module.infrastructure.service.journal.EditJournalReplayer;
+import com.amine.pfe.drawing_module.infrastructure.service.routing.GeoserverRouter;
+import com.amine.pfe.drawing_module.infrastructure.web.DrawingRestController;
+import com.amine.pfe.drawing_module.infrastructure.web.EditSessionRestController;
+
+@Configuration
+public class StartupConfig {
+
+    // Avec spring.main.lazy-initialization, le chemin d'édition reste créé au démarrage
+    @Bean
+    static LazyInitializationExcludeFilter editPathEagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                DrawingRestController.class,
+                EditSessionRestController.class,
+                DrawingWebPort.class,
+                LayerManagerPort.class,
+                EditSessionPort.class,
+                LayerRepositoryPort.class,
+                CartographicServerPort.class,
+                GeoserverRouter.class,
+                LayerCacheWarmup.class,
+                EditJournalReplayer.class);
+    }
+}
@@ -0,0 +1,26 @@
+package com.amine.pfe.drawing_module.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.amine.pfe.drawing_module.domain.model.AttributeRule;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "drawing.topology")
+public class TopologyEditProperties {
+
+    // Distance sous laquelle deux sommets sont confondus, en unités du CRS de la couche
+    private double tolerance = 1e-6;
+
+    // Features lues autour de la frontière ; au-delà, l'édition est refusée plutôt que tronquée
+    private int maxFeatures = 64;
+
+    // Découpe, fusion et découpage par emprise : règle d'héritage par attribut, COPY si absent
+    private Map<String, AttributeRule> attributeRules = new HashMap<>();
+}
@@ -1,11 +1,16 @@
 package com.amine.pfe.drawing_module.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.amine.pfe.drawing_module.infrastructure.web.AsyncTimeoutInterceptor;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
@@ -17,8 +22,17 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*");
     }
 
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new AsyncTimeoutInterceptor());
+    }
+
+    // Corps des transactions WFS-T écrit directement dans la socket (Transfer-Encoding: chunked).
+    // Pas d'intercepteur : RestTemplate mettrait alors toute la requête en mémoire avant l'envoi
     @Bean
-    RestTemplate restTemplate() {
-        return new RestTemplate();
+    RestTemplate restTemplate(@Value("${geoserver.http.chunk-size:8192}") int chunkSize) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setChunkSize(chunkSize);
+        return new RestTemplate(requestFactory);
     }
 }
@@ -0,0 +1,35 @@
+package com.amine.pfe.drawing_module.domain.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkEditRequest {
+    // Sélection : identifiants, ou emprise et/ou conditions (combinées en ET)
+    private List<String> featureIds;
+    // [minX, minY, maxX, maxY], comme le bbox GeoJSON
+    private List<Double> bbox;
+    // CRS du bbox (ex: EPSG:4326) ; celui de la couche si absent
+    private String bboxCrs;
+    private List<FeatureFilter.Condition> where;
+    // Nouvelles valeurs des attributs (mise à jour uniquement)
+    private Map<String, Object> properties;
+
+    // Renseignés par le contrôleur à partir des en-têtes X-Feature-Lease, un jeton par feature sous bail ;
+    // vérifiés pour une sélection par identifiants seulement
+    @JsonIgnore
+    @ToString.Exclude
+    private List<String> leaseTokens;
+}
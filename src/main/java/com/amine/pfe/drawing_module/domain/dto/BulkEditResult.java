@@ -0,0 +1,18 @@
+package com.amine.pfe.drawing_module.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkEditResult {
+    private boolean success;
+    private String message;
+    // totalDeleted / totalUpdated de la réponse WFS-T
+    private int affected;
+    private long durationMs;
+}
@@ -0,0 +1,37 @@
+package com.amine.pfe.drawing_module.domain.dto;
+
+import java.util.Map;
+import java.util.UUID;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EditOperation {
+    private FeatureOperation.Type type;
+    private UUID layerId;
+    // Obligatoire pour UPDATE et DELETE
+    private String featureId;
+    @ToString.Exclude
+    private String geometry;
+    private Map<String, Object> properties;
+    private String crs;
+
+    public FeatureUpdateRequest toFeatureUpdateRequest(GeometryEncoding geometryEncoding) {
+        return FeatureUpdateRequest.builder()
+                .geometry(geometry)
+                .properties(properties)
+                .crs(crs)
+                .geometryEncoding(geometryEncoding)
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.amine.pfe.drawing_module.domain.dto;
+
+import java.util.UUID;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EditOperationResult {
+    private int index;
+    private FeatureOperation.Type type;
+    private UUID layerId;
+    private String workspace;
+    private String featureId;
+    private boolean success;
+    private String message;
+    // Validée sans confirmation complète de GeoServer, ou délai dépassé : à vérifier avant une nouvelle édition
+    private boolean unconfirmed;
+    // Préparation (schéma, géométrie, propriétés) puis transaction WFS-T du workspace
+    private long prepareMicros;
+    private long transactionMicros;
+}
@@ -0,0 +1,32 @@
+package com.amine.pfe.drawing_module.domain.dto;
+
+import java.util.List;
+
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EditSessionRequest {
+    // Exécutées dans l'ordre au sein de chaque couche
+    private List<EditOperation> operations;
+
+    // Renseigné par le contrôleur à partir du Content-Type
+    @JsonIgnore
+    @ToString.Exclude
+    @Builder.Default
+    private GeometryEncoding geometryEncoding = GeometryEncoding.GEOJSON;
+
+    // Renseignés par le contrôleur à partir des en-têtes X-Feature-Lease, un jeton par feature sous bail
+    @JsonIgnore
+    @ToString.Exclude
+    private List<String> leaseTokens;
+}
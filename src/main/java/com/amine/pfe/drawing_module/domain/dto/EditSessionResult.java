@@ -0,0 +1,21 @@
+package com.amine.pfe.drawing_module.domain.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EditSessionResult {
+    private boolean success;
+    private String message;
+    private int succeeded;
+    private int failed;
+    private long durationMs;
+    private List<EditOperationResult> operations;
+}
@@ -0,0 +1,17 @@
+package com.amine.pfe.drawing_module.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FeatureLeaseRequest {
+    // Éditeur qui demande le bail (identifiant de l'utilisateur ou du poste)
+    private String holder;
+    // Durée par défaut si absente, bornée par drawing.lease.max-ttl
+    private Long ttlSeconds;
+}
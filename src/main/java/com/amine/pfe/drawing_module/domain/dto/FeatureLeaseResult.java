@@ -0,0 +1,22 @@
+package com.amine.pfe.drawing_module.domain.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FeatureLeaseResult {
+    private boolean success;
+    private String message;
+    private String featureId;
+    private String holder;
+    // À renvoyer dans l'en-tête X-Feature-Lease ; absent quand le bail appartient à un autre détenteur
+    private String token;
+    private Instant expiresAt;
+}
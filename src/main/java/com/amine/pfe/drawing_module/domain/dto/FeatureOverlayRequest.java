@@ -0,0 +1,38 @@
+package com.amine.pfe.drawing_module.domain.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.amine.pfe.drawing_module.domain.geometry.PolygonOverlay.ClipMode;
+import com.amine.pfe.drawing_module.domain.model.AttributeRule;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FeatureOverlayRequest {
+    // GeoJSON : LineString ou MultiLineString de découpe, Polygon ou MultiPolygon d'emprise
+    @ToString.Exclude
+    private String geometry;
+    // Fusion : features fusionnées, la première est conservée et reçoit la géométrie fusionnée
+    private List<String> featureIds;
+    // Découpage par emprise : partie conservée
+    @Builder.Default
+    private ClipMode mode = ClipMode.INSIDE;
+    // CRS de la géométrie ; celui de la couche si absent
+    private String crs;
+    // Règle d'héritage par attribut, prioritaire sur drawing.topology.attribute-rules
+    private Map<String, AttributeRule> attributeRules;
+
+    // Renseignés par le contrôleur à partir des en-têtes X-Feature-Lease, un jeton par feature sous bail
+    @JsonIgnore
+    @ToString.Exclude
+    private List<String> leaseTokens;
+}
@@ -0,0 +1,49 @@
+package com.amine.pfe.drawing_module.domain.dto;
+
+import java.util.Map;
+
+import com.amine.pfe.drawing_module.domain.geometry.GeoJsonGeometries;
+import com.amine.pfe.drawing_module.domain.geometry.GeometryCodecs;
+import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FeatureResponse {
+    private String featureId;
+    private String geometryType;
+    // Objet GeoJSON, ou chaîne base64 WKB/TWKB selon l'en-tête Accept ; écrit tel quel dans la réponse
+    @JsonRawValue
+    @ToString.Exclude
+    private String geometry;
+    private Map<String, Object> properties;
+    private String crs;
+
+    public static FeatureResponse of(Feature feature, GeometryEncoding encoding) {
+        String geometry;
+        if (feature.getGeometry() == null) {
+            geometry = "null";
+        } else if (encoding == GeometryEncoding.GEOJSON) {
+            geometry = GeoJsonGeometries.write(feature.getGeometry());
+        } else {
+            geometry = '"' + GeometryCodecs.encodeBase64(encoding, feature.getGeometry()) + '"';
+        }
+
+        return FeatureResponse.builder()
+                .featureId(feature.getId())
+                .geometryType(feature.getGeometry() != null ? feature.getGeometry().getType() : null)
+                .geometry(geometry)
+                .properties(feature.getProperties())
+                .crs(feature.getCrs())
+                .build();
+    }
+}
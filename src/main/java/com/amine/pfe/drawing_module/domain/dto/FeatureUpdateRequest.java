@@ -2,16 +2,40 @@ package com.amine.pfe.drawing_module.domain.dto;
 
 import java.util.Map;
 
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class FeatureUpdateRequest {
+    // GeoJSON, ou WKB/TWKB en base64 selon le Content-Type
+    @ToString.Exclude
     private String geometry;
     private Map<String, Object> properties;
+    // CRS des coordonnées envoyées (ex: EPSG:3857) ; reprojetées dans celui de la couche
+    private String crs;
+
+    // Renseigné par le contrôleur à partir du Content-Type
+    @JsonIgnore
+    @ToString.Exclude
+    @Builder.Default
+    private GeometryEncoding geometryEncoding = GeometryEncoding.GEOJSON;
+
+    // Renseigné par le contrôleur à partir de l'en-tête X-Feature-Lease
+    @JsonIgnore
+    @ToString.Exclude
+    private String leaseToken;
+
+    @ToString.Include(name = "geometry")
+    private String geometryLength() {
+        return geometry == null ? "null" : geometryEncoding + "(" + geometry.length() + " chars)";
+    }
 }
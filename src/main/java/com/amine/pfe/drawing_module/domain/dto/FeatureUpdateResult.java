@@ -13,4 +13,10 @@ public class FeatureUpdateResult {
     private boolean success;
     private String message;
     private String featureId;
+    // Accepté et journalisé, appliqué sur GeoServer lors d'un rejeu ultérieur
+    private boolean queued;
+    // Contenu identique à la dernière écriture : aucune transaction WFS-T, date_modif inchangée
+    private boolean unchanged;
+    // Envoyé sans réponse de GeoServer (timeout, 5xx) : l'édition a pu être appliquée, elle n'est pas rejouée
+    private boolean unconfirmed;
 }
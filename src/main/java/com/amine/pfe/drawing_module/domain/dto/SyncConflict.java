@@ -0,0 +1,19 @@
+package com.amine.pfe.drawing_module.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncConflict {
+    // Position de l'édition dans la requête
+    private int index;
+    private String featureId;
+    // Jeton du changement serveur postérieur à baseToken ; -1 si le jeton du client a expiré
+    private long serverToken;
+    private String message;
+}
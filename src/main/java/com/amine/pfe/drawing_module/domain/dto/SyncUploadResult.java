@@ -0,0 +1,24 @@
+package com.amine.pfe.drawing_module.domain.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncUploadResult {
+    private boolean success;
+    private String message;
+    private int applied;
+    private int failed;
+    // Éditions non appliquées : la feature a changé sur le serveur depuis baseToken
+    private List<SyncConflict> conflicts;
+    // Résultat des éditions envoyées à GeoServer, index = position dans la requête
+    private List<EditOperationResult> operations;
+    private long durationMs;
+}
@@ -0,0 +1,29 @@
+package com.amine.pfe.drawing_module.domain.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TopologyEditRequest {
+    // Positions [x, y] : un sommet à déplacer, ou le tronçon de frontière actuel d'une extrémité à l'autre
+    private List<double[]> from;
+    // Nouvelle position du sommet, ou nouveau tracé du tronçon avec les mêmes extrémités
+    private List<double[]> to;
+    // CRS des positions ; celui de la couche si absent
+    private String crs;
+
+    // Renseigné par le contrôleur à partir de l'en-tête X-Feature-Lease
+    @JsonIgnore
+    @ToString.Exclude
+    private String leaseToken;
+}
@@ -0,0 +1,25 @@
+package com.amine.pfe.drawing_module.domain.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TopologyEditResult {
+    private boolean success;
+    private String message;
+    // Transaction validée sans confirmation de chaque opération : message à vérifier
+    private boolean unconfirmed;
+    // Features modifiées dans la transaction, la feature éditée en premier
+    private List<String> featureIds;
+    // Découpe, fusion et découpage par emprise : features créées et supprimées dans la même transaction
+    private List<String> insertedIds;
+    private List<String> deletedIds;
+    private long durationMs;
+}
@@ -0,0 +1,8 @@
+package com.amine.pfe.drawing_module.domain.exception;
+
+/**
+ * Serveur cartographique injoignable (réseau, 5xx) : l'édition n'a pas été appliquée et peut être rejouée.
+ */
+public class CartographicServerUnavailableException extends RuntimeException {
+    public CartographicServerUnavailableException(String message, Throwable cause) { super(message, cause); }
+}
@@ -0,0 +1,21 @@
+package com.amine.pfe.drawing_module.domain.exception;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureLease;
+
+/**
+ * Feature sous bail d'un autre détenteur, ou bail perdu (expiré, libéré) : l'opération est refusée.
+ */
+public class FeatureLeaseConflictException extends RuntimeException {
+
+    // Bail en vigueur, null s'il n'y en a plus
+    private final transient FeatureLease current;
+
+    public FeatureLeaseConflictException(String message, FeatureLease current) {
+        super(message);
+        this.current = current;
+    }
+
+    public FeatureLease getCurrent() {
+        return current;
+    }
+}
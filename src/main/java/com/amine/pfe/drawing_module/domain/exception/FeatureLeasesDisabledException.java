@@ -0,0 +1,8 @@
+package com.amine.pfe.drawing_module.domain.exception;
+
+/**
+ * Baux d'édition désactivés (drawing.lease.enabled=false) : acquisition, renouvellement et libération refusés.
+ */
+public class FeatureLeasesDisabledException extends RuntimeException {
+    public FeatureLeasesDisabledException(String message) { super(message); }
+}
@@ -0,0 +1,8 @@
+package com.amine.pfe.drawing_module.domain.exception;
+
+/**
+ * Synchronisation hors ligne désactivée (drawing.sync.enabled=false) : téléchargement et envoi refusés.
+ */
+public class FeatureSyncDisabledException extends RuntimeException {
+    public FeatureSyncDisabledException(String message) { super(message); }
+}
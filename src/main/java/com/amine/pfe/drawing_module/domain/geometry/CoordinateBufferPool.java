@@ -0,0 +1,80 @@
+package com.amine.pfe.drawing_module.domain.geometry;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de buffers directs (hors tas) pour les coordonnées des très grandes géométries.
+ * Les tailles sont arrondies à la puissance de 2 supérieure ; au-delà de maxPooledBytes,
+ * les buffers rendus ne sont pas conservés et leur mémoire est libérée par le GC.
+ */
+public final class CoordinateBufferPool {
+
+    private static final int MIN_SIZE_CLASS = 16; // 64 Ko
+    private static final int MAX_SIZE_CLASS = 30; // 1 Go, soit 64M sommets
+
+    private final long maxPooledBytes;
+    // Indexé par classe de taille (log2 de la capacité) ; null sous MIN_SIZE_CLASS
+    private final List<Queue<ByteBuffer>> buffersBySizeClass;
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final AtomicLong allocatedBuffers = new AtomicLong();
+    private final AtomicLong reusedBuffers = new AtomicLong();
+
+    public CoordinateBufferPool(long maxPooledBytes) {
+        this.maxPooledBytes = maxPooledBytes;
+        this.buffersBySizeClass = new ArrayList<>(MAX_SIZE_CLASS + 1);
+        for (int i = 0; i <= MAX_SIZE_CLASS; i++) {
+            buffersBySizeClass.add(i < MIN_SIZE_CLASS ? null : new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    public ByteBuffer acquire(long minBytes) {
+        int sizeClass = sizeClass(minBytes);
+        ByteBuffer buffer = buffersBySizeClass.get(sizeClass).poll();
+        if (buffer != null) {
+            pooledBytes.addAndGet(-buffer.capacity());
+            reusedBuffers.incrementAndGet();
+            return buffer;
+        }
+        allocatedBuffers.incrementAndGet();
+        return ByteBuffer.allocateDirect(1 << sizeClass).order(ByteOrder.nativeOrder());
+    }
+
+    public void release(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        if (Integer.bitCount(capacity) != 1 || capacity < 1 << MIN_SIZE_CLASS) {
+            throw new IllegalArgumentException("Buffer not acquired from this pool");
+        }
+        if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+            pooledBytes.addAndGet(-capacity);
+            return;
+        }
+        buffer.clear();
+        buffersBySizeClass.get(Integer.numberOfTrailingZeros(capacity)).offer(buffer);
+    }
+
+    private static int sizeClass(long minBytes) {
+        if (minBytes > 1L << MAX_SIZE_CLASS) {
+            throw new IllegalArgumentException("Géométrie trop volumineuse: " + minBytes / 16 + " sommets");
+        }
+        int sizeClass = 64 - Long.numberOfLeadingZeros(Math.max(minBytes, 1) - 1);
+        return Math.max(sizeClass, MIN_SIZE_CLASS);
+    }
+
+    public long pooledBytes() {
+        return pooledBytes.get();
+    }
+
+    public long allocatedBuffers() {
+        return allocatedBuffers.get();
+    }
+
+    public long reusedBuffers() {
+        return reusedBuffers.get();
+    }
+}
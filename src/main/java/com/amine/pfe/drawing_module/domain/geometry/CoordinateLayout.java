@@ -0,0 +1,67 @@
+package com.amine.pfe.drawing_module.domain.geometry;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+
+/**
+ * Structure d'un tableau de coordonnées "à plat" : groupes (polygones) de parties (rings ou lignes),
+ * chaque partie étant un intervalle [start, end) d'indices d'ordonnées.
+ * <ul>
+ * <li>Point, LineString : un groupe, une partie</li>
+ * <li>MultiLineString : un groupe, une partie par ligne</li>
+ * <li>Polygon : un groupe, une partie par ring</li>
+ * <li>MultiPolygon : un groupe par polygon</li>
+ * </ul>
+ */
+public record CoordinateLayout(List<List<int[]>> groups) {
+
+    public static CoordinateLayout of(FeatureGeometry geometry) {
+        return of(geometry.coordinateBuffer());
+    }
+
+    public static CoordinateLayout of(double[] coordinates) {
+        return of(DoubleBuffer.wrap(coordinates));
+    }
+
+    public static CoordinateLayout of(DoubleBuffer coordinates) {
+        int length = coordinates.limit();
+        List<List<int[]>> groups = new ArrayList<>();
+        List<int[]> currentGroup = new ArrayList<>();
+        int partStart = 0;
+
+        for (int i = 0; i + 1 < length; i += 2) {
+            double x = coordinates.get(i);
+            if (Double.isNaN(x)) {
+                if (i > partStart)
+                    currentGroup.add(new int[] { partStart, i });
+                partStart = i + 2;
+            } else if (Double.isInfinite(x)) {
+                if (i > partStart)
+                    currentGroup.add(new int[] { partStart, i });
+                if (!currentGroup.isEmpty())
+                    groups.add(currentGroup);
+                currentGroup = new ArrayList<>();
+                partStart = i + 2;
+            }
+        }
+
+        int end = length - (length % 2);
+        if (end > partStart)
+            currentGroup.add(new int[] { partStart, end });
+        if (!currentGroup.isEmpty())
+            groups.add(currentGroup);
+
+        return new CoordinateLayout(groups);
+    }
+
+    public int partCount() {
+        return groups.stream().mapToInt(List::size).sum();
+    }
+
+    public static int pointCount(int[] part) {
+        return (part[1] - part[0]) / 2;
+    }
+}
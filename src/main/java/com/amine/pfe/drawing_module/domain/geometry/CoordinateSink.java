@@ -0,0 +1,13 @@
+package com.amine.pfe.drawing_module.domain.geometry;
+
+/**
+ * Destination des coordonnées "à plat" pendant le décodage : tableau sur le tas ou buffer hors tas.
+ */
+public interface CoordinateSink {
+
+    CoordinateSink add(double x, double y);
+
+    CoordinateSink endRing();
+
+    CoordinateSink endPolygon();
+}
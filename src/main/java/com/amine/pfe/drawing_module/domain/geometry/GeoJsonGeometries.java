@@ -0,0 +1,217 @@
+package com.amine.pfe.drawing_module.domain.geometry;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.util.List;
+import java.util.Locale;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.NumberInput;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Lecture et écriture des géométries GeoJSON au format de coordonnées "à plat" de FeatureGeometry.
+ * La lecture se fait en flux (sans arbre JsonNode ni boxing), directement vers un CoordinateSink.
+ */
+public final class GeoJsonGeometries {
+
+    private GeoJsonGeometries() {
+    }
+
+    public static FeatureGeometry read(JsonNode geometryNode) {
+        try (JsonParser parser = geometryNode.traverse()) {
+            return read(parser);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Géométrie GeoJSON invalide", e);
+        }
+    }
+
+    public static FeatureGeometry read(JsonParser parser) throws IOException {
+        PackedCoordinatesBuilder coordinates = new PackedCoordinatesBuilder(256);
+        String type = read(parser, coordinates);
+        return FeatureGeometry.builder()
+                .type(type)
+                .coordinates(coordinates.toArray())
+                .build();
+    }
+
+    // Coordonnées écrites directement hors tas ; le buffer est rendu au pool si la géométrie est invalide
+    public static FeatureGeometry readOffHeap(JsonParser parser, CoordinateBufferPool pool, int expectedOrdinates)
+            throws IOException {
+        OffHeapCoordinates coordinates = new OffHeapCoordinates(pool, expectedOrdinates);
+        try {
+            String type = read(parser, coordinates);
+            return FeatureGeometry.builder()
+                    .type(type)
+                    .offHeapCoordinates(coordinates)
+                    .build();
+        } catch (IOException | RuntimeException e) {
+            coordinates.close();
+            throw e;
+        }
+    }
+
+    // Retourne le type tel que reçu ; "type" peut suivre "coordinates", la structure est donc déduite
+    // de la profondeur d'imbrication puis vérifiée contre le type
+    public static String read(JsonParser parser, CoordinateSink sink) throws IOException {
+        if (parser.currentToken() == null) {
+            parser.nextToken();
+        }
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("Géométrie GeoJSON invalide");
+        }
+
+        String type = null;
+        CoordinatesReader coordinates = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("type".equals(field) && value == JsonToken.VALUE_STRING) {
+                type = parser.getText();
+            } else if ("coordinates".equals(field)) {
+                coordinates = new CoordinatesReader(sink);
+                coordinates.read(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (type == null || coordinates == null) {
+            throw new IllegalArgumentException("Géométrie GeoJSON sans type ou sans coordonnées");
+        }
+
+        int expectedDepth = switch (type.toLowerCase(Locale.ROOT)) {
+            case "point" -> 1;
+            case "linestring" -> 2;
+            case "polygon", "multilinestring" -> 3;
+            case "multipolygon" -> 4;
+            default -> throw new IllegalArgumentException("Type de géométrie non supporté: " + type);
+        };
+        if (coordinates.depth != expectedDepth) {
+            throw new IllegalArgumentException("Coordonnées " + type + " invalides");
+        }
+        if (expectedDepth == 2 && coordinates.positions < 2) {
+            throw new IllegalArgumentException("LineString doit avoir au moins 2 points");
+        }
+        return type;
+    }
+
+    public static String write(FeatureGeometry geometry) {
+        int type = GeometryCodec.typeCode(geometry.getType());
+        DoubleBuffer coordinates = geometry.coordinateBuffer();
+        List<List<int[]>> groups = CoordinateLayout.of(coordinates).groups();
+        if (groups.isEmpty()) {
+            throw new IllegalArgumentException("Géométrie vide");
+        }
+
+        StringBuilder json = new StringBuilder(48 + coordinates.limit() * 12)
+                .append("{\"type\":\"").append(GeometryCodec.typeName(type)).append("\",\"coordinates\":");
+        switch (type) {
+            case GeometryCodec.POINT -> position(json, coordinates, 0);
+            case GeometryCodec.LINESTRING -> positions(json, coordinates, groups.get(0).get(0));
+            case GeometryCodec.POLYGON, GeometryCodec.MULTILINESTRING -> parts(json, coordinates, groups.get(0));
+            default -> {
+                json.append('[');
+                for (int i = 0; i < groups.size(); i++) {
+                    if (i > 0)
+                        json.append(',');
+                    parts(json, coordinates, groups.get(i));
+                }
+                json.append(']');
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    private static void parts(StringBuilder json, DoubleBuffer coordinates, List<int[]> parts) {
+        json.append('[');
+        for (int i = 0; i < parts.size(); i++) {
+            if (i > 0)
+                json.append(',');
+            positions(json, coordinates, parts.get(i));
+        }
+        json.append(']');
+    }
+
+    private static void positions(StringBuilder json, DoubleBuffer coordinates, int[] part) {
+        json.append('[');
+        for (int i = part[0]; i < part[1]; i += 2) {
+            if (i > part[0])
+                json.append(',');
+            position(json, coordinates, i);
+        }
+        json.append(']');
+    }
+
+    private static void position(StringBuilder json, DoubleBuffer coordinates, int index) {
+        json.append('[').append(coordinates.get(index)).append(',').append(coordinates.get(index + 1)).append(']');
+    }
+
+    // Profondeur des positions : 1 pour Point, 2 LineString, 3 Polygon/MultiLineString, 4 MultiPolygon.
+    // Fin d'un tableau de niveau depth-1 : fin de ring/ligne ; de niveau 2 quand depth = 4 : fin de polygon.
+    private static final class CoordinatesReader {
+        private final CoordinateSink sink;
+        private int depth;
+        private int positions;
+
+        CoordinatesReader(CoordinateSink sink) {
+            this.sink = sink;
+        }
+
+        void read(JsonParser parser) throws IOException {
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Coordonnées GeoJSON invalides");
+            }
+
+            int level = 1;
+            int ordinates = 0;
+            double x = 0;
+            double y = 0;
+            while (level > 0) {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+                    if (depth == 0) {
+                        depth = level;
+                    } else if (level != depth) {
+                        throw new IllegalArgumentException("Imbrication des coordonnées GeoJSON incohérente");
+                    }
+                    // Z et M éventuels ignorés
+                    if (ordinates == 0) {
+                        x = number(parser);
+                    } else if (ordinates == 1) {
+                        y = number(parser);
+                    }
+                    ordinates++;
+                } else if (token == JsonToken.START_ARRAY) {
+                    level++;
+                    if (depth != 0 && level > depth) {
+                        throw new IllegalArgumentException("Imbrication des coordonnées GeoJSON incohérente");
+                    }
+                } else if (token == JsonToken.END_ARRAY) {
+                    if (level == depth) {
+                        if (ordinates < 2) {
+                            throw new IllegalArgumentException("Position GeoJSON invalide");
+                        }
+                        sink.add(x, y);
+                        positions++;
+                        ordinates = 0;
+                    } else if (depth >= 3 && level == depth - 1) {
+                        sink.endRing();
+                    } else if (depth == 4 && level == 2) {
+                        sink.endPolygon();
+                    }
+                    level--;
+                } else {
+                    throw new IllegalArgumentException("Coordonnées GeoJSON invalides");
+                }
+            }
+        }
+
+        // Directement depuis le buffer du parser : getDoubleValue() alloue une String (et plus) par nombre
+        private static double number(JsonParser parser) throws IOException {
+            return NumberInput.parseDouble(parser.getTextCharacters(), parser.getTextOffset(),
+                    parser.getTextLength(), true);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.amine.pfe.drawing_module.domain.geometry;
+
+import java.util.Locale;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
+
+/**
+ * Encodage binaire d'une FeatureGeometry (coordonnées "à plat", cf. PackedCoordinatesBuilder).
+ */
+public interface GeometryCodec {
+
+    int POINT = 1;
+    int LINESTRING = 2;
+    int POLYGON = 3;
+    int MULTILINESTRING = 5;
+    int MULTIPOLYGON = 6;
+
+    GeometryEncoding encoding();
+
+    byte[] encode(FeatureGeometry geometry);
+
+    FeatureGeometry decode(byte[] data);
+
+    static int typeCode(String type) {
+        return switch (type.toLowerCase(Locale.ROOT)) {
+            case "point" -> POINT;
+            case "linestring" -> LINESTRING;
+            case "polygon" -> POLYGON;
+            case "multilinestring" -> MULTILINESTRING;
+            case "multipolygon" -> MULTIPOLYGON;
+            default -> throw new IllegalArgumentException("Type de géométrie non supporté: " + type);
+        };
+    }
+
+    static String typeName(int code) {
+        return switch (code) {
+            case POINT -> "Point";
+            case LINESTRING -> "LineString";
+            case POLYGON -> "Polygon";
+            case MULTILINESTRING -> "MultiLineString";
+            case MULTIPOLYGON -> "MultiPolygon";
+            default -> throw new IllegalArgumentException("Type de géométrie non supporté: " + code);
+        };
+    }
+}
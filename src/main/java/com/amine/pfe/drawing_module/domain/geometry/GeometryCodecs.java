@@ -0,0 +1,44 @@
+package com.amine.pfe.drawing_module.domain.geometry;
+
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
+
+/**
+ * Codecs binaires par encodage ; la géométrie binaire circule en base64 dans le corps JSON.
+ */
+public final class GeometryCodecs {
+
+    private static final Map<GeometryEncoding, GeometryCodec> CODECS = new EnumMap<>(GeometryEncoding.class);
+
+    static {
+        register(new WkbGeometryCodec());
+        register(new TwkbGeometryCodec());
+    }
+
+    private GeometryCodecs() {
+    }
+
+    private static void register(GeometryCodec codec) {
+        CODECS.put(codec.encoding(), codec);
+    }
+
+    public static GeometryCodec forEncoding(GeometryEncoding encoding) {
+        GeometryCodec codec = CODECS.get(encoding);
+        if (codec == null) {
+            throw new IllegalArgumentException("Pas de codec binaire pour l'encodage " + encoding);
+        }
+        return codec;
+    }
+
+    public static FeatureGeometry decodeBase64(GeometryEncoding encoding, String geometry) {
+        return forEncoding(encoding).decode(Base64.getMimeDecoder().decode(geometry));
+    }
+
+    public static String encodeBase64(GeometryEncoding encoding, FeatureGeometry geometry) {
+        return Base64.getEncoder().encodeToString(forEncoding(encoding).encode(geometry));
+    }
+}
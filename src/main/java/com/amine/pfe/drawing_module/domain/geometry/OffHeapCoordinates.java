@@ -0,0 +1,85 @@
+package com.amine.pfe.drawing_module.domain.geometry;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+
+/**
+ * Coordonnées "à plat" (cf. PackedCoordinatesBuilder) stockées dans un buffer direct emprunté au pool.
+ * Un seul propriétaire à la fois ; close() rend le buffer au pool et invalide les vues déjà obtenues.
+ */
+public final class OffHeapCoordinates implements CoordinateSink, AutoCloseable {
+
+    private final CoordinateBufferPool pool;
+    private ByteBuffer buffer;
+    private DoubleBuffer values;
+    private int size;
+
+    public OffHeapCoordinates(CoordinateBufferPool pool, int expectedOrdinates) {
+        this.pool = pool;
+        this.buffer = pool.acquire((long) Math.max(expectedOrdinates, 4) * Double.BYTES);
+        this.values = buffer.asDoubleBuffer();
+    }
+
+    @Override
+    public OffHeapCoordinates add(double x, double y) {
+        ensureCapacity(2);
+        values.put(size++, x);
+        values.put(size++, y);
+        return this;
+    }
+
+    @Override
+    public OffHeapCoordinates endRing() {
+        return add(Double.NaN, Double.NaN);
+    }
+
+    @Override
+    public OffHeapCoordinates endPolygon() {
+        return add(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Vue sans copie, modifiable (reprojection en place)
+    public DoubleBuffer view() {
+        return open().slice(0, size);
+    }
+
+    public double[] toArray() {
+        double[] array = new double[size];
+        open().get(0, array);
+        return array;
+    }
+
+    @Override
+    public void close() {
+        if (buffer != null) {
+            pool.release(buffer);
+            buffer = null;
+            values = null;
+        }
+    }
+
+    private DoubleBuffer open() {
+        if (values == null) {
+            throw new IllegalStateException("Off-heap coordinates already released");
+        }
+        return values;
+    }
+
+    // Croissance hors tas : copie mémoire à mémoire vers un buffer deux fois plus grand
+    private void ensureCapacity(int extra) {
+        DoubleBuffer current = open();
+        if (size + extra <= current.capacity()) {
+            return;
+        }
+        ByteBuffer larger = pool.acquire(Math.max(current.capacity() * 2L, size + extra) * Double.BYTES);
+        DoubleBuffer largerValues = larger.asDoubleBuffer();
+        largerValues.put(0, current, 0, size);
+        pool.release(buffer);
+        buffer = larger;
+        values = largerValues;
+    }
+}
@@ -0,0 +1,957 @@
+package com.amine.pfe.drawing_module.domain.geometry;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Graphe planaire des contours de plusieurs entrées (polygones ou lignes). Les segments de deux entrées différentes
+ * sont nodés entre eux : croisements, sommet posé sur une arête, arêtes communes ; deux points distants de moins
+ * de la tolérance forment un seul nœud. Chaque arête garde les entrées qui la portent et, pour un polygone, le côté
+ * de son intérieur : une face est classée entrée par entrée sans test point dans polygone, sauf si aucune arête
+ * de l'entrée ne la borde.
+ */
+final class OverlayGraph {
+
+    // Appartenance d'une face aux entrées, calculée à la demande
+    interface Face {
+        boolean inside(int input);
+    }
+
+    static final int MAX_INPUTS = 64;
+
+    // En dessous, les indices de cellule de l'index des nœuds déborderaient d'un long
+    private static final double MIN_TOLERANCE = 1e-9;
+    private static final byte LINE = 0;
+    private static final byte INSIDE_LEFT = 1;
+    private static final byte INSIDE_RIGHT = -1;
+
+    private final double tolerance;
+
+    // Rings fermés de chaque entrée pour les tests point dans polygone ; null pour une ligne
+    private final List<List<double[]>> inputRings = new ArrayList<>();
+
+    // Segments : x0, y0, x1, y1 ; entrée ; côté de l'intérieur par rapport au sens de parcours
+    private double[] segments = new double[256];
+    private int[] segmentInput = new int[64];
+    private byte[] segmentSide = new byte[64];
+    private int segmentCount;
+    // Les segments d'une entrée se suivent : premier segment de chaque entrée
+    private final int[] inputFirstSegment = new int[MAX_INPUTS];
+
+    // Points de découpe des segments : segment, position sur le segment, coordonnées
+    private int[] splitSegment = new int[16];
+    private double[] splitPoints = new double[48];
+    private int splitCount;
+
+    private double[] nodes = new double[256];
+    private int nodeCount;
+    private final NodeIndex nodeIndex;
+
+    // Demi-arête 2e : de edgeNodes[2e] vers edgeNodes[2e + 1] ; 2e + 1 en sens inverse
+    private int[] edgeNodes = new int[256];
+    private long[] edgeInputs = new long[128];
+    private long[] insideLeft = new long[256];
+    private int edgeCount;
+    private final EdgeIndex edgeIndex = new EdgeIndex();
+
+    // Demi-arêtes sortantes de chaque nœud (CSR)
+    private int[] outgoingStart;
+    private int[] outgoing;
+
+    OverlayGraph(double tolerance) {
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("Tolerance must not be negative");
+        }
+        this.tolerance = Math.max(tolerance, MIN_TOLERANCE);
+        this.nodeIndex = new NodeIndex(this.tolerance);
+    }
+
+    // Polygon ou MultiPolygon "à plat" ; retourne le numéro de l'entrée
+    int addPolygons(DoubleBuffer coordinates) {
+        int input = nextInput();
+        List<double[]> rings = new ArrayList<>();
+        for (List<int[]> polygon : CoordinateLayout.of(coordinates).groups()) {
+            for (int r = 0; r < polygon.size(); r++) {
+                double[] ring = closedRing(coordinates, polygon.get(r));
+                double area = signedArea(ring);
+                if (area == 0) {
+                    throw new IllegalArgumentException("Polygon rings must enclose an area");
+                }
+                // Intérieur à gauche : contour extérieur dans le sens trigonométrique, trous dans l'autre sens
+                addSegments(ring, input, (area > 0) == (r == 0) ? INSIDE_LEFT : INSIDE_RIGHT);
+                rings.add(ring);
+            }
+        }
+        if (rings.isEmpty()) {
+            throw new IllegalArgumentException("Polygon without coordinates");
+        }
+        inputRings.add(rings);
+        return input;
+    }
+
+    // LineString ou MultiLineString "à plat"
+    int addLines(DoubleBuffer coordinates) {
+        int input = nextInput();
+        boolean empty = true;
+        for (List<int[]> group : CoordinateLayout.of(coordinates).groups()) {
+            for (int[] part : group) {
+                if (CoordinateLayout.pointCount(part) < 2) {
+                    throw new IllegalArgumentException("Lines need at least 2 positions");
+                }
+                double[] line = new double[part[1] - part[0]];
+                coordinates.get(part[0], line);
+                addSegments(line, input, LINE);
+                empty = false;
+            }
+        }
+        if (empty) {
+            throw new IllegalArgumentException("Line without coordinates");
+        }
+        inputRings.add(null);
+        return input;
+    }
+
+    /**
+     * Polygones "à plat" (un Polygon chacun, du plus grand au plus petit) formés par les faces retenues.
+     * dissolve : les arêtes entre deux faces retenues disparaissent (fusion) ; sinon chaque face reste un polygone
+     * (découpe).
+     */
+    List<double[]> overlay(Predicate<Face> keep, boolean dissolve) {
+        node();
+        build();
+
+        boolean[] live = new boolean[edgeCount];
+        Arrays.fill(live, true);
+        pruneDangles(live);
+
+        // 1. Faces du graphe complet : cycles positifs, avec pour trous les contours des autres composantes
+        int[] next = next(live);
+        List<Cycle> faces = new ArrayList<>();
+        List<Cycle> outlines = new ArrayList<>();
+        bySign(cycles(next, he -> true, components(live)), faces, outlines);
+        assignHoles(faces, outlines);
+
+        // 2. Classement : une demi-arête est retenue si la face à sa gauche l'est
+        boolean[] kept = new boolean[2 * edgeCount];
+        for (Cycle face : faces) {
+            if (keep.test(input -> inside(face, input))) {
+                face.forEachHalfEdge(he -> kept[he] = true);
+            }
+        }
+
+        // 3. Contours des faces retenues, arêtes intérieures dissoutes ou non
+        for (int e = 0; e < edgeCount; e++) {
+            live[e] = live[e] && (dissolve ? kept[2 * e] != kept[2 * e + 1] : kept[2 * e] || kept[2 * e + 1]);
+        }
+        List<Cycle> shells = new ArrayList<>();
+        List<Cycle> holes = new ArrayList<>();
+        bySign(cycles(next(live), he -> kept[he], components(live)), shells, holes);
+        assignHoles(shells, holes);
+
+        shells.sort(Comparator.comparingDouble((Cycle shell) -> shell.netArea()).reversed());
+        List<double[]> polygons = new ArrayList<>(shells.size());
+        for (Cycle shell : shells) {
+            polygons.add(pack(shell));
+        }
+        return polygons;
+    }
+
+    // Surface signée d'un ring fermé "à plat" : positive dans le sens trigonométrique
+    static double signedArea(double[] ring) {
+        return signedArea(DoubleBuffer.wrap(ring), 0, ring.length);
+    }
+
+    static double signedArea(DoubleBuffer coordinates, int start, int end) {
+        if (end - start < 6) {
+            return 0;
+        }
+        // Relative au premier sommet : évite la perte de précision sur de grandes coordonnées projetées
+        double originX = coordinates.get(start);
+        double originY = coordinates.get(start + 1);
+        double sum = 0;
+        for (int i = start + 2; i + 3 < end; i += 2) {
+            double x0 = coordinates.get(i) - originX;
+            double y0 = coordinates.get(i + 1) - originY;
+            double x1 = coordinates.get(i + 2) - originX;
+            double y1 = coordinates.get(i + 3) - originY;
+            sum += x0 * y1 - x1 * y0;
+        }
+        return sum / 2;
+    }
+
+    private int nextInput() {
+        if (inputRings.size() >= MAX_INPUTS) {
+            throw new IllegalArgumentException("At most " + MAX_INPUTS + " geometries per operation");
+        }
+        inputFirstSegment[inputRings.size()] = segmentCount;
+        return inputRings.size();
+    }
+
+    private static double[] closedRing(DoubleBuffer coordinates, int[] part) {
+        int length = part[1] - part[0];
+        boolean closed = length >= 4
+                && coordinates.get(part[0]) == coordinates.get(part[1] - 2)
+                && coordinates.get(part[0] + 1) == coordinates.get(part[1] - 1);
+        double[] ring = new double[closed ? length : length + 2];
+        coordinates.get(part[0], ring, 0, length);
+        if (!closed && length >= 2) {
+            ring[length] = ring[0];
+            ring[length + 1] = ring[1];
+        }
+        if (ring.length < 8) {
+            throw new IllegalArgumentException("Polygon rings need at least 3 distinct positions");
+        }
+        return ring;
+    }
+
+    private void addSegments(double[] path, int input, byte side) {
+        for (int i = 0; i + 3 < path.length; i += 2) {
+            if (path[i] == path[i + 2] && path[i + 1] == path[i + 3]) {
+                continue;
+            }
+            if (segmentCount == segmentInput.length) {
+                segmentInput = Arrays.copyOf(segmentInput, segmentCount * 2);
+                segmentSide = Arrays.copyOf(segmentSide, segmentCount * 2);
+                segments = Arrays.copyOf(segments, segmentCount * 8);
+            }
+            System.arraycopy(path, i, segments, 4 * segmentCount, 4);
+            segmentInput[segmentCount] = input;
+            segmentSide[segmentCount] = side;
+            segmentCount++;
+        }
+    }
+
+    // ---------------------------------------------------------------- noding
+
+    // Grille d'environ un segment par cellule ; chaque segment est inscrit dans les cellules qu'il traverse
+    private double gridX;
+    private double gridY;
+    private double cellWidth;
+    private double cellHeight;
+    private int gridSize;
+    private int[] cells = new int[16];
+
+    private void node() {
+        int n = segmentCount;
+        if (n == 0) {
+            return;
+        }
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < 4 * n; i += 2) {
+            minX = Math.min(minX, segments[i]);
+            minY = Math.min(minY, segments[i + 1]);
+            maxX = Math.max(maxX, segments[i]);
+            maxY = Math.max(maxY, segments[i + 1]);
+        }
+        gridSize = (int) Math.min(2048, Math.max(1, Math.ceil(Math.sqrt(n))));
+        gridX = minX - tolerance;
+        gridY = minY - tolerance;
+        cellWidth = Math.max((maxX - minX + 2 * tolerance) / gridSize, tolerance);
+        cellHeight = Math.max((maxY - minY + 2 * tolerance) / gridSize, tolerance);
+
+        int[] cellStart = new int[gridSize * gridSize + 1];
+        for (int s = 0; s < n; s++) {
+            int count = cells(s);
+            for (int i = 0; i < count; i++) {
+                cellStart[cells[i] + 1]++;
+            }
+        }
+        for (int c = 0; c < gridSize * gridSize; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        // Segments de chaque cellule par numéro croissant, donc groupés par entrée
+        int[] members = new int[cellStart[gridSize * gridSize]];
+        int[] fill = Arrays.copyOf(cellStart, gridSize * gridSize);
+        for (int s = 0; s < n; s++) {
+            int count = cells(s);
+            for (int i = 0; i < count; i++) {
+                members[fill[cells[i]]++] = s;
+            }
+        }
+
+        // Chaque paire n'est testée qu'une fois, même si les deux segments partagent plusieurs cellules
+        int[] testedWith = new int[n];
+        Arrays.fill(testedWith, -1);
+        for (int s = 0; s < n; s++) {
+            int input = segmentInput[s];
+            // Les rings d'un même polygone sont supposés valides : seuls les segments des entrées suivantes sont
+            // testés ; une ligne peut se croiser elle-même
+            int firstOther = inputRings.get(input) == null
+                    ? s + 1
+                    : input + 1 < inputRings.size() ? inputFirstSegment[input + 1] : n;
+            if (firstOther >= n) {
+                continue;
+            }
+            int count = cells(s);
+            for (int i = 0; i < count; i++) {
+                int end = cellStart[cells[i] + 1];
+                for (int k = lowerBound(members, cellStart[cells[i]], end, firstOther); k < end; k++) {
+                    int other = members[k];
+                    if (testedWith[other] != s) {
+                        testedWith[other] = s;
+                        intersect(s, other);
+                    }
+                }
+            }
+        }
+    }
+
+    // Cellules traversées par le segment, dans cells ; retourne leur nombre
+    private int cells(int s) {
+        double x0 = segments[4 * s];
+        double y0 = segments[4 * s + 1];
+        double x1 = segments[4 * s + 2];
+        double y1 = segments[4 * s + 3];
+        if (x0 > x1) {
+            double x = x0;
+            double y = y0;
+            x0 = x1;
+            y0 = y1;
+            x1 = x;
+            y1 = y;
+        }
+        int count = 0;
+        int firstColumn = column(x0 - tolerance);
+        int lastColumn = column(x1 + tolerance);
+        for (int cx = firstColumn; cx <= lastColumn; cx++) {
+            // Portion du segment dans la colonne, élargie de la tolérance
+            double xa = Math.max(x0, gridX + cx * cellWidth - tolerance);
+            double xb = Math.min(x1, gridX + (cx + 1) * cellWidth + tolerance);
+            double ya = y0;
+            double yb = y1;
+            if (x1 > x0) {
+                ya = y0 + (y1 - y0) * (xa - x0) / (x1 - x0);
+                yb = y0 + (y1 - y0) * (xb - x0) / (x1 - x0);
+            }
+            int firstRow = row(Math.min(ya, yb) - tolerance);
+            int lastRow = row(Math.max(ya, yb) + tolerance);
+            if (count + lastRow - firstRow + 1 > cells.length) {
+                cells = Arrays.copyOf(cells, Math.max(cells.length * 2, count + lastRow - firstRow + 1));
+            }
+            for (int cy = firstRow; cy <= lastRow; cy++) {
+                cells[count++] = cy * gridSize + cx;
+            }
+        }
+        return count;
+    }
+
+    private static int lowerBound(int[] values, int from, int to, int key) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (values[middle] < key) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return from;
+    }
+
+    private int column(double x) {
+        return Math.max(0, Math.min(gridSize - 1, (int) Math.floor((x - gridX) / cellWidth)));
+    }
+
+    private int row(double y) {
+        return Math.max(0, Math.min(gridSize - 1, (int) Math.floor((y - gridY) / cellHeight)));
+    }
+
+    private void intersect(int a, int b) {
+        double ax0 = segments[4 * a];
+        double ay0 = segments[4 * a + 1];
+        double ax1 = segments[4 * a + 2];
+        double ay1 = segments[4 * a + 3];
+        double bx0 = segments[4 * b];
+        double by0 = segments[4 * b + 1];
+        double bx1 = segments[4 * b + 2];
+        double by1 = segments[4 * b + 3];
+        if (Math.min(ax0, ax1) > Math.max(bx0, bx1) + tolerance || Math.min(bx0, bx1) > Math.max(ax0, ax1) + tolerance
+                || Math.min(ay0, ay1) > Math.max(by0, by1) + tolerance
+                || Math.min(by0, by1) > Math.max(ay0, ay1) + tolerance) {
+            return;
+        }
+
+        // Extrémité posée sur l'autre segment : contact, arête commune ou sommet en T
+        boolean touching = touch(b, ax0, ay0);
+        touching |= touch(b, ax1, ay1);
+        touching |= touch(a, bx0, by0);
+        touching |= touch(a, bx1, by1);
+        if (touching) {
+            return;
+        }
+
+        // Croisement franc : un seul point calculé, partagé par les deux segments
+        double d1 = orientation(bx0, by0, bx1, by1, ax0, ay0);
+        double d2 = orientation(bx0, by0, bx1, by1, ax1, ay1);
+        if (d1 == 0 || d2 == 0 || (d1 > 0) == (d2 > 0)) {
+            return;
+        }
+        double d3 = orientation(ax0, ay0, ax1, ay1, bx0, by0);
+        double d4 = orientation(ax0, ay0, ax1, ay1, bx1, by1);
+        if (d3 == 0 || d4 == 0 || (d3 > 0) == (d4 > 0)) {
+            return;
+        }
+        double t = d1 / (d1 - d2);
+        double x = ax0 + t * (ax1 - ax0);
+        double y = ay0 + t * (ay1 - ay0);
+        addSplit(a, t, x, y);
+        addSplit(b, d3 / (d3 - d4), x, y);
+    }
+
+    // Point à moins de la tolérance du segment : découpe du segment en ce point
+    private boolean touch(int s, double px, double py) {
+        double x0 = segments[4 * s];
+        double y0 = segments[4 * s + 1];
+        double dx = segments[4 * s + 2] - x0;
+        double dy = segments[4 * s + 3] - y0;
+        double length2 = dx * dx + dy * dy;
+        double t = length2 == 0 ? 0 : Math.max(0, Math.min(1, ((px - x0) * dx + (py - y0) * dy) / length2));
+        double ex = x0 + t * dx - px;
+        double ey = y0 + t * dy - py;
+        if (ex * ex + ey * ey > tolerance * tolerance) {
+            return false;
+        }
+        if (t > 0 && t < 1) {
+            addSplit(s, t, px, py);
+        }
+        return true;
+    }
+
+    private static double orientation(double ax, double ay, double bx, double by, double cx, double cy) {
+        return (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+    }
+
+    private void addSplit(int s, double t, double x, double y) {
+        if (splitCount == splitSegment.length) {
+            splitSegment = Arrays.copyOf(splitSegment, splitCount * 2);
+            splitPoints = Arrays.copyOf(splitPoints, splitCount * 6);
+        }
+        splitSegment[splitCount] = s;
+        splitPoints[3 * splitCount] = t;
+        splitPoints[3 * splitCount + 1] = x;
+        splitPoints[3 * splitCount + 2] = y;
+        splitCount++;
+    }
+
+    // ---------------------------------------------------------------- graphe
+
+    private void build() {
+        Integer[] order = new Integer[splitCount];
+        for (int i = 0; i < splitCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(i -> splitSegment[i])
+                .thenComparingDouble(i -> splitPoints[3 * i]));
+
+        int split = 0;
+        int previous = -1;
+        for (int s = 0; s < segmentCount; s++) {
+            double x0 = segments[4 * s];
+            double y0 = segments[4 * s + 1];
+            // Segments consécutifs d'un même contour : le nœud de fin du précédent est réutilisé
+            int from = s > 0 && previous >= 0 && segments[4 * s - 2] == x0 && segments[4 * s - 1] == y0
+                    ? previous
+                    : node(x0, y0);
+            for (; split < splitCount && splitSegment[order[split]] == s; split++) {
+                int point = 3 * order[split];
+                int to = node(splitPoints[point + 1], splitPoints[point + 2]);
+                addEdge(from, to, s);
+                from = to;
+            }
+            previous = node(segments[4 * s + 2], segments[4 * s + 3]);
+            addEdge(from, previous, s);
+        }
+
+        // Demi-arêtes sortantes de chaque nœud
+        outgoingStart = new int[nodeCount + 1];
+        for (int he = 0; he < 2 * edgeCount; he++) {
+            outgoingStart[edgeNodes[he] + 1]++;
+        }
+        for (int v = 0; v < nodeCount; v++) {
+            outgoingStart[v + 1] += outgoingStart[v];
+        }
+        outgoing = new int[2 * edgeCount];
+        int[] fill = Arrays.copyOf(outgoingStart, nodeCount);
+        for (int he = 0; he < 2 * edgeCount; he++) {
+            outgoing[fill[edgeNodes[he]]++] = he;
+        }
+    }
+
+    private int node(double x, double y) {
+        int existing = nodeIndex.find(x, y, nodes);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (2 * nodeCount == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodes.length * 2);
+        }
+        nodes[2 * nodeCount] = x;
+        nodes[2 * nodeCount + 1] = y;
+        nodeIndex.add(x, y, nodeCount);
+        return nodeCount++;
+    }
+
+    private void addEdge(int from, int to, int segment) {
+        if (from == to) {
+            return;
+        }
+        long key = from < to ? ((long) from << 32) | to : ((long) to << 32) | from;
+        int e = edgeIndex.get(key);
+        if (e < 0) {
+            if (2 * edgeCount == edgeNodes.length) {
+                edgeNodes = Arrays.copyOf(edgeNodes, edgeNodes.length * 2);
+                insideLeft = Arrays.copyOf(insideLeft, insideLeft.length * 2);
+                edgeInputs = Arrays.copyOf(edgeInputs, edgeInputs.length * 2);
+            }
+            e = edgeCount++;
+            edgeNodes[2 * e] = from;
+            edgeNodes[2 * e + 1] = to;
+            edgeIndex.put(key, e);
+        }
+        long bit = 1L << segmentInput[segment];
+        edgeInputs[e] |= bit;
+        byte side = segmentSide[segment];
+        if (side != LINE) {
+            int forward = edgeNodes[2 * e] == from ? 2 * e : 2 * e + 1;
+            insideLeft[side == INSIDE_LEFT ? forward : forward ^ 1] |= bit;
+        }
+    }
+
+    // Bouts de ligne sans issue (hors du polygone ou arrêtés à l'intérieur) : ne bordent aucune face
+    private void pruneDangles(boolean[] live) {
+        int[] degree = new int[nodeCount];
+        for (int he = 0; he < 2 * edgeCount; he++) {
+            degree[edgeNodes[he]]++;
+        }
+        int[] stack = new int[nodeCount];
+        int size = 0;
+        for (int v = 0; v < nodeCount; v++) {
+            if (degree[v] == 1) {
+                stack[size++] = v;
+            }
+        }
+        while (size > 0) {
+            int v = stack[--size];
+            for (int k = outgoingStart[v]; k < outgoingStart[v + 1]; k++) {
+                int he = outgoing[k];
+                if (live[he >> 1]) {
+                    live[he >> 1] = false;
+                    degree[v]--;
+                    int other = edgeNodes[he ^ 1];
+                    if (--degree[other] == 1) {
+                        stack[size++] = other;
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    // Demi-arête suivante sur le contour de la face à gauche : autour du nœud d'arrivée, la sortante qui précède
+    // la demi-arête retour dans l'ordre trigonométrique
+    private int[] next(boolean[] live) {
+        int[] next = new int[2 * edgeCount];
+        Arrays.fill(next, -1);
+        int[] around = new int[8];
+        double[] angles = new double[8];
+        for (int v = 0; v < nodeCount; v++) {
+            int degree = 0;
+            for (int k = outgoingStart[v]; k < outgoingStart[v + 1]; k++) {
+                int he = outgoing[k];
+                if (!live[he >> 1]) {
+                    continue;
+                }
+                if (degree == around.length) {
+                    around = Arrays.copyOf(around, degree * 2);
+                    angles = Arrays.copyOf(angles, degree * 2);
+                }
+                around[degree++] = he;
+            }
+            if (degree > 2) {
+                for (int i = 0; i < degree; i++) {
+                    int to = edgeNodes[around[i] ^ 1];
+                    angles[i] = Math.atan2(nodes[2 * to + 1] - nodes[2 * v + 1], nodes[2 * to] - nodes[2 * v]);
+                }
+                sortByAngle(around, angles, degree);
+            }
+            for (int i = 0; i < degree; i++) {
+                next[around[i] ^ 1] = around[(i - 1 + degree) % degree];
+            }
+        }
+        return next;
+    }
+
+    private static void sortByAngle(int[] halfEdges, double[] angles, int size) {
+        for (int i = 1; i < size; i++) {
+            int he = halfEdges[i];
+            double angle = angles[i];
+            int j = i - 1;
+            for (; j >= 0 && angles[j] > angle; j--) {
+                halfEdges[j + 1] = halfEdges[j];
+                angles[j + 1] = angles[j];
+            }
+            halfEdges[j + 1] = he;
+            angles[j + 1] = angle;
+        }
+    }
+
+    private int[] components(boolean[] live) {
+        int[] parent = new int[nodeCount];
+        for (int v = 0; v < nodeCount; v++) {
+            parent[v] = v;
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            if (live[e]) {
+                int a = root(parent, edgeNodes[2 * e]);
+                int b = root(parent, edgeNodes[2 * e + 1]);
+                parent[a] = b;
+            }
+        }
+        for (int v = 0; v < nodeCount; v++) {
+            parent[v] = root(parent, v);
+        }
+        return parent;
+    }
+
+    private static int root(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    private List<Cycle> cycles(int[] next, IntPredicate start, int[] components) {
+        List<Cycle> cycles = new ArrayList<>();
+        boolean[] visited = new boolean[2 * edgeCount];
+        int[] buffer = new int[64];
+        for (int first = 0; first < 2 * edgeCount; first++) {
+            if (next[first] < 0 || visited[first] || !start.test(first)) {
+                continue;
+            }
+            int size = 0;
+            int he = first;
+            do {
+                if (size == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, size * 2);
+                }
+                buffer[size++] = he;
+                visited[he] = true;
+                he = next[he];
+            } while (he != first && he >= 0 && !visited[he]);
+            if (he == first) {
+                cycles.add(new Cycle(Arrays.copyOf(buffer, size), components[edgeNodes[first]]));
+            }
+        }
+        return cycles;
+    }
+
+    // Cycles positifs : contours extérieurs ; négatifs : contour d'une composante vu de la face qui l'entoure
+    private static void bySign(List<Cycle> cycles, List<Cycle> positives, List<Cycle> negatives) {
+        for (Cycle cycle : cycles) {
+            if (cycle.area > 0) {
+                positives.add(cycle);
+            } else if (cycle.area < 0) {
+                negatives.add(cycle);
+            }
+        }
+    }
+
+    // Chaque contour négatif devient un trou de la plus petite face positive d'une autre composante qui le contient ;
+    // les composantes ne se touchent pas, un seul sommet suffit au test
+    private void assignHoles(List<Cycle> shells, List<Cycle> holes) {
+        for (Cycle hole : holes) {
+            int node = edgeNodes[hole.halfEdges[0]];
+            double x = nodes[2 * node];
+            double y = nodes[2 * node + 1];
+            Cycle best = null;
+            for (Cycle shell : shells) {
+                if (shell.component != hole.component && shell.covers(x, y)
+                        && (best == null || shell.area < best.area) && shell.contains(x, y)) {
+                    best = shell;
+                }
+            }
+            if (best != null) {
+                best.holes.add(hole);
+            }
+        }
+    }
+
+    private boolean inside(Cycle face, int input) {
+        long bit = 1L << input;
+        int[] found = { -1 };
+        face.forEachHalfEdge(he -> {
+            if (found[0] < 0 && (edgeInputs[he >> 1] & bit) != 0) {
+                found[0] = he;
+            }
+        });
+        if (found[0] >= 0) {
+            return (insideLeft[found[0]] & bit) != 0;
+        }
+        // Aucune arête de l'entrée ne borde la face : elle est entièrement d'un côté, testé au milieu d'une arête
+        List<double[]> rings = inputRings.get(input);
+        if (rings == null) {
+            throw new IllegalStateException("A line has no inside");
+        }
+        int he = face.halfEdges[0];
+        int from = edgeNodes[he];
+        int to = edgeNodes[he ^ 1];
+        double x = (nodes[2 * from] + nodes[2 * to]) / 2;
+        double y = (nodes[2 * from + 1] + nodes[2 * to + 1]) / 2;
+        boolean inside = false;
+        for (double[] ring : rings) {
+            inside ^= crosses(DoubleBuffer.wrap(ring), 0, ring.length, x, y);
+        }
+        return inside;
+    }
+
+    // Parité des croisements d'une demi-droite horizontale partant de (x, y) avec le ring
+    private static boolean crosses(DoubleBuffer ring, int start, int end, double x, double y) {
+        boolean inside = false;
+        for (int i = start; i + 3 < end; i += 2) {
+            double x0 = ring.get(i);
+            double y0 = ring.get(i + 1);
+            double x1 = ring.get(i + 2);
+            double y1 = ring.get(i + 3);
+            if ((y0 > y) != (y1 > y) && x < x0 + (y - y0) * (x1 - x0) / (y1 - y0)) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    private double[] pack(Cycle shell) {
+        int ordinates = shell.halfEdges.length * 2 + 4;
+        for (Cycle hole : shell.holes) {
+            ordinates += hole.halfEdges.length * 2 + 4;
+        }
+        PackedCoordinatesBuilder out = new PackedCoordinatesBuilder(ordinates);
+        writeRing(shell, out);
+        for (Cycle hole : shell.holes) {
+            writeRing(hole, out);
+        }
+        return out.toArray();
+    }
+
+    private void writeRing(Cycle cycle, PackedCoordinatesBuilder out) {
+        for (int he : cycle.halfEdges) {
+            int node = edgeNodes[he];
+            out.add(nodes[2 * node], nodes[2 * node + 1]);
+        }
+        int first = edgeNodes[cycle.halfEdges[0]];
+        out.add(nodes[2 * first], nodes[2 * first + 1]).endRing();
+    }
+
+    private final class Cycle {
+        final int[] halfEdges;
+        final int component;
+        final double area;
+        final double[] bounds = { Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY };
+        final List<Cycle> holes = new ArrayList<>(0);
+
+        Cycle(int[] halfEdges, int component) {
+            this.halfEdges = halfEdges;
+            this.component = component;
+            int first = edgeNodes[halfEdges[0]];
+            double originX = nodes[2 * first];
+            double originY = nodes[2 * first + 1];
+            double sum = 0;
+            for (int he : halfEdges) {
+                int from = edgeNodes[he];
+                int to = edgeNodes[he ^ 1];
+                double x0 = nodes[2 * from];
+                double y0 = nodes[2 * from + 1];
+                sum += (x0 - originX) * (nodes[2 * to + 1] - originY) - (nodes[2 * to] - originX) * (y0 - originY);
+                bounds[0] = Math.min(bounds[0], x0);
+                bounds[1] = Math.min(bounds[1], y0);
+                bounds[2] = Math.max(bounds[2], x0);
+                bounds[3] = Math.max(bounds[3], y0);
+            }
+            this.area = sum / 2;
+        }
+
+        double netArea() {
+            double net = area;
+            for (Cycle hole : holes) {
+                net += hole.area;
+            }
+            return net;
+        }
+
+        boolean covers(double x, double y) {
+            return x >= bounds[0] && x <= bounds[2] && y >= bounds[1] && y <= bounds[3];
+        }
+
+        boolean contains(double x, double y) {
+            boolean inside = false;
+            for (int he : halfEdges) {
+                int from = edgeNodes[he];
+                int to = edgeNodes[he ^ 1];
+                double x0 = nodes[2 * from];
+                double y0 = nodes[2 * from + 1];
+                double x1 = nodes[2 * to];
+                double y1 = nodes[2 * to + 1];
+                if ((y0 > y) != (y1 > y) && x < x0 + (y - y0) * (x1 - x0) / (y1 - y0)) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        void forEachHalfEdge(IntConsumer action) {
+            for (int he : halfEdges) {
+                action.accept(he);
+            }
+            for (Cycle hole : holes) {
+                for (int he : hole.halfEdges) {
+                    action.accept(he);
+                }
+            }
+        }
+    }
+
+    // Index des nœuds sur une grille de pas égal à la tolérance : un point rejoint un nœud existant à moins de la
+    // tolérance dans sa cellule ou une voisine. Adressage ouvert, cellules chaînées par nœud
+    private static final class NodeIndex {
+        private final double cell;
+        private long[] cellX = new long[1024];
+        private long[] cellY = new long[1024];
+        private int[] heads = new int[1024];
+        private int[] chain = new int[256];
+        private int used;
+
+        NodeIndex(double cell) {
+            this.cell = cell;
+            Arrays.fill(heads, -1);
+        }
+
+        int find(double x, double y, double[] nodes) {
+            long cx = (long) Math.floor(x / cell);
+            long cy = (long) Math.floor(y / cell);
+            double limit = cell * cell;
+            for (long i = cx - 1; i <= cx + 1; i++) {
+                for (long j = cy - 1; j <= cy + 1; j++) {
+                    for (int node = heads[slot(i, j)]; node >= 0; node = chain[node]) {
+                        double dx = nodes[2 * node] - x;
+                        double dy = nodes[2 * node + 1] - y;
+                        if (dx * dx + dy * dy <= limit) {
+                            return node;
+                        }
+                    }
+                }
+            }
+            return -1;
+        }
+
+        void add(double x, double y, int node) {
+            if (2 * (used + 1) > heads.length) {
+                grow();
+            }
+            if (node >= chain.length) {
+                chain = Arrays.copyOf(chain, Math.max(chain.length * 2, node + 1));
+            }
+            long cx = (long) Math.floor(x / cell);
+            long cy = (long) Math.floor(y / cell);
+            int slot = slot(cx, cy);
+            if (heads[slot] < 0) {
+                cellX[slot] = cx;
+                cellY[slot] = cy;
+                used++;
+            }
+            chain[node] = heads[slot];
+            heads[slot] = node;
+        }
+
+        // Case de la cellule, ou case libre où l'insérer
+        private int slot(long cx, long cy) {
+            int mask = heads.length - 1;
+            int slot = (int) mix(cx * 0x9E3779B97F4A7C15L + cy) & mask;
+            while (heads[slot] >= 0 && (cellX[slot] != cx || cellY[slot] != cy)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldX = cellX;
+            long[] oldY = cellY;
+            int[] oldHeads = heads;
+            cellX = new long[oldHeads.length * 2];
+            cellY = new long[oldHeads.length * 2];
+            heads = new int[oldHeads.length * 2];
+            Arrays.fill(heads, -1);
+            for (int i = 0; i < oldHeads.length; i++) {
+                if (oldHeads[i] >= 0) {
+                    int slot = slot(oldX[i], oldY[i]);
+                    cellX[slot] = oldX[i];
+                    cellY[slot] = oldY[i];
+                    heads[slot] = oldHeads[i];
+                }
+            }
+        }
+    }
+
+    // Arêtes par paire de nœuds (plus petit en poids fort) : une arête commune à deux entrées n'existe qu'une fois
+    private static final class EdgeIndex {
+        private long[] keys = new long[1024];
+        private int[] values = new int[1024];
+        private int size;
+
+        EdgeIndex() {
+            Arrays.fill(values, -1);
+        }
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = (int) mix(key) & mask; values[slot] >= 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if (2 * (size + 1) > keys.length) {
+                long[] oldKeys = keys;
+                int[] oldValues = values;
+                keys = new long[oldKeys.length * 2];
+                values = new int[oldKeys.length * 2];
+                Arrays.fill(values, -1);
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldValues[i] >= 0) {
+                        insert(oldKeys[i], oldValues[i]);
+                    }
+                }
+            }
+            insert(key, value);
+            size++;
+        }
+
+        private void insert(long key, int value) {
+            int mask = keys.length - 1;
+            int slot = (int) mix(key) & mask;
+            while (values[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,53 @@
+package com.amine.pfe.drawing_module.domain.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Construit le tableau de coordonnées "à plat" de FeatureGeometry :
+ * x,y successifs, NaN,NaN en fin de ring/ligne, -Infinity,-Infinity en fin de polygon (MultiPolygon).
+ */
+public final class PackedCoordinatesBuilder implements CoordinateSink {
+
+    private double[] values;
+    private int size;
+
+    public PackedCoordinatesBuilder() {
+        this(64);
+    }
+
+    public PackedCoordinatesBuilder(int expectedOrdinates) {
+        this.values = new double[Math.max(expectedOrdinates, 4)];
+    }
+
+    @Override
+    public PackedCoordinatesBuilder add(double x, double y) {
+        ensureCapacity(2);
+        values[size++] = x;
+        values[size++] = y;
+        return this;
+    }
+
+    @Override
+    public PackedCoordinatesBuilder endRing() {
+        return add(Double.NaN, Double.NaN);
+    }
+
+    @Override
+    public PackedCoordinatesBuilder endPolygon() {
+        return add(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.amine.pfe.drawing_module.domain.geometry;
+
+import java.nio.DoubleBuffer;
+import java.util.List;
+
+/**
+ * Découpe par une ligne, fusion et découpage par une emprise de polygones, calculés sur les coordonnées "à plat".
+ * Chaque polygone retourné est un Polygon "à plat" (contour extérieur puis trous, NaN,NaN en fin de ring),
+ * du plus grand au plus petit.
+ */
+public final class PolygonOverlay {
+
+    public enum ClipMode {
+        // Partie de la feature dans l'emprise
+        INSIDE,
+        // Partie de la feature hors de l'emprise
+        OUTSIDE
+    }
+
+    public static final int MAX_POLYGONS = OverlayGraph.MAX_INPUTS;
+
+    // Écart relatif de surface toléré entre l'union et la somme des surfaces fusionnées
+    private static final double OVERLAP_TOLERANCE = 1e-9;
+
+    private PolygonOverlay() {
+    }
+
+    // Pièces du Polygon ou MultiPolygon coupé par une LineString ou MultiLineString
+    public static List<double[]> split(DoubleBuffer polygon, DoubleBuffer line, double tolerance) {
+        OverlayGraph graph = new OverlayGraph(tolerance);
+        int subject = graph.addPolygons(polygon);
+        graph.addLines(line);
+        List<double[]> pieces = graph.overlay(face -> face.inside(subject), false);
+        if (pieces.size() < 2) {
+            throw new IllegalArgumentException("The line does not split the feature");
+        }
+        return pieces;
+    }
+
+    // Partie du polygone dans (INSIDE) ou hors de (OUTSIDE) l'emprise ; vide si rien n'en reste
+    public static List<double[]> clip(DoubleBuffer polygon, DoubleBuffer extent, ClipMode mode, double tolerance) {
+        OverlayGraph graph = new OverlayGraph(tolerance);
+        int subject = graph.addPolygons(polygon);
+        int clip = graph.addPolygons(extent);
+        return graph.overlay(mode == ClipMode.INSIDE
+                ? face -> face.inside(subject) && face.inside(clip)
+                : face -> face.inside(subject) && !face.inside(clip), true);
+    }
+
+    // Union de polygones voisins (frontière commune) ou disjoints ; IllegalArgumentException s'ils se recouvrent
+    public static List<double[]> merge(List<DoubleBuffer> polygons, double tolerance) {
+        if (polygons.size() < 2) {
+            throw new IllegalArgumentException("A merge needs at least 2 polygons");
+        }
+        OverlayGraph graph = new OverlayGraph(tolerance);
+        double expected = 0;
+        for (DoubleBuffer polygon : polygons) {
+            graph.addPolygons(polygon);
+            expected += area(polygon);
+        }
+        List<double[]> merged = graph.overlay(face -> {
+            for (int input = 0; input < polygons.size(); input++) {
+                if (face.inside(input)) {
+                    return true;
+                }
+            }
+            return false;
+        }, true);
+
+        // Sans recouvrement, la surface de l'union est la somme des surfaces
+        double union = 0;
+        for (double[] polygon : merged) {
+            union += area(DoubleBuffer.wrap(polygon));
+        }
+        if (union < expected * (1 - OVERLAP_TOLERANCE)) {
+            throw new IllegalArgumentException("Merged features overlap");
+        }
+        return merged;
+    }
+
+    // Surface d'un Polygon ou MultiPolygon "à plat", trous déduits, quel que soit le sens des rings
+    public static double area(DoubleBuffer coordinates) {
+        double area = 0;
+        for (List<int[]> polygon : CoordinateLayout.of(coordinates).groups()) {
+            for (int r = 0; r < polygon.size(); r++) {
+                int[] ring = polygon.get(r);
+                double ringArea = Math.abs(OverlayGraph.signedArea(coordinates, ring[0], ring[1]));
+                area += r == 0 ? ringArea : -ringArea;
+            }
+        }
+        return area;
+    }
+
+    // Polygones "à plat" réunis en un MultiPolygon, ou le polygone seul pour un Polygon
+    public static double[] pack(List<double[]> polygons, boolean multi) {
+        if (!multi) {
+            if (polygons.size() != 1) {
+                throw new IllegalArgumentException("A Polygon holds a single polygon, got " + polygons.size());
+            }
+            return polygons.get(0);
+        }
+        int length = 0;
+        for (double[] polygon : polygons) {
+            length += polygon.length + 2;
+        }
+        PackedCoordinatesBuilder out = new PackedCoordinatesBuilder(length);
+        for (double[] polygon : polygons) {
+            for (int i = 0; i + 1 < polygon.length; i += 2) {
+                out.add(polygon[i], polygon[i + 1]);
+            }
+            out.endPolygon();
+        }
+        return out.toArray();
+    }
+}
@@ -0,0 +1,203 @@
+package com.amine.pfe.drawing_module.domain.geometry;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+/**
+ * Déplacement d'un sommet ou remplacement d'un tronçon de frontière, appliqué à l'identique à toutes les
+ * géométries qui le partagent. from et to sont des coordonnées "à plat" (x,y successifs) :
+ * <ul>
+ * <li>un seul point : chaque sommet confondu avec from (à la tolérance près) est déplacé en to</li>
+ * <li>plusieurs points : le tronçon from, parcouru dans un sens ou dans l'autre par des sommets consécutifs
+ * d'un ring ou d'une ligne, est remplacé par to ; les deux extrémités restent fixes</li>
+ * </ul>
+ * Une géométrie qui touche le tronçon sans en porter les sommets (jonction en T) n'est pas modifiée.
+ */
+public final class SharedBoundary {
+
+    private final double[] from;
+    private final double[] to;
+    private final double tolerance;
+
+    private SharedBoundary(double[] from, double[] to, double tolerance) {
+        this.from = from;
+        this.to = to;
+        this.tolerance = tolerance;
+    }
+
+    public static SharedBoundary of(double[] from, double[] to, double tolerance) {
+        if (from == null || to == null || from.length < 2 || to.length < 2
+                || from.length % 2 != 0 || to.length % 2 != 0) {
+            throw new IllegalArgumentException("from and to must hold at least one x,y position");
+        }
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("Tolerance must not be negative");
+        }
+        for (double value : from) {
+            requireFinite(value);
+        }
+        for (double value : to) {
+            requireFinite(value);
+        }
+        SharedBoundary boundary = new SharedBoundary(from, to, tolerance);
+        if (from.length == 2 && to.length != 2) {
+            throw new IllegalArgumentException("A vertex move needs a single target position");
+        }
+        if (from.length > 2 && (to.length < 4
+                || !boundary.near(to[0], to[1], from, 0)
+                || !boundary.near(to[to.length - 2], to[to.length - 1], from, from.length - 2))) {
+            throw new IllegalArgumentException("An edge reshape must keep the end vertices of the edge");
+        }
+        return boundary;
+    }
+
+    public boolean isVertexMove() {
+        return from.length == 2;
+    }
+
+    // Emprise de from et to élargie de la tolérance : minX, minY, maxX, maxY
+    public double[] bounds() {
+        double[] bounds = { Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE };
+        extend(bounds, from);
+        extend(bounds, to);
+        bounds[0] -= tolerance;
+        bounds[1] -= tolerance;
+        bounds[2] += tolerance;
+        bounds[3] += tolerance;
+        return bounds;
+    }
+
+    // Nouvelles coordonnées, ou null si la géométrie ne porte pas la frontière
+    public double[] apply(DoubleBuffer coordinates) {
+        CoordinateLayout layout = CoordinateLayout.of(coordinates);
+        PackedCoordinatesBuilder out = new PackedCoordinatesBuilder(coordinates.limit() + to.length);
+        boolean changed = false;
+        int cursor = 0;
+        for (var group : layout.groups()) {
+            for (int[] part : group) {
+                copy(coordinates, cursor, part[0], out);
+                changed |= isVertexMove()
+                        ? moveVertex(coordinates, part, out)
+                        : reshape(coordinates, part, out);
+                cursor = part[1];
+            }
+        }
+        copy(coordinates, cursor, coordinates.limit(), out);
+        return changed ? out.toArray() : null;
+    }
+
+    private boolean moveVertex(DoubleBuffer coordinates, int[] part, PackedCoordinatesBuilder out) {
+        boolean moved = false;
+        for (int i = part[0]; i < part[1]; i += 2) {
+            if (near(coordinates.get(i), coordinates.get(i + 1), from, 0)) {
+                out.add(to[0], to[1]);
+                moved = true;
+            } else {
+                out.add(coordinates.get(i), coordinates.get(i + 1));
+            }
+        }
+        return moved;
+    }
+
+    private boolean reshape(DoubleBuffer coordinates, int[] part, PackedCoordinatesBuilder out) {
+        int points = CoordinateLayout.pointCount(part);
+        int pathPoints = from.length / 2;
+        boolean ring = points >= 4 && samePosition(coordinates, part[0], part[1] - 2);
+        // Un ring est parcouru comme une suite cyclique de sommets distincts
+        int vertices = ring ? points - 1 : points;
+
+        for (int start = 0; start < vertices; start++) {
+            if (!ring && start + pathPoints > vertices) {
+                break;
+            }
+            for (boolean reversed : new boolean[] { false, true }) {
+                if (matches(coordinates, part[0], vertices, start, reversed)) {
+                    writeReshaped(coordinates, part[0], vertices, ring, start, reversed, out);
+                    return true;
+                }
+            }
+        }
+        copy(coordinates, part[0], part[1], out);
+        return false;
+    }
+
+    private boolean matches(DoubleBuffer coordinates, int offset, int vertices, int start, boolean reversed) {
+        int pathPoints = from.length / 2;
+        if (pathPoints > vertices) {
+            return false;
+        }
+        for (int k = 0; k < pathPoints; k++) {
+            int vertex = offset + 2 * ((start + k) % vertices);
+            int pathIndex = 2 * (reversed ? pathPoints - 1 - k : k);
+            if (!near(coordinates.get(vertex), coordinates.get(vertex + 1), from, pathIndex)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Ring : réécrit à partir du début du tronçon (même ring, point de départ décalé) puis refermé
+    private void writeReshaped(DoubleBuffer coordinates, int offset, int vertices, boolean ring, int start,
+            boolean reversed, PackedCoordinatesBuilder out) {
+        int pathPoints = from.length / 2;
+        int replacementPoints = to.length / 2;
+        for (int k = 0; k < vertices; k++) {
+            int index = ring ? (start + k) % vertices : k;
+            int position = ring ? k : k - start;
+            if (position > 0 && position < pathPoints - 1) {
+                // Ancien sommet intérieur du tronçon
+                continue;
+            }
+            if (position == pathPoints - 1) {
+                // Sommets intérieurs de to dans le sens de parcours de la géométrie
+                for (int r = 1; r < replacementPoints - 1; r++) {
+                    int source = 2 * (reversed ? replacementPoints - 1 - r : r);
+                    out.add(to[source], to[source + 1]);
+                }
+            }
+            add(coordinates, offset, index, out);
+        }
+        if (ring) {
+            add(coordinates, offset, start, out);
+        }
+    }
+
+    private static void add(DoubleBuffer coordinates, int offset, int vertex, PackedCoordinatesBuilder out) {
+        out.add(coordinates.get(offset + 2 * vertex), coordinates.get(offset + 2 * vertex + 1));
+    }
+
+    private static void copy(DoubleBuffer coordinates, int start, int end, PackedCoordinatesBuilder out) {
+        for (int i = start; i + 1 < end; i += 2) {
+            out.add(coordinates.get(i), coordinates.get(i + 1));
+        }
+    }
+
+    private boolean samePosition(DoubleBuffer coordinates, int first, int second) {
+        return Math.abs(coordinates.get(first) - coordinates.get(second)) <= tolerance
+                && Math.abs(coordinates.get(first + 1) - coordinates.get(second + 1)) <= tolerance;
+    }
+
+    private boolean near(double x, double y, double[] positions, int index) {
+        return Math.abs(x - positions[index]) <= tolerance && Math.abs(y - positions[index + 1]) <= tolerance;
+    }
+
+    private static void extend(double[] bounds, double[] positions) {
+        for (int i = 0; i < positions.length; i += 2) {
+            bounds[0] = Math.min(bounds[0], positions[i]);
+            bounds[1] = Math.min(bounds[1], positions[i + 1]);
+            bounds[2] = Math.max(bounds[2], positions[i]);
+            bounds[3] = Math.max(bounds[3], positions[i + 1]);
+        }
+    }
+
+    private static void requireFinite(double value) {
+        if (!Double.isFinite(value)) {
+            throw new IllegalArgumentException("Positions must be finite numbers");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SharedBoundary[from=" + Arrays.toString(from) + ", to=" + Arrays.toString(to) + "]";
+    }
+}
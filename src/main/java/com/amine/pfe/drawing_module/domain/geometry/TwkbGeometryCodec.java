@@ -0,0 +1,219 @@
+package com.amine.pfe.drawing_module.domain.geometry;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.DoubleBuffer;
+import java.util.List;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
+
+/**
+ * TWKB 2D : coordonnées arrondies à la précision donnée, delta par rapport au point précédent,
+ * zigzag puis varint. Sans bbox, taille ni idlist en écriture.
+ * Avec la précision par défaut (6 décimales, celle du GML envoyé à GeoServer) l'arrondi est sans effet.
+ */
+public final class TwkbGeometryCodec implements GeometryCodec {
+
+    public static final int DEFAULT_PRECISION = 6;
+
+    private static final int FLAG_BBOX = 0x01;
+    private static final int FLAG_SIZE = 0x02;
+    private static final int FLAG_UNSUPPORTED = 0x04 | 0x08 | 0x10;
+
+    private final int precision;
+    private final double scale;
+
+    public TwkbGeometryCodec() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public TwkbGeometryCodec(int precision) {
+        if (precision < -7 || precision > 7) {
+            throw new IllegalArgumentException("Précision TWKB hors bornes [-7, 7]: " + precision);
+        }
+        this.precision = precision;
+        this.scale = Math.pow(10, precision);
+    }
+
+    @Override
+    public GeometryEncoding encoding() {
+        return GeometryEncoding.TWKB;
+    }
+
+    @Override
+    public byte[] encode(FeatureGeometry geometry) {
+        int type = GeometryCodec.typeCode(geometry.getType());
+        DoubleBuffer coordinates = geometry.coordinateBuffer();
+        List<List<int[]>> groups = CoordinateLayout.of(coordinates).groups();
+        if (groups.isEmpty()) {
+            throw new IllegalArgumentException("Géométrie vide");
+        }
+
+        Writer writer = new Writer(coordinates.limit() * 3 + 16);
+        writer.out.write((int) (zigzag(precision) << 4) | type);
+        writer.out.write(0);
+
+        switch (type) {
+            case POINT -> writer.point(coordinates, 0);
+            case LINESTRING -> writer.points(coordinates, groups.get(0).get(0));
+            case POLYGON, MULTILINESTRING -> writer.parts(coordinates, groups.get(0));
+            case MULTIPOLYGON -> {
+                writer.varint(groups.size());
+                for (List<int[]> rings : groups) {
+                    writer.parts(coordinates, rings);
+                }
+            }
+            default -> throw new IllegalArgumentException("Type de géométrie non supporté: " + type);
+        }
+        return writer.out.toByteArray();
+    }
+
+    @Override
+    public FeatureGeometry decode(byte[] data) {
+        Reader reader = new Reader(data);
+        int typeAndPrecision = reader.readByte();
+        int type = typeAndPrecision & 0x0F;
+        double divisor = Math.pow(10, unzigzag(typeAndPrecision >>> 4));
+
+        int metadata = reader.readByte();
+        if ((metadata & FLAG_UNSUPPORTED) != 0) {
+            throw new IllegalArgumentException("En-tête TWKB non supporté: " + metadata);
+        }
+        if ((metadata & FLAG_SIZE) != 0) {
+            reader.varint();
+        }
+        if ((metadata & FLAG_BBOX) != 0) {
+            for (int i = 0; i < 4; i++)
+                reader.varint();
+        }
+
+        PackedCoordinatesBuilder builder = new PackedCoordinatesBuilder(data.length);
+        switch (type) {
+            case POINT -> reader.point(builder, divisor);
+            case LINESTRING -> reader.points(builder, divisor);
+            case POLYGON, MULTILINESTRING -> reader.parts(builder, divisor);
+            case MULTIPOLYGON -> {
+                int polygons = reader.count();
+                for (int i = 0; i < polygons; i++) {
+                    reader.parts(builder, divisor);
+                    builder.endPolygon();
+                }
+            }
+            default -> throw new IllegalArgumentException("Type TWKB non supporté: " + type);
+        }
+
+        return FeatureGeometry.builder()
+                .type(GeometryCodec.typeName(type))
+                .coordinates(builder.toArray())
+                .build();
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private final class Writer {
+        private final ByteArrayOutputStream out;
+        private long lastX;
+        private long lastY;
+
+        Writer(int expectedSize) {
+            this.out = new ByteArrayOutputStream(expectedSize);
+        }
+
+        void parts(DoubleBuffer coordinates, List<int[]> parts) {
+            varint(parts.size());
+            for (int[] part : parts) {
+                points(coordinates, part);
+            }
+        }
+
+        void points(DoubleBuffer coordinates, int[] part) {
+            varint(CoordinateLayout.pointCount(part));
+            for (int i = part[0]; i < part[1]; i += 2) {
+                point(coordinates, i);
+            }
+        }
+
+        void point(DoubleBuffer coordinates, int index) {
+            long x = Math.round(coordinates.get(index) * scale);
+            long y = Math.round(coordinates.get(index + 1) * scale);
+            varint(zigzag(x - lastX));
+            varint(zigzag(y - lastY));
+            lastX = x;
+            lastY = y;
+        }
+
+        void varint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+        private long lastX;
+        private long lastY;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("TWKB tronqué");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Varint TWKB invalide");
+        }
+
+        // Chaque élément occupe au moins un octet : borne les tailles annoncées
+        int count() {
+            long count = varint();
+            if (count > data.length - position) {
+                throw new IllegalArgumentException("Nombre d'éléments TWKB invalide: " + count);
+            }
+            return (int) count;
+        }
+
+        void parts(PackedCoordinatesBuilder builder, double divisor) {
+            int parts = count();
+            for (int i = 0; i < parts; i++) {
+                points(builder, divisor);
+                builder.endRing();
+            }
+        }
+
+        void points(PackedCoordinatesBuilder builder, double divisor) {
+            int points = count();
+            for (int i = 0; i < points; i++) {
+                point(builder, divisor);
+            }
+        }
+
+        void point(PackedCoordinatesBuilder builder, double divisor) {
+            lastX += unzigzag(varint());
+            lastY += unzigzag(varint());
+            builder.add(lastX / divisor, lastY / divisor);
+        }
+    }
+}
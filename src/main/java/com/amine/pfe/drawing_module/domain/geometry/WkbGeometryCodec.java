@@ -0,0 +1,197 @@
+package com.amine.pfe.drawing_module.domain.geometry;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.List;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
+
+/**
+ * WKB OGC 2D (little-endian en écriture ; les deux ordres et le SRID EWKB acceptés en lecture).
+ */
+public final class WkbGeometryCodec implements GeometryCodec {
+
+    private static final int HEADER_BYTES = 1 + 4;
+    private static final int EWKB_SRID_FLAG = 0x20000000;
+    private static final int EWKB_DIMENSION_FLAGS = 0xC0000000;
+
+    @Override
+    public GeometryEncoding encoding() {
+        return GeometryEncoding.WKB;
+    }
+
+    @Override
+    public byte[] encode(FeatureGeometry geometry) {
+        int type = GeometryCodec.typeCode(geometry.getType());
+        DoubleBuffer coordinates = geometry.coordinateBuffer();
+        List<List<int[]>> groups = CoordinateLayout.of(coordinates).groups();
+        if (groups.isEmpty()) {
+            throw new IllegalArgumentException("Géométrie vide");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(type, groups)).order(ByteOrder.LITTLE_ENDIAN);
+        switch (type) {
+            case POINT -> {
+                header(buffer, POINT);
+                buffer.putDouble(coordinates.get(0)).putDouble(coordinates.get(1));
+            }
+            case LINESTRING -> {
+                header(buffer, LINESTRING);
+                points(buffer, coordinates, groups.get(0).get(0));
+            }
+            case POLYGON -> polygon(buffer, coordinates, groups.get(0));
+            case MULTILINESTRING -> {
+                List<int[]> lines = groups.get(0);
+                header(buffer, MULTILINESTRING);
+                buffer.putInt(lines.size());
+                for (int[] line : lines) {
+                    header(buffer, LINESTRING);
+                    points(buffer, coordinates, line);
+                }
+            }
+            case MULTIPOLYGON -> {
+                header(buffer, MULTIPOLYGON);
+                buffer.putInt(groups.size());
+                for (List<int[]> rings : groups) {
+                    polygon(buffer, coordinates, rings);
+                }
+            }
+            default -> throw new IllegalArgumentException("Type de géométrie non supporté: " + type);
+        }
+        return buffer.array();
+    }
+
+    private static int encodedSize(int type, List<List<int[]>> groups) {
+        int size = HEADER_BYTES;
+        switch (type) {
+            case POINT -> size += 16;
+            case LINESTRING -> size += 4 + 16 * CoordinateLayout.pointCount(groups.get(0).get(0));
+            case POLYGON -> size += ringsSize(groups.get(0));
+            case MULTILINESTRING -> {
+                size += 4;
+                for (List<int[]> lines : groups)
+                    for (int[] line : lines)
+                        size += HEADER_BYTES + 4 + 16 * CoordinateLayout.pointCount(line);
+            }
+            case MULTIPOLYGON -> {
+                size += 4;
+                for (List<int[]> rings : groups)
+                    size += HEADER_BYTES + ringsSize(rings);
+            }
+            default -> throw new IllegalArgumentException("Type de géométrie non supporté: " + type);
+        }
+        return size;
+    }
+
+    private static int ringsSize(List<int[]> rings) {
+        int size = 4;
+        for (int[] ring : rings)
+            size += 4 + 16 * CoordinateLayout.pointCount(ring);
+        return size;
+    }
+
+    private static void header(ByteBuffer buffer, int type) {
+        buffer.put((byte) 1).putInt(type);
+    }
+
+    private static void polygon(ByteBuffer buffer, DoubleBuffer coordinates, List<int[]> rings) {
+        header(buffer, POLYGON);
+        buffer.putInt(rings.size());
+        for (int[] ring : rings) {
+            points(buffer, coordinates, ring);
+        }
+    }
+
+    private static void points(ByteBuffer buffer, DoubleBuffer coordinates, int[] part) {
+        buffer.putInt(CoordinateLayout.pointCount(part));
+        for (int i = part[0]; i < part[1]; i++) {
+            buffer.putDouble(coordinates.get(i));
+        }
+    }
+
+    @Override
+    public FeatureGeometry decode(byte[] data) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            PackedCoordinatesBuilder builder = new PackedCoordinatesBuilder(data.length / 8);
+            int type = readHeader(buffer);
+
+            switch (type) {
+                case POINT -> builder.add(buffer.getDouble(), buffer.getDouble());
+                case LINESTRING -> readPoints(buffer, builder);
+                case POLYGON -> readRings(buffer, builder);
+                case MULTILINESTRING -> {
+                    int lines = count(buffer);
+                    for (int i = 0; i < lines; i++) {
+                        expect(readHeader(buffer), LINESTRING);
+                        readPoints(buffer, builder);
+                        builder.endRing();
+                    }
+                }
+                case MULTIPOLYGON -> {
+                    int polygons = count(buffer);
+                    for (int i = 0; i < polygons; i++) {
+                        expect(readHeader(buffer), POLYGON);
+                        readRings(buffer, builder);
+                        builder.endPolygon();
+                    }
+                }
+                default -> throw new IllegalArgumentException("Type WKB non supporté: " + type);
+            }
+
+            return FeatureGeometry.builder()
+                    .type(GeometryCodec.typeName(type))
+                    .coordinates(builder.toArray())
+                    .build();
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("WKB tronqué", e);
+        }
+    }
+
+    private static int readHeader(ByteBuffer buffer) {
+        buffer.order(buffer.get() == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+        int type = buffer.getInt();
+        if ((type & EWKB_SRID_FLAG) != 0) {
+            buffer.getInt();
+            type &= ~EWKB_SRID_FLAG;
+        }
+        // Z/M : flags EWKB ou codes ISO (1000, 2000, 3000)
+        if ((type & EWKB_DIMENSION_FLAGS) != 0 || type > 1000) {
+            throw new IllegalArgumentException("Seules les géométries 2D sont supportées");
+        }
+        return type;
+    }
+
+    private static void expect(int actual, int expected) {
+        if (actual != expected) {
+            throw new IllegalArgumentException("Type WKB " + expected + " attendu, " + actual + " trouvé");
+        }
+    }
+
+    // Borne le nombre d'éléments annoncé par ce qui reste réellement dans le buffer
+    private static int count(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalArgumentException("Nombre d'éléments WKB invalide: " + count);
+        }
+        return count;
+    }
+
+    private static void readRings(ByteBuffer buffer, PackedCoordinatesBuilder builder) {
+        int rings = count(buffer);
+        for (int i = 0; i < rings; i++) {
+            readPoints(buffer, builder);
+            builder.endRing();
+        }
+    }
+
+    private static void readPoints(ByteBuffer buffer, PackedCoordinatesBuilder builder) {
+        int points = count(buffer);
+        for (int i = 0; i < points; i++) {
+            builder.add(buffer.getDouble(), buffer.getDouble());
+        }
+    }
+}
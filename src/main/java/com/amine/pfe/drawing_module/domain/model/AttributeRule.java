@@ -0,0 +1,13 @@
+package com.amine.pfe.drawing_module.domain.model;
+
+/**
+ * Héritage d'un attribut par les features issues d'une découpe, d'une fusion ou d'un découpage par emprise.
+ */
+public enum AttributeRule {
+    // Même valeur sur chaque feature produite ; pour une fusion, celle de la première feature
+    COPY,
+    // Attribut numérique proportionnel à la surface (découpe) ou somme des valeurs (fusion)
+    AREA,
+    // Conservé par la feature modifiée, absent des features créées
+    NONE
+}
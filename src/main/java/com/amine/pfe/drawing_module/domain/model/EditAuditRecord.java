@@ -0,0 +1,13 @@
+package com.amine.pfe.drawing_module.domain.model;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Trace d'une édition appliquée : auteur, requête, feature et propriétés avant/après.
+ * featureId est null pour une édition en masse par filtre, before est null si l'état précédent n'était pas en cache.
+ */
+public record EditAuditRecord(Instant editedAt, String editor, String correlationId, UUID layerId, String featureId,
+        FeatureOperation.Type operation, Map<String, Object> before, Map<String, Object> after) {
+}
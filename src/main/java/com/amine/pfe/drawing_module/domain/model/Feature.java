@@ -15,4 +15,6 @@ public class Feature {
     private String id;
     private FeatureGeometry geometry;
     private Map<String, Object> properties;
+    // CRS des coordonnées de la géométrie ; null = CRS par défaut (EPSG:3857)
+    private String crs;
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.amine.pfe.drawing_module.domain.model;
+
+import java.util.UUID;
+
+/**
+ * Changement appliqué sur une feature, tel qu'enregistré dans le journal de synchronisation.
+ * Le jeton est attribué à l'enregistrement (0 avant) et croît avec l'ordre d'enregistrement.
+ */
+public record FeatureChange(long token, UUID layerId, String featureId, FeatureOperation.Type operation) {
+
+    public static FeatureChange of(UUID layerId, String featureId, FeatureOperation.Type operation) {
+        return new FeatureChange(0, layerId, featureId, operation);
+    }
+}
@@ -0,0 +1,64 @@
+package com.amine.pfe.drawing_module.domain.model;
+
+import java.util.List;
+
+/**
+ * Sélection de features pour une édition en masse : soit une liste d'identifiants, soit une emprise et/ou
+ * des conditions sur les attributs, combinées en ET. Un filtre vide est refusé (il viserait toute la couche).
+ */
+public record FeatureFilter(List<String> featureIds, Envelope bbox, List<Condition> conditions) {
+
+    // Emprise dans le CRS donné ; sans CRS, celui de la couche
+    public record Envelope(double minX, double minY, double maxX, double maxY, String crs) {
+
+        public Envelope {
+            if (!(minX <= maxX && minY <= maxY)) {
+                throw new IllegalArgumentException("Invalid bbox: min must not exceed max");
+            }
+        }
+    }
+
+    public record Condition(String property, Operator operator, Object value) {
+
+        public Condition {
+            if (property == null || property.isBlank() || operator == null) {
+                throw new IllegalArgumentException("A condition needs a property and an operator");
+            }
+            if (value == null && operator != Operator.IS_NULL) {
+                throw new IllegalArgumentException("Condition on " + property + " needs a value");
+            }
+        }
+    }
+
+    public enum Operator {
+        EQ,
+        NE,
+        LT,
+        LE,
+        GT,
+        GE,
+        // Jokers : % pour plusieurs caractères, _ pour un seul, \ pour échapper
+        LIKE,
+        IS_NULL
+    }
+
+    public FeatureFilter {
+        featureIds = featureIds != null ? List.copyOf(featureIds) : List.of();
+        conditions = conditions != null ? List.copyOf(conditions) : List.of();
+        if (featureIds.stream().anyMatch(id -> id == null || id.isBlank())) {
+            throw new IllegalArgumentException("Feature ids must not be blank");
+        }
+        boolean hasPredicates = bbox != null || !conditions.isEmpty();
+        // Filter Encoding 1.1 : un filtre FeatureId ne se combine pas avec d'autres prédicats
+        if (!featureIds.isEmpty() && hasPredicates) {
+            throw new IllegalArgumentException("Feature ids cannot be combined with a bbox or conditions");
+        }
+        if (featureIds.isEmpty() && !hasPredicates) {
+            throw new IllegalArgumentException("A bulk edit needs feature ids, a bbox or at least one condition");
+        }
+    }
+
+    public boolean byIds() {
+        return !featureIds.isEmpty();
+    }
+}
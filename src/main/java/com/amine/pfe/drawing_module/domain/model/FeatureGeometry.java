@@ -1,14 +1,18 @@
 package com.amine.pfe.drawing_module.domain.model;
 
+import java.nio.DoubleBuffer;
 import java.util.Arrays;
 import java.util.List;
 
+import com.amine.pfe.drawing_module.domain.geometry.OffHeapCoordinates;
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 @Data
@@ -19,6 +23,11 @@ public class FeatureGeometry {
     private String type;
     private double[] coordinates;
 
+    // Très grandes géométries : coordonnées hors tas (coordinates est alors null), à libérer via release()
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private transient OffHeapCoordinates offHeapCoordinates;
+
     // Constructeur pour parsing direct depuis GeoJSON
     @JsonCreator
     public FeatureGeometry(@JsonProperty("type") String type, 
@@ -41,4 +50,44 @@ public class FeatureGeometry {
         }
         throw new IllegalArgumentException("Format de coordonnées non supporté");
     }
+
+    // Hors tas : copie sur le tas, réservée aux chemins qui ne lisent pas coordinateBuffer()
+    public double[] getCoordinates() {
+        if (coordinates == null && offHeapCoordinates != null) {
+            return offHeapCoordinates.toArray();
+        }
+        return coordinates;
+    }
+
+    // Vue sans copie sur les coordonnées, sur le tas comme hors tas ; les écritures modifient la géométrie
+    public DoubleBuffer coordinateBuffer() {
+        if (offHeapCoordinates != null) {
+            return offHeapCoordinates.view();
+        }
+        return coordinates != null ? DoubleBuffer.wrap(coordinates) : DoubleBuffer.allocate(0);
+    }
+
+    @JsonIgnore
+    public boolean isOffHeap() {
+        return offHeapCoordinates != null;
+    }
+
+    // Copie sur le tas d'une géométrie qui doit survivre à la requête (cache)
+    public FeatureGeometry onHeap() {
+        return isOffHeap() ? new FeatureGeometry(type, getCoordinates(), null) : this;
+    }
+
+    // Rend le buffer hors tas au pool ; sans effet pour une géométrie sur le tas
+    public void release() {
+        if (offHeapCoordinates != null) {
+            offHeapCoordinates.close();
+            offHeapCoordinates = null;
+        }
+    }
+
+    // Jamais le tableau complet dans les logs : un polygone de 100k sommets pèse plusieurs Mo en texte
+    @Override
+    public String toString() {
+        return String.valueOf(GeometrySummary.of(this));
+    }
 }
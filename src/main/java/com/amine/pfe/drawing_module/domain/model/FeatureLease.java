@@ -0,0 +1,18 @@
+package com.amine.pfe.drawing_module.domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Bail d'édition exclusif sur une feature, partagé entre les instances du module.
+ * Seul le détenteur du jeton peut modifier ou supprimer la feature jusqu'à expiration.
+ */
+public record FeatureLease(UUID layerId, String featureId, String holder, UUID token, Instant expiresAt) {
+
+    // Bande de verrouillage d'une feature : deux features de la même bande sérialisent leurs changements de bail
+    public static int stripe(UUID layerId, String featureId, int stripes) {
+        int hash = layerId.hashCode() * 31 + featureId.hashCode();
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash * 0x9E3779B9, stripes);
+    }
+}
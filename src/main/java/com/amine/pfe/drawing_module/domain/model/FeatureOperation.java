@@ -0,0 +1,13 @@
+package com.amine.pfe.drawing_module.domain.model;
+
+/**
+ * Opération d'une transaction combinée : feature complète pour INSERT/UPDATE, id seul pour DELETE.
+ */
+public record FeatureOperation(Type type, LayerCatalog layer, Feature feature) {
+
+    public enum Type {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+}
@@ -0,0 +1,17 @@
+package com.amine.pfe.drawing_module.domain.model;
+
+// unconfirmed : transaction validée, mais GeoServer n'a pas confirmé que l'opération a touché sa feature
+public record FeatureOperationOutcome(boolean success, String featureId, String message, boolean unconfirmed) {
+
+    public static FeatureOperationOutcome succeeded(String featureId) {
+        return new FeatureOperationOutcome(true, featureId, null, false);
+    }
+
+    public static FeatureOperationOutcome unconfirmed(String featureId, String message) {
+        return new FeatureOperationOutcome(true, featureId, message, true);
+    }
+
+    public static FeatureOperationOutcome failed(String featureId, String message) {
+        return new FeatureOperationOutcome(false, featureId, message, false);
+    }
+}
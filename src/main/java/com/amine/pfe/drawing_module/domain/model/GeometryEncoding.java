@@ -0,0 +1,57 @@
+package com.amine.pfe.drawing_module.domain.model;
+
+import java.util.Locale;
+
+/**
+ * Encodage de la géométrie dans le corps JSON, négocié via le Content-Type / Accept.
+ * WKB et TWKB sont transportés en base64 dans le champ "geometry".
+ */
+public enum GeometryEncoding {
+    GEOJSON(GeometryEncoding.GEOJSON_VALUE),
+    WKB(GeometryEncoding.WKB_JSON_VALUE),
+    TWKB(GeometryEncoding.TWKB_JSON_VALUE);
+
+    public static final String GEOJSON_VALUE = "application/json";
+    public static final String WKB_JSON_VALUE = "application/vnd.drawing.wkb+json";
+    public static final String TWKB_JSON_VALUE = "application/vnd.drawing.twkb+json";
+
+    private final String mediaType;
+
+    GeometryEncoding(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    // Ignore les paramètres (charset...) ; GeoJSON par défaut
+    public static GeometryEncoding fromMediaType(String contentType) {
+        if (contentType == null) {
+            return GEOJSON;
+        }
+        int separator = contentType.indexOf(';');
+        String type = (separator >= 0 ? contentType.substring(0, separator) : contentType)
+                .trim().toLowerCase(Locale.ROOT);
+        for (GeometryEncoding encoding : values()) {
+            if (encoding.mediaType.equals(type)) {
+                return encoding;
+            }
+        }
+        return GEOJSON;
+    }
+
+    // Premier type de l'en-tête Accept correspondant à un encodage ; GeoJSON par défaut
+    public static GeometryEncoding fromAcceptHeader(String accept) {
+        if (accept == null) {
+            return GEOJSON;
+        }
+        for (String candidate : accept.split(",")) {
+            GeometryEncoding encoding = fromMediaType(candidate);
+            if (encoding != GEOJSON || candidate.trim().toLowerCase(Locale.ROOT).startsWith(GEOJSON_VALUE)) {
+                return encoding;
+            }
+        }
+        return GEOJSON;
+    }
+}
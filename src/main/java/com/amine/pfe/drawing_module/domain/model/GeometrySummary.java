@@ -0,0 +1,59 @@
+package com.amine.pfe.drawing_module.domain.model;
+
+import java.nio.DoubleBuffer;
+import java.util.Locale;
+
+/**
+ * Descripteur compact d'une géométrie pour les logs : type, nombre de sommets, parties et emprise.
+ */
+public record GeometrySummary(
+    String type,
+    int vertexCount,
+    int partCount,
+    double minX,
+    double minY,
+    double maxX,
+    double maxY
+) {
+    public static GeometrySummary of(FeatureGeometry geometry) {
+        if (geometry == null) {
+            return null;
+        }
+
+        DoubleBuffer coordinates = geometry.coordinateBuffer();
+        int vertices = 0;
+        int parts = 0;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0; i + 1 < coordinates.limit(); i += 2) {
+            double x = coordinates.get(i);
+            // Marqueurs NaN (fin de ring/ligne) et -Infinity (fin de polygon)
+            if (Double.isNaN(x) || Double.isInfinite(x)) {
+                if (Double.isNaN(x))
+                    parts++;
+                continue;
+            }
+            double y = coordinates.get(i + 1);
+            vertices++;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+
+        return new GeometrySummary(geometry.getType(), vertices, Math.max(parts, vertices > 0 ? 1 : 0),
+                minX, minY, maxX, maxY);
+    }
+
+    @Override
+    public String toString() {
+        if (vertexCount == 0) {
+            return type + "[empty]";
+        }
+        return String.format(Locale.US, "%s[vertices=%d, parts=%d, bbox=(%.3f %.3f, %.3f %.3f)]",
+                type, vertexCount, partCount, minX, minY, maxX, maxY);
+    }
+}
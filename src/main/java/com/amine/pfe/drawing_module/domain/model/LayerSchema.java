@@ -4,7 +4,9 @@ import java.util.List;
 
 public record LayerSchema(
     String geometryType,
-    List<Attribute> attributes
+    List<Attribute> attributes,
+    // CRS de stockage de la couche (ex: EPSG:2154)
+    String srsName
 ) {
     public record Attribute(String label, String type, String javaType) {}
 }
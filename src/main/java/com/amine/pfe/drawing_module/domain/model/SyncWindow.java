@@ -0,0 +1,8 @@
+package com.amine.pfe.drawing_module.domain.model;
+
+/**
+ * Fenêtre d'une synchronisation : changements de la couche dans ]since, token].
+ * reset : jeton absent ou trop ancien, le client recharge la couche puis repart de token.
+ */
+public record SyncWindow(LayerCatalog layer, long since, long token, boolean reset) {
+}
@@ -3,14 +3,42 @@ package com.amine.pfe.drawing_module.domain.port.in;
 import java.util.UUID;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.amine.pfe.drawing_module.domain.dto.BulkEditRequest;
+import com.amine.pfe.drawing_module.domain.dto.BulkEditResult;
+import com.amine.pfe.drawing_module.domain.dto.EditSessionRequest;
+import com.amine.pfe.drawing_module.domain.dto.EditSessionResult;
+import com.amine.pfe.drawing_module.domain.dto.FeatureLeaseRequest;
+import com.amine.pfe.drawing_module.domain.dto.FeatureLeaseResult;
+import com.amine.pfe.drawing_module.domain.dto.FeatureOverlayRequest;
+import com.amine.pfe.drawing_module.domain.dto.FeatureResponse;
 import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
 import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateResult;
+import com.amine.pfe.drawing_module.domain.dto.SyncUploadRequest;
+import com.amine.pfe.drawing_module.domain.dto.SyncUploadResult;
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditRequest;
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditResult;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
 import com.amine.pfe.drawing_module.domain.model.LayerSchema;
 
 public interface DrawingWebPort {
     LayerSchema getLayerSchema(UUID layerId);
+    public ResponseEntity<FeatureResponse> getFeature(UUID layerId, String featureId, String crs, GeometryEncoding encoding);
     public ResponseEntity<FeatureUpdateResult> updateFeature(UUID layerId, String featureId, FeatureUpdateRequest updateRequest);
     public ResponseEntity<FeatureUpdateResult> insertFeature(UUID layerId, FeatureUpdateRequest createRequest);
-    public ResponseEntity<FeatureUpdateResult> deleteFeature(UUID layerId, String featureId);
+    public ResponseEntity<FeatureUpdateResult> deleteFeature(UUID layerId, String featureId, String leaseToken);
+    public ResponseEntity<BulkEditResult> deleteFeatures(UUID layerId, BulkEditRequest request);
+    public ResponseEntity<BulkEditResult> updateFeatures(UUID layerId, BulkEditRequest request);
+    public ResponseEntity<EditSessionResult> executeEditSession(EditSessionRequest request);
+    public ResponseEntity<TopologyEditResult> editBoundary(UUID layerId, String featureId, TopologyEditRequest request);
+    public ResponseEntity<TopologyEditResult> splitFeature(UUID layerId, String featureId, FeatureOverlayRequest request);
+    public ResponseEntity<TopologyEditResult> mergeFeatures(UUID layerId, FeatureOverlayRequest request);
+    public ResponseEntity<TopologyEditResult> clipFeature(UUID layerId, String featureId, FeatureOverlayRequest request);
+    public ResponseEntity<StreamingResponseBody> getChanges(UUID layerId, Long since, GeometryEncoding encoding);
+    public ResponseEntity<SyncUploadResult> uploadSync(UUID layerId, SyncUploadRequest request);
+    public ResponseEntity<FeatureLeaseResult> acquireLease(UUID layerId, String featureId, FeatureLeaseRequest request);
+    public ResponseEntity<FeatureLeaseResult> renewLease(UUID layerId, String featureId, String leaseToken,
+            FeatureLeaseRequest request);
+    public ResponseEntity<Void> releaseLease(UUID layerId, String featureId, String leaseToken);
 }
\ No newline at end of file
@@ -1,12 +1,35 @@
 package com.amine.pfe.drawing_module.domain.port.out;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.FeatureFilter;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperationOutcome;
 import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
 import com.amine.pfe.drawing_module.domain.model.LayerSchema;
 
 public interface CartographicServerPort {
     public LayerSchema getLayerSchema(String workspace, String layerName);
+    // Relit le schéma sur le serveur et remplace celui en cache
+    public LayerSchema refreshLayerSchema(String workspace, String layerName);
+    // Empreinte de la configuration publiée de la couche ; change quand la couche est modifiée, null si inconnue
+    public String getLayerRevision(String workspace, String layerName);
+    // null si la feature n'existe pas
+    public Feature getFeature(LayerCatalog layerCatalog, String featureId);
+    // Un seul GetFeature ; les features inexistantes sont absentes du résultat
+    public List<Feature> getFeatures(LayerCatalog layerCatalog, Collection<String> featureIds);
+    // Features dont l'emprise croise bbox (index spatial de la base), au plus maxFeatures
+    public List<Feature> findFeatures(LayerCatalog layerCatalog, FeatureFilter.Envelope bbox, int maxFeatures);
     public boolean updateFeature(LayerCatalog layerCatalog, Feature feature);
     public String insertFeature(LayerCatalog layerCatalog, Feature feature);
     public boolean deleteFeature(LayerCatalog layerCatalog, String featureId);
+    // Une seule action WFS-T pour toutes les features sélectionnées ; nombre de features touchées.
+    // IllegalStateException si le serveur rejette la transaction
+    public int deleteFeatures(LayerCatalog layerCatalog, FeatureFilter filter);
+    public int updateFeatures(LayerCatalog layerCatalog, FeatureFilter filter, Map<String, Object> properties);
+    // Opérations d'un même workspace dans une seule transaction ; résultats dans l'ordre des opérations
+    public List<FeatureOperationOutcome> executeTransaction(List<FeatureOperation> operations);
 }
@@ -0,0 +1,13 @@
+package com.amine.pfe.drawing_module.domain.port.out;
+
+import java.util.Map;
+import java.util.UUID;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+
+public interface EditAuditPort {
+    // Après une édition appliquée par GeoServer, sans attendre l'écriture ; les propriétés ne doivent plus être
+    // modifiées par l'appelant
+    public void record(UUID layerId, String featureId, FeatureOperation.Type operation, Map<String, Object> before,
+            Map<String, Object> after);
+}
@@ -0,0 +1,14 @@
+package com.amine.pfe.drawing_module.domain.port.out;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import com.amine.pfe.drawing_module.domain.model.EditAuditRecord;
+
+public interface EditAuditStorePort {
+    public void append(List<EditAuditRecord> records);
+    // Partition mensuelle (UTC) de la table d'audit ; false si elle existait déjà
+    public boolean createPartition(YearMonth month);
+    // Partitions mensuelles antérieures à month, supprimées avec leurs lignes
+    public int dropPartitionsBefore(YearMonth month);
+}
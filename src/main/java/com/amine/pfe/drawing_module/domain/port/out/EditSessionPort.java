@@ -0,0 +1,8 @@
+package com.amine.pfe.drawing_module.domain.port.out;
+
+import com.amine.pfe.drawing_module.domain.dto.EditSessionRequest;
+import com.amine.pfe.drawing_module.domain.dto.EditSessionResult;
+
+public interface EditSessionPort {
+    public EditSessionResult executeEditSession(EditSessionRequest request);
+}
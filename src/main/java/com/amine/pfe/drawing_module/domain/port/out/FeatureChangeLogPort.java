@@ -0,0 +1,26 @@
+package com.amine.pfe.drawing_module.domain.port.out;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureChange;
+
+public interface FeatureChangeLogPort {
+    public void append(List<FeatureChange> changes);
+    // Changements dont les features ne sont pas connues (édition par filtre) : les jetons antérieurs sont périmés
+    public void resetLayer(UUID layerId);
+    // Plus grand jeton servi sans risque (changements plus anciens que settleDelay), since si aucun
+    public long settledToken(UUID layerId, long since, Duration settleDelay);
+    // Jeton en dessous duquel un client doit recharger la couche
+    public long horizon(UUID layerId);
+    // Dernier changement de chaque feature dans ]since, upTo], par jeton croissant
+    public List<FeatureChange> latestChanges(UUID layerId, long since, long upTo, int limit);
+    // Jeton du dernier changement après since, pour les features données qui en ont un
+    public Map<String, Long> lastTokens(UUID layerId, long since, Collection<String> featureIds);
+    // Retire les changements remplacés, puis purge les suppressions plus anciennes que la rétention ;
+    // retourne le nombre de lignes supprimées
+    public int compact(Duration tombstoneRetention);
+}
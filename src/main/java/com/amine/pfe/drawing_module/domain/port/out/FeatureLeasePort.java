@@ -0,0 +1,23 @@
+package com.amine.pfe.drawing_module.domain.port.out;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureLease;
+
+public interface FeatureLeasePort {
+    // FeatureLeaseConflictException si un autre détenteur a un bail en cours ; ttl null = durée par défaut
+    public FeatureLease acquire(UUID layerId, String featureId, String holder, Duration ttl);
+    // FeatureLeaseConflictException si le bail a expiré ou a été libéré
+    public FeatureLease renew(UUID layerId, String featureId, UUID token, Duration ttl);
+    public boolean release(UUID layerId, String featureId, UUID token);
+    // Avant une modification ou une suppression : FeatureLeaseConflictException si la feature est sous bail
+    // et que leaseToken n'est pas celui du bail
+    public void checkEdit(UUID layerId, String featureId, String leaseToken);
+    // Plusieurs jetons possibles (un par feature sous bail) : la feature passe si l'un d'eux est celui de son bail
+    public void checkEditAny(UUID layerId, String featureId, Collection<String> leaseTokens);
+    // Édition par emprise ou conditions, features inconnues d'avance : FeatureLeaseConflictException si une
+    // feature de la couche est sous bail
+    public void checkLayerEdit(UUID layerId);
+}
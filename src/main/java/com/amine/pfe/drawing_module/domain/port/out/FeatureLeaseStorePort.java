@@ -0,0 +1,20 @@
+package com.amine.pfe.drawing_module.domain.port.out;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureLease;
+
+public interface FeatureLeaseStorePort {
+    // Bail en vigueur après l'appel : celui demandé (même jeton) s'il a été accordé, sinon celui d'un autre détenteur
+    public FeatureLease acquire(UUID layerId, String featureId, String holder, UUID token, Duration ttl);
+    // Vide si le bail a expiré ou a été libéré
+    public Optional<FeatureLease> renew(UUID layerId, String featureId, UUID token, Duration ttl);
+    public boolean release(UUID layerId, String featureId, UUID token);
+    // Bail non expiré
+    public Optional<FeatureLease> current(UUID layerId, String featureId);
+    // Au moins un bail non expiré sur la couche
+    public boolean hasActiveLease(UUID layerId);
+    public int purgeExpired();
+}
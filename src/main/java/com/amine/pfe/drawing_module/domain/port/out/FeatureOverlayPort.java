@@ -0,0 +1,17 @@
+package com.amine.pfe.drawing_module.domain.port.out;
+
+import java.util.UUID;
+
+import com.amine.pfe.drawing_module.domain.dto.FeatureOverlayRequest;
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditResult;
+
+public interface FeatureOverlayPort {
+    // Polygone coupé par la ligne : featureId garde la plus grande pièce, les autres sont créées
+    public TopologyEditResult split(UUID layerId, String featureId, FeatureOverlayRequest request);
+
+    // Features voisines réunies dans la première, les autres supprimées
+    public TopologyEditResult merge(UUID layerId, FeatureOverlayRequest request);
+
+    // Partie de featureId dans ou hors de l'emprise
+    public TopologyEditResult clip(UUID layerId, String featureId, FeatureOverlayRequest request);
+}
@@ -0,0 +1,18 @@
+package com.amine.pfe.drawing_module.domain.port.out;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+
+import com.amine.pfe.drawing_module.domain.dto.SyncUploadRequest;
+import com.amine.pfe.drawing_module.domain.dto.SyncUploadResult;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
+import com.amine.pfe.drawing_module.domain.model.SyncWindow;
+
+public interface FeatureSyncPort {
+    // Bornes calculées avant l'envoi de la réponse ; since null = premier chargement
+    public SyncWindow openSync(UUID layerId, Long since);
+    // Changements compactés de la fenêtre, écrits au fil de l'eau
+    public void writeChanges(SyncWindow window, GeometryEncoding encoding, OutputStream out) throws IOException;
+    public SyncUploadResult upload(UUID layerId, SyncUploadRequest request);
+}
@@ -2,13 +2,22 @@ package com.amine.pfe.drawing_module.domain.port.out;
 
 import java.util.UUID;
 
+import com.amine.pfe.drawing_module.domain.dto.BulkEditRequest;
+import com.amine.pfe.drawing_module.domain.dto.BulkEditResult;
 import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
 import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateResult;
+import com.amine.pfe.drawing_module.domain.model.Feature;
 import com.amine.pfe.drawing_module.domain.model.LayerSchema;
 
 public interface LayerManagerPort {
     public LayerSchema getLayerSchema(UUID layerId);
+    // Géométrie dans le CRS demandé (celui de la couche si crs est null) ; null si la feature n'existe pas
+    public Feature getFeature(UUID layerId, String featureId, String crs);
     public FeatureUpdateResult updateFeature(UUID layerId, String featureId, FeatureUpdateRequest request);
     public FeatureUpdateResult insertFeature(UUID layerId, FeatureUpdateRequest request);
-    public FeatureUpdateResult deleteFeature(UUID layerId, String featureId);
+    // leaseToken : jeton du bail d'édition, null sans bail
+    public FeatureUpdateResult deleteFeature(UUID layerId, String featureId, String leaseToken);
+    // Toutes les features sélectionnées (ids, emprise, conditions) en un seul aller-retour
+    public BulkEditResult deleteFeatures(UUID layerId, BulkEditRequest request);
+    public BulkEditResult updateFeatures(UUID layerId, BulkEditRequest request);
 }
@@ -1,5 +1,7 @@
 package com.amine.pfe.drawing_module.domain.port.out;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -7,4 +9,6 @@ import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
 
 public interface LayerRepositoryPort {
     Optional<LayerCatalog> findLayerCatalogById(UUID layerId);
+    List<LayerCatalog> findLayerCatalogsByIds(Collection<UUID> layerIds);
+    List<LayerCatalog> findAllLayerCatalogs();
 }
@@ -0,0 +1,12 @@
+package com.amine.pfe.drawing_module.domain.port.out;
+
+import java.util.UUID;
+
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditRequest;
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditResult;
+
+public interface TopologyEditPort {
+    // Sommet ou tronçon de frontière de featureId déplacé avec les features voisines qui le partagent,
+    // en une seule transaction
+    public TopologyEditResult editBoundary(UUID layerId, String featureId, TopologyEditRequest request);
+}
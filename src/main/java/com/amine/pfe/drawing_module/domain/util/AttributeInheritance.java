@@ -0,0 +1,190 @@
+package com.amine.pfe.drawing_module.domain.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.amine.pfe.drawing_module.domain.model.AttributeRule;
+import com.amine.pfe.drawing_module.domain.model.LayerSchema;
+
+/**
+ * Propriétés des features produites par une découpe, une fusion ou un découpage par emprise, selon la règle
+ * de chaque attribut du schéma de la couche : celle de la requête, sinon celle de la configuration, sinon COPY.
+ * Les dates de suivi sont posées par l'appelant.
+ */
+public final class AttributeInheritance {
+
+    private static final Set<String> TRACKING_ATTRIBUTES = Set.of("date_creation", "date_modif");
+    private static final Set<String> INTEGRAL_TYPES = Set.of("Integer", "Long", "Short");
+    private static final Set<String> DECIMAL_TYPES = Set.of("Float", "Double", "BigDecimal");
+
+    // Attribut -> type Java, dans l'ordre du schéma
+    private final Map<String, String> javaTypes;
+    private final Map<String, AttributeRule> rules;
+
+    private AttributeInheritance(Map<String, String> javaTypes, Map<String, AttributeRule> rules) {
+        this.javaTypes = javaTypes;
+        this.rules = rules;
+    }
+
+    // Une règle de la requête sur un attribut inconnu, ou AREA sur un attribut non numérique, est refusée ;
+    // une règle AREA de la configuration sur un attribut non numérique retombe sur COPY
+    public static AttributeInheritance of(LayerSchema schema, Map<String, AttributeRule> configured,
+            Map<String, AttributeRule> requested) {
+        Map<String, String> javaTypes = new LinkedHashMap<>();
+        for (LayerSchema.Attribute attribute : schema.attributes()) {
+            if (!TRACKING_ATTRIBUTES.contains(attribute.label())) {
+                javaTypes.put(attribute.label(), attribute.javaType());
+            }
+        }
+        if (requested != null) {
+            for (Map.Entry<String, AttributeRule> entry : requested.entrySet()) {
+                if (!javaTypes.containsKey(entry.getKey())) {
+                    throw new IllegalArgumentException("Unknown attribute: " + entry.getKey());
+                }
+                if (entry.getValue() == AttributeRule.AREA && !numeric(javaTypes.get(entry.getKey()))) {
+                    throw new IllegalArgumentException("Attribute " + entry.getKey() + " is not numeric");
+                }
+            }
+        }
+
+        Map<String, AttributeRule> rules = new HashMap<>();
+        for (Map.Entry<String, String> attribute : javaTypes.entrySet()) {
+            String label = attribute.getKey();
+            AttributeRule rule = requested != null ? requested.get(label) : null;
+            if (rule == null && configured != null) {
+                rule = configured.get(label);
+            }
+            if (rule == null || (rule == AttributeRule.AREA && !numeric(attribute.getValue()))) {
+                rule = AttributeRule.COPY;
+            }
+            rules.put(label, rule);
+        }
+        return new AttributeInheritance(javaTypes, rules);
+    }
+
+    public AttributeRule rule(String attribute) {
+        return rules.get(attribute);
+    }
+
+    /**
+     * Propriétés de chaque pièce d'une feature de surface sourceArea : la première pièce est la feature modifiée
+     * et ne reçoit que les valeurs AREA qui changent ; les autres, créées, reçoivent les valeurs COPY et AREA.
+     */
+    public List<Map<String, Object>> split(Map<String, Object> source, double[] areas, double sourceArea) {
+        List<Map<String, Object>> pieces = new ArrayList<>(areas.length);
+        for (int i = 0; i < areas.length; i++) {
+            pieces.add(new HashMap<>());
+        }
+        Map<String, Object> values = source != null ? source : Map.of();
+        for (Map.Entry<String, String> attribute : javaTypes.entrySet()) {
+            String label = attribute.getKey();
+            String javaType = attribute.getValue();
+            Object value = values.get(label);
+            if (value == null) {
+                continue;
+            }
+            switch (rules.get(label)) {
+                case COPY -> {
+                    for (int i = 1; i < areas.length; i++) {
+                        pieces.get(i).put(label, MappingUtils.convertValueToExpectedType(value, javaType));
+                    }
+                }
+                case AREA -> {
+                    Object[] shares = prorate(value, javaType, areas, sourceArea);
+                    Object current = MappingUtils.convertValueToExpectedType(value, javaType);
+                    if (!shares[0].equals(current)) {
+                        pieces.get(0).put(label, shares[0]);
+                    }
+                    for (int i = 1; i < areas.length; i++) {
+                        pieces.get(i).put(label, shares[i]);
+                    }
+                }
+                case NONE -> {
+                }
+            }
+        }
+        return pieces;
+    }
+
+    // Valeurs qui changent sur la première feature, conservée : somme des valeurs AREA renseignées
+    public Map<String, Object> merge(List<Map<String, Object>> sources) {
+        Map<String, Object> merged = new HashMap<>();
+        for (Map.Entry<String, String> attribute : javaTypes.entrySet()) {
+            String label = attribute.getKey();
+            String javaType = attribute.getValue();
+            if (rules.get(label) != AttributeRule.AREA) {
+                continue;
+            }
+            double sum = 0;
+            boolean present = false;
+            for (Map<String, Object> source : sources) {
+                Object value = source != null ? source.get(label) : null;
+                if (value != null) {
+                    sum += number(value, javaType);
+                    present = true;
+                }
+            }
+            if (!present) {
+                continue;
+            }
+            Object total = INTEGRAL_TYPES.contains(javaType)
+                    ? MappingUtils.convertValueToExpectedType(Math.round(sum), javaType)
+                    : MappingUtils.convertValueToExpectedType(sum, javaType);
+            Object first = sources.get(0) != null ? sources.get(0).get(label) : null;
+            if (first == null || !total.equals(MappingUtils.convertValueToExpectedType(first, javaType))) {
+                merged.put(label, total);
+            }
+        }
+        return merged;
+    }
+
+    // Répartition au prorata des surfaces ; pour un entier, au plus fort reste afin que les parts s'additionnent
+    private static Object[] prorate(Object value, String javaType, double[] areas, double sourceArea) {
+        double total = number(value, javaType);
+        double[] exact = new double[areas.length];
+        double kept = 0;
+        for (int i = 0; i < areas.length; i++) {
+            exact[i] = sourceArea > 0 ? total * areas[i] / sourceArea : 0;
+            kept += exact[i];
+        }
+
+        Object[] shares = new Object[areas.length];
+        if (!INTEGRAL_TYPES.contains(javaType)) {
+            for (int i = 0; i < areas.length; i++) {
+                shares[i] = MappingUtils.convertValueToExpectedType(exact[i], javaType);
+            }
+            return shares;
+        }
+        long[] rounded = new long[areas.length];
+        long remaining = Math.round(kept);
+        for (int i = 0; i < areas.length; i++) {
+            rounded[i] = (long) Math.floor(exact[i]);
+            remaining -= rounded[i];
+        }
+        for (; remaining > 0; remaining--) {
+            int largest = 0;
+            for (int i = 1; i < areas.length; i++) {
+                if (exact[i] - rounded[i] > exact[largest] - rounded[largest]) {
+                    largest = i;
+                }
+            }
+            rounded[largest]++;
+        }
+        for (int i = 0; i < areas.length; i++) {
+            shares[i] = MappingUtils.convertValueToExpectedType(rounded[i], javaType);
+        }
+        return shares;
+    }
+
+    private static double number(Object value, String javaType) {
+        return ((Number) MappingUtils.convertValueToExpectedType(value, javaType)).doubleValue();
+    }
+
+    private static boolean numeric(String javaType) {
+        return INTEGRAL_TYPES.contains(javaType) || DECIMAL_TYPES.contains(javaType);
+    }
+}
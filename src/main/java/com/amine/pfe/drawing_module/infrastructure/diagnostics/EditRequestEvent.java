@@ -0,0 +1,48 @@
+package com.amine.pfe.drawing_module.infrastructure.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Requête HTTP du module, parente des {@link EditStageEvent} émis sur le même thread.
+ */
+@Name("com.amine.pfe.drawing.EditRequest")
+@Label("Edit Request")
+@Category({ "Drawing Module", "Edits" })
+@Description("HTTP request served by the drawing module")
+@StackTrace(false)
+public class EditRequestEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+
+    @Label("Correlation Id")
+    String correlationId;
+
+    public static EditRequestEvent begin(String method, String path) {
+        EditRequestEvent event = new EditRequestEvent();
+        event.method = method;
+        event.path = path;
+        event.begin();
+        return event;
+    }
+
+    public void finish(int status, String correlationId) {
+        end();
+        if (shouldCommit()) {
+            this.status = status;
+            this.correlationId = correlationId;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.amine.pfe.drawing_module.infrastructure.diagnostics;
+
+import java.util.UUID;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.infrastructure.logging.CorrelationId;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Étape du pipeline d'édition, visible dans JDK Mission Control sous Drawing Module / Edits.
+ * Sans enregistrement JFR actif, begin() et finish() ne coûtent qu'une allocation éliminée par le JIT.
+ */
+@Name("com.amine.pfe.drawing.EditStage")
+@Label("Edit Stage")
+@Category({ "Drawing Module", "Edits" })
+@Description("One stage of a feature edit, from catalog lookup to the WFS-T response")
+@StackTrace(false)
+public class EditStageEvent extends Event {
+
+    public enum Stage {
+        CATALOG_LOOKUP,
+        SCHEMA_FETCH,
+        GEOMETRY_PARSE,
+        GML_BUILD,
+        WFS_POST,
+        RESPONSE_PARSE
+    }
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Layer Id")
+    String layerId;
+
+    @Label("Layer")
+    @Description("workspace:layer, or the workspace of a combined transaction")
+    String layer;
+
+    @Label("Vertices")
+    int vertices;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Correlation Id")
+    String correlationId;
+
+    public static EditStageEvent begin(Stage stage) {
+        EditStageEvent event = new EditStageEvent();
+        event.stage = stage.name();
+        event.begin();
+        return event;
+    }
+
+    public EditStageEvent layerId(UUID layerId) {
+        this.layerId = layerId != null ? layerId.toString() : null;
+        return this;
+    }
+
+    public EditStageEvent layer(String layer) {
+        this.layer = layer;
+        return this;
+    }
+
+    public void finish(int vertices, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.vertices = vertices;
+            this.bytes = bytes;
+            this.correlationId = CorrelationId.current();
+            commit();
+        }
+    }
+
+    public void finish() {
+        finish(0, 0);
+    }
+
+    // Coordonnées 2D, comme partout dans le module
+    public static int vertices(FeatureGeometry geometry) {
+        return geometry != null ? geometry.coordinateBuffer().remaining() / 2 : 0;
+    }
+}
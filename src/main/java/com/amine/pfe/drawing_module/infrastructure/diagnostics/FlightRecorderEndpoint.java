@@ -0,0 +1,57 @@
+package com.amine.pfe.drawing_module.infrastructure.diagnostics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Administration JFR, exposée sous /actuator/flightrecorder quand l'endpoint est ajouté à
+ * management.endpoints.web.exposure.include :
+ * GET liste les enregistrements, POST {"durationSeconds": 60} en démarre un, POST /dump vide le tampon circulaire.
+ */
+@Component
+@Endpoint(id = "flightrecorder")
+@RequiredArgsConstructor
+public class FlightRecorderEndpoint {
+
+    private static final String DUMP = "dump";
+
+    private final FlightRecorderService flightRecorderService;
+
+    // Tampon circulaire compris
+    @ReadOperation
+    public List<FlightRecorderService.RecordingInfo> recordings() {
+        return flightRecorderService.recordings();
+    }
+
+    @WriteOperation
+    public FlightRecorderService.RecordingInfo start(@Nullable Long durationSeconds) {
+        try {
+            return flightRecorderService.startRecording(Duration.ofSeconds(durationSeconds != null ? durationSeconds : 60));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    @WriteOperation
+    public Map<String, String> dump(@Selector String action) {
+        if (!DUMP.equals(action)) {
+            throw new InvalidEndpointRequestException("Unknown action: " + action, "Unknown action");
+        }
+        try {
+            return Map.of("file", flightRecorderService.dumpRingBuffer("requested by an administrator").toString());
+        } catch (IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
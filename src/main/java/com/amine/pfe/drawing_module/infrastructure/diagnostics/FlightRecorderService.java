@@ -0,0 +1,188 @@
+package com.amine.pfe.drawing_module.infrastructure.diagnostics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.amine.pfe.drawing_module.config.FlightRecorderProperties;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Enregistrements JFR à la demande : enregistrements bornés dans le temps démarrés par l'endpoint
+ * d'administration, et tampon circulaire continu vidé sur disque quand une requête dépasse le seuil de latence.
+ */
+@Component
+@Slf4j
+public class FlightRecorderService {
+
+    public static final String RING_BUFFER = "drawing-ring-buffer";
+    private static final String RECORDING_PREFIX = "drawing-";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    public record RecordingInfo(long id, String name, String state, Duration duration, String destination) {
+
+        static RecordingInfo of(Recording recording) {
+            return new RecordingInfo(recording.getId(), recording.getName(), recording.getState().name(),
+                    recording.getDuration(),
+                    recording.getDestination() != null ? recording.getDestination().toString() : null);
+        }
+    }
+
+    private final FlightRecorderProperties properties;
+    private final long slowRequestNanos;
+    private final long minDumpIntervalNanos;
+    private final AtomicLong lastDumpNanos = new AtomicLong();
+    // Un seul vidage à la fois, hors du thread de la requête
+    private final ExecutorService dumper = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jfr-dump");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Recording ringBuffer;
+
+    public FlightRecorderService(FlightRecorderProperties properties) {
+        this.properties = properties;
+        this.slowRequestNanos = properties.getSlowRequestThreshold().toNanos();
+        this.minDumpIntervalNanos = properties.getMinDumpInterval().toNanos();
+        this.lastDumpNanos.set(System.nanoTime() - minDumpIntervalNanos);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRingBuffer() {
+        if (!properties.isRingBufferEnabled() || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        try {
+            Recording recording = newRecording(RING_BUFFER);
+            recording.setToDisk(true);
+            recording.setMaxAge(properties.getRingBufferMaxAge());
+            recording.setMaxSize(properties.getRingBufferMaxSize().toBytes());
+            recording.start();
+            ringBuffer = recording;
+            log.info("JFR ring buffer started (max age {}, max size {}), dumped on requests slower than {}",
+                    properties.getRingBufferMaxAge(), properties.getRingBufferMaxSize(),
+                    properties.getSlowRequestThreshold());
+        } catch (RuntimeException e) {
+            log.warn("JFR ring buffer not started: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dumper.shutdown();
+        Recording recording = ringBuffer;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    // Écrit dans le répertoire configuré à l'arrêt de l'enregistrement
+    public RecordingInfo startRecording(Duration duration) {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("Flight Recorder is not available in this JVM");
+        }
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(properties.getMaxDuration()) > 0) {
+            throw new IllegalArgumentException("Recording duration must be between 1s and "
+                    + properties.getMaxDuration());
+        }
+
+        Recording recording = newRecording(RECORDING_PREFIX + LocalDateTime.now().format(FILE_TIMESTAMP));
+        try {
+            recording.setDestination(outputFile(recording.getName()));
+        } catch (IOException e) {
+            recording.close();
+            throw new UncheckedIOException(e);
+        }
+        recording.setDuration(duration);
+        recording.start();
+        log.info("JFR recording {} started for {}, written to {}", recording.getId(), duration,
+                recording.getDestination());
+        return RecordingInfo.of(recording);
+    }
+
+    public List<RecordingInfo> recordings() {
+        if (!FlightRecorder.isAvailable()) {
+            return List.of();
+        }
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getName().startsWith(RECORDING_PREFIX))
+                .map(RecordingInfo::of)
+                .toList();
+    }
+
+    // Vidage immédiat du tampon circulaire, sans limite de fréquence
+    public Path dumpRingBuffer(String reason) {
+        Recording recording = ringBuffer;
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new IllegalStateException("JFR ring buffer is not running");
+        }
+        try {
+            Path file = outputFile(RING_BUFFER + "-" + LocalDateTime.now().format(FILE_TIMESTAMP));
+            recording.dump(file);
+            log.warn("JFR ring buffer dumped to {} ({})", file, reason);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Appelé à la fin de chaque requête : coût d'une comparaison sous le seuil
+    public void onRequestCompleted(String request, long durationNanos) {
+        if (ringBuffer == null || durationNanos < slowRequestNanos) {
+            return;
+        }
+        long now = System.nanoTime();
+        long last = lastDumpNanos.get();
+        if (now - last < minDumpIntervalNanos || !lastDumpNanos.compareAndSet(last, now)) {
+            return;
+        }
+
+        String reason = request + " took " + TimeUnit.NANOSECONDS.toMillis(durationNanos) + " ms";
+        dumper.execute(() -> {
+            try {
+                dumpRingBuffer(reason);
+            } catch (RuntimeException e) {
+                log.warn("JFR ring buffer dump failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    private Recording newRecording(String name) {
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration(properties.getSettings()));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Unknown JFR settings " + properties.getSettings(), e);
+        }
+        recording.setName(name);
+        recording.enable(EditStageEvent.class);
+        recording.enable(EditRequestEvent.class);
+        return recording;
+    }
+
+    private Path outputFile(String name) throws IOException {
+        Path directory = Files.createDirectories(Paths.get(properties.getDirectory()));
+        return directory.resolve(name + ".jfr");
+    }
+}
@@ -0,0 +1,16 @@
+package com.amine.pfe.drawing_module.infrastructure.logging;
+
+import org.slf4j.MDC;
+
+public final class CorrelationId {
+
+    public static final String HEADER = "X-Correlation-Id";
+    public static final String MDC_KEY = "correlationId";
+
+    private CorrelationId() {
+    }
+
+    public static String current() {
+        return MDC.get(MDC_KEY);
+    }
+}
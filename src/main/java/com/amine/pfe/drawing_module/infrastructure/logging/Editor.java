@@ -0,0 +1,16 @@
+package com.amine.pfe.drawing_module.infrastructure.logging;
+
+import org.slf4j.MDC;
+
+public final class Editor {
+
+    public static final String HEADER = "X-Editor";
+    public static final String MDC_KEY = "editor";
+
+    private Editor() {
+    }
+
+    public static String current() {
+        return MDC.get(MDC_KEY);
+    }
+}
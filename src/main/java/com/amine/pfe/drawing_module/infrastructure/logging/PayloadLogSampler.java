@@ -0,0 +1,32 @@
+package com.amine.pfe.drawing_module.infrastructure.logging;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
+
+/**
+ * Log DEBUG échantillonné des payloads complets, sur un logger dédié.
+ */
+@Component
+public class PayloadLogSampler {
+
+    private static final Logger payloadLog = LoggerFactory.getLogger("com.amine.pfe.drawing_module.payload");
+
+    @Value("${drawing.logging.payload-sample-rate:0.0}")
+    private double sampleRate;
+
+    public void sample(String operation, UUID layerId, FeatureUpdateRequest request) {
+        if (sampleRate <= 0 || !payloadLog.isDebugEnabled()
+                || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        payloadLog.debug("{} payload for layer {}: geometry={} properties={}",
+                operation, layerId, request.getGeometry(), request.getProperties());
+    }
+}
@@ -0,0 +1,37 @@
+package com.amine.pfe.drawing_module.infrastructure.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mesure le temps entre le démarrage de la JVM et la première insertion réussie.
+ */
+@Component
+@Slf4j
+public class StartupMetrics {
+
+    private final AtomicLong firstInsertMillis = new AtomicLong(-1);
+
+    public StartupMetrics(MeterRegistry meterRegistry) {
+        TimeGauge.builder("drawing.startup.first-insert", firstInsertMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time from JVM start to the first successful insertFeature")
+                .register(meterRegistry);
+    }
+
+    public void recordSuccessfulInsert() {
+        if (firstInsertMillis.get() >= 0) {
+            return;
+        }
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (firstInsertMillis.compareAndSet(-1, uptime)) {
+            log.info("First successful insertFeature {} ms after JVM start", uptime);
+        }
+    }
+}
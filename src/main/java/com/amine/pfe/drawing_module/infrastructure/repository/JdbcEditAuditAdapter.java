@@ -0,0 +1,155 @@
+package com.amine.pfe.drawing_module.infrastructure.repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.amine.pfe.drawing_module.domain.model.EditAuditRecord;
+import com.amine.pfe.drawing_module.domain.port.out.EditAuditStorePort;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Traces d'audit dans drawing.edit_audit, partitionnée par mois (UTC) sur edited_at.
+ * Un lot est chargé en un seul COPY au format texte : une transaction et un aller-retour par lot.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class JdbcEditAuditAdapter implements EditAuditStorePort {
+
+    private static final String COPY = """
+            COPY drawing.edit_audit (edited_at, editor, correlation_id, layer_id, feature_id, operation,
+                before_properties, after_properties) FROM STDIN
+            """;
+
+    private static final String PARTITIONS = """
+            SELECT c.relname FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            JOIN pg_namespace n ON n.oid = p.relnamespace
+            WHERE n.nspname = 'drawing' AND p.relname = 'edit_audit'
+            """;
+
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("edit_audit_(\\d{6})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void append(List<EditAuditRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        StringBuilder rows = new StringBuilder(records.size() * 256);
+        for (EditAuditRecord record : records) {
+            appendRow(rows, record);
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY, new StringReader(rows.toString()));
+            } catch (IOException e) {
+                throw new SQLException("COPY into drawing.edit_audit failed", e);
+            }
+        });
+    }
+
+    @Override
+    public boolean createPartition(YearMonth month) {
+        String name = "edit_audit_" + month.format(PARTITION_SUFFIX);
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                "drawing." + name);
+        if (Boolean.TRUE.equals(exists)) {
+            return false;
+        }
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS drawing." + name
+                + " PARTITION OF drawing.edit_audit FOR VALUES FROM ('" + start(month) + "') TO ('"
+                + start(month.plusMonths(1)) + "')");
+        return true;
+    }
+
+    @Override
+    public int dropPartitionsBefore(YearMonth month) {
+        int dropped = 0;
+        for (String name : jdbcTemplate.queryForList(PARTITIONS, String.class)) {
+            Matcher matcher = MONTHLY_PARTITION.matcher(name);
+            if (matcher.matches() && YearMonth.parse(matcher.group(1), PARTITION_SUFFIX).isBefore(month)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS drawing." + name);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    private static String start(YearMonth month) {
+        return month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toString();
+    }
+
+    private void appendRow(StringBuilder rows, EditAuditRecord record) {
+        appendField(rows, record.editedAt() != null ? record.editedAt().toString() : Instant.now().toString());
+        rows.append('\t');
+        appendField(rows, record.editor());
+        rows.append('\t');
+        appendField(rows, record.correlationId());
+        rows.append('\t');
+        appendField(rows, record.layerId().toString());
+        rows.append('\t');
+        appendField(rows, record.featureId());
+        rows.append('\t');
+        appendField(rows, record.operation().name());
+        rows.append('\t');
+        appendField(rows, json(record.before()));
+        rows.append('\t');
+        appendField(rows, json(record.after()));
+        rows.append('\n');
+    }
+
+    // Format texte de COPY : \N pour NULL, barre oblique inverse et séparateurs échappés
+    private static void appendField(StringBuilder rows, String value) {
+        if (value == null) {
+            rows.append("\\N");
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> rows.append("\\\\");
+                case '\t' -> rows.append("\\t");
+                case '\n' -> rows.append("\\n");
+                case '\r' -> rows.append("\\r");
+                default -> rows.append(c);
+            }
+        }
+    }
+
+    // Une valeur non sérialisable ne doit pas faire rejeter tout le lot
+    private String json(Map<String, Object> properties) {
+        if (properties == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(properties);
+        } catch (JsonProcessingException e) {
+            log.warn("Audit properties not serializable, stored as NULL: {}", e.getMessage());
+            return null;
+        }
+    }
+}
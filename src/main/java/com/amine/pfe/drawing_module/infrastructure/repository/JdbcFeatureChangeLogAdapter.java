@@ -0,0 +1,154 @@
+package com.amine.pfe.drawing_module.infrastructure.repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureChange;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureChangeLogPort;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Journal des changements dans PostgreSQL : le jeton de synchronisation est la séquence de drawing.feature_change.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JdbcFeatureChangeLogAdapter implements FeatureChangeLogPort {
+
+    private static final String RESET = "RESET";
+
+    private static final String INSERT_CHANGE =
+            "INSERT INTO drawing.feature_change (layer_id, feature_id, operation) VALUES (?, ?, ?)";
+
+    private static final String UPSERT_HORIZON = """
+            INSERT INTO drawing.feature_change_horizon (layer_id, seq) SELECT layer_id, max(seq) FROM %s GROUP BY layer_id
+            ON CONFLICT (layer_id) DO UPDATE SET seq = GREATEST(drawing.feature_change_horizon.seq, EXCLUDED.seq)
+            """;
+
+    // Marqueur RESET : porte un jeton, comme un changement ordinaire
+    private static final String RESET_LAYER = """
+            WITH marker AS (
+                INSERT INTO drawing.feature_change (layer_id, feature_id, operation) VALUES (?, '', 'RESET')
+                RETURNING layer_id, seq)
+            """ + UPSERT_HORIZON.formatted("marker");
+
+    private static final String SETTLED_TOKEN = """
+            SELECT coalesce(max(seq), ?) FROM drawing.feature_change
+            WHERE layer_id = ? AND seq > ? AND changed_at < now() - make_interval(secs => ?)
+            """;
+
+    private static final String HORIZON = "SELECT seq FROM drawing.feature_change_horizon WHERE layer_id = ?";
+
+    // Dernier changement de chaque feature dans la fenêtre ; pagination par jeton
+    private static final String LATEST_CHANGES = """
+            SELECT c.seq, c.feature_id, c.operation FROM drawing.feature_change c
+            WHERE c.layer_id = ? AND c.seq > ? AND c.seq <= ? AND c.operation <> 'RESET'
+              AND NOT EXISTS (SELECT 1 FROM drawing.feature_change n
+                              WHERE n.layer_id = c.layer_id AND n.feature_id = c.feature_id
+                                AND n.seq > c.seq AND n.seq <= ?)
+            ORDER BY c.seq
+            LIMIT ?
+            """;
+
+    private static final String LAST_TOKENS = """
+            SELECT feature_id, max(seq) FROM drawing.feature_change
+            WHERE layer_id = ? AND seq > ? AND feature_id = ANY (?)
+            GROUP BY feature_id
+            """;
+
+    // Un changement remplacé par un plus récent de la même feature n'est plus jamais servi
+    private static final String DELETE_SUPERSEDED = """
+            DELETE FROM drawing.feature_change c
+            WHERE EXISTS (SELECT 1 FROM drawing.feature_change n
+                          WHERE n.layer_id = c.layer_id AND n.feature_id = c.feature_id AND n.seq > c.seq)
+            """;
+
+    private static final String PURGE_TOMBSTONES = """
+            WITH purged AS (
+                DELETE FROM drawing.feature_change
+                WHERE operation IN ('DELETE', 'RESET') AND changed_at < now() - make_interval(secs => ?)
+                RETURNING layer_id, seq)
+            """ + UPSERT_HORIZON.formatted("purged");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void append(List<FeatureChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        // Un aller-retour par lot (reWriteBatchedInserts)
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, changes, changes.size(), (ps, change) -> {
+            ps.setObject(1, change.layerId());
+            ps.setString(2, change.featureId());
+            ps.setString(3, change.operation().name());
+        });
+    }
+
+    @Override
+    public void resetLayer(UUID layerId) {
+        jdbcTemplate.update(RESET_LAYER, layerId);
+    }
+
+    @Override
+    public long settledToken(UUID layerId, long since, Duration settleDelay) {
+        Long token = jdbcTemplate.queryForObject(SETTLED_TOKEN, Long.class,
+                since, layerId, since, settleDelay.toMillis() / 1000.0);
+        return token != null ? token : since;
+    }
+
+    @Override
+    public long horizon(UUID layerId) {
+        return jdbcTemplate.query(HORIZON, ps -> ps.setObject(1, layerId), (rs, rowNum) -> rs.getLong(1))
+                .stream().findFirst().orElse(0L);
+    }
+
+    @Override
+    public List<FeatureChange> latestChanges(UUID layerId, long since, long upTo, int limit) {
+        return jdbcTemplate.query(LATEST_CHANGES, ps -> {
+            ps.setObject(1, layerId);
+            ps.setLong(2, since);
+            ps.setLong(3, upTo);
+            ps.setLong(4, upTo);
+            ps.setInt(5, limit);
+        }, (rs, rowNum) -> new FeatureChange(rs.getLong(1), layerId, rs.getString(2),
+                FeatureOperation.Type.valueOf(rs.getString(3))));
+    }
+
+    @Override
+    public Map<String, Long> lastTokens(UUID layerId, long since, Collection<String> featureIds) {
+        Map<String, Long> tokens = new HashMap<>();
+        if (featureIds.isEmpty()) {
+            return tokens;
+        }
+        jdbcTemplate.query((Connection connection) -> {
+            PreparedStatement ps = connection.prepareStatement(LAST_TOKENS);
+            ps.setObject(1, layerId);
+            ps.setLong(2, since);
+            Array ids = connection.createArrayOf("text", featureIds.toArray());
+            ps.setArray(3, ids);
+            return ps;
+        }, rs -> {
+            tokens.put(rs.getString(1), rs.getLong(2));
+        });
+        return tokens;
+    }
+
+    @Override
+    public int compact(Duration tombstoneRetention) {
+        int superseded = jdbcTemplate.update(DELETE_SUPERSEDED);
+        jdbcTemplate.update(PURGE_TOMBSTONES, tombstoneRetention.toSeconds());
+        return superseded;
+    }
+}
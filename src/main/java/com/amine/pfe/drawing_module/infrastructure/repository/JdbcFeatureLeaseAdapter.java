@@ -0,0 +1,117 @@
+package com.amine.pfe.drawing_module.infrastructure.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amine.pfe.drawing_module.config.FeatureLeaseProperties;
+import com.amine.pfe.drawing_module.domain.model.FeatureLease;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeaseStorePort;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Baux d'édition dans drawing.feature_lease. L'attribution (lecture puis écriture) se fait sous le verrou
+ * consultatif transactionnel de la bande de la feature, libéré au commit : aucune connexion n'est gardée
+ * entre deux requêtes, et un bail d'une instance arrêtée expire de lui-même.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JdbcFeatureLeaseAdapter implements FeatureLeaseStorePort {
+
+    private static final String LOCK_TIMEOUT = "SELECT set_config('lock_timeout', ?, true)";
+    private static final String ADVISORY_LOCK = "SELECT pg_advisory_xact_lock(?, ?)";
+
+    private static final String CURRENT = """
+            SELECT holder, token, expires_at FROM drawing.feature_lease
+            WHERE layer_id = ? AND feature_id = ? AND expires_at > now()
+            """;
+
+    // Clé primaire (layer_id, feature_id) : parcours de la seule couche
+    private static final String ACTIVE_IN_LAYER = """
+            SELECT EXISTS (SELECT 1 FROM drawing.feature_lease WHERE layer_id = ? AND expires_at > now())
+            """;
+
+    // Remplace un bail expiré encore présent dans la table
+    private static final String GRANT = """
+            INSERT INTO drawing.feature_lease (layer_id, feature_id, holder, token, expires_at)
+            VALUES (?, ?, ?, ?, now() + make_interval(secs => ?))
+            ON CONFLICT (layer_id, feature_id) DO UPDATE
+                SET holder = EXCLUDED.holder, token = EXCLUDED.token, expires_at = EXCLUDED.expires_at
+            RETURNING holder, token, expires_at
+            """;
+
+    private static final String RENEW = """
+            UPDATE drawing.feature_lease SET expires_at = now() + make_interval(secs => ?)
+            WHERE layer_id = ? AND feature_id = ? AND token = ? AND expires_at > now()
+            RETURNING holder, token, expires_at
+            """;
+
+    private static final String RELEASE =
+            "DELETE FROM drawing.feature_lease WHERE layer_id = ? AND feature_id = ? AND token = ?";
+
+    private static final String PURGE_EXPIRED = "DELETE FROM drawing.feature_lease WHERE expires_at < now()";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FeatureLeaseProperties properties;
+
+    @Override
+    public FeatureLease acquire(UUID layerId, String featureId, String holder, UUID token, Duration ttl) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.query(LOCK_TIMEOUT, rs -> null, properties.getLockTimeout().toMillis() + "ms");
+            jdbcTemplate.query(ADVISORY_LOCK, rs -> null, properties.getLockNamespace(),
+                    FeatureLease.stripe(layerId, featureId, properties.getStripes()));
+
+            Optional<FeatureLease> current = current(layerId, featureId);
+            if (current.isPresent()) {
+                return current.get();
+            }
+            return jdbcTemplate.queryForObject(GRANT, (rs, rowNum) -> lease(rs, layerId, featureId),
+                    layerId, featureId, holder, token, seconds(ttl));
+        });
+    }
+
+    @Override
+    public Optional<FeatureLease> renew(UUID layerId, String featureId, UUID token, Duration ttl) {
+        return jdbcTemplate.query(RENEW, (rs, rowNum) -> lease(rs, layerId, featureId),
+                seconds(ttl), layerId, featureId, token).stream().findFirst();
+    }
+
+    @Override
+    public boolean release(UUID layerId, String featureId, UUID token) {
+        return jdbcTemplate.update(RELEASE, layerId, featureId, token) > 0;
+    }
+
+    @Override
+    public Optional<FeatureLease> current(UUID layerId, String featureId) {
+        return jdbcTemplate.query(CURRENT, (rs, rowNum) -> lease(rs, layerId, featureId), layerId, featureId)
+                .stream().findFirst();
+    }
+
+    @Override
+    public boolean hasActiveLease(UUID layerId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(ACTIVE_IN_LAYER, Boolean.class, layerId));
+    }
+
+    @Override
+    public int purgeExpired() {
+        return jdbcTemplate.update(PURGE_EXPIRED);
+    }
+
+    private static FeatureLease lease(ResultSet rs, UUID layerId, String featureId) throws SQLException {
+        return new FeatureLease(layerId, featureId, rs.getString(1), rs.getObject(2, UUID.class),
+                rs.getObject(3, OffsetDateTime.class).toInstant());
+    }
+
+    private static double seconds(Duration ttl) {
+        return ttl.toMillis() / 1000.0;
+    }
+}
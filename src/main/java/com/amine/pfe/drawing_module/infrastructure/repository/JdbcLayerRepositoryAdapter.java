@@ -1,12 +1,19 @@
 package com.amine.pfe.drawing_module.infrastructure.repository;
 
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import com.amine.pfe.drawing_module.config.CacheConfig;
 import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
 import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
 
@@ -16,24 +23,47 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class JdbcLayerRepositoryAdapter implements LayerRepositoryPort {
 
+    // Projection explicite : les index de colonnes suivent cet ordre
+    private static final String SELECT_CATALOG =
+            "SELECT layer_id, name, geoserver_layer_name, workspace, table_name FROM drawing.layer_catalog";
+
+    private static final String FIND_BY_ID = SELECT_CATALOG + " WHERE layer_id = ?";
+    private static final String FIND_BY_IDS = SELECT_CATALOG + " WHERE layer_id = ANY (?)";
+    private static final String FIND_ALL = SELECT_CATALOG + " ORDER BY workspace, geoserver_layer_name";
+
+    private static final RowMapper<LayerCatalog> CATALOG_MAPPER = (rs, rowNum) -> new LayerCatalog(
+            rs.getObject(1, UUID.class),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getString(5));
+
     private final JdbcTemplate jdbcTemplate;
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.LAYER_CATALOGS, unless = "#result == null")
     public Optional<LayerCatalog> findLayerCatalogById(UUID layerId) {
-        String sql = "SELECT * FROM drawing.layer_catalog WHERE layer_id = ?";
-        try {
-            return jdbcTemplate.query(
-                    sql,
-                    ps -> ps.setObject(1, layerId),
-                    (rs, rowNum) -> new LayerCatalog(
-                            UUID.fromString(rs.getString("layer_id")),
-                            rs.getString("name"),
-                            rs.getString("geoserver_layer_name"),
-                            rs.getString("workspace"),
-                            rs.getString("table_name")))
-                    .stream().findFirst();
-        } catch (EmptyResultDataAccessException e) {
-            return Optional.empty();
+        return jdbcTemplate.query(FIND_BY_ID, ps -> ps.setObject(1, layerId), CATALOG_MAPPER)
+                .stream().findFirst();
+    }
+
+    @Override
+    public List<LayerCatalog> findLayerCatalogsByIds(Collection<UUID> layerIds) {
+        if (layerIds.isEmpty()) {
+            return List.of();
         }
+
+        // Un seul aller-retour pour tout le lot, quelle que soit sa taille
+        return jdbcTemplate.query((Connection connection) -> {
+            PreparedStatement ps = connection.prepareStatement(FIND_BY_IDS);
+            Array ids = connection.createArrayOf("uuid", layerIds.toArray());
+            ps.setArray(1, ids);
+            return ps;
+        }, CATALOG_MAPPER);
+    }
+
+    @Override
+    public List<LayerCatalog> findAllLayerCatalogs() {
+        return jdbcTemplate.query(FIND_ALL, CATALOG_MAPPER);
     }
 }
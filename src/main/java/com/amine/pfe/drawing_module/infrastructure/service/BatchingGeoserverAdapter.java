@@ -0,0 +1,311 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import com.amine.pfe.drawing_module.config.FeatureBatchingProperties;
+import com.amine.pfe.drawing_module.domain.exception.CartographicServerUnavailableException;
+import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.FeatureFilter;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperationOutcome;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.model.LayerSchema;
+import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.infrastructure.service.routing.GeoserverRouter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Regroupe les éditions unitaires concurrentes d'une même couche en une seule transaction WFS-T.
+ * Le premier appelant d'un lot attend la fenêtre puis l'envoie ; les suivants attendent leur résultat.
+ * La fenêtre suit la charge : nulle quand les éditions sont espacées, jusqu'à max-delay sous charge.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "drawing.batching.enabled", havingValue = "true")
+@Slf4j
+public class BatchingGeoserverAdapter implements CartographicServerPort {
+
+    private final GeoserverAdapter delegate;
+    private final long maxDelayNanos;
+    private final int maxBatchSize;
+    private final double smoothing;
+    private final Map<String, LayerBatch> batches = new ConcurrentHashMap<>();
+
+    private final DistributionSummary batchSizes;
+    private final Timer addedLatency;
+    private final Counter individualRetries;
+
+    // Résultat null : l'appelant exécute lui-même son opération, seule
+    private record Pending(FeatureOperation operation, CompletableFuture<FeatureOperationOutcome> outcome,
+            long enqueuedNanos) {
+    }
+
+    public BatchingGeoserverAdapter(GeoserverAdapter delegate, FeatureBatchingProperties properties,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxDelayNanos = properties.getMaxDelay().toNanos();
+        this.maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+        this.smoothing = properties.getSmoothing();
+        this.batchSizes = DistributionSummary.builder("drawing.batching.batch.size")
+                .description("Single-feature edits sent in one WFS-T transaction")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.addedLatency = Timer.builder("drawing.batching.wait")
+                .description("Time an edit waited for its batch to be sent")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        this.individualRetries = Counter.builder("drawing.batching.retries")
+                .description("Edits rolled back with their batch and sent again on their own")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public LayerSchema getLayerSchema(String workspace, String layerName) {
+        return delegate.getLayerSchema(workspace, layerName);
+    }
+
+    @Override
+    public LayerSchema refreshLayerSchema(String workspace, String layerName) {
+        return delegate.refreshLayerSchema(workspace, layerName);
+    }
+
+    @Override
+    public String getLayerRevision(String workspace, String layerName) {
+        return delegate.getLayerRevision(workspace, layerName);
+    }
+
+    @Override
+    public Feature getFeature(LayerCatalog layerCatalog, String featureId) {
+        return delegate.getFeature(layerCatalog, featureId);
+    }
+
+    @Override
+    public List<Feature> getFeatures(LayerCatalog layerCatalog, Collection<String> featureIds) {
+        return delegate.getFeatures(layerCatalog, featureIds);
+    }
+
+    @Override
+    public List<Feature> findFeatures(LayerCatalog layerCatalog, FeatureFilter.Envelope bbox, int maxFeatures) {
+        return delegate.findFeatures(layerCatalog, bbox, maxFeatures);
+    }
+
+    @Override
+    public String insertFeature(LayerCatalog layerCatalog, Feature feature) {
+        FeatureOperationOutcome outcome = submit(new FeatureOperation(FeatureOperation.Type.INSERT, layerCatalog, feature));
+        if (outcome == null) {
+            return delegate.insertFeature(layerCatalog, feature);
+        }
+        return outcome.success() ? outcome.featureId() : null;
+    }
+
+    @Override
+    public boolean updateFeature(LayerCatalog layerCatalog, Feature feature) {
+        FeatureOperationOutcome outcome = submit(new FeatureOperation(FeatureOperation.Type.UPDATE, layerCatalog, feature));
+        return outcome == null ? delegate.updateFeature(layerCatalog, feature) : outcome.success();
+    }
+
+    @Override
+    public boolean deleteFeature(LayerCatalog layerCatalog, String featureId) {
+        FeatureOperationOutcome outcome = submit(new FeatureOperation(FeatureOperation.Type.DELETE, layerCatalog,
+                Feature.builder().id(featureId).build()));
+        return outcome == null ? delegate.deleteFeature(layerCatalog, featureId) : outcome.success();
+    }
+
+    // Une seule action WFS-T par nature : rien à regrouper
+    @Override
+    public int deleteFeatures(LayerCatalog layerCatalog, FeatureFilter filter) {
+        return delegate.deleteFeatures(layerCatalog, filter);
+    }
+
+    @Override
+    public int updateFeatures(LayerCatalog layerCatalog, FeatureFilter filter, Map<String, Object> properties) {
+        return delegate.updateFeatures(layerCatalog, filter, properties);
+    }
+
+    // Déjà groupées par l'appelant
+    @Override
+    public List<FeatureOperationOutcome> executeTransaction(List<FeatureOperation> operations) {
+        return delegate.executeTransaction(operations);
+    }
+
+    private FeatureOperationOutcome submit(FeatureOperation operation) {
+        LayerCatalog layer = operation.layer();
+        LayerBatch batch = batches.computeIfAbsent(layer.workspace() + ":" + layer.geoserverLayerName(),
+                key -> new LayerBatch());
+        Pending pending = new Pending(operation, new CompletableFuture<>(), System.nanoTime());
+
+        List<Pending> leaderBatch = batch.enqueue(pending);
+        if (leaderBatch != null) {
+            for (List<Pending> transaction : transactions(leaderBatch)) {
+                send(transaction);
+            }
+        }
+
+        try {
+            return pending.outcome().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Au plus une mise à jour et une suppression par transaction : GeoServer ne compte que les totaux, un écart
+    // ne désigne alors que l'opération qui n'a trouvé aucune feature, jamais les autres écritures validées
+    private List<List<Pending>> transactions(List<Pending> batch) {
+        List<List<Pending>> transactions = new ArrayList<>();
+        List<Pending> current = new ArrayList<>();
+        boolean hasUpdate = false;
+        boolean hasDelete = false;
+        for (Pending pending : batch) {
+            FeatureOperation.Type type = pending.operation().type();
+            if (current.size() >= maxBatchSize
+                    || (type == FeatureOperation.Type.UPDATE && hasUpdate)
+                    || (type == FeatureOperation.Type.DELETE && hasDelete)) {
+                transactions.add(current);
+                current = new ArrayList<>();
+                hasUpdate = false;
+                hasDelete = false;
+            }
+            current.add(pending);
+            hasUpdate |= type == FeatureOperation.Type.UPDATE;
+            hasDelete |= type == FeatureOperation.Type.DELETE;
+        }
+        if (!current.isEmpty()) {
+            transactions.add(current);
+        }
+        return transactions;
+    }
+
+    private void send(List<Pending> batch) {
+        long dispatchedNanos = System.nanoTime();
+        for (Pending pending : batch) {
+            addedLatency.record(dispatchedNanos - pending.enqueuedNanos(), TimeUnit.NANOSECONDS);
+        }
+        batchSizes.record(batch.size());
+
+        if (batch.size() == 1) {
+            batch.get(0).outcome().complete(null);
+            return;
+        }
+
+        List<FeatureOperationOutcome> outcomes;
+        try {
+            outcomes = delegate.executeTransaction(batch.stream().map(Pending::operation).toList());
+        } catch (RuntimeException e) {
+            if (GeoserverRouter.isEndpointFailure(e)) {
+                CartographicServerUnavailableException unavailable = new CartographicServerUnavailableException(
+                        "GeoServer unavailable for batched WFS-T transaction: " + e.getMessage(), e);
+                batch.forEach(pending -> pending.outcome().completeExceptionally(unavailable));
+                return;
+            }
+            // Géométrie invalide dans le lot, par exemple : rien n'a été envoyé, chacun retente seul pour obtenir
+            // sa propre erreur
+            log.warn("Batched WFS-T transaction of {} edits failed, retrying them one by one: {}",
+                    batch.size(), e.getMessage());
+            individualRetries.increment(batch.size());
+            batch.forEach(pending -> pending.outcome().complete(null));
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            FeatureOperationOutcome outcome = outcomes.get(i);
+            CompletableFuture<FeatureOperationOutcome> result = batch.get(i).outcome();
+            if (hasPrefix(outcome, GeoserverAdapter.ROLLED_BACK_PREFIX)) {
+                // Annulée à cause d'une autre opération du lot : rien n'a été appliqué, elle est renvoyée seule
+                individualRetries.increment();
+                result.complete(null);
+            } else if (hasPrefix(outcome, GeoserverAdapter.UNDELIVERED_PREFIX)) {
+                // Cause conservée : l'édition peut être journalisée puis rejouée
+                result.completeExceptionally(new CartographicServerUnavailableException(outcome.message(),
+                        new ConnectException(outcome.message())));
+            } else if (hasPrefix(outcome, GeoserverAdapter.TRANSACTION_FAILED_PREFIX)) {
+                // Sans réponse, la transaction a pu être validée : pas de renvoi individuel
+                result.completeExceptionally(new CartographicServerUnavailableException(outcome.message(), null));
+            } else {
+                result.complete(outcome);
+            }
+        }
+    }
+
+    private static boolean hasPrefix(FeatureOperationOutcome outcome, String prefix) {
+        return !outcome.success() && outcome.message() != null && outcome.message().startsWith(prefix);
+    }
+
+    // Lot en constitution pour une couche, avec la moyenne mobile de l'intervalle entre arrivées
+    private final class LayerBatch {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition full = lock.newCondition();
+        private List<Pending> pending = new ArrayList<>();
+        private boolean leaderWaiting;
+        private long lastArrivalNanos;
+        private double gapNanos = Double.NaN;
+
+        // Retourne le lot à envoyer si l'appelant en est le premier arrivé, null sinon
+        List<Pending> enqueue(Pending arrival) {
+            lock.lock();
+            try {
+                recordArrival(arrival.enqueuedNanos());
+                pending.add(arrival);
+                if (leaderWaiting) {
+                    if (pending.size() >= maxBatchSize) {
+                        full.signal();
+                    }
+                    return null;
+                }
+
+                leaderWaiting = true;
+                try {
+                    long remaining = window();
+                    while (pending.size() < maxBatchSize && remaining > 0) {
+                        remaining = full.awaitNanos(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    leaderWaiting = false;
+                }
+                List<Pending> drained = pending;
+                pending = new ArrayList<>();
+                return drained;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Intervalle borné : après un creux, la fenêtre se rouvre en quelques arrivées rapprochées
+        private void recordArrival(long nowNanos) {
+            if (lastArrivalNanos != 0) {
+                double gap = Math.min(nowNanos - lastArrivalNanos, 2 * maxDelayNanos);
+                gapNanos = Double.isNaN(gapNanos) ? gap : smoothing * gap + (1 - smoothing) * gapNanos;
+            }
+            lastArrivalNanos = nowNanos;
+        }
+
+        // Assez long pour remplir le lot au rythme courant, sans dépasser max-delay ; nul si les arrivées sont espacées
+        private long window() {
+            if (Double.isNaN(gapNanos) || gapNanos >= maxDelayNanos) {
+                return 0;
+            }
+            return (long) Math.min(maxDelayNanos, gapNanos * (maxBatchSize - 1));
+        }
+    }
+}
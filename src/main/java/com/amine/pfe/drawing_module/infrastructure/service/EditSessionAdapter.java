@@ -0,0 +1,375 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.amine.pfe.drawing_module.domain.dto.EditOperation;
+import com.amine.pfe.drawing_module.domain.dto.EditOperationResult;
+import com.amine.pfe.drawing_module.domain.dto.EditSessionRequest;
+import com.amine.pfe.drawing_module.domain.dto.EditSessionResult;
+import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
+import com.amine.pfe.drawing_module.domain.exception.LayerNotFoundException;
+import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.FeatureChange;
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperationOutcome;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.domain.port.out.EditAuditPort;
+import com.amine.pfe.drawing_module.domain.port.out.EditSessionPort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeasePort;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+import com.amine.pfe.drawing_module.infrastructure.diagnostics.EditStageEvent;
+import com.amine.pfe.drawing_module.infrastructure.service.journal.EditJournal;
+import com.amine.pfe.drawing_module.infrastructure.service.sync.FeatureChangeRecorder;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Session d'édition multi-couches : une transaction WFS-T combinée par workspace,
+ * les workspaces en parallèle sur un pool borné. Une couche appartient à un seul workspace,
+ * l'ordre des opérations d'une couche est donc celui de la requête.
+ */
+@Service
+@Slf4j
+public class EditSessionAdapter implements EditSessionPort {
+
+    private final LayerRepositoryPort catalogRepository;
+    private final LayerManagerAdapter layerManagerAdapter;
+    private final CartographicServerPort cartographicServerPort;
+    private final FeatureCache featureCache;
+    private final FeatureFingerprintStore fingerprints;
+    private final FeatureChangeRecorder changeRecorder;
+    private final EditAuditPort editAudit;
+    private final EditJournal editJournal;
+    private final FeatureLeasePort featureLeases;
+    private final int maxOperations;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor executor;
+
+    // previous : état en cache avant la transaction, aligné sur les opérations (null si absent)
+    private record WorkspaceOutcome(List<FeatureOperationOutcome> outcomes, List<Feature> previous, long micros) {
+    }
+
+    public EditSessionAdapter(LayerRepositoryPort catalogRepository,
+            LayerManagerAdapter layerManagerAdapter,
+            CartographicServerPort cartographicServerPort,
+            FeatureCache featureCache,
+            FeatureFingerprintStore fingerprints,
+            FeatureChangeRecorder changeRecorder,
+            EditAuditPort editAudit,
+            EditJournal editJournal,
+            FeatureLeasePort featureLeases,
+            @Value("${drawing.edit-session.parallelism:4}") int parallelism,
+            @Value("${drawing.edit-session.max-operations:500}") int maxOperations,
+            @Value("${drawing.edit-session.timeout-ms:60000}") long timeoutMs) {
+        this.catalogRepository = catalogRepository;
+        this.layerManagerAdapter = layerManagerAdapter;
+        this.cartographicServerPort = cartographicServerPort;
+        this.featureCache = featureCache;
+        this.fingerprints = fingerprints;
+        this.changeRecorder = changeRecorder;
+        this.editAudit = editAudit;
+        this.editJournal = editJournal;
+        this.featureLeases = featureLeases;
+        this.maxOperations = maxOperations;
+        this.timeoutMs = timeoutMs;
+
+        AtomicInteger threads = new AtomicInteger();
+        // File bornée ; au-delà, la requête exécute elle-même sa transaction (pas de rejet)
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(parallelism * 32),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "edit-session-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public EditSessionResult executeEditSession(EditSessionRequest request) {
+        long start = System.nanoTime();
+        List<EditOperation> operations = request.getOperations();
+
+        if (operations == null || operations.isEmpty()) {
+            return EditSessionResult.builder()
+                    .success(false)
+                    .message("No operations in edit session")
+                    .operations(List.of())
+                    .build();
+        }
+        if (operations.size() > maxOperations) {
+            return EditSessionResult.builder()
+                    .success(false)
+                    .message("Too many operations in edit session: " + operations.size() + " > " + maxOperations)
+                    .operations(List.of())
+                    .build();
+        }
+
+        editJournal.requireNoBacklog();
+
+        log.info("Executing edit session of {} operations", operations.size());
+
+        // 1. Charger les catalogues des couches en une requête
+        Set<UUID> layerIds = operations.stream()
+                .map(EditOperation::getLayerId)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        EditStageEvent catalogLookup = EditStageEvent.begin(EditStageEvent.Stage.CATALOG_LOOKUP);
+        Map<UUID, LayerCatalog> layers = catalogRepository.findLayerCatalogsByIds(layerIds).stream()
+                .collect(Collectors.toMap(LayerCatalog::layerId, Function.identity()));
+        catalogLookup.finish();
+
+        // 2. Préparer chaque opération (géométrie, schéma, propriétés) et regrouper par workspace
+        List<EditOperationResult> results = new ArrayList<>(operations.size());
+        FeatureOperation[] prepared = new FeatureOperation[operations.size()];
+        Map<String, List<Integer>> operationsByWorkspace = new LinkedHashMap<>();
+        Set<String> invalidWorkspaces = new HashSet<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            EditOperation operation = operations.get(i);
+            EditOperationResult result = EditOperationResult.builder()
+                    .index(i)
+                    .type(operation.getType())
+                    .layerId(operation.getLayerId())
+                    .featureId(operation.getFeatureId())
+                    .build();
+            results.add(result);
+
+            long prepareStart = System.nanoTime();
+            LayerCatalog layer = operation.getLayerId() == null ? null : layers.get(operation.getLayerId());
+            try {
+                if (layer == null) {
+                    throw new LayerNotFoundException("Layer not found: " + operation.getLayerId());
+                }
+                result.setWorkspace(layer.workspace());
+                operationsByWorkspace.computeIfAbsent(layer.workspace(), workspace -> new ArrayList<>()).add(i);
+                prepared[i] = prepare(operation, layer, request);
+            } catch (Exception e) {
+                log.warn("Edit session operation #{} is invalid: {}", i, e.getMessage());
+                result.setMessage(e.getMessage());
+                if (layer != null) {
+                    invalidWorkspaces.add(layer.workspace());
+                }
+            }
+            result.setPrepareMicros(elapsedMicros(prepareStart));
+        }
+
+        // 3. Une transaction combinée par workspace, les workspaces en parallèle
+        Map<String, CompletableFuture<WorkspaceOutcome>> transactions = new LinkedHashMap<>();
+        operationsByWorkspace.forEach((workspace, indexes) -> {
+            if (invalidWorkspaces.contains(workspace)) {
+                // Tout ou rien par workspace : une opération invalide annule ses voisines
+                indexes.stream()
+                        .filter(index -> prepared[index] != null)
+                        .forEach(index -> results.get(index).setMessage(
+                                "Skipped: another operation in workspace " + workspace + " is invalid"));
+                releaseGeometries(indexes.stream()
+                        .filter(index -> prepared[index] != null)
+                        .map(index -> prepared[index])
+                        .toList());
+                return;
+            }
+
+            List<FeatureOperation> workspaceOperations = indexes.stream().map(index -> prepared[index]).toList();
+            transactions.put(workspace, CompletableFuture.supplyAsync(withMdc(() -> {
+                long transactionStart = System.nanoTime();
+                List<FeatureOperationOutcome> outcomes;
+                long micros;
+                List<Feature> previous;
+                try {
+                    outcomes = cartographicServerPort.executeTransaction(workspaceOperations);
+                    micros = elapsedMicros(transactionStart);
+                } finally {
+                    previous = invalidateCachedFeatures(workspaceOperations);
+                    releaseGeometries(workspaceOperations);
+                }
+                // Ici plutôt qu'à la réception : une transaction validée après le délai de la session est tracée aussi
+                record(workspaceOperations, outcomes, previous);
+                return new WorkspaceOutcome(outcomes, previous, micros);
+            }), executor));
+        });
+
+        // 4. Attendre les transactions dans la limite du délai de la session
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        transactions.forEach((workspace, transaction) -> {
+            List<Integer> indexes = operationsByWorkspace.get(workspace);
+            try {
+                WorkspaceOutcome outcome = transaction.get(Math.max(0, deadline - System.nanoTime()),
+                        TimeUnit.NANOSECONDS);
+                for (int k = 0; k < indexes.size(); k++) {
+                    EditOperationResult result = results.get(indexes.get(k));
+                    FeatureOperationOutcome operationOutcome = outcome.outcomes().get(k);
+                    result.setSuccess(operationOutcome.success());
+                    result.setUnconfirmed(operationOutcome.unconfirmed());
+                    result.setFeatureId(operationOutcome.featureId());
+                    result.setMessage(operationOutcome.success() && !operationOutcome.unconfirmed()
+                            ? successMessage(result.getType())
+                            : operationOutcome.message());
+                    result.setTransactionMicros(outcome.micros());
+                }
+            } catch (TimeoutException e) {
+                log.error("Edit session transaction in workspace {} timed out after {} ms", workspace, timeoutMs);
+                indexes.forEach(index -> {
+                    results.get(index).setUnconfirmed(true);
+                    results.get(index).setMessage("Timed out waiting for GeoServer; the transaction may still commit");
+                });
+            } catch (ExecutionException e) {
+                log.error("Edit session transaction in workspace {} failed: {}", workspace,
+                        e.getCause().getMessage(), e.getCause());
+                indexes.forEach(index -> results.get(index)
+                        .setMessage("WFS-T transaction failed: " + e.getCause().getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                indexes.forEach(index -> results.get(index).setMessage("Interrupted"));
+            }
+        });
+
+        int succeeded = (int) results.stream().filter(EditOperationResult::isSuccess).count();
+        int failed = results.size() - succeeded;
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Edit session completed in {} ms: {} succeeded, {} failed across {} workspaces",
+                durationMs, succeeded, failed, operationsByWorkspace.size());
+
+        return EditSessionResult.builder()
+                .success(failed == 0)
+                .message(failed == 0
+                        ? "Edit session completed successfully"
+                        : "Edit session completed with " + failed + " failed operations")
+                .succeeded(succeeded)
+                .failed(failed)
+                .durationMs(durationMs)
+                .operations(results)
+                .build();
+    }
+
+    private FeatureOperation prepare(EditOperation operation, LayerCatalog layer, EditSessionRequest request) {
+        FeatureOperation.Type type = operation.getType();
+        if (type == null) {
+            throw new IllegalArgumentException("Operation type is required");
+        }
+        String featureId = operation.getFeatureId();
+        if (type != FeatureOperation.Type.INSERT && (featureId == null || featureId.isBlank())) {
+            throw new IllegalArgumentException("Feature ID is required for " + type);
+        }
+        if (type != FeatureOperation.Type.INSERT) {
+            featureLeases.checkEditAny(layer.layerId(), featureId, request.getLeaseTokens());
+        }
+
+        if (type == FeatureOperation.Type.DELETE) {
+            return new FeatureOperation(type, layer, Feature.builder().id(featureId).build());
+        }
+
+        FeatureUpdateRequest featureRequest = operation.toFeatureUpdateRequest(request.getGeometryEncoding());
+        FeatureGeometry geometry = layerManagerAdapter.parseGeometry(featureRequest);
+        try {
+            Feature feature = layerManagerAdapter.buildFeature(layer,
+                    type == FeatureOperation.Type.INSERT ? null : featureId,
+                    geometry, featureRequest, type == FeatureOperation.Type.INSERT);
+            return new FeatureOperation(type, layer, feature);
+        } catch (RuntimeException e) {
+            // Opération invalide : la géométrie hors tas n'atteindra pas releaseGeometries
+            LayerManagerAdapter.release(geometry);
+            throw e;
+        }
+    }
+
+    // Après la transaction, quelle que soit son issue : une lecture concurrente a pu mettre l'ancien état en cache.
+    // Rend les états invalidés, alignés sur les opérations
+    private List<Feature> invalidateCachedFeatures(List<FeatureOperation> operations) {
+        List<Feature> previous = new ArrayList<>(operations.size());
+        for (FeatureOperation operation : operations) {
+            Feature cached = null;
+            if (operation.type() != FeatureOperation.Type.INSERT) {
+                cached = featureCache.invalidate(operation.layer().layerId(), operation.feature().getId());
+                fingerprints.invalidate(operation.layer().layerId(), operation.feature().getId());
+            }
+            previous.add(cached);
+        }
+        return previous;
+    }
+
+    // Journal des changements et audit des opérations validées, non confirmées comprises
+    private void record(List<FeatureOperation> operations, List<FeatureOperationOutcome> outcomes,
+            List<Feature> previous) {
+        List<FeatureChange> changes = new ArrayList<>(operations.size());
+        for (int k = 0; k < operations.size(); k++) {
+            FeatureOperation operation = operations.get(k);
+            FeatureOperationOutcome outcome = outcomes.get(k);
+            if (!outcome.success() || outcome.featureId() == null) {
+                continue;
+            }
+            UUID layerId = operation.layer().layerId();
+            changes.add(FeatureChange.of(layerId, outcome.featureId(), operation.type()));
+            editAudit.record(layerId, outcome.featureId(), operation.type(),
+                    previous.get(k) != null ? previous.get(k).getProperties() : null,
+                    operation.type() == FeatureOperation.Type.DELETE ? null : operation.feature().getProperties());
+        }
+        changeRecorder.recordAll(changes);
+    }
+
+    // Après la transaction seulement : même sur délai dépassé, elle peut encore lire les coordonnées hors tas
+    private static void releaseGeometries(List<FeatureOperation> operations) {
+        operations.forEach(operation -> LayerManagerAdapter.release(operation.feature().getGeometry()));
+    }
+
+    private static String successMessage(FeatureOperation.Type type) {
+        return switch (type) {
+            case INSERT -> "Feature created successfully";
+            case UPDATE -> "Feature updated successfully";
+            case DELETE -> "Feature deleted successfully";
+        };
+    }
+
+    private static long elapsedMicros(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+
+    // Propage l'identifiant de corrélation aux threads du pool
+    private static <T> Supplier<T> withMdc(Supplier<T> task) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            if (context != null) {
+                MDC.setContextMap(context);
+            }
+            try {
+                return task.get();
+            } finally {
+                if (previous != null) {
+                    MDC.setContextMap(previous);
+                } else {
+                    MDC.clear();
+                }
+            }
+        };
+    }
+}
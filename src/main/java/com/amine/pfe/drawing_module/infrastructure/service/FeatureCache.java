@@ -0,0 +1,73 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache des features lues sur GeoServer, borné par le nombre total de sommets.
+ * Les entrées sont partagées : les appelants ne modifient jamais une feature obtenue ici.
+ */
+@Component
+public class FeatureCache {
+
+    private record Key(UUID layerId, String featureId) {
+    }
+
+    private final Cache<Key, Feature> cache;
+
+    public FeatureCache(@Value("${drawing.feature-cache.max-vertices:5000000}") long maxVertices,
+            @Value("${drawing.feature-cache.expire-after-write-seconds:300}") long expireAfterWriteSeconds,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxVertices)
+                .weigher((Key key, Feature feature) -> weight(feature))
+                .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .executor(Runnable::run)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "features");
+    }
+
+    // Une feature absente (loader null) n'est pas mise en cache
+    public Feature get(UUID layerId, String featureId, Supplier<Feature> loader) {
+        return cache.get(new Key(layerId, featureId), key -> loader.get());
+    }
+
+    public Feature getIfPresent(UUID layerId, String featureId) {
+        return cache.getIfPresent(new Key(layerId, featureId));
+    }
+
+    public void put(UUID layerId, Feature feature) {
+        cache.put(new Key(layerId, feature.getId()), feature);
+    }
+
+    // Retourne l'entrée retirée, pour une écriture "write-through" après la transaction
+    public Feature invalidate(UUID layerId, String featureId) {
+        return cache.asMap().remove(new Key(layerId, featureId));
+    }
+
+    // Édition en masse par emprise ou condition : les features touchées ne sont pas connues
+    public void invalidateLayer(UUID layerId) {
+        cache.asMap().keySet().removeIf(key -> key.layerId().equals(layerId));
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static int weight(Feature feature) {
+        double[] coordinates = feature.getGeometry() != null ? feature.getGeometry().getCoordinates() : null;
+        return 1 + (coordinates != null ? coordinates.length / 2 : 0);
+    }
+}
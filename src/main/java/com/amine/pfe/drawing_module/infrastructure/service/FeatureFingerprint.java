@@ -0,0 +1,118 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+
+/**
+ * Empreinte 64 bits du contenu d'une feature prête pour WFS-T : type et coordonnées de la géométrie, CRS,
+ * propriétés converties triées par nom. Les dates de suivi sont exclues, elles changent à chaque envoi.
+ * Calcul en flux sur les coordonnées, sans copie, sur le tas comme hors tas.
+ */
+public final class FeatureFingerprint {
+
+    private static final Set<String> TRACKING_PROPERTIES = Set.of("date_creation", "date_modif");
+
+    // Constantes de xxHash64
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+
+    // Séparateurs entre sections, pour que ("ab", "c") et ("a", "bc") ne se confondent pas
+    private static final long NULL_MARKER = 0x6E756C6CL;
+    private static final long SECTION_MARKER = 0x7C7C7C7CL;
+
+    private long hash = PRIME_5;
+
+    private FeatureFingerprint() {
+    }
+
+    public static long of(Feature feature) {
+        FeatureFingerprint fingerprint = new FeatureFingerprint();
+        FeatureGeometry geometry = feature.getGeometry();
+        fingerprint.update(geometry != null ? geometry.getType() : null);
+        fingerprint.update(feature.getCrs());
+        if (geometry != null) {
+            fingerprint.update(geometry.coordinateBuffer());
+        }
+        fingerprint.update(feature.getProperties());
+        return fingerprint.finish();
+    }
+
+    // Clé d'une feature dans FeatureFingerprintStore ; la génération change après une édition en masse par filtre
+    static long featureKey(UUID layerId, int generation, String featureId) {
+        FeatureFingerprint key = new FeatureFingerprint();
+        key.mix(layerId.getMostSignificantBits());
+        key.mix(layerId.getLeastSignificantBits());
+        key.mix(generation);
+        key.update(featureId);
+        return key.finish();
+    }
+
+    private void update(DoubleBuffer coordinates) {
+        DoubleBuffer view = coordinates.duplicate();
+        mix(view.remaining());
+        while (view.hasRemaining()) {
+            mix(Double.doubleToLongBits(view.get()));
+        }
+        mix(SECTION_MARKER);
+    }
+
+    private void update(Map<String, Object> properties) {
+        if (properties == null) {
+            mix(NULL_MARKER);
+            return;
+        }
+        String[] keys = properties.keySet().stream()
+                .filter(key -> !TRACKING_PROPERTIES.contains(key))
+                .toArray(String[]::new);
+        Arrays.sort(keys);
+        for (String key : keys) {
+            update(key);
+            Object value = properties.get(key);
+            update(value != null ? String.valueOf(value) : null);
+        }
+        mix(SECTION_MARKER);
+    }
+
+    private void update(String value) {
+        if (value == null) {
+            mix(NULL_MARKER);
+            return;
+        }
+        int length = value.length();
+        mix(length);
+        // Quatre caractères UTF-16 par mot de 64 bits
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            mix((long) value.charAt(i) | (long) value.charAt(i + 1) << 16
+                    | (long) value.charAt(i + 2) << 32 | (long) value.charAt(i + 3) << 48);
+        }
+        long tail = 0;
+        for (int shift = 0; i < length; i++, shift += 16) {
+            tail |= (long) value.charAt(i) << shift;
+        }
+        mix(tail);
+    }
+
+    private void mix(long value) {
+        long round = Long.rotateLeft(value * PRIME_2, 31) * PRIME_1;
+        hash = Long.rotateLeft(hash ^ round, 27) * PRIME_1 + PRIME_4;
+    }
+
+    private long finish() {
+        long h = hash;
+        h ^= h >>> 33;
+        h *= PRIME_2;
+        h ^= h >>> 29;
+        h *= PRIME_1;
+        h ^= h >>> 32;
+        return h;
+    }
+}
@@ -0,0 +1,244 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.amine.pfe.drawing_module.config.FeatureFingerprintProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Dernière empreinte écrite par feature ({@link FeatureFingerprint}), pour répondre sans GeoServer aux
+ * mises à jour identiques. Table à adressage ouvert dans des tableaux primitifs (clé et empreinte sur 64 bits,
+ * date d'écriture sur 32), découpée en segments verrouillés séparément ; une entrée perdue ne coûte
+ * qu'une transaction WFS-T.
+ */
+@Component
+public class FeatureFingerprintStore {
+
+    private static final int SEGMENTS = 64;
+    // Une recherche lit au plus ce nombre de cases contiguës ; une insertion y remplace la plus ancienne
+    private static final int PROBES = 8;
+    private static final long EMPTY = 0;
+
+    private final boolean enabled;
+    private final int ttlSeconds;
+    private final Segment[] segments;
+    // Édition en masse par filtre : les features touchées sont inconnues, la génération de la couche change
+    private final Map<UUID, Integer> layerGenerations = new ConcurrentHashMap<>();
+    // Jetons d'écriture en cours : bit de poids faible à 1, jamais égal à une empreinte stockée
+    private final AtomicLong tokens = new AtomicLong();
+    private final long origin = System.nanoTime();
+    private final Counter unchanged;
+
+    public FeatureFingerprintStore(FeatureFingerprintProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled() && properties.getMaxEntries() > 0;
+        this.ttlSeconds = (int) Math.min(Integer.MAX_VALUE, properties.getTtl().toSeconds());
+        if (enabled) {
+            // Puissance de deux au moins égale à maxEntries, répartie entre les segments
+            long capacity = Long.highestOneBit(Math.max(1, properties.getMaxEntries() - 1L)) * 2;
+            int slots = (int) Math.max(PROBES, capacity / SEGMENTS);
+            this.segments = new Segment[SEGMENTS];
+            for (int i = 0; i < SEGMENTS; i++) {
+                segments[i] = new Segment(slots);
+            }
+        } else {
+            this.segments = null;
+        }
+        this.unchanged = meterRegistry.counter("drawing.edits.unchanged");
+        Gauge.builder("drawing.fingerprint.entries", this, FeatureFingerprintStore::size)
+                .description("Features whose last written content fingerprint is known")
+                .register(meterRegistry);
+    }
+
+    // Vrai si la feature a été écrite avec ce contenu par le module, depuis moins que le TTL
+    public boolean matches(UUID layerId, String featureId, long fingerprint) {
+        if (!enabled || featureId == null) {
+            return false;
+        }
+        long key = key(layerId, featureId);
+        boolean match = segment(key).contains(key, stored(fingerprint), now(), ttlSeconds);
+        if (match) {
+            unchanged.increment();
+        }
+        return match;
+    }
+
+    // Avant la transaction : tant qu'elle est en cours, aucune requête n'est considérée identique
+    public long begin(UUID layerId, String featureId) {
+        if (!enabled || featureId == null) {
+            return EMPTY;
+        }
+        long token = tokens.incrementAndGet() << 1 | 1;
+        long key = key(layerId, featureId);
+        segment(key).put(key, token, now());
+        return token;
+    }
+
+    // Après une transaction réussie ; si une autre écriture a commencé entre-temps, l'ordre appliqué par
+    // GeoServer est inconnu et l'entrée est retirée
+    public void complete(UUID layerId, String featureId, long token, long fingerprint) {
+        if (!enabled || token == EMPTY) {
+            return;
+        }
+        long key = key(layerId, featureId);
+        segment(key).replace(key, token, stored(fingerprint), now());
+    }
+
+    // Feature créée : aucune autre écriture ne peut la viser avant la réponse
+    public void put(UUID layerId, String featureId, long fingerprint) {
+        if (!enabled || featureId == null) {
+            return;
+        }
+        long key = key(layerId, featureId);
+        segment(key).put(key, stored(fingerprint), now());
+    }
+
+    public void invalidate(UUID layerId, String featureId) {
+        if (!enabled || featureId == null) {
+            return;
+        }
+        long key = key(layerId, featureId);
+        segment(key).remove(key);
+    }
+
+    public void invalidateLayer(UUID layerId) {
+        if (enabled) {
+            layerGenerations.merge(layerId, 1, Integer::sum);
+        }
+    }
+
+    public long size() {
+        if (!enabled) {
+            return 0;
+        }
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private long key(UUID layerId, String featureId) {
+        long key = FeatureFingerprint.featureKey(layerId, layerGenerations.getOrDefault(layerId, 0), featureId);
+        return key != EMPTY ? key : 1;
+    }
+
+    // Bits de poids fort pour le segment, de poids faible pour la case
+    private Segment segment(long key) {
+        return segments[(int) (key >>> 58) & (SEGMENTS - 1)];
+    }
+
+    private static long stored(long fingerprint) {
+        return fingerprint & ~1L;
+    }
+
+    private int now() {
+        return (int) ((System.nanoTime() - origin) / 1_000_000_000L);
+    }
+
+    private static final class Segment {
+
+        private final long[] keys;
+        private final long[] values;
+        private final int[] writtenAt;
+        private final int mask;
+        private int size;
+
+        Segment(int slots) {
+            this.keys = new long[slots];
+            this.values = new long[slots];
+            this.writtenAt = new int[slots];
+            this.mask = slots - 1;
+        }
+
+        synchronized boolean contains(long key, long value, int now, int ttlSeconds) {
+            int slot = find(key);
+            if (slot < 0) {
+                return false;
+            }
+            if (now - writtenAt[slot] > ttlSeconds) {
+                clear(slot);
+                return false;
+            }
+            return values[slot] == value;
+        }
+
+        synchronized void put(long key, long value, int now) {
+            int slot = find(key);
+            if (slot < 0) {
+                slot = victim(key);
+                if (keys[slot] == EMPTY) {
+                    size++;
+                }
+                keys[slot] = key;
+            }
+            values[slot] = value;
+            writtenAt[slot] = now;
+        }
+
+        synchronized void replace(long key, long expected, long value, int now) {
+            int slot = find(key);
+            if (slot < 0) {
+                return;
+            }
+            if (values[slot] == expected) {
+                values[slot] = value;
+                writtenAt[slot] = now;
+            } else {
+                clear(slot);
+            }
+        }
+
+        synchronized void remove(long key) {
+            int slot = find(key);
+            if (slot >= 0) {
+                clear(slot);
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        // Toute la fenêtre est lue : une case vidée ne coupe pas la recherche
+        private int find(long key) {
+            int start = (int) key & mask;
+            for (int i = 0; i < PROBES; i++) {
+                int slot = (start + i) & mask;
+                if (keys[slot] == key) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        // Première case libre de la fenêtre, sinon la plus anciennement écrite
+        private int victim(long key) {
+            int start = (int) key & mask;
+            int oldest = start;
+            for (int i = 0; i < PROBES; i++) {
+                int slot = (start + i) & mask;
+                if (keys[slot] == EMPTY) {
+                    return slot;
+                }
+                if (writtenAt[slot] < writtenAt[oldest]) {
+                    oldest = slot;
+                }
+            }
+            return oldest;
+        }
+
+        private void clear(int slot) {
+            keys[slot] = EMPTY;
+            values[slot] = EMPTY;
+            size--;
+        }
+    }
+}
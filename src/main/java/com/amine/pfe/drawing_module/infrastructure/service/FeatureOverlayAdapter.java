@@ -0,0 +1,353 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import com.amine.pfe.drawing_module.config.TopologyEditProperties;
+import com.amine.pfe.drawing_module.domain.dto.FeatureOverlayRequest;
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditResult;
+import com.amine.pfe.drawing_module.domain.exception.LayerNotFoundException;
+import com.amine.pfe.drawing_module.domain.geometry.GeoJsonGeometries;
+import com.amine.pfe.drawing_module.domain.geometry.PolygonOverlay;
+import com.amine.pfe.drawing_module.domain.geometry.PolygonOverlay.ClipMode;
+import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.model.LayerSchema;
+import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.domain.port.out.EditAuditPort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeasePort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureOverlayPort;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+import com.amine.pfe.drawing_module.domain.util.AttributeInheritance;
+import com.amine.pfe.drawing_module.infrastructure.service.crs.CrsTransformer;
+import com.amine.pfe.drawing_module.infrastructure.service.journal.EditJournal;
+import com.amine.pfe.drawing_module.infrastructure.service.sync.FeatureChangeRecorder;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Découpe par une ligne, fusion et découpage par une emprise calculés côté serveur sur les coordonnées
+ * "à plat" : la feature modifiée, les features créées et les features supprimées le sont dans une seule
+ * transaction WFS-T, avec les propriétés héritées selon le schéma de la couche. Comme les éditions de frontière,
+ * non journalisées.
+ */
+@Service
+@Slf4j
+public class FeatureOverlayAdapter implements FeatureOverlayPort {
+
+    private static final Set<String> POLYGON_TYPES = Set.of("Polygon", "MultiPolygon");
+    private static final Set<String> LINE_TYPES = Set.of("LineString", "MultiLineString");
+
+    private final LayerRepositoryPort catalogRepository;
+    private final CartographicServerPort cartographicServerPort;
+    private final CrsTransformer crsTransformer;
+    private final EditJournal editJournal;
+    private final FeatureTransactionApplier transactions;
+    private final FeatureLeasePort featureLeases;
+    private final TopologyEditProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Timer splitTimer;
+    private final Timer mergeTimer;
+    private final Timer clipTimer;
+
+    public FeatureOverlayAdapter(LayerRepositoryPort catalogRepository,
+            CartographicServerPort cartographicServerPort,
+            CrsTransformer crsTransformer,
+            EditJournal editJournal,
+            FeatureCache featureCache,
+            FeatureFingerprintStore fingerprints,
+            FeatureChangeRecorder changeRecorder,
+            EditAuditPort editAudit,
+            FeatureLeasePort featureLeases,
+            TopologyEditProperties properties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.catalogRepository = catalogRepository;
+        this.cartographicServerPort = cartographicServerPort;
+        this.crsTransformer = crsTransformer;
+        this.editJournal = editJournal;
+        this.transactions = new FeatureTransactionApplier(cartographicServerPort, featureCache, fingerprints,
+                changeRecorder, editAudit);
+        this.featureLeases = featureLeases;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.splitTimer = timer(meterRegistry, "split");
+        this.mergeTimer = timer(meterRegistry, "merge");
+        this.clipTimer = timer(meterRegistry, "clip");
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("drawing.topology.overlay")
+                .description("Polygon split, merge or clip, geometry computation and transaction included")
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public TopologyEditResult split(UUID layerId, String featureId, FeatureOverlayRequest request) {
+        long start = System.nanoTime();
+        try {
+            return split(layerId, featureId, request, start);
+        } finally {
+            splitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public TopologyEditResult merge(UUID layerId, FeatureOverlayRequest request) {
+        long start = System.nanoTime();
+        try {
+            return merge(layerId, request, start);
+        } finally {
+            mergeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public TopologyEditResult clip(UUID layerId, String featureId, FeatureOverlayRequest request) {
+        long start = System.nanoTime();
+        try {
+            return clip(layerId, featureId, request, start);
+        } finally {
+            clipTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private TopologyEditResult split(UUID layerId, String featureId, FeatureOverlayRequest request, long start) {
+        log.info("Split of feature {} in layer {}", featureId, layerId);
+        LayerCatalog layerCatalog = layerCatalog(layerId);
+        LayerSchema layerSchema = cartographicServerPort.getLayerSchema(
+                layerCatalog.workspace(), layerCatalog.geoserverLayerName());
+        FeatureGeometry line = cutter(request, layerSchema, LINE_TYPES);
+        Feature source = polygonFeature(layerCatalog, featureId);
+
+        // 1. Pièces, de la plus grande à la plus petite : la feature découpée garde la plus grande
+        List<double[]> pieces = PolygonOverlay.split(source.getGeometry().coordinateBuffer(),
+                line.coordinateBuffer(), properties.getTolerance());
+        if (pieces.size() > properties.getMaxFeatures()) {
+            throw new IllegalArgumentException("Split produces more than " + properties.getMaxFeatures()
+                    + " features");
+        }
+        AttributeInheritance inheritance = AttributeInheritance.of(layerSchema, properties.getAttributeRules(),
+                request.getAttributeRules());
+        List<FeatureOperation> operations = pieces(layerCatalog, layerSchema, source, pieces, false, inheritance);
+
+        featureLeases(layerId, List.of(featureId), request.getLeaseTokens());
+        return transactions.apply(layerCatalog, "Split", featureId, operations, Map.of(featureId, source), start);
+    }
+
+    private TopologyEditResult clip(UUID layerId, String featureId, FeatureOverlayRequest request, long start) {
+        log.info("Clip of feature {} in layer {}", featureId, layerId);
+        LayerCatalog layerCatalog = layerCatalog(layerId);
+        LayerSchema layerSchema = cartographicServerPort.getLayerSchema(
+                layerCatalog.workspace(), layerCatalog.geoserverLayerName());
+        FeatureGeometry extent = cutter(request, layerSchema, POLYGON_TYPES);
+        Feature source = polygonFeature(layerCatalog, featureId);
+        ClipMode mode = request.getMode() != null ? request.getMode() : ClipMode.INSIDE;
+
+        List<double[]> pieces = PolygonOverlay.clip(source.getGeometry().coordinateBuffer(),
+                extent.coordinateBuffer(), mode, properties.getTolerance());
+        if (pieces.isEmpty()) {
+            throw new IllegalArgumentException("Nothing of the feature is left by the clip");
+        }
+        double sourceArea = PolygonOverlay.area(source.getGeometry().coordinateBuffer());
+        double clippedArea = 0;
+        for (double[] piece : pieces) {
+            clippedArea += PolygonOverlay.area(DoubleBuffer.wrap(piece));
+        }
+        if (pieces.size() == 1 && Math.abs(sourceArea - clippedArea) <= sourceArea * 1e-9) {
+            // Feature entièrement du côté conservé : rien à écrire
+            return TopologyEditResult.builder()
+                    .success(true)
+                    .message("Feature unchanged by the clip")
+                    .featureIds(List.of())
+                    .insertedIds(List.of())
+                    .deletedIds(List.of())
+                    .durationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .build();
+        }
+        if (pieces.size() > properties.getMaxFeatures()) {
+            throw new IllegalArgumentException("Clip produces more than " + properties.getMaxFeatures()
+                    + " features");
+        }
+
+        AttributeInheritance inheritance = AttributeInheritance.of(layerSchema, properties.getAttributeRules(),
+                request.getAttributeRules());
+        // Un MultiPolygon garde toutes les parties ; un Polygon garde la plus grande, les autres sont créées
+        boolean multi = "MultiPolygon".equals(source.getGeometry().getType());
+        List<double[]> kept = multi ? List.of(PolygonOverlay.pack(pieces, true)) : pieces;
+        List<FeatureOperation> operations = pieces(layerCatalog, layerSchema, source, kept, multi, inheritance);
+
+        featureLeases(layerId, List.of(featureId), request.getLeaseTokens());
+        return transactions.apply(layerCatalog, "Clip", featureId, operations, Map.of(featureId, source), start);
+    }
+
+    private TopologyEditResult merge(UUID layerId, FeatureOverlayRequest request, long start) {
+        List<String> featureIds = request.getFeatureIds() == null
+                ? List.of()
+                : List.copyOf(new LinkedHashSet<>(request.getFeatureIds()));
+        log.info("Merge of features {} in layer {}", featureIds, layerId);
+        if (featureIds.size() < 2) {
+            throw new IllegalArgumentException("A merge needs at least 2 features");
+        }
+        int maxFeatures = Math.min(properties.getMaxFeatures(), PolygonOverlay.MAX_POLYGONS);
+        if (featureIds.size() > maxFeatures) {
+            throw new IllegalArgumentException("A merge takes at most " + maxFeatures + " features");
+        }
+        LayerCatalog layerCatalog = layerCatalog(layerId);
+        LayerSchema layerSchema = cartographicServerPort.getLayerSchema(
+                layerCatalog.workspace(), layerCatalog.geoserverLayerName());
+
+        // 1. Une seule lecture pour toutes les features fusionnées
+        Map<String, Feature> sources = new HashMap<>();
+        for (Feature feature : cartographicServerPort.getFeatures(layerCatalog, featureIds)) {
+            sources.put(feature.getId(), feature);
+        }
+        List<DoubleBuffer> polygons = new ArrayList<>(featureIds.size());
+        List<Map<String, Object>> sourceProperties = new ArrayList<>(featureIds.size());
+        for (String id : featureIds) {
+            Feature feature = sources.get(id);
+            checkPolygon(feature, id);
+            polygons.add(feature.getGeometry().coordinateBuffer());
+            sourceProperties.add(feature.getProperties());
+        }
+
+        // 2. Union : la première feature la reçoit, les autres sont supprimées
+        Feature kept = sources.get(featureIds.get(0));
+        boolean multi = "MultiPolygon".equals(kept.getGeometry().getType());
+        List<double[]> merged = PolygonOverlay.merge(polygons, properties.getTolerance());
+        if (!multi && merged.size() > 1) {
+            throw new IllegalArgumentException("Features are not adjacent");
+        }
+        AttributeInheritance inheritance = AttributeInheritance.of(layerSchema, properties.getAttributeRules(),
+                request.getAttributeRules());
+        Map<String, Object> changed = inheritance.merge(sourceProperties);
+        changed.put("date_modif", LayerManagerAdapter.timestamp());
+
+        List<FeatureOperation> operations = new ArrayList<>();
+        for (String id : featureIds.subList(1, featureIds.size())) {
+            operations.add(new FeatureOperation(FeatureOperation.Type.DELETE, layerCatalog,
+                    Feature.builder().id(id).build()));
+        }
+        operations.add(new FeatureOperation(FeatureOperation.Type.UPDATE, layerCatalog, Feature.builder()
+                .id(kept.getId())
+                .geometry(new FeatureGeometry(kept.getGeometry().getType(), PolygonOverlay.pack(merged, multi), null))
+                .properties(changed)
+                .crs(featureCrs(kept, layerSchema))
+                .build()));
+
+        featureLeases(layerId, featureIds, request.getLeaseTokens());
+        return transactions.apply(layerCatalog, "Merge", kept.getId(), operations, sources, start);
+    }
+
+    // Mise à jour de la feature source avec la première pièce, création des autres ; packed : pièces déjà
+    // regroupées en MultiPolygon
+    private static List<FeatureOperation> pieces(LayerCatalog layerCatalog, LayerSchema layerSchema, Feature source,
+            List<double[]> pieces, boolean packed, AttributeInheritance inheritance) {
+        String type = source.getGeometry().getType();
+        boolean multi = "MultiPolygon".equals(type);
+        double[] areas = new double[pieces.size()];
+        for (int i = 0; i < pieces.size(); i++) {
+            areas[i] = PolygonOverlay.area(DoubleBuffer.wrap(pieces.get(i)));
+        }
+        List<Map<String, Object>> inherited = inheritance.split(source.getProperties(), areas,
+                PolygonOverlay.area(source.getGeometry().coordinateBuffer()));
+
+        String timestamp = LayerManagerAdapter.timestamp();
+        String crs = featureCrs(source, layerSchema);
+        List<FeatureOperation> operations = new ArrayList<>(pieces.size());
+        for (int i = 0; i < pieces.size(); i++) {
+            double[] piece = pieces.get(i);
+            double[] coordinates = multi && !packed ? PolygonOverlay.pack(List.of(piece), true) : piece;
+            Map<String, Object> properties = inherited.get(i);
+            if (i > 0) {
+                properties.put("date_creation", timestamp);
+            }
+            properties.put("date_modif", timestamp);
+            operations.add(new FeatureOperation(
+                    i == 0 ? FeatureOperation.Type.UPDATE : FeatureOperation.Type.INSERT,
+                    layerCatalog,
+                    Feature.builder()
+                            .id(i == 0 ? source.getId() : null)
+                            .geometry(new FeatureGeometry(type, coordinates, null))
+                            .properties(properties)
+                            .crs(crs)
+                            .build()));
+        }
+        return operations;
+    }
+
+    private LayerCatalog layerCatalog(UUID layerId) {
+        LayerCatalog layerCatalog = catalogRepository.findLayerCatalogById(layerId)
+                .orElseThrow(() -> new LayerNotFoundException("Layer not found: " + layerId));
+        editJournal.requireNoBacklog();
+        return layerCatalog;
+    }
+
+    private Feature polygonFeature(LayerCatalog layerCatalog, String featureId) {
+        Feature feature = cartographicServerPort.getFeature(layerCatalog, featureId);
+        checkPolygon(feature, featureId);
+        return feature;
+    }
+
+    private static void checkPolygon(Feature feature, String featureId) {
+        if (feature == null) {
+            throw new IllegalArgumentException("Feature not found: " + featureId);
+        }
+        if (feature.getGeometry() == null || !POLYGON_TYPES.contains(feature.getGeometry().getType())) {
+            throw new IllegalArgumentException("Feature " + featureId + " is not a Polygon or MultiPolygon");
+        }
+    }
+
+    // Ligne ou emprise de la requête, dans le CRS de la couche
+    private FeatureGeometry cutter(FeatureOverlayRequest request, LayerSchema layerSchema, Set<String> types) {
+        if (request.getGeometry() == null || request.getGeometry().isBlank()) {
+            throw new IllegalArgumentException("geometry is required");
+        }
+        FeatureGeometry geometry;
+        try (JsonParser parser = objectMapper.createParser(request.getGeometry())) {
+            geometry = GeoJsonGeometries.read(parser);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid GeoJSON geometry", e);
+        }
+        if (!types.contains(geometry.getType())) {
+            throw new IllegalArgumentException("Expected a geometry of type " + String.join(" or ", types.stream()
+                    .sorted().toList()) + ", got " + geometry.getType());
+        }
+        String layerCrs = layerSchema.srsName();
+        if (request.getCrs() != null && !request.getCrs().isBlank() && layerCrs != null
+                && !CrsTransformer.sameCrs(request.getCrs(), layerCrs)) {
+            crsTransformer.transformInPlace(geometry.coordinateBuffer(), request.getCrs(), layerCrs);
+        }
+        return geometry;
+    }
+
+    // Plusieurs jetons possibles (un par feature sous bail) : bail lu une fois par feature
+    private void featureLeases(UUID layerId, List<String> featureIds, List<String> leaseTokens) {
+        for (String id : featureIds) {
+            featureLeases.checkEditAny(layerId, id, leaseTokens);
+        }
+    }
+
+    private static String featureCrs(Feature feature, LayerSchema layerSchema) {
+        return feature.getCrs() != null ? feature.getCrs() : layerSchema.srsName();
+    }
+}
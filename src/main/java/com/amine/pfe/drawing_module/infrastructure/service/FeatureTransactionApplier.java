@@ -0,0 +1,161 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditResult;
+import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.FeatureChange;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperationOutcome;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.domain.port.out.EditAuditPort;
+import com.amine.pfe.drawing_module.infrastructure.service.routing.GeoserverRouter;
+import com.amine.pfe.drawing_module.infrastructure.service.sync.FeatureChangeRecorder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transaction WFS-T sur plusieurs features d'une couche (frontière partagée, découpe, fusion, découpage) :
+ * cache et empreintes invalidés quelle que soit l'issue, changements et audit des opérations validées.
+ * Sans réponse de GeoServer, la transaction a pu être validée : les features touchées sont signalées aux clients
+ * synchronisés, sans trace d'audit.
+ */
+@Slf4j
+class FeatureTransactionApplier {
+
+    private final CartographicServerPort cartographicServerPort;
+    private final FeatureCache featureCache;
+    private final FeatureFingerprintStore fingerprints;
+    private final FeatureChangeRecorder changeRecorder;
+    private final EditAuditPort editAudit;
+
+    FeatureTransactionApplier(CartographicServerPort cartographicServerPort, FeatureCache featureCache,
+            FeatureFingerprintStore fingerprints, FeatureChangeRecorder changeRecorder, EditAuditPort editAudit) {
+        this.cartographicServerPort = cartographicServerPort;
+        this.featureCache = featureCache;
+        this.fingerprints = fingerprints;
+        this.changeRecorder = changeRecorder;
+        this.editAudit = editAudit;
+    }
+
+    // previous : état avant édition de chaque feature modifiée ou supprimée
+    TopologyEditResult apply(LayerCatalog layerCatalog, String operation, String featureId,
+            List<FeatureOperation> operations, Map<String, Feature> previous, long start) {
+        UUID layerId = layerCatalog.layerId();
+        List<FeatureOperationOutcome> outcomes;
+        try {
+            outcomes = cartographicServerPort.executeTransaction(operations);
+        } catch (RuntimeException e) {
+            if (!GeoserverRouter.isUndelivered(e)) {
+                recordPossiblyCommitted(layerId, operations);
+            }
+            throw e;
+        } finally {
+            for (FeatureOperation existing : operations) {
+                if (existing.type() != FeatureOperation.Type.INSERT) {
+                    featureCache.invalidate(layerId, existing.feature().getId());
+                    fingerprints.invalidate(layerId, existing.feature().getId());
+                }
+            }
+        }
+
+        List<String> updatedIds = new ArrayList<>();
+        List<String> insertedIds = new ArrayList<>();
+        List<String> deletedIds = new ArrayList<>();
+        List<FeatureChange> changes = new ArrayList<>();
+        FeatureOperationOutcome failure = null;
+        FeatureOperationOutcome unconfirmed = null;
+        for (int i = 0; i < operations.size(); i++) {
+            FeatureOperation existing = operations.get(i);
+            FeatureOperationOutcome outcome = outcomes.get(i);
+            if (!outcome.success()) {
+                failure = failure != null ? failure : outcome;
+                continue;
+            }
+            if (outcome.unconfirmed() && unconfirmed == null) {
+                unconfirmed = outcome;
+            }
+            String id = existing.type() == FeatureOperation.Type.INSERT
+                    ? outcome.featureId()
+                    : existing.feature().getId();
+            switch (existing.type()) {
+                case INSERT -> insertedIds.add(id);
+                case UPDATE -> updatedIds.add(id);
+                case DELETE -> deletedIds.add(id);
+            }
+            if (id != null && !"SUCCESS_NO_ID".equals(id)) {
+                changes.add(FeatureChange.of(layerId, id, existing.type()));
+            }
+        }
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (failure != null) {
+            log.error("{} of feature {} in layer {} failed: {}", operation, featureId, layerCatalog.name(),
+                    failure.message());
+            boolean possiblyCommitted = failure.message() != null
+                    && failure.message().startsWith(GeoserverAdapter.TRANSACTION_FAILED_PREFIX);
+            if (possiblyCommitted) {
+                recordPossiblyCommitted(layerId, operations);
+            }
+            return TopologyEditResult.builder()
+                    .success(false)
+                    .unconfirmed(possiblyCommitted)
+                    .message(failure.message())
+                    .featureIds(operations.stream()
+                            .filter(existing -> existing.type() != FeatureOperation.Type.INSERT)
+                            .map(existing -> existing.feature().getId())
+                            .toList())
+                    .insertedIds(List.of())
+                    .deletedIds(List.of())
+                    .durationMs(durationMs)
+                    .build();
+        }
+
+        changeRecorder.recordAll(changes);
+        for (int i = 0; i < operations.size(); i++) {
+            FeatureOperation existing = operations.get(i);
+            String id = existing.feature().getId();
+            switch (existing.type()) {
+                case INSERT -> editAudit.record(layerId, outcomes.get(i).featureId(), FeatureOperation.Type.INSERT,
+                        null, existing.feature().getProperties());
+                case UPDATE -> editAudit.record(layerId, id, FeatureOperation.Type.UPDATE,
+                        previous.get(id).getProperties(), existing.feature().getProperties());
+                case DELETE -> editAudit.record(layerId, id, FeatureOperation.Type.DELETE,
+                        previous.get(id).getProperties(), null);
+            }
+        }
+
+        if (unconfirmed != null) {
+            log.warn("{} of feature {} in layer {} committed unconfirmed: {}", operation, featureId,
+                    layerCatalog.name(), unconfirmed.message());
+        }
+        log.info("{} of feature {} applied in layer {}: {} updated, {} created, {} deleted", operation, featureId,
+                layerCatalog.name(), updatedIds.size(), insertedIds.size(), deletedIds.size());
+        return TopologyEditResult.builder()
+                .success(true)
+                .unconfirmed(unconfirmed != null)
+                .message(updatedIds.size() + " features updated, " + insertedIds.size() + " created, "
+                        + deletedIds.size() + " deleted" + (unconfirmed != null ? "; " + unconfirmed.message() : ""))
+                .featureIds(updatedIds)
+                .insertedIds(insertedIds)
+                .deletedIds(deletedIds)
+                .durationMs(durationMs)
+                .build();
+    }
+
+    // Issue inconnue : les clients synchronisés relisent les features touchées, la couche entière si une feature
+    // a pu être créée sous un identifiant inconnu
+    private void recordPossiblyCommitted(UUID layerId, List<FeatureOperation> operations) {
+        if (operations.stream().anyMatch(existing -> existing.type() == FeatureOperation.Type.INSERT)) {
+            changeRecorder.resetLayer(layerId);
+            return;
+        }
+        changeRecorder.recordAll(operations.stream()
+                .map(existing -> FeatureChange.of(layerId, existing.feature().getId(), existing.type()))
+                .toList());
+    }
+}
@@ -2,35 +2,45 @@ package com.amine.pfe.drawing_module.infrastructure.service;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import javax.xml.XMLConstants;
 import javax.xml.namespace.NamespaceContext;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathFactory;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.w3c.dom.Document;
@@ -38,12 +48,31 @@ import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
 
+import com.amine.pfe.drawing_module.config.CacheConfig;
+import com.amine.pfe.drawing_module.domain.exception.CartographicServerUnavailableException;
+import com.amine.pfe.drawing_module.domain.geometry.GeoJsonGeometries;
 import com.amine.pfe.drawing_module.domain.model.Feature;
-import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.domain.model.FeatureFilter;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperationOutcome;
 import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
 import com.amine.pfe.drawing_module.domain.model.LayerSchema;
 import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
 import com.amine.pfe.drawing_module.domain.util.MappingUtils;
+import com.amine.pfe.drawing_module.infrastructure.diagnostics.EditStageEvent;
+import com.amine.pfe.drawing_module.infrastructure.logging.CorrelationId;
+import com.amine.pfe.drawing_module.infrastructure.service.crs.CrsTransformer;
+import com.amine.pfe.drawing_module.infrastructure.service.routing.GeoserverEndpointPool;
+import com.amine.pfe.drawing_module.infrastructure.service.routing.GeoserverRouter;
+import com.amine.pfe.drawing_module.infrastructure.service.wfs.GmlGeometryWriter;
+import com.amine.pfe.drawing_module.infrastructure.service.wfs.WfsTransactionResponse;
+import com.amine.pfe.drawing_module.infrastructure.service.wfs.WfsTransactionResponseParser;
+import com.amine.pfe.drawing_module.infrastructure.service.wfs.WfsTransactionTemplate;
+import com.amine.pfe.drawing_module.infrastructure.service.wfs.XmlUtf8Writer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -54,9 +83,8 @@ import lombok.extern.slf4j.Slf4j;
 public class GeoserverAdapter implements CartographicServerPort {
 
     private final RestTemplate restTemplate;
-
-    @Value("${geoserver.url}")
-    private String geoserverUrl;
+    private final GeoserverRouter geoserverRouter;
+    private final ObjectMapper objectMapper;
 
     @Value("${geoserver.username}")
     private String username;
@@ -64,11 +92,227 @@ public class GeoserverAdapter implements CartographicServerPort {
     @Value("${geoserver.password}")
     private String password;
 
+    // CRS utilisé quand GeoServer n'expose pas celui de la couche
+    @Value("${geoserver.default-srs:EPSG:3857}")
+    private String defaultSrs;
+
+    // Compression gzip des transactions WFS-T (GeoServer derrière un proxy qui la gère)
+    @Value("${geoserver.request-compression:false}")
+    private boolean requestCompression;
+
+    private static final String DEFAULT_SRS_NAME = "EPSG:3857";
+    private static final String OPERATION_HANDLE_PREFIX = "op-";
+    // Échecs d'une transaction combinée qui ne viennent pas de l'opération elle-même
+    static final String ROLLED_BACK_PREFIX = "Rolled back: ";
+    static final String TRANSACTION_FAILED_PREFIX = "WFS-T transaction failed: ";
+    // Transaction jamais parvenue à GeoServer : rien n'a pu être appliqué
+    static final String UNDELIVERED_PREFIX = "WFS-T transaction not sent: ";
+
+    private final Map<String, WfsTransactionTemplate> transactionTemplates = new ConcurrentHashMap<>();
+
     @Override
+    @Cacheable(CacheConfig.LAYER_SCHEMAS)
     public LayerSchema getLayerSchema(String workspace, String layerName) {
+        return fetchLayerSchema(workspace, layerName);
+    }
+
+    // Même clé que getLayerSchema : l'entrée est remplacée sans passer par un cache vide
+    @Override
+    @CachePut(CacheConfig.LAYER_SCHEMAS)
+    public LayerSchema refreshLayerSchema(String workspace, String layerName) {
+        return fetchLayerSchema(workspace, layerName);
+    }
+
+    @Override
+    public String getLayerRevision(String workspace, String layerName) {
+        try {
+            return geoserverRouter.read(workspace, layerName, baseUrl -> {
+                JsonNode featureType = fetchFeatureTypeConfiguration(baseUrl, workspace, layerName);
+                if (featureType == null) {
+                    return null;
+                }
+                // dateModified n'existe pas sur toutes les versions : empreinte de la configuration complète
+                return Integer.toHexString(featureType.toString().hashCode());
+            });
+        } catch (RuntimeException e) {
+            throw unavailableOr(e, "featuretype configuration " + workspace + ":" + layerName);
+        }
+    }
+
+    private LayerSchema fetchLayerSchema(String workspace, String layerName) {
+        try {
+            return geoserverRouter.read(workspace, layerName, baseUrl -> {
+                LayerSchema schema = describeFeatureType(baseUrl, workspace, layerName);
+                return new LayerSchema(schema.geometryType(), schema.attributes(),
+                        fetchLayerSrs(baseUrl, workspace, layerName));
+            });
+        } catch (RuntimeException e) {
+            throw unavailableOr(e, "DescribeFeatureType " + workspace + ":" + layerName);
+        }
+    }
+
+    @Override
+    public Feature getFeature(LayerCatalog layerCatalog, String featureId) {
+        String workspace = layerCatalog.workspace();
+        String layerName = layerCatalog.geoserverLayerName();
+        try {
+            List<Feature> features = geoserverRouter.read(workspace, layerName,
+                    baseUrl -> fetchFeatures(baseUrl, workspace, layerName, byIds(List.of(featureId))));
+            return features.isEmpty() ? null : features.get(0);
+        } catch (RuntimeException e) {
+            throw unavailableOr(e, "GetFeature " + featureId);
+        }
+    }
+
+    @Override
+    public List<Feature> getFeatures(LayerCatalog layerCatalog, Collection<String> featureIds) {
+        if (featureIds.isEmpty()) {
+            return List.of();
+        }
+        String workspace = layerCatalog.workspace();
+        String layerName = layerCatalog.geoserverLayerName();
+        try {
+            return geoserverRouter.read(workspace, layerName,
+                    baseUrl -> fetchFeatures(baseUrl, workspace, layerName, byIds(featureIds)));
+        } catch (RuntimeException e) {
+            throw unavailableOr(e, "GetFeature of " + featureIds.size() + " features");
+        }
+    }
+
+    @Override
+    public List<Feature> findFeatures(LayerCatalog layerCatalog, FeatureFilter.Envelope bbox, int maxFeatures) {
+        String workspace = layerCatalog.workspace();
+        String layerName = layerCatalog.geoserverLayerName();
+        // Forme EPSG:xxxx : axes x/y, y compris en WFS 1.1.0
+        String selection = "bbox=" + bbox.minX() + "," + bbox.minY() + "," + bbox.maxX() + "," + bbox.maxY()
+                + (bbox.crs() != null ? "," + URLEncoder.encode(bbox.crs(), StandardCharsets.UTF_8) : "")
+                + "&maxFeatures=" + maxFeatures;
+        try {
+            return geoserverRouter.read(workspace, layerName,
+                    baseUrl -> fetchFeatures(baseUrl, workspace, layerName, selection));
+        } catch (RuntimeException e) {
+            throw unavailableOr(e, "GetFeature by bbox");
+        }
+    }
+
+    // featureID équivaut à un filtre FeatureId
+    private static String byIds(Collection<String> featureIds) {
+        return "featureID=" + URLEncoder.encode(String.join(",", featureIds), StandardCharsets.UTF_8);
+    }
+
+    // GetFeature filtré par identifiants ou par emprise, sortie GeoJSON
+    private List<Feature> fetchFeatures(String baseUrl, String workspace, String layerName, String selection) {
+        String urlString = String.format(
+                "%s/%s/ows?service=WFS&version=1.1.0&request=GetFeature&typeName=%s:%s&%s&outputFormat=application/json",
+                baseUrl, workspace, workspace, layerName, selection);
+
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(urlString).openConnection();
+            connection.setRequestProperty("Authorization", "Basic " + Base64.getEncoder()
+                    .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8)));
+            connection.setRequestProperty("Accept", "application/json");
+            connection.setRequestMethod("GET");
+            propagateCorrelationId(connection::setRequestProperty);
+
+            int status = connection.getResponseCode();
+            if (status >= 500) {
+                throw new IOException("GeoServer HTTP error code : " + status);
+            }
+            if (status != 200) {
+                throw new RuntimeException("Failed : HTTP error code : " + status);
+            }
+
+            JsonNode collection;
+            try (InputStream in = connection.getInputStream()) {
+                collection = objectMapper.readTree(in);
+            } catch (JsonProcessingException e) {
+                // Réponse non JSON (ExceptionReport) : erreur de requête, pas une panne de l'endpoint
+                throw new IllegalStateException("Unexpected GetFeature response for " + selection, e);
+            }
+            JsonNode features = collection.path("features");
+            if (!features.isArray()) {
+                return List.of();
+            }
+
+            String collectionCrs = collection.path("crs").path("properties").path("name").asText(null);
+            List<Feature> result = new ArrayList<>(features.size());
+            for (JsonNode node : features) {
+                result.add(toFeature(node, collectionCrs));
+            }
+            return result;
+        } catch (IOException e) {
+            throw new RuntimeException("Error calling GeoServer GetFeature", e);
+        }
+    }
+
+    private Feature toFeature(JsonNode node, String collectionCrs) {
+        JsonNode geometry = node.path("geometry");
+        String crs = node.path("crs").path("properties").path("name").asText(collectionCrs);
+        return Feature.builder()
+                .id(node.path("id").asText(null))
+                .geometry(geometry.isObject() ? GeoJsonGeometries.read(geometry) : null)
+                .properties(objectMapper.convertValue(node.path("properties"),
+                        new TypeReference<Map<String, Object>>() {
+                        }))
+                .crs(crs != null ? CrsTransformer.normalize(crs) : null)
+                .build();
+    }
+
+    // Panne réseau ou 5xx : l'appelant peut rejouer l'édition plus tard
+    private static RuntimeException unavailableOr(RuntimeException e, String operation) {
+        if (e instanceof CartographicServerUnavailableException || !GeoserverRouter.isEndpointFailure(e)) {
+            return e;
+        }
+        return new CartographicServerUnavailableException("GeoServer unavailable for " + operation + ": "
+                + e.getMessage(), e);
+    }
+
+    // DescribeFeatureType n'expose pas le CRS : lu depuis la configuration REST du featuretype
+    private String fetchLayerSrs(String baseUrl, String workspace, String layerName) {
+        JsonNode featureType = fetchFeatureTypeConfiguration(baseUrl, workspace, layerName);
+        if (featureType == null) {
+            log.warn("No featuretype configuration for {}:{}, assuming {}", workspace, layerName, defaultSrs);
+            return defaultSrs;
+        }
+        String srs = featureType.path("srs").asText(null);
+        return srs == null || srs.isBlank() ? defaultSrs : CrsTransformer.normalize(srs);
+    }
+
+    // null si GeoServer ne connaît pas le featuretype (ou refuse l'accès REST)
+    private JsonNode fetchFeatureTypeConfiguration(String baseUrl, String workspace, String layerName) {
+        String urlString = String.format("%s/rest/workspaces/%s/featuretypes/%s.json",
+                baseUrl, workspace, layerName);
+
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(urlString).openConnection();
+            connection.setRequestProperty("Authorization", "Basic " + Base64.getEncoder()
+                    .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8)));
+            connection.setRequestProperty("Accept", "application/json");
+            connection.setRequestMethod("GET");
+            propagateCorrelationId(connection::setRequestProperty);
+
+            int status = connection.getResponseCode();
+            if (status >= 500) {
+                throw new IOException("GeoServer HTTP error code : " + status);
+            }
+            if (status != 200) {
+                log.debug("Featuretype configuration {}:{} unavailable (HTTP {})", workspace, layerName, status);
+                return null;
+            }
+
+            try (InputStream in = connection.getInputStream()) {
+                JsonNode featureType = objectMapper.readTree(in).path("featureType");
+                return featureType.isObject() ? featureType : null;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error calling GeoServer featuretype configuration", e);
+        }
+    }
+
+    private LayerSchema describeFeatureType(String baseUrl, String workspace, String layerName) {
         String urlString = String.format(
                 "%s/%s/ows?service=WFS&version=1.1.0&request=DescribeFeatureType&typeName=%s:%s",
-                geoserverUrl, workspace, workspace, layerName);
+                baseUrl, workspace, workspace, layerName);
 
         try {
             URL url = new URL(urlString);
@@ -76,8 +320,12 @@ public class GeoserverAdapter implements CartographicServerPort {
             connection.setRequestProperty("Authorization", "Basic " + Base64.getEncoder()
                     .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8)));
             connection.setRequestMethod("GET");
+            propagateCorrelationId(connection::setRequestProperty);
 
             int status = connection.getResponseCode();
+            if (status >= 500) {
+                throw new IOException("GeoServer HTTP error code : " + status);
+            }
             if (status != 200) {
                 throw new RuntimeException("Failed : HTTP error code : " + status);
             }
@@ -157,7 +405,7 @@ public class GeoserverAdapter implements CartographicServerPort {
                 throw new IllegalStateException("No geometry type found in DescribeFeatureType");
             }
 
-            return new LayerSchema(geometryType, attributes);
+            return new LayerSchema(geometryType, attributes, null);
         } catch (Exception e) {
             throw new RuntimeException("Error parsing DescribeFeatureType response", e);
         }
@@ -173,546 +421,413 @@ public class GeoserverAdapter implements CartographicServerPort {
             log.info("Executing WFS-T Insert for feature in layer {} (GeoServer: {})",
                     layerCatalog.name(), layerCatalog.geoserverLayerName());
 
-            // Construire la requête WFS-T XML
-            String wfsTransaction = buildWfsInsertTransaction(layerCatalog, feature);
+            // Construire la requête WFS-T XML directement dans le corps HTTP
+            GmlGeometryWriter geometryGml = geometryGml(feature);
+            WfsTransactionTemplate template = transactionTemplate(layerCatalog);
 
-            // Configurer les headers
-            HttpHeaders headers = new HttpHeaders();
-            String auth = username + ":" + password;
-            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
-            headers.set("Authorization", "Basic " + encodedAuth);
-            headers.setContentType(new MediaType("application", "xml", StandardCharsets.UTF_8));
-            headers.set("Accept", "application/xml");
-            headers.set("Accept-Charset", "UTF-8");
-
-            HttpEntity<String> request = new HttpEntity<>(
-                    new String(wfsTransaction.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8),
-                    headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    geoserverUrl + "/wfs",
-                    HttpMethod.POST,
-                    request,
-                    String.class);
+            WfsTransactionResponse response = executeTransaction(layerCatalog,
+                    EditStageEvent.vertices(feature.getGeometry()),
+                    out -> template.writeInsert(out, geometryGml, feature.getProperties()));
 
             // Analyser la réponse et extraire l'ID de la nouvelle feature
-            String newFeatureId = parseWfsInsertResponse(response.getBody());
+            String newFeatureId = null;
+            if (!response.hasExceptions() && response.totalInserted() >= 1) {
+                newFeatureId = response.firstInsertedFeatureId() != null
+                        ? response.firstInsertedFeatureId()
+                        : "SUCCESS_NO_ID";
+            }
 
             if (newFeatureId != null) {
                 log.info("WFS-T Insert successful for feature in layer {}, new ID: {}",
                         layerCatalog.name(), newFeatureId);
             } else {
-                log.error("WFS-T Insert failed for feature in layer {}",
-                        layerCatalog.name());
-                log.debug("WFS Response: {}", response.getBody());
+                log.error("WFS-T Insert failed for feature in layer {}: {}",
+                        layerCatalog.name(), response.exceptions());
+                log.debug("WFS Response: {}", response);
             }
 
             return newFeatureId;
 
         } catch (Exception e) {
+            if (GeoserverRouter.isEndpointFailure(e)) {
+                throw new CartographicServerUnavailableException("GeoServer unavailable for WFS-T Insert in layer "
+                        + layerCatalog.name() + ": " + e.getMessage(), e);
+            }
             log.error("Error executing WFS-T Insert for feature in layer {}: {}",
                     layerCatalog.name(), e.getMessage(), e);
             return null;
         }
     }
 
-    private String buildWfsInsertTransaction(LayerCatalog layerCatalog, Feature feature) {
-        String geometryGml = convertGeometryToGml(feature.getGeometry());
-
-        String propertyElements = feature.getProperties().entrySet().stream()
-                .map(entry -> String.format(
-                        "<%s:%s>%s</%s:%s>",
-                        layerCatalog.workspace(), entry.getKey(),
-                        escapeXml(String.valueOf(entry.getValue())),
-                        layerCatalog.workspace(), entry.getKey()))
-                .collect(Collectors.joining("\n"));
-
-        return String.format("""
-                <?xml version="1.0" encoding="UTF-8"?>
-                <wfs:Transaction version="1.1.0" service="WFS"
-                    xmlns:wfs="http://www.opengis.net/wfs"
-                    xmlns:gml="http://www.opengis.net/gml"
-                    xmlns:%1$s="%1$s"
-                    xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance">
-                  <wfs:Insert>
-                    <%1$s:%2$s>
-                      <%1$s:geom>
-                        %3$s
-                      </%1$s:geom>
-                      %4$s
-                    </%1$s:%2$s>
-                  </wfs:Insert>
-                </wfs:Transaction>
-                """,
-                layerCatalog.workspace(),
-                layerCatalog.geoserverLayerName(),
-                geometryGml,
-                propertyElements);
-    }
-
-    private String parseWfsInsertResponse(String xmlResponse) {
-        if (xmlResponse == null) {
-            return null;
-        }
-
-        try {
-            // Vérifier si la transaction a réussi
-            if (xmlResponse.contains("<wfs:totalInserted>1</wfs:totalInserted>") ||
-                    xmlResponse.contains("totalInserted>1</")) {
-
-                // Extraire l'ID de la nouvelle feature
-                // Pattern typique : <wfs:FeatureId fid="layername.123"/>
-                Pattern pattern = Pattern.compile("<wfs:FeatureId fid=\"([^\"]+)\"");
-                Matcher matcher = pattern.matcher(xmlResponse);
-
-                if (matcher.find()) {
-                    String fullId = matcher.group(1);
-                    // Extraire juste la partie ID si nécessaire (ex: "layername.123" -> "123")
-                    String[] parts = fullId.split("\\.");
-                    return parts.length > 1 ? parts[parts.length - 1] : fullId;
-                }
-
-                // Si on ne trouve pas le pattern attendu, chercher d'autres patterns
-                Pattern altPattern = Pattern.compile("fid=\"([^\"]+)\"");
-                Matcher altMatcher = altPattern.matcher(xmlResponse);
-                if (altMatcher.find()) {
-                    return altMatcher.group(1);
-                }
-
-                // Si aucun ID n'est trouvé mais que l'insertion a réussi
-                return "SUCCESS_NO_ID";
-            }
-
-            // Vérifier s'il y a des erreurs
-            if (xmlResponse.contains("<ows:Exception") || xmlResponse.contains("<ServiceException")) {
-                log.error("WFS-T Insert failed with error in response: {}", xmlResponse);
-                return null;
-            }
-
-            return null;
-
-        } catch (Exception e) {
-            log.error("Error parsing WFS Insert response: {}", e.getMessage());
-            return null;
-        }
-    }
-
     @Override
     public boolean updateFeature(LayerCatalog layerCatalog, Feature feature) {
         try {
             log.info("Executing WFS-T Update for feature {} in layer {} (GeoServer: {})",
                     feature.getId(), layerCatalog.name(), layerCatalog.geoserverLayerName());
 
-            // Construire la requête WFS-T XML
-            String wfsTransaction = buildWfsUpdateTransaction(layerCatalog, feature);
-
-            // Configurer les headers
-            HttpHeaders headers = new HttpHeaders();
-            String auth = username + ":" + password;
-            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
-            headers.set("Authorization", "Basic " + encodedAuth);
-            headers.setContentType(new MediaType("application", "xml", StandardCharsets.UTF_8));
-            headers.set("Accept", "application/xml");
-            headers.set("Accept-Charset", "UTF-8");
-
-            HttpEntity<String> request = new HttpEntity<>(
-                    new String(wfsTransaction.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8),
-                    headers);
-
-            // Exécuter la requête
-            ResponseEntity<String> response = restTemplate.exchange(
-                    geoserverUrl + "/wfs",
-                    HttpMethod.POST,
-                    request,
-                    String.class);
+            // Construire la requête WFS-T XML directement dans le corps HTTP
+            GmlGeometryWriter geometryGml = geometryGml(feature);
+            WfsTransactionTemplate template = transactionTemplate(layerCatalog);
+
+            WfsTransactionResponse response = executeTransaction(layerCatalog,
+                    EditStageEvent.vertices(feature.getGeometry()),
+                    out -> template.writeUpdate(out, feature.getId(), geometryGml, feature.getProperties()));
 
             // Analyser la réponse
-            boolean success = parseWfsUpdateResponse(response.getBody());
+            boolean success = !response.hasExceptions() && response.totalUpdated() >= 1;
 
             if (success) {
                 log.info("WFS-T Update successful for feature {} in layer {}",
                         feature.getId(), layerCatalog.name());
             } else {
-                log.error("WFS-T Update failed for feature {} in layer {}",
-                        feature.getId(), layerCatalog.name());
-                log.debug("WFS Response: {}", response.getBody());
+                log.error("WFS-T Update failed for feature {} in layer {}: {}",
+                        feature.getId(), layerCatalog.name(), response.exceptions());
+                log.debug("WFS Response: {}", response);
             }
 
             return success;
 
         } catch (Exception e) {
+            if (GeoserverRouter.isEndpointFailure(e)) {
+                throw new CartographicServerUnavailableException("GeoServer unavailable for WFS-T Update in layer "
+                        + layerCatalog.name() + ": " + e.getMessage(), e);
+            }
             log.error("Error executing WFS-T Update for feature {} in layer {}: {}",
                     feature.getId(), layerCatalog.name(), e.getMessage(), e);
             return false;
         }
     }
 
-    private String buildWfsUpdateTransaction(LayerCatalog layerCatalog, Feature feature) {
-        // Convertir la géométrie au format GML correct
-        String geometryGml = convertGeometryToGml(feature.getGeometry());
-
-        // Construire les propriétés à mettre à jour
-        String propertyUpdates = feature.getProperties().entrySet().stream()
-                .map(entry -> String.format(
-                        "<wfs:Property><wfs:Name>%s</wfs:Name><wfs:Value>%s</wfs:Value></wfs:Property>",
-                        entry.getKey(),
-                        escapeXml(String.valueOf(entry.getValue()))))
-                .collect(Collectors.joining("\n"));
-
-        return String.format("""
-                <?xml version="1.0" encoding="UTF-8"?>
-                <wfs:Transaction version="1.1.0" service="WFS"
-                    xmlns:wfs="http://www.opengis.net/wfs"
-                    xmlns:ogc="http://www.opengis.net/ogc"
-                    xmlns:gml="http://www.opengis.net/gml">
-                    <wfs:Update typeName="%s:%s">
-                        <wfs:Property>
-                            <wfs:Name>geom</wfs:Name>
-                            <wfs:Value>%s</wfs:Value>
-                        </wfs:Property>
-                        %s
-                        <ogc:Filter>
-                            <ogc:FeatureId fid="%s"/>
-                        </ogc:Filter>
-                    </wfs:Update>
-                </wfs:Transaction>
-                """,
-                layerCatalog.workspace(),
-                layerCatalog.geoserverLayerName(),
-                geometryGml,
-                propertyUpdates,
-                feature.getId());
-    }
-
-    public String convertGeometryToGml(FeatureGeometry geometry) {
-        switch (geometry.getType().toLowerCase()) {
-            case "point":
-                return convertPointToGml(geometry.getCoordinates());
-
-            case "linestring":
-                return convertLineStringToGml(geometry.getCoordinates());
-
-            case "multilinestring":
-                return convertMultiLineStringToGml(geometry.getCoordinates());
-
-            case "polygon":
-                return convertPolygonToGml(geometry.getCoordinates());
-
-            case "multipolygon":
-                return convertMultiPolygonToGml(geometry.getCoordinates());
-
-            default:
-                throw new IllegalArgumentException("Type géométrie non supporté: " + geometry.getType());
-        }
+    // Validée ici, avant l'ouverture de la requête ; sans CRS déclaré, CRS par défaut du GML
+    private static GmlGeometryWriter geometryGml(Feature feature) {
+        String srsName = feature.getCrs() != null ? CrsTransformer.normalize(feature.getCrs()) : DEFAULT_SRS_NAME;
+        return new GmlGeometryWriter(feature.getGeometry(), srsName);
     }
 
-    private String convertPointToGml(double[] coordinates) {
-        return String.format(Locale.US,
-                "<gml:Point srsName=\"EPSG:3857\" srsDimension=\"2\">" +
-                        "<gml:pos>%.6f %.6f</gml:pos>" +
-                        "</gml:Point>",
-                coordinates[0], coordinates[1]);
-    }
+    @Override
+    public boolean deleteFeature(LayerCatalog layerCatalog, String featureId) {
+        try {
+            log.info("Executing WFS-T Delete for feature {} in layer {} (GeoServer: {})",
+                    featureId, layerCatalog.name(), layerCatalog.geoserverLayerName());
 
-    private String convertLineStringToGml(double[] coordinates) {
-        StringBuilder coordsBuilder = new StringBuilder();
+            // Construire la requête WFS-T XML pour la suppression
+            WfsTransactionTemplate template = transactionTemplate(layerCatalog);
 
-        for (int i = 0; i < coordinates.length; i += 2) {
-            if (i > 0)
-                coordsBuilder.append(" ");
-            coordsBuilder.append(String.format(Locale.US, "%.6f %.6f",
-                    coordinates[i], coordinates[i + 1]));
-        }
+            WfsTransactionResponse response = executeTransaction(layerCatalog, 0,
+                    out -> template.writeDelete(out, featureId));
 
-        return String.format(
-                "<gml:LineString srsName=\"EPSG:3857\" srsDimension=\"2\">" +
-                        "<gml:posList>%s</gml:posList>" +
-                        "</gml:LineString>",
-                coordsBuilder.toString());
-    }
-
-    private String convertMultiLineStringToGml(double[] coordinates) {
-        StringBuilder multiLineBuilder = new StringBuilder();
-        multiLineBuilder.append("<gml:MultiLineString srsName=\"EPSG:3857\">");
-
-        StringBuilder currentLine = new StringBuilder();
-
-        for (int i = 0; i < coordinates.length; i += 2) {
-            if (Double.isNaN(coordinates[i])) {
-                // Fin d'une LineString
-                if (currentLine.length() > 0) {
-                    multiLineBuilder.append("<gml:lineStringMember>");
-                    multiLineBuilder.append("<gml:LineString srsDimension=\"2\">");
-                    multiLineBuilder.append("<gml:posList>").append(currentLine.toString()).append("</gml:posList>");
-                    multiLineBuilder.append("</gml:LineString>");
-                    multiLineBuilder.append("</gml:lineStringMember>");
-                    currentLine = new StringBuilder();
-                }
+            // Analyser la réponse
+            boolean success = !response.hasExceptions() && response.totalDeleted() >= 1;
+
+            if (success) {
+                log.info("WFS-T Delete successful for feature {} in layer {}",
+                        featureId, layerCatalog.name());
+            } else if (!response.hasExceptions()) {
+                log.warn("WFS-T Delete: No feature was deleted (feature {} may not exist in layer {})",
+                        featureId, layerCatalog.name());
             } else {
-                if (currentLine.length() > 0)
-                    currentLine.append(" ");
-                currentLine.append(String.format(Locale.US, "%.6f %.6f",
-                        coordinates[i], coordinates[i + 1]));
+                log.error("WFS-T Delete failed for feature {} in layer {}: {}",
+                        featureId, layerCatalog.name(), response.exceptions());
+                log.debug("WFS Response: {}", response);
             }
-        }
 
-        multiLineBuilder.append("</gml:MultiLineString>");
-        return multiLineBuilder.toString();
-    }
-
-    private String convertPolygonToGml(double[] coordinates) {
-        StringBuilder polygonBuilder = new StringBuilder();
-        polygonBuilder.append("<gml:Polygon srsName=\"EPSG:3857\" srsDimension=\"2\">");
-
-        StringBuilder currentRing = new StringBuilder();
-        boolean isFirstRing = true;
-
-        for (int i = 0; i < coordinates.length; i += 2) {
-            if (Double.isNaN(coordinates[i])) {
-                // Fin d'un ring
-                if (currentRing.length() > 0) {
-                    if (isFirstRing) {
-                        polygonBuilder.append("<gml:exterior><gml:LinearRing>");
-                        polygonBuilder.append("<gml:posList>").append(currentRing.toString()).append("</gml:posList>");
-                        polygonBuilder.append("</gml:LinearRing></gml:exterior>");
-                        isFirstRing = false;
-                    } else {
-                        polygonBuilder.append("<gml:interior><gml:LinearRing>");
-                        polygonBuilder.append("<gml:posList>").append(currentRing.toString()).append("</gml:posList>");
-                        polygonBuilder.append("</gml:LinearRing></gml:interior>");
-                    }
-                    currentRing = new StringBuilder();
-                }
-            } else {
-                if (currentRing.length() > 0)
-                    currentRing.append(" ");
-                currentRing.append(String.format(Locale.US, "%.6f %.6f",
-                        coordinates[i], coordinates[i + 1]));
+            return success;
+
+        } catch (Exception e) {
+            if (GeoserverRouter.isEndpointFailure(e)) {
+                throw new CartographicServerUnavailableException("GeoServer unavailable for WFS-T Delete in layer "
+                        + layerCatalog.name() + ": " + e.getMessage(), e);
             }
+            log.error("Error executing WFS-T Delete for feature {} in layer {}: {}",
+                    featureId, layerCatalog.name(), e.getMessage(), e);
+            return false;
         }
+    }
 
-        polygonBuilder.append("</gml:Polygon>");
-        return polygonBuilder.toString();
-    }
-
-    private String convertMultiPolygonToGml(double[] coordinates) {
-        StringBuilder multiPolygonBuilder = new StringBuilder();
-        multiPolygonBuilder.append("<gml:MultiPolygon srsName=\"EPSG:3857\">");
-
-        StringBuilder currentPolygon = new StringBuilder();
-        StringBuilder currentRing = new StringBuilder();
-        boolean isFirstRing = true;
-        boolean polygonStarted = false;
-
-        for (int i = 0; i < coordinates.length; i += 2) {
-            if (Double.isInfinite(coordinates[i])) {
-                // Fin d'un polygon - fermer le ring et le polygon actuels si nécessaire
-                if (currentRing.length() > 0) {
-                    if (isFirstRing) {
-                        currentPolygon.append("<gml:exterior><gml:LinearRing>");
-                        currentPolygon.append("<gml:posList>").append(currentRing.toString()).append("</gml:posList>");
-                        currentPolygon.append("</gml:LinearRing></gml:exterior>");
-                    } else {
-                        currentPolygon.append("<gml:interior><gml:LinearRing>");
-                        currentPolygon.append("<gml:posList>").append(currentRing.toString()).append("</gml:posList>");
-                        currentPolygon.append("</gml:LinearRing></gml:interior>");
-                    }
-                    currentRing = new StringBuilder();
-                }
+    @Override
+    public int deleteFeatures(LayerCatalog layerCatalog, FeatureFilter filter) {
+        log.info("Executing WFS-T bulk Delete in layer {} (GeoServer: {}), {}",
+                layerCatalog.name(), layerCatalog.geoserverLayerName(), describe(filter));
+
+        // Un seul wfs:Delete dont le filtre OGC sélectionne toutes les features
+        WfsTransactionTemplate template = transactionTemplate(layerCatalog);
+        WfsTransactionResponse response = executeBulkTransaction(layerCatalog, "Delete",
+                out -> template.writeDeleteWhere(out, filter));
+
+        log.info("WFS-T bulk Delete successful in layer {}: {} features deleted",
+                layerCatalog.name(), response.totalDeleted());
+        return response.totalDeleted();
+    }
 
-                if (currentPolygon.length() > 0) {
-                    multiPolygonBuilder.append("<gml:polygonMember>");
-                    multiPolygonBuilder.append(currentPolygon.toString());
-                    multiPolygonBuilder.append("</gml:Polygon>");
-                    multiPolygonBuilder.append("</gml:polygonMember>");
-                }
+    @Override
+    public int updateFeatures(LayerCatalog layerCatalog, FeatureFilter filter, Map<String, Object> properties) {
+        log.info("Executing WFS-T bulk Update of {} in layer {} (GeoServer: {}), {}",
+                properties.keySet(), layerCatalog.name(), layerCatalog.geoserverLayerName(), describe(filter));
 
-                // Préparer pour un nouveau polygon
-                currentPolygon = new StringBuilder();
-                currentPolygon.append("<gml:Polygon srsDimension=\"2\">");
-                isFirstRing = true;
-                polygonStarted = true;
-
-            } else if (Double.isNaN(coordinates[i])) {
-                // Fin d'un ring
-                if (currentRing.length() > 0) {
-                    if (!polygonStarted) {
-                        currentPolygon.append("<gml:Polygon srsDimension=\"2\">");
-                        polygonStarted = true;
-                    }
-
-                    if (isFirstRing) {
-                        currentPolygon.append("<gml:exterior><gml:LinearRing>");
-                        currentPolygon.append("<gml:posList>").append(currentRing.toString()).append("</gml:posList>");
-                        currentPolygon.append("</gml:LinearRing></gml:exterior>");
-                        isFirstRing = false;
-                    } else {
-                        currentPolygon.append("<gml:interior><gml:LinearRing>");
-                        currentPolygon.append("<gml:posList>").append(currentRing.toString()).append("</gml:posList>");
-                        currentPolygon.append("</gml:LinearRing></gml:interior>");
-                    }
-                    currentRing = new StringBuilder();
-                }
-            } else {
-                // Coordonnées normales
-                if (currentRing.length() > 0)
-                    currentRing.append(" ");
-                currentRing.append(String.format(Locale.US, "%.6f %.6f",
-                        coordinates[i], coordinates[i + 1]));
-            }
-        }
+        WfsTransactionTemplate template = transactionTemplate(layerCatalog);
+        WfsTransactionResponse response = executeBulkTransaction(layerCatalog, "Update",
+                out -> template.writeUpdateWhere(out, properties, filter));
 
-        // Fermer le dernier ring et polygon s'ils existent
-        if (currentRing.length() > 0) {
-            if (!polygonStarted) {
-                currentPolygon.append("<gml:Polygon srsDimension=\"2\">");
-                polygonStarted = true;
-            }
+        log.info("WFS-T bulk Update successful in layer {}: {} features updated",
+                layerCatalog.name(), response.totalUpdated());
+        return response.totalUpdated();
+    }
 
-            if (isFirstRing) {
-                currentPolygon.append("<gml:exterior><gml:LinearRing>");
-                currentPolygon.append("<gml:posList>").append(currentRing.toString()).append("</gml:posList>");
-                currentPolygon.append("</gml:LinearRing></gml:exterior>");
-            } else {
-                currentPolygon.append("<gml:interior><gml:LinearRing>");
-                currentPolygon.append("<gml:posList>").append(currentRing.toString()).append("</gml:posList>");
-                currentPolygon.append("</gml:LinearRing></gml:interior>");
+    private WfsTransactionResponse executeBulkTransaction(LayerCatalog layerCatalog, String operation,
+            TransactionBody body) {
+        WfsTransactionResponse response;
+        try {
+            response = executeTransaction(layerCatalog, 0, body);
+        } catch (RuntimeException e) {
+            if (GeoserverRouter.isEndpointFailure(e)) {
+                throw new CartographicServerUnavailableException("GeoServer unavailable for WFS-T bulk " + operation
+                        + " in layer " + layerCatalog.name() + ": " + e.getMessage(), e);
             }
+            throw e;
         }
 
-        if (currentPolygon.length() > 0 && polygonStarted) {
-            multiPolygonBuilder.append("<gml:polygonMember>");
-            multiPolygonBuilder.append(currentPolygon.toString());
-            multiPolygonBuilder.append("</gml:Polygon>");
-            multiPolygonBuilder.append("</gml:polygonMember>");
+        // Transaction atomique : rien n'a été appliqué
+        if (response.hasExceptions()) {
+            log.error("WFS-T bulk {} failed in layer {}: {}", operation, layerCatalog.name(), response.exceptions());
+            throw new IllegalStateException("WFS-T bulk " + operation + " rejected: "
+                    + response.exceptions().get(0).text());
         }
-
-        multiPolygonBuilder.append("</gml:MultiPolygon>");
-        return multiPolygonBuilder.toString();
+        return response;
     }
 
-    private String escapeXml(String value) {
-        if (value == null)
-            return "";
-        return value.replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&apos;");
+    private static String describe(FeatureFilter filter) {
+        if (filter.byIds()) {
+            return filter.featureIds().size() + " feature ids";
+        }
+        return "bbox " + (filter.bbox() != null ? "yes" : "no") + ", " + filter.conditions().size() + " conditions";
     }
 
-    private boolean parseWfsUpdateResponse(String xmlResponse) {
-        if (xmlResponse == null)
-            return false;
+    @Override
+    public List<FeatureOperationOutcome> executeTransaction(List<FeatureOperation> operations) {
+        if (operations.isEmpty()) {
+            return List.of();
+        }
 
-        // Vérifier si la transaction a réussi
-        return xmlResponse.contains("<wfs:totalUpdated>1</wfs:totalUpdated>") ||
-                xmlResponse.contains("totalUpdated>1</") ||
-                (!xmlResponse.contains("<ows:Exception") &&
-                        !xmlResponse.contains("<ServiceException"));
-    }
+        // Une couche épinglée sur un pool dédié part dans sa propre transaction ; l'ordre par couche est conservé
+        String workspace = operations.get(0).layer().workspace();
+        Map<GeoserverEndpointPool, List<Integer>> operationsByPool = new LinkedHashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            LayerCatalog layer = operations.get(i).layer();
+            if (!workspace.equals(layer.workspace())) {
+                throw new IllegalArgumentException("A combined transaction cannot span workspaces "
+                        + workspace + " and " + layer.workspace());
+            }
+            operationsByPool.computeIfAbsent(geoserverRouter.poolFor(workspace, layer.geoserverLayerName()),
+                    pool -> new ArrayList<>()).add(i);
+        }
 
-    @Override
-    public boolean deleteFeature(LayerCatalog layerCatalog, String featureId) {
-        try {
-            log.info("Executing WFS-T Delete for feature {} in layer {} (GeoServer: {})",
-                    featureId, layerCatalog.name(), layerCatalog.geoserverLayerName());
+        FeatureOperationOutcome[] outcomes = new FeatureOperationOutcome[operations.size()];
+        for (List<Integer> indexes : operationsByPool.values()) {
+            executeCombinedTransaction(workspace, operations, indexes, outcomes);
+        }
+        return Arrays.asList(outcomes);
+    }
 
-            // Construire la requête WFS-T XML pour la suppression
-            String wfsTransaction = buildWfsDeleteTransaction(layerCatalog, featureId);
-
-            // Configurer les headers
-            HttpHeaders headers = new HttpHeaders();
-            String auth = username + ":" + password;
-            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
-            headers.set("Authorization", "Basic " + encodedAuth);
-            headers.setContentType(new MediaType("application", "xml", StandardCharsets.UTF_8));
-            headers.set("Accept", "application/xml");
-            headers.set("Accept-Charset", "UTF-8");
-
-            HttpEntity<String> request = new HttpEntity<>(
-                    new String(wfsTransaction.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8),
-                    headers);
-
-            // Exécuter la requête
-            ResponseEntity<String> response = restTemplate.exchange(
-                    geoserverUrl + "/wfs",
-                    HttpMethod.POST,
-                    request,
-                    String.class);
+    private void executeCombinedTransaction(String workspace, List<FeatureOperation> operations,
+            List<Integer> indexes, FeatureOperationOutcome[] outcomes) {
+        int expectedInserts = 0;
+        int expectedUpdates = 0;
+        int expectedDeletes = 0;
+        int vertices = 0;
+        List<GmlGeometryWriter> geometriesGml = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            FeatureOperation operation = operations.get(index);
+            switch (operation.type()) {
+                case INSERT -> expectedInserts++;
+                case UPDATE -> expectedUpdates++;
+                case DELETE -> expectedDeletes++;
+            }
+            Feature feature = operation.feature();
+            vertices += EditStageEvent.vertices(feature.getGeometry());
+            geometriesGml.add(operation.type() == FeatureOperation.Type.DELETE
+                    ? null
+                    : geometryGml(feature));
+        }
 
-            // Analyser la réponse
-            boolean success = parseWfsDeleteResponse(response.getBody());
+        LayerCatalog routingLayer = operations.get(indexes.get(0)).layer();
+        log.info("Executing combined WFS-T transaction in workspace {}: {} inserts, {} updates, {} deletes",
+                workspace, expectedInserts, expectedUpdates, expectedDeletes);
 
-            if (success) {
-                log.info("WFS-T Delete successful for feature {} in layer {}",
-                        featureId, layerCatalog.name());
-            } else {
-                log.error("WFS-T Delete failed for feature {} in layer {}",
-                        featureId, layerCatalog.name());
-                log.debug("WFS Response: {}", response.getBody());
+        TransactionTarget target = new TransactionTarget(null, workspace, vertices);
+        try {
+            WfsTransactionResponse response = geoserverRouter.write(workspace, routingLayer.geoserverLayerName(),
+                    baseUrl -> postTransaction(baseUrl, target, out -> {
+                        WfsTransactionTemplate.writeTransactionStart(out, workspace);
+                        for (int i = 0; i < indexes.size(); i++) {
+                            int index = indexes.get(i);
+                            FeatureOperation operation = operations.get(index);
+                            Feature feature = operation.feature();
+                            WfsTransactionTemplate template = transactionTemplate(operation.layer());
+                            String handle = OPERATION_HANDLE_PREFIX + index;
+
+                            switch (operation.type()) {
+                                case INSERT -> template.writeInsertAction(out, handle, geometriesGml.get(i),
+                                        feature.getProperties());
+                                case UPDATE -> template.writeUpdateAction(out, handle, feature.getId(),
+                                        geometriesGml.get(i), feature.getProperties());
+                                case DELETE -> template.writeDeleteAction(out, handle, feature.getId());
+                            }
+                        }
+                        WfsTransactionTemplate.writeTransactionEnd(out);
+                    }));
+
+            // La transaction est atomique côté GeoServer : une exception annule toutes les opérations
+            if (response.hasExceptions()) {
+                WfsTransactionResponse.WfsException exception = response.exceptions().get(0);
+                log.error("Combined WFS-T transaction failed in workspace {}: {}", workspace, response.exceptions());
+                for (int index : indexes) {
+                    String handle = OPERATION_HANDLE_PREFIX + index;
+                    outcomes[index] = FeatureOperationOutcome.failed(operations.get(index).feature().getId(),
+                            handle.equals(exception.locator())
+                                    ? exception.text()
+                                    : ROLLED_BACK_PREFIX + (exception.locator() != null
+                                            ? "operation " + exception.locator()
+                                            : "transaction") + " failed");
+                }
+                return;
             }
 
-            return success;
+            // Transaction validée : un total inférieur ne dit pas quelle opération n'a rien touché, toutes restent
+            // appliquées mais non confirmées
+            boolean updatesConfirmed = response.totalUpdated() == expectedUpdates;
+            boolean deletesConfirmed = response.totalDeleted() == expectedDeletes;
+            Iterator<String> insertedIds = response.insertedFeatureIds().iterator();
+            for (int index : indexes) {
+                FeatureOperation operation = operations.get(index);
+                String featureId = operation.feature().getId();
+                outcomes[index] = switch (operation.type()) {
+                    case INSERT -> FeatureOperationOutcome.succeeded(
+                            insertedIds.hasNext() ? insertedIds.next() : "SUCCESS_NO_ID");
+                    case UPDATE -> updatesConfirmed
+                            ? FeatureOperationOutcome.succeeded(featureId)
+                            : FeatureOperationOutcome.unconfirmed(featureId, "Transaction committed but only "
+                                    + response.totalUpdated() + "/" + expectedUpdates + " updates matched a feature");
+                    case DELETE -> deletesConfirmed
+                            ? FeatureOperationOutcome.succeeded(featureId)
+                            : FeatureOperationOutcome.unconfirmed(featureId, "Transaction committed but only "
+                                    + response.totalDeleted() + "/" + expectedDeletes + " deletes matched a feature");
+                };
+            }
 
         } catch (Exception e) {
-            log.error("Error executing WFS-T Delete for feature {} in layer {}: {}",
-                    featureId, layerCatalog.name(), e.getMessage(), e);
-            return false;
+            log.error("Error executing combined WFS-T transaction in workspace {}: {}", workspace, e.getMessage(), e);
+            String prefix = GeoserverRouter.isUndelivered(e) ? UNDELIVERED_PREFIX : TRANSACTION_FAILED_PREFIX;
+            for (int index : indexes) {
+                outcomes[index] = FeatureOperationOutcome.failed(operations.get(index).feature().getId(),
+                        prefix + e.getMessage());
+            }
         }
     }
 
-    private String buildWfsDeleteTransaction(LayerCatalog layerCatalog, String featureId) {
-
-        return String.format("""
-                <?xml version="1.0" encoding="UTF-8"?>
-                <wfs:Transaction version="1.1.0" service="WFS"
-                    xmlns:wfs="http://www.opengis.net/wfs"
-                    xmlns:ogc="http://www.opengis.net/ogc"
-                    xmlns:%1$s="%1$s"
-                    xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance">
-                  <wfs:Delete typeName="%1$s:%2$s">
-                    <ogc:Filter>
-                      <ogc:FeatureId fid="%3$s"/>
-                    </ogc:Filter>
-                  </wfs:Delete>
-                </wfs:Transaction>
-                """,
-                layerCatalog.workspace(),
-                layerCatalog.geoserverLayerName(),
-                featureId);
-    }
-
-    private boolean parseWfsDeleteResponse(String xmlResponse) {
-        if (xmlResponse == null) {
-            return false;
+    private WfsTransactionTemplate transactionTemplate(LayerCatalog layerCatalog) {
+        return transactionTemplates.computeIfAbsent(
+                layerCatalog.workspace() + ":" + layerCatalog.geoserverLayerName(),
+                key -> WfsTransactionTemplate.compile(layerCatalog.workspace(), layerCatalog.geoserverLayerName()));
+    }
+
+    private WfsTransactionResponse executeTransaction(LayerCatalog layerCatalog, int vertices, TransactionBody body) {
+        TransactionTarget target = new TransactionTarget(layerCatalog.layerId(),
+                layerCatalog.workspace() + ":" + layerCatalog.geoserverLayerName(), vertices);
+        return geoserverRouter.write(layerCatalog.workspace(), layerCatalog.geoserverLayerName(),
+                baseUrl -> postTransaction(baseUrl, target, body));
+    }
+
+    // Corps envoyé au fil de l'écriture : l'étape WFS_POST englobe GML_BUILD et RESPONSE_PARSE
+    private WfsTransactionResponse postTransaction(String baseUrl, TransactionTarget target, TransactionBody body) {
+        EditStageEvent post = target.begin(EditStageEvent.Stage.WFS_POST);
+        long[] sent = new long[1];
+        try {
+            return restTemplate.execute(
+                    baseUrl + "/wfs",
+                    HttpMethod.POST,
+                    request -> {
+                        HttpHeaders headers = request.getHeaders();
+                        String auth = username + ":" + password;
+                        String encodedAuth = Base64.getEncoder()
+                                .encodeToString(auth.getBytes(StandardCharsets.UTF_8));
+                        headers.set("Authorization", "Basic " + encodedAuth);
+                        headers.setContentType(new MediaType("application", "xml", StandardCharsets.UTF_8));
+                        headers.set("Accept", "application/xml");
+                        headers.set("Accept-Charset", "UTF-8");
+                        propagateCorrelationId(headers::set);
+                        if (requestCompression) {
+                            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                            headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+                        }
+
+                        // Encodage au fil de l'envoi : la mémoire par requête ne dépend pas de la taille des géométries
+                        if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+                            streamingRequest.setBody(out -> sent[0] = writeTransaction(out, target, body));
+                        } else {
+                            // Fabrique bufferisante (intercepteurs) : corps entier en mémoire
+                            sent[0] = writeTransaction(request.getBody(), target, body);
+                        }
+                    },
+                    response -> {
+                        EditStageEvent parse = target.begin(EditStageEvent.Stage.RESPONSE_PARSE);
+                        try {
+                            InputStream responseBody = "gzip".equalsIgnoreCase(
+                                    response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))
+                                            ? new GZIPInputStream(response.getBody())
+                                            : response.getBody();
+                            return WfsTransactionResponseParser.parse(responseBody);
+                        } catch (XMLStreamException e) {
+                            throw new IOException("Invalid WFS-T response", e);
+                        } finally {
+                            parse.finish(0, Math.max(0, response.getHeaders().getContentLength()));
+                        }
+                    });
+        } finally {
+            post.finish(target.vertices(), sent[0]);
         }
+    }
 
+    // Octets XML produits, avant compression
+    private long writeTransaction(OutputStream out, TransactionTarget target, TransactionBody body)
+            throws IOException {
+        EditStageEvent build = target.begin(EditStageEvent.Stage.GML_BUILD);
+        XmlUtf8Writer writer = null;
         try {
-            // Vérifier si la transaction a réussi
-            if (xmlResponse.contains("<wfs:totalDeleted>1</wfs:totalDeleted>") ||
-                    xmlResponse.contains("totalDeleted>1</")) {
-                return true;
+            if (!requestCompression) {
+                writer = new XmlUtf8Writer(out);
+                body.writeTo(writer);
+                writer.flush();
+                return writer.bytesWritten();
             }
 
-            // Vérifier s'il y a des erreurs
-            if (xmlResponse.contains("<ows:Exception") || xmlResponse.contains("<ServiceException")) {
-                log.error("WFS-T Delete failed with error in response: {}", xmlResponse);
-                return false;
-            }
+            GZIPOutputStream gzip = new GZIPOutputStream(out, 8192);
+            writer = new XmlUtf8Writer(gzip);
+            body.writeTo(writer);
+            writer.flush();
+            gzip.finish();
+            return writer.bytesWritten();
+        } finally {
+            build.finish(target.vertices(), writer != null ? writer.bytesWritten() : 0);
+        }
+    }
 
-            // Si aucune feature n'a été supprimée
-            if (xmlResponse.contains("<wfs:totalDeleted>0</wfs:totalDeleted>") ||
-                    xmlResponse.contains("totalDeleted>0</")) {
-                log.warn("WFS-T Delete: No feature was deleted (feature may not exist)");
-                return false;
-            }
+    private static void propagateCorrelationId(BiConsumer<String, String> header) {
+        String correlationId = CorrelationId.current();
+        if (correlationId != null) {
+            header.accept(CorrelationId.HEADER, correlationId);
+        }
+    }
 
-            return false;
+    // Contexte des événements JFR d'une transaction ; layerId absent pour une transaction combinée
+    private record TransactionTarget(UUID layerId, String layer, int vertices) {
 
-        } catch (Exception e) {
-            log.error("Error parsing WFS Delete response: {}", e.getMessage());
-            return false;
+        EditStageEvent begin(EditStageEvent.Stage stage) {
+            return EditStageEvent.begin(stage).layerId(layerId).layer(layer);
         }
     }
+
+    @FunctionalInterface
+    private interface TransactionBody {
+        void writeTo(XmlUtf8Writer writer) throws IOException;
+    }
 }
@@ -0,0 +1,221 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.amine.pfe.drawing_module.config.CacheConfig;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.model.LayerSchema;
+import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Préchargement des catalogues et des schémas de couches.
+ * Au démarrage, les schémas sont rechargés depuis un snapshot local puis vérifiés en parallèle auprès de GeoServer ;
+ * ensuite, seules les couches nouvelles, dont la configuration publiée a changé ou dont le schéma a expiré du cache
+ * sont relues.
+ */
+@Component
+@Slf4j
+public class LayerCacheWarmup {
+
+    private final LayerRepositoryPort catalogRepository;
+    private final CartographicServerPort cartographicServerPort;
+    private final CacheManager cacheManager;
+    private final boolean enabled;
+    private final Path snapshotFile;
+    private final ThreadPoolExecutor executor;
+
+    // Dernier schéma connu par couche GeoServer, avec l'empreinte de sa configuration
+    private final Map<SimpleKey, LayerSchemaSnapshot.Entry> knownSchemas = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private record RefreshResult(int layers, int fetched, int failed) {
+    }
+
+    public LayerCacheWarmup(LayerRepositoryPort catalogRepository,
+            CartographicServerPort cartographicServerPort,
+            CacheManager cacheManager,
+            @Value("${drawing.cache.warmup.enabled:true}") boolean enabled,
+            @Value("${drawing.cache.warmup.parallelism:8}") int parallelism,
+            @Value("${drawing.cache.warmup.snapshot-file:}") String snapshotFile) {
+        this.catalogRepository = catalogRepository;
+        this.cartographicServerPort = cartographicServerPort;
+        this.cacheManager = cacheManager;
+        this.enabled = enabled;
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "schema-warmup-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Synchrone, avant l'ouverture du trafic : les premières éditions trouvent les schémas en cache
+    @EventListener(ApplicationStartedEvent.class)
+    public void loadSnapshot() {
+        if (!enabled || snapshotFile == null || !Files.exists(snapshotFile)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            Cache schemaCache = cacheManager.getCache(CacheConfig.LAYER_SCHEMAS);
+            List<LayerSchemaSnapshot.Entry> entries = LayerSchemaSnapshot.read(snapshotFile);
+            for (LayerSchemaSnapshot.Entry entry : entries) {
+                SimpleKey key = new SimpleKey(entry.workspace(), entry.layerName());
+                knownSchemas.put(key, entry);
+                if (schemaCache != null) {
+                    schemaCache.put(key, entry.schema());
+                }
+            }
+            log.info("Layer schema snapshot loaded: {} schemas in {} ms",
+                    entries.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Layer schema snapshot {} ignored: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh("warm-up");
+    }
+
+    // Couches publiées depuis le dernier passage, ou modifiées dans GeoServer
+    @Scheduled(fixedDelayString = "${drawing.cache.schema-refresh-interval-ms:300000}",
+            initialDelayString = "${drawing.cache.schema-refresh-interval-ms:300000}")
+    public void refreshChanged() {
+        refresh("refresh");
+    }
+
+    void refresh(String reason) {
+        if (!enabled || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            List<LayerCatalog> catalogs;
+            try {
+                catalogs = catalogRepository.findAllLayerCatalogs();
+            } catch (Exception e) {
+                log.warn("Layer cache {} skipped, catalog unavailable: {}", reason, e.getMessage());
+                return;
+            }
+
+            Cache catalogCache = cacheManager.getCache(CacheConfig.LAYER_CATALOGS);
+            if (catalogCache != null) {
+                catalogs.forEach(catalog -> catalogCache.put(catalog.layerId(), catalog));
+            }
+
+            RefreshResult result = refreshSchemas(catalogs);
+            log.info("Layer cache {} done: {} catalogs, {} layers, {} schemas fetched, {} failed in {} ms",
+                    reason, catalogs.size(), result.layers(), result.fetched(), result.failed(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private RefreshResult refreshSchemas(List<LayerCatalog> catalogs) {
+        // Plusieurs catalogues peuvent pointer vers la même couche GeoServer
+        Map<SimpleKey, LayerCatalog> layers = new LinkedHashMap<>();
+        for (LayerCatalog catalog : catalogs) {
+            layers.putIfAbsent(new SimpleKey(catalog.workspace(), catalog.geoserverLayerName()), catalog);
+        }
+
+        boolean removed = knownSchemas.keySet().retainAll(layers.keySet());
+        Cache schemaCache = cacheManager.getCache(CacheConfig.LAYER_SCHEMAS);
+        List<CompletableFuture<Boolean>> tasks = new ArrayList<>(layers.size());
+        layers.forEach((key, catalog) -> tasks.add(
+                CompletableFuture.supplyAsync(() -> refreshSchema(key, catalog, schemaCache), executor)));
+
+        int fetched = 0;
+        int failed = 0;
+        for (CompletableFuture<Boolean> task : tasks) {
+            try {
+                if (task.join()) {
+                    fetched++;
+                }
+            } catch (Exception e) {
+                failed++;
+            }
+        }
+
+        if (fetched > 0 || removed) {
+            writeSnapshot();
+        }
+        return new RefreshResult(layers.size(), fetched, failed);
+    }
+
+    // Relit le schéma si la couche est nouvelle, si sa configuration a changé ou si son entrée a expiré du cache ;
+    // retourne true s'il a été relu
+    private boolean refreshSchema(SimpleKey key, LayerCatalog catalog, Cache schemaCache) {
+        String workspace = catalog.workspace();
+        String layerName = catalog.geoserverLayerName();
+        try {
+            String revision = cartographicServerPort.getLayerRevision(workspace, layerName);
+            LayerSchemaSnapshot.Entry known = knownSchemas.get(key);
+            // La révision ne couvre que la configuration REST : une colonne ajoutée dans PostGIS ne la change pas,
+            // l'entrée expirée passe donc par DescribeFeatureType plutôt que d'être remise depuis le snapshot
+            if (known != null && revision != null && Objects.equals(known.revision(), revision)
+                    && (schemaCache == null || schemaCache.get(key) != null)) {
+                return false;
+            }
+
+            LayerSchema schema = cartographicServerPort.refreshLayerSchema(workspace, layerName);
+            knownSchemas.put(key, new LayerSchemaSnapshot.Entry(workspace, layerName, revision, schema));
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Schema warm-up failed for layer {}: {}", catalog.name(), e.getMessage());
+            throw e;
+        }
+    }
+
+    private void writeSnapshot() {
+        if (snapshotFile == null) {
+            return;
+        }
+        try {
+            LayerSchemaSnapshot.write(snapshotFile, List.copyOf(knownSchemas.values()));
+        } catch (Exception e) {
+            log.warn("Could not write layer schema snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+}
@@ -12,22 +12,41 @@ import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
+import com.amine.pfe.drawing_module.domain.geometry.GeoJsonGeometries;
+import com.amine.pfe.drawing_module.domain.geometry.GeometryCodecs;
 import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.FeatureChange;
+import com.amine.pfe.drawing_module.domain.model.FeatureFilter;
 import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
 import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
 import com.amine.pfe.drawing_module.domain.model.LayerSchema;
 import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.domain.port.out.EditAuditPort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeasePort;
 import com.amine.pfe.drawing_module.domain.port.out.LayerManagerPort;
 import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
 import com.amine.pfe.drawing_module.domain.util.MappingUtils;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.amine.pfe.drawing_module.infrastructure.diagnostics.EditStageEvent;
+import com.amine.pfe.drawing_module.infrastructure.logging.PayloadLogSampler;
+import com.amine.pfe.drawing_module.infrastructure.service.crs.CrsTransformer;
+import com.amine.pfe.drawing_module.infrastructure.service.journal.EditJournal;
+import com.amine.pfe.drawing_module.infrastructure.service.journal.JournalEntry;
+import com.amine.pfe.drawing_module.infrastructure.service.routing.GeoserverRouter;
+import com.amine.pfe.drawing_module.infrastructure.service.sync.FeatureChangeRecorder;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import com.amine.pfe.drawing_module.domain.dto.BulkEditRequest;
+import com.amine.pfe.drawing_module.domain.dto.BulkEditResult;
 import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
 import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateResult;
+import com.amine.pfe.drawing_module.domain.exception.CartographicServerUnavailableException;
+import com.amine.pfe.drawing_module.domain.exception.FeatureLeaseConflictException;
 import com.amine.pfe.drawing_module.domain.exception.LayerNotFoundException;
 
 @Service
@@ -38,6 +57,15 @@ public class LayerManagerAdapter implements LayerManagerPort {
     private final LayerRepositoryPort catalogRepository;
     private final CartographicServerPort cartographicServerPort;
     private final ObjectMapper objectMapper;
+    private final PayloadLogSampler payloadLogSampler;
+    private final CrsTransformer crsTransformer;
+    private final EditJournal editJournal;
+    private final FeatureCache featureCache;
+    private final OffHeapGeometryReader offHeapGeometryReader;
+    private final FeatureChangeRecorder changeRecorder;
+    private final FeatureFingerprintStore fingerprints;
+    private final FeatureLeasePort featureLeases;
+    private final EditAuditPort editAudit;
 
     @Override
     public LayerSchema getLayerSchema(UUID layerId) {
@@ -49,14 +77,46 @@ public class LayerManagerAdapter implements LayerManagerPort {
                 catalog.geoserverLayerName());
     }
 
+    @Override
+    public Feature getFeature(UUID layerId, String featureId, String crs) {
+        LayerCatalog layerCatalog = catalogRepository.findLayerCatalogById(layerId)
+                .orElseThrow(() -> new LayerNotFoundException("Layer not found: " + layerId));
+
+        Feature feature = featureCache.get(layerId, featureId,
+                () -> cartographicServerPort.getFeature(layerCatalog, featureId));
+        if (feature == null || feature.getGeometry() == null || crs == null || crs.isBlank()) {
+            return feature;
+        }
+
+        String sourceCrs = feature.getCrs() != null ? feature.getCrs()
+                : cartographicServerPort.getLayerSchema(layerCatalog.workspace(), layerCatalog.geoserverLayerName())
+                        .srsName();
+        String targetCrs = CrsTransformer.normalize(crs);
+        if (sourceCrs == null || CrsTransformer.sameCrs(sourceCrs, targetCrs)) {
+            return feature;
+        }
+
+        // Copie : l'entrée en cache reste dans le CRS de la couche
+        double[] coordinates = feature.getGeometry().getCoordinates().clone();
+        crsTransformer.transformInPlace(coordinates, sourceCrs, targetCrs);
+        return Feature.builder()
+                .id(feature.getId())
+                .geometry(FeatureGeometry.builder().type(feature.getGeometry().getType()).coordinates(coordinates).build())
+                .properties(feature.getProperties())
+                .crs(targetCrs)
+                .build();
+    }
+
     @Override
     public FeatureUpdateResult insertFeature(UUID layerId, FeatureUpdateRequest request) {
+        long sequence = -1;
+        FeatureGeometry geometry = null;
         try {
-            log.info("Creating feature with request {} in layer {}", request, layerId);
+            log.info("Creating feature in layer {}", layerId);
+            payloadLogSampler.sample("insert", layerId, request);
 
             // 1. Récupérer le catalog de la couche
-            LayerCatalog layerCatalog = catalogRepository.findLayerCatalogById(layerId)
-                    .orElse(null);
+            LayerCatalog layerCatalog = findLayerCatalog(layerId);
 
             if (layerCatalog == null) {
                 return FeatureUpdateResult.builder()
@@ -66,8 +126,8 @@ public class LayerManagerAdapter implements LayerManagerPort {
             }
 
             // 2. Parser la géométrie
-            FeatureGeometry geometry = parseGeometry(request.getGeometry());
-            log.info("Parsed geometry: {}", geometry);
+            geometry = parseGeometry(request);
+            log.debug("Parsed geometry: {}", geometry);
             if (geometry == null) {
                 return FeatureUpdateResult.builder()
                         .success(false)
@@ -75,42 +135,26 @@ public class LayerManagerAdapter implements LayerManagerPort {
                         .build();
             }
 
-            // 3. Obtenir le schéma directement via GeoServer
-            LayerSchema layerSchema = cartographicServerPort.getLayerSchema(
-                    layerCatalog.workspace(), layerCatalog.geoserverLayerName());
-
-            Map<String, String> attributeTypes = layerSchema.attributes().stream()
-                    .collect(Collectors.toMap(LayerSchema.Attribute::label, LayerSchema.Attribute::javaType));
-
-            // 4. Convertir les propriétés en fonction du type attendu
-            Map<String, Object> properties = new HashMap<>();
-            for (Map.Entry<String, Object> entry : request.getProperties().entrySet()) {
-                String key = entry.getKey();
-                Object rawValue = entry.getValue();
-                String expectedType = attributeTypes.get(key);
-
-                Object convertedValue = MappingUtils.convertValueToExpectedType(rawValue, expectedType);
-                properties.put(key, convertedValue);
+            // Journaliser l'édition acceptée avant tout appel à GeoServer
+            sequence = editJournal.append(JournalEntry.insert(layerId, request));
+            if (editJournal.hasBacklog()) {
+                return queued(sequence, null, "earlier edits are awaiting replay");
             }
 
-            LocalDateTime now = LocalDateTime.now();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
-            String formattedDate = now.atZone(ZoneId.systemDefault()).format(formatter);
-            properties.put("date_creation", formattedDate);
-            properties.put("date_modif", formattedDate);
-
-            log.info("Properties for new feature: {}", properties);
+            // 3 à 5. Schéma GeoServer, reprojection et conversion des propriétés
+            Feature feature = buildFeature(layerCatalog, null, geometry, request, true);
+            log.debug("Properties for new feature: {}", feature.getProperties());
 
-            // 5. Créer le feature à insérer
-            Feature feature = Feature.builder()
-                    .geometry(geometry)
-                    .properties(properties)
-                    .build();
+            long fingerprint = FeatureFingerprint.of(feature);
 
             // 6. Exécuter l'ajout via WFS-T
             String newFeatureId = cartographicServerPort.insertFeature(layerCatalog, feature);
+            editJournal.complete(sequence, newFeatureId != null);
 
             if (newFeatureId != null) {
+                fingerprints.put(layerId, newFeatureId, fingerprint);
+                changeRecorder.record(layerId, FeatureOperation.Type.INSERT, newFeatureId);
+                editAudit.record(layerId, newFeatureId, FeatureOperation.Type.INSERT, null, feature.getProperties());
                 log.info("Feature created successfully with ID {} in layer {}", newFeatureId, layerCatalog.name());
                 return FeatureUpdateResult.builder()
                         .success(true)
@@ -125,23 +169,34 @@ public class LayerManagerAdapter implements LayerManagerPort {
                         .build();
             }
 
+        } catch (CartographicServerUnavailableException e) {
+            // Rejouer un Insert peut-être validé le dupliquerait : seul un Insert jamais parvenu est mis en file
+            if (!GeoserverRouter.isUndelivered(e)) {
+                return unconfirmedInsert(sequence, e);
+            }
+            return unavailable(sequence, null, e);
         } catch (Exception e) {
+            editJournal.complete(sequence, false);
             log.error("Error creating feature in layer {}: {}", layerId, e.getMessage(), e);
             return FeatureUpdateResult.builder()
                     .success(false)
                     .message("Internal server error: " + e.getMessage())
                     .build();
+        } finally {
+            release(geometry);
         }
     }
 
     @Override
     public FeatureUpdateResult updateFeature(UUID layerId, String featureId, FeatureUpdateRequest request) {
+        long sequence = -1;
+        FeatureGeometry geometry = null;
         try {
-            log.info("Updating feature {} with request {}", featureId, request);
+            log.info("Updating feature {} in layer {}", featureId, layerId);
+            payloadLogSampler.sample("update", layerId, request);
 
             // 1. Récupérer le catalog de la couche
-            LayerCatalog layerCatalog = catalogRepository.findLayerCatalogById(layerId)
-                    .orElse(null);
+            LayerCatalog layerCatalog = findLayerCatalog(layerId);
 
             if (layerCatalog == null) {
                 return FeatureUpdateResult.builder()
@@ -152,8 +207,8 @@ public class LayerManagerAdapter implements LayerManagerPort {
             }
 
             // 2. Parser la géométrie
-            FeatureGeometry geometry = parseGeometry(request.getGeometry());
-            log.info("Parsed geometry: {}", geometry);
+            geometry = parseGeometry(request);
+            log.debug("Parsed geometry: {}", geometry);
             if (geometry == null) {
                 return FeatureUpdateResult.builder()
                         .success(false)
@@ -162,40 +217,53 @@ public class LayerManagerAdapter implements LayerManagerPort {
                         .build();
             }
 
-            // 3. Obtenir le schéma directement via GeoServer
-            LayerSchema layerSchema = cartographicServerPort.getLayerSchema(
-                    layerCatalog.workspace(), layerCatalog.geoserverLayerName());
-
-            Map<String, String> attributeTypes = layerSchema.attributes().stream()
-                    .collect(Collectors.toMap(LayerSchema.Attribute::label, LayerSchema.Attribute::javaType));
-
-            // 4. Convertir les propriétés en fonction du type attendu
-            Map<String, Object> updatedProperties = new HashMap<>();
-            for (Map.Entry<String, Object> entry : request.getProperties().entrySet()) {
-                String key = entry.getKey();
-                Object rawValue = entry.getValue();
-                String expectedType = attributeTypes.get(key);
+            featureLeases.checkEdit(layerId, featureId, request.getLeaseToken());
 
-                Object convertedValue = MappingUtils.convertValueToExpectedType(rawValue, expectedType);
-                updatedProperties.put(key, convertedValue);
+            // Journaliser l'édition acceptée avant tout appel à GeoServer
+            sequence = editJournal.append(JournalEntry.update(layerId, featureId, request));
+            if (editJournal.hasBacklog()) {
+                forget(layerId, featureId);
+                return queued(sequence, featureId, "earlier edits are awaiting replay");
             }
 
-            LocalDateTime now = LocalDateTime.now();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
-            String formattedDate = now.atZone(ZoneId.systemDefault()).format(formatter);
-            updatedProperties.put("date_modif", formattedDate);
+            // 3 à 5. Schéma GeoServer, reprojection et conversion des propriétés
+            Feature feature = buildFeature(layerCatalog, featureId, geometry, request, false);
+            log.debug("Updated properties: {}", feature.getProperties());
 
-            log.info("Updated properties: {}", updatedProperties);
-
-            // 5. Créer le feature à mettre à jour
-            Feature feature = Feature.builder()
-                    .id(featureId)
-                    .geometry(geometry)
-                    .properties(updatedProperties)
-                    .build();
+            // Contenu identique à la dernière écriture : ni transaction, ni date_modif, ni invalidation
+            long fingerprint = FeatureFingerprint.of(feature);
+            if (fingerprints.matches(layerId, featureId, fingerprint)) {
+                editJournal.complete(sequence, true);
+                log.info("Feature {} unchanged in layer {}, update skipped", featureId, layerCatalog.name());
+                return FeatureUpdateResult.builder()
+                        .success(true)
+                        .unchanged(true)
+                        .featureId(featureId)
+                        .message("Feature unchanged")
+                        .build();
+            }
+            long token = fingerprints.begin(layerId, featureId);
+            Feature cached = featureCache.invalidate(layerId, featureId);
 
             // 6. Exécuter la mise à jour via WFS-T
-            boolean success = cartographicServerPort.updateFeature(layerCatalog, feature);
+            // Une lecture concurrente a pu remettre l'ancien état en cache : invalidé de nouveau sans écriture directe
+            boolean success;
+            boolean written = false;
+            try {
+                success = cartographicServerPort.updateFeature(layerCatalog, feature);
+                written = success && writeThrough(layerId, cached, feature);
+            } finally {
+                if (!written) {
+                    featureCache.invalidate(layerId, featureId);
+                }
+            }
+            editJournal.complete(sequence, success);
+            if (success) {
+                fingerprints.complete(layerId, featureId, token, fingerprint);
+                changeRecorder.record(layerId, FeatureOperation.Type.UPDATE, featureId);
+                editAudit.record(layerId, featureId, FeatureOperation.Type.UPDATE, properties(cached),
+                        feature.getProperties());
+            }
 
             if (success) {
                 log.info("Feature {} updated successfully in layer {}", featureId, layerCatalog.name());
@@ -213,24 +281,33 @@ public class LayerManagerAdapter implements LayerManagerPort {
                         .build();
             }
 
+        } catch (CartographicServerUnavailableException e) {
+            // L'édition peut être rejouée plus tard : ni l'ancien état ni l'ancienne empreinte ne restent valides
+            forget(layerId, featureId);
+            return unavailable(sequence, featureId, e);
+        } catch (FeatureLeaseConflictException e) {
+            throw e;
         } catch (Exception e) {
+            editJournal.complete(sequence, false);
             log.error("Error updating feature {} in layer {}: {}", featureId, layerId, e.getMessage(), e);
             return FeatureUpdateResult.builder()
                     .success(false)
                     .featureId(featureId)
                     .message("Internal server error: " + e.getMessage())
                     .build();
+        } finally {
+            release(geometry);
         }
     }
 
     @Override
-    public FeatureUpdateResult deleteFeature(UUID layerId, String featureId) {
+    public FeatureUpdateResult deleteFeature(UUID layerId, String featureId, String leaseToken) {
+        long sequence = -1;
         try {
             log.info("Deleting feature {} from layer {}", featureId, layerId);
 
             // 1. Récupérer le catalog de la couche
-            LayerCatalog layerCatalog = catalogRepository.findLayerCatalogById(layerId)
-                    .orElse(null);
+            LayerCatalog layerCatalog = findLayerCatalog(layerId);
 
             if (layerCatalog == null) {
                 return FeatureUpdateResult.builder()
@@ -247,10 +324,27 @@ public class LayerManagerAdapter implements LayerManagerPort {
                         .build();
             }
 
+            featureLeases.checkEdit(layerId, featureId, leaseToken);
+
+            // Journaliser l'édition acceptée avant tout appel à GeoServer
+            sequence = editJournal.append(JournalEntry.delete(layerId, featureId));
+            Feature cached = forget(layerId, featureId);
+            if (editJournal.hasBacklog()) {
+                return queued(sequence, featureId, "earlier edits are awaiting replay");
+            }
+
             // 3. Exécuter la suppression via WFS-T
-            boolean deleted = cartographicServerPort.deleteFeature(layerCatalog, featureId);
+            boolean deleted;
+            try {
+                deleted = cartographicServerPort.deleteFeature(layerCatalog, featureId);
+            } finally {
+                featureCache.invalidate(layerId, featureId);
+            }
+            editJournal.complete(sequence, deleted);
 
             if (deleted) {
+                changeRecorder.record(layerId, FeatureOperation.Type.DELETE, featureId);
+                editAudit.record(layerId, featureId, FeatureOperation.Type.DELETE, properties(cached), null);
                 log.info("Feature {} deleted successfully from layer {}", featureId, layerCatalog.name());
                 return FeatureUpdateResult.builder()
                         .success(true)
@@ -265,7 +359,12 @@ public class LayerManagerAdapter implements LayerManagerPort {
                         .build();
             }
 
+        } catch (CartographicServerUnavailableException e) {
+            return unavailable(sequence, featureId, e);
+        } catch (FeatureLeaseConflictException e) {
+            throw e;
         } catch (Exception e) {
+            editJournal.complete(sequence, false);
             log.error("Error deleting feature {} from layer {}: {}", featureId, layerId, e.getMessage(), e);
             return FeatureUpdateResult.builder()
                     .success(false)
@@ -274,188 +373,393 @@ public class LayerManagerAdapter implements LayerManagerPort {
         }
     }
 
-    public FeatureGeometry parseGeometry(String geometryJson) {
-        try {
-            JsonNode geometryNode = objectMapper.readTree(geometryJson);
+    @Override
+    public BulkEditResult deleteFeatures(UUID layerId, BulkEditRequest request) {
+        return bulkEdit(layerId, request, false);
+    }
 
-            String type = geometryNode.get("type").asText();
-            JsonNode coordsNode = geometryNode.get("coordinates");
+    @Override
+    public BulkEditResult updateFeatures(UUID layerId, BulkEditRequest request) {
+        return bulkEdit(layerId, request, true);
+    }
+
+    // Éditions en masse non journalisées : refusées tant que des éditions unitaires attendent leur rejeu,
+    // sans quoi elles seraient appliquées avant elles
+    private BulkEditResult bulkEdit(UUID layerId, BulkEditRequest request, boolean update) {
+        long start = System.nanoTime();
+        String operation = update ? "update" : "delete";
+        log.info("Bulk {} in layer {}", operation, layerId);
+
+        LayerCatalog layerCatalog = catalogRepository.findLayerCatalogById(layerId)
+                .orElseThrow(() -> new LayerNotFoundException("Layer not found: " + layerId));
+        editJournal.requireNoBacklog();
+
+        LayerSchema layerSchema = cartographicServerPort.getLayerSchema(
+                layerCatalog.workspace(), layerCatalog.geoserverLayerName());
+        Map<String, String> attributeTypes = new HashMap<>();
+        layerSchema.attributes().forEach(attribute -> attributeTypes.put(attribute.label(), attribute.javaType()));
+
+        FeatureFilter filter = toFeatureFilter(request, attributeTypes);
+        Map<String, Object> properties = update ? bulkProperties(request, attributeTypes) : null;
+        // Sélection par emprise ou conditions : features inconnues avant la transaction, refusée si la couche
+        // a un bail en cours
+        if (filter.byIds()) {
+            for (String featureId : filter.featureIds()) {
+                featureLeases.checkEditAny(layerId, featureId, request.getLeaseTokens());
+            }
+        } else {
+            featureLeases.checkLayerEdit(layerId);
+        }
 
-            switch (type.toLowerCase()) {
-                case "point":
-                    return parsePoint(type, coordsNode);
+        Map<String, Feature> forgotten = new HashMap<>();
+        int affected;
+        try {
+            affected = update
+                    ? cartographicServerPort.updateFeatures(layerCatalog, filter, properties)
+                    : cartographicServerPort.deleteFeatures(layerCatalog, filter);
+        } catch (IllegalStateException e) {
+            return BulkEditResult.builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .durationMs((System.nanoTime() - start) / 1_000_000)
+                    .build();
+        } catch (CartographicServerUnavailableException e) {
+            // Sans réponse, l'édition a pu être validée : les clients synchronisés relisent ce qu'elle a pu toucher
+            if (!GeoserverRouter.isUndelivered(e)) {
+                FeatureOperation.Type type = update ? FeatureOperation.Type.UPDATE : FeatureOperation.Type.DELETE;
+                if (filter.byIds()) {
+                    changeRecorder.recordAll(filter.featureIds().stream()
+                            .map(featureId -> FeatureChange.of(layerId, featureId, type))
+                            .toList());
+                } else {
+                    changeRecorder.resetLayer(layerId);
+                }
+            }
+            throw e;
+        } finally {
+            // Quelle que soit l'issue : une lecture concurrente a pu remettre l'ancien état en cache
+            if (filter.byIds()) {
+                for (String featureId : filter.featureIds()) {
+                    Feature cached = forget(layerId, featureId);
+                    if (cached != null) {
+                        forgotten.put(featureId, cached);
+                    }
+                }
+            } else {
+                featureCache.invalidateLayer(layerId);
+                fingerprints.invalidateLayer(layerId);
+            }
+        }
 
-                case "linestring":
-                case "multilinestring":
-                    return parseLineString(type, coordsNode);
+        // Par filtre, les features touchées sont inconnues : les clients synchronisés rechargent la couche
+        if (filter.byIds()) {
+            FeatureOperation.Type type = update ? FeatureOperation.Type.UPDATE : FeatureOperation.Type.DELETE;
+            changeRecorder.recordAll(filter.featureIds().stream()
+                    .map(featureId -> FeatureChange.of(layerId, featureId, type))
+                    .toList());
+            filter.featureIds().forEach(featureId -> editAudit.record(layerId, featureId, type,
+                    properties(forgotten.get(featureId)), properties));
+        } else if (affected > 0) {
+            changeRecorder.resetLayer(layerId);
+            // Une seule trace pour l'édition par filtre, sans feature
+            editAudit.record(layerId, null,
+                    update ? FeatureOperation.Type.UPDATE : FeatureOperation.Type.DELETE, null, properties);
+        }
 
-                case "polygon":
-                case "multipolygon":
-                    return parsePolygon(type, coordsNode);
+        log.info("Bulk {} in layer {}: {} features", operation, layerCatalog.name(), affected);
+        return BulkEditResult.builder()
+                .success(true)
+                .affected(affected)
+                .message(affected + " features " + (update ? "updated" : "deleted"))
+                .durationMs((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
 
-                default:
-                    throw new IllegalArgumentException("Type de géométrie non supporté: " + type);
+    // Noms d'attributs vérifiés sur le schéma, valeurs typées comme pour une édition unitaire
+    private FeatureFilter toFeatureFilter(BulkEditRequest request, Map<String, String> attributeTypes) {
+        FeatureFilter.Envelope bbox = null;
+        if (request.getBbox() != null) {
+            List<Double> values = request.getBbox();
+            if (values.size() != 4 || values.contains(null)) {
+                throw new IllegalArgumentException("bbox must be [minX, minY, maxX, maxY]");
+            }
+            String crs = request.getBboxCrs() != null && !request.getBboxCrs().isBlank()
+                    ? CrsTransformer.normalize(request.getBboxCrs())
+                    : null;
+            bbox = new FeatureFilter.Envelope(values.get(0), values.get(1), values.get(2), values.get(3), crs);
+        }
+
+        List<FeatureFilter.Condition> conditions = new ArrayList<>();
+        if (request.getWhere() != null) {
+            for (FeatureFilter.Condition condition : request.getWhere()) {
+                String expectedType = checkedAttributeType(condition.property(), attributeTypes);
+                Object value = condition.operator() == FeatureFilter.Operator.LIKE
+                        ? condition.value()
+                        : MappingUtils.convertValueToExpectedType(condition.value(), expectedType);
+                conditions.add(new FeatureFilter.Condition(condition.property(), condition.operator(), value));
             }
-        } catch (Exception e) {
-            log.error("Erreur lors du parsing de la géométrie: {}", e.getMessage());
-            throw new IllegalArgumentException("Erreur parsing géométrie", e);
         }
+        return new FeatureFilter(request.getFeatureIds(), bbox, conditions);
     }
 
-    private FeatureGeometry parsePoint(String type, JsonNode coordsNode) {
-        double[] pointCoords = parsePointCoordinates(coordsNode);
-        return FeatureGeometry.builder()
-                .type(type)
-                .coordinates(pointCoords)
-                .build();
+    private Map<String, Object> bulkProperties(BulkEditRequest request, Map<String, String> attributeTypes) {
+        if (request.getProperties() == null || request.getProperties().isEmpty()) {
+            throw new IllegalArgumentException("A bulk update needs at least one property");
+        }
+        Map<String, Object> properties = new HashMap<>();
+        for (Map.Entry<String, Object> entry : request.getProperties().entrySet()) {
+            String expectedType = checkedAttributeType(entry.getKey(), attributeTypes);
+            properties.put(entry.getKey(), MappingUtils.convertValueToExpectedType(entry.getValue(), expectedType));
+        }
+        properties.put("date_modif", timestamp());
+        return properties;
     }
 
-    private FeatureGeometry parseLineString(String type, JsonNode coordsNode) {
-        double[] lineCoords;
+    private static String checkedAttributeType(String property, Map<String, String> attributeTypes) {
+        if (!attributeTypes.containsKey(property)) {
+            throw new IllegalArgumentException("Unknown attribute: " + property);
+        }
+        return attributeTypes.get(property);
+    }
 
-        if ("multilinestring".equalsIgnoreCase(type)) {
-            // MultiLineString: [ [[x1,y1],[x2,y2]], [[x3,y3],[x4,y4]] ]
-            lineCoords = parseMultiLineStringCoordinates(coordsNode);
-        } else {
-            // LineString: [ [x1,y1],[x2,y2],[x3,y3] ]
-            lineCoords = parseLineStringCoordinates(coordsNode);
+    private LayerCatalog findLayerCatalog(UUID layerId) {
+        EditStageEvent event = EditStageEvent.begin(EditStageEvent.Stage.CATALOG_LOOKUP).layerId(layerId);
+        try {
+            return catalogRepository.findLayerCatalogById(layerId).orElse(null);
+        } finally {
+            event.finish();
         }
+    }
 
-        return FeatureGeometry.builder()
-                .type(type)
-                .coordinates(lineCoords)
-                .build();
+    // Feature modifiée hors du chemin nominal : état en cache et empreinte ne sont plus fiables
+    // Rend l'état qui était en cache, null sinon
+    private Feature forget(UUID layerId, String featureId) {
+        fingerprints.invalidate(layerId, featureId);
+        return featureCache.invalidate(layerId, featureId);
     }
 
-    private FeatureGeometry parsePolygon(String type, JsonNode coordsNode) {
-        double[] polygonCoords;
+    private static Map<String, Object> properties(Feature feature) {
+        return feature != null ? feature.getProperties() : null;
+    }
 
-        if ("multipolygon".equalsIgnoreCase(type)) {
-            // MultiPolygon: [ [[[x1,y1],[x2,y2],[x3,y3],[x1,y1]]] ]
-            polygonCoords = parseMultiPolygonCoordinates(coordsNode);
-        } else {
-            // Polygon: [ [[x1,y1],[x2,y2],[x3,y3],[x1,y1]] ]
-            polygonCoords = parsePolygonCoordinates(coordsNode);
+    // GeoServer injoignable : mise en file si l'édition est journalisée, échec sinon
+    private FeatureUpdateResult unavailable(long sequence, String featureId, CartographicServerUnavailableException e) {
+        if (sequence >= 0) {
+            return queued(sequence, featureId, "GeoServer unavailable");
         }
+        log.error("GeoServer unavailable: {}", e.getMessage());
+        return FeatureUpdateResult.builder()
+                .success(false)
+                .featureId(featureId)
+                .message("GeoServer unavailable: " + e.getMessage())
+                .build();
+    }
 
-        return FeatureGeometry.builder()
-                .type(type)
-                .coordinates(polygonCoords)
+    private FeatureUpdateResult unconfirmedInsert(long sequence, CartographicServerUnavailableException e) {
+        editJournal.complete(sequence, false);
+        log.error("WFS-T Insert sent without confirmation, not replayed: {}", e.getMessage());
+        return FeatureUpdateResult.builder()
+                .success(false)
+                .unconfirmed(true)
+                .message("GeoServer did not confirm the insert, the feature may have been created: " + e.getMessage())
                 .build();
     }
 
-    // ===============================================
-    // MÉTHODES DE PARSING SPÉCIALISÉES
-    // ===============================================
+    private FeatureUpdateResult queued(long sequence, String featureId, String reason) {
+        editJournal.release(sequence);
+        log.warn("Edit #{} queued for replay: {}", sequence, reason);
+        return FeatureUpdateResult.builder()
+                .success(true)
+                .queued(true)
+                .featureId(featureId)
+                .message("Edit accepted and queued for replay: " + reason)
+                .build();
+    }
 
-    private double[] parsePointCoordinates(JsonNode coordsNode) {
-        if (coordsNode.isArray() && coordsNode.size() >= 2) {
-            return new double[] {
-                    coordsNode.get(0).asDouble(),
-                    coordsNode.get(1).asDouble()
-            };
+    // Update WFS-T partiel : l'entrée en cache est complétée plutôt que relue sur GeoServer.
+    // Sans CRS déclaré, la géométrie n'est pas dans celui de la couche : elle sera relue au prochain accès.
+    // Rend false si rien n'a été écrit en cache
+    private boolean writeThrough(UUID layerId, Feature cached, Feature updated) {
+        if (cached == null || updated.getCrs() == null) {
+            return false;
+        }
+        Map<String, Object> properties = new HashMap<>();
+        if (cached.getProperties() != null) {
+            properties.putAll(cached.getProperties());
         }
-        throw new IllegalArgumentException("Coordonnées Point invalides");
+        properties.putAll(updated.getProperties());
+
+        featureCache.put(layerId, Feature.builder()
+                .id(cached.getId())
+                .geometry(updated.getGeometry().onHeap())
+                .properties(properties)
+                .crs(updated.getCrs())
+                .build());
+        return true;
     }
 
-    private double[] parseLineStringCoordinates(JsonNode coordsNode) {
-        if (!coordsNode.isArray() || coordsNode.size() < 2) {
-            throw new IllegalArgumentException("LineString doit avoir au moins 2 points");
+    // Rejeu d'une édition journalisée : true si appliquée, false si rejetée par GeoServer ou invalide ;
+    // CartographicServerUnavailableException si GeoServer reste injoignable
+    public boolean replay(JournalEntry entry) {
+        LayerCatalog layerCatalog = catalogRepository.findLayerCatalogById(entry.layerId()).orElse(null);
+        if (layerCatalog == null) {
+            log.warn("Journaled {} dropped, layer {} no longer exists", entry.operation(), entry.layerId());
+            return false;
         }
 
-        List<Double> coords = new ArrayList<>();
+        Feature cached = entry.featureId() != null ? forget(layerCatalog.layerId(), entry.featureId()) : null;
+        if (entry.operation() == FeatureOperation.Type.DELETE) {
+            boolean deleted = cartographicServerPort.deleteFeature(layerCatalog, entry.featureId());
+            if (deleted) {
+                changeRecorder.record(entry.layerId(), entry.operation(), entry.featureId());
+                editAudit.record(entry.layerId(), entry.featureId(), entry.operation(), properties(cached), null);
+            }
+            return deleted;
+        }
+
+        FeatureGeometry geometry = null;
+        try {
+            Feature feature;
+            try {
+                FeatureUpdateRequest request = entry.toFeatureUpdateRequest();
+                boolean creation = entry.operation() == FeatureOperation.Type.INSERT;
+                geometry = parseGeometry(request);
+                feature = buildFeature(layerCatalog, entry.featureId(), geometry, request, creation);
+            } catch (IllegalArgumentException e) {
+                log.warn("Journaled {} on layer {} is invalid and dropped: {}", entry.operation(), layerCatalog.name(),
+                        e.getMessage());
+                return false;
+            }
 
-        for (JsonNode pointNode : coordsNode) {
-            if (pointNode.isArray() && pointNode.size() >= 2) {
-                coords.add(pointNode.get(0).asDouble());
-                coords.add(pointNode.get(1).asDouble());
+            String featureId = entry.operation() == FeatureOperation.Type.INSERT
+                    ? replayInsert(layerCatalog, feature)
+                    : cartographicServerPort.updateFeature(layerCatalog, feature) ? entry.featureId() : null;
+            changeRecorder.record(entry.layerId(), entry.operation(), featureId);
+            if (featureId != null) {
+                editAudit.record(entry.layerId(), featureId, entry.operation(), properties(cached),
+                        feature.getProperties());
             }
+            return featureId != null;
+        } finally {
+            release(geometry);
         }
+    }
 
-        return coords.stream().mapToDouble(Double::doubleValue).toArray();
+    // Insert rejoué sans réponse : abandonné plutôt que renvoyé, pour ne pas créer la feature deux fois
+    private String replayInsert(LayerCatalog layerCatalog, Feature feature) {
+        try {
+            return cartographicServerPort.insertFeature(layerCatalog, feature);
+        } catch (CartographicServerUnavailableException e) {
+            if (GeoserverRouter.isUndelivered(e)) {
+                throw e;
+            }
+            log.error("Journaled insert on layer {} sent without confirmation, dropped: {}", layerCatalog.name(),
+                    e.getMessage());
+            return null;
+        }
     }
 
-    private double[] parseMultiLineStringCoordinates(JsonNode coordsNode) {
-        if (!coordsNode.isArray()) {
-            throw new IllegalArgumentException("MultiLineString coordinates invalides");
+    // Les géométries hors tas sont rendues au pool une fois la transaction WFS-T terminée
+    public static void release(FeatureGeometry geometry) {
+        if (geometry != null) {
+            geometry.release();
         }
+    }
 
-        List<Double> allCoords = new ArrayList<>();
+    // Feature prête pour WFS-T : propriétés typées selon le schéma, dates de suivi, géométrie dans le CRS de la couche
+    public Feature buildFeature(LayerCatalog layerCatalog, String featureId, FeatureGeometry geometry,
+            FeatureUpdateRequest request, boolean creation) {
+        EditStageEvent schemaFetch = EditStageEvent.begin(EditStageEvent.Stage.SCHEMA_FETCH)
+                .layerId(layerCatalog.layerId());
+        LayerSchema layerSchema = cartographicServerPort.getLayerSchema(
+                layerCatalog.workspace(), layerCatalog.geoserverLayerName());
+        schemaFetch.finish();
+
+        String featureCrs = reproject(geometry, request.getCrs(), layerSchema);
+
+        Map<String, String> attributeTypes = layerSchema.attributes().stream()
+                .collect(Collectors.toMap(LayerSchema.Attribute::label, LayerSchema.Attribute::javaType));
+
+        // Convertir les propriétés en fonction du type attendu
+        Map<String, Object> properties = new HashMap<>();
+        for (Map.Entry<String, Object> entry : request.getProperties().entrySet()) {
+            String key = entry.getKey();
+            Object rawValue = entry.getValue();
+            String expectedType = attributeTypes.get(key);
+
+            Object convertedValue = MappingUtils.convertValueToExpectedType(rawValue, expectedType);
+            properties.put(key, convertedValue);
+        }
 
-        // Parcourir chaque LineString dans le MultiLineString
-        for (JsonNode lineStringNode : coordsNode) {
-            if (lineStringNode.isArray()) {
-                for (JsonNode pointNode : lineStringNode) {
-                    if (pointNode.isArray() && pointNode.size() >= 2) {
-                        allCoords.add(pointNode.get(0).asDouble());
-                        allCoords.add(pointNode.get(1).asDouble());
-                    }
-                }
-                // Ajouter un marqueur de séparation entre les LineStrings
-                // Utiliser des valeurs spéciales (ex: Double.NaN) ou une autre stratégie
-                allCoords.add(Double.NaN);
-                allCoords.add(Double.NaN);
-            }
+        String formattedDate = timestamp();
+        if (creation) {
+            properties.put("date_creation", formattedDate);
         }
+        properties.put("date_modif", formattedDate);
 
-        return allCoords.stream().mapToDouble(Double::doubleValue).toArray();
+        return Feature.builder()
+                .id(featureId)
+                .geometry(geometry)
+                .properties(properties)
+                .crs(featureCrs)
+                .build();
     }
 
-    private double[] parsePolygonCoordinates(JsonNode coordsNode) {
-        if (!coordsNode.isArray() || coordsNode.isEmpty()) {
-            throw new IllegalArgumentException("Polygon coordinates invalides");
-        }
+    static String timestamp() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+        return LocalDateTime.now().atZone(ZoneId.systemDefault()).format(formatter);
+    }
 
-        List<Double> coords = new ArrayList<>();
+    // Sans CRS déclaré, les coordonnées sont envoyées telles quelles (CRS par défaut du GML)
+    private String reproject(FeatureGeometry geometry, String requestCrs, LayerSchema layerSchema) {
+        if (requestCrs == null || requestCrs.isBlank()) {
+            return null;
+        }
 
-        // Parcourir tous les rings (extérieur + intérieurs)
-        for (JsonNode ringNode : coordsNode) {
-            if (ringNode.isArray()) {
-                for (JsonNode pointNode : ringNode) {
-                    if (pointNode.isArray() && pointNode.size() >= 2) {
-                        coords.add(pointNode.get(0).asDouble());
-                        coords.add(pointNode.get(1).asDouble());
-                    }
-                }
-                // Marqueur de fin de ring
-                coords.add(Double.NaN);
-                coords.add(Double.NaN);
-            }
+        String layerCrs = layerSchema.srsName() != null ? layerSchema.srsName() : requestCrs;
+        if (!CrsTransformer.sameCrs(requestCrs, layerCrs)) {
+            crsTransformer.transformInPlace(geometry.coordinateBuffer(), requestCrs, layerCrs);
+            log.debug("Geometry reprojected from {} to {}", requestCrs, layerCrs);
         }
+        return layerCrs;
+    }
 
-        return coords.stream().mapToDouble(Double::doubleValue).toArray();
+    public FeatureGeometry parseGeometry(FeatureUpdateRequest request) {
+        EditStageEvent event = EditStageEvent.begin(EditStageEvent.Stage.GEOMETRY_PARSE);
+        FeatureGeometry geometry = null;
+        try {
+            geometry = decodeGeometry(request);
+            return geometry;
+        } finally {
+            event.finish(EditStageEvent.vertices(geometry),
+                    request.getGeometry() != null ? request.getGeometry().length() : 0);
+        }
     }
 
-    private double[] parseMultiPolygonCoordinates(JsonNode coordsNode) {
-        if (!coordsNode.isArray()) {
-            throw new IllegalArgumentException("MultiPolygon coordinates invalides");
+    private FeatureGeometry decodeGeometry(FeatureUpdateRequest request) {
+        GeometryEncoding encoding = request.getGeometryEncoding();
+        if (encoding == null || encoding == GeometryEncoding.GEOJSON) {
+            return parseGeometry(request.getGeometry());
         }
 
-        List<Double> allCoords = new ArrayList<>();
-
-        // Parcourir chaque Polygon dans le MultiPolygon
-        for (JsonNode polygonNode : coordsNode) {
-            if (polygonNode.isArray()) {
-                // Chaque polygon a ses rings
-                for (JsonNode ringNode : polygonNode) {
-                    if (ringNode.isArray()) {
-                        for (JsonNode pointNode : ringNode) {
-                            if (pointNode.isArray() && pointNode.size() >= 2) {
-                                allCoords.add(pointNode.get(0).asDouble());
-                                allCoords.add(pointNode.get(1).asDouble());
-                            }
-                        }
-                        // Marqueur de fin de ring
-                        allCoords.add(Double.NaN);
-                        allCoords.add(Double.NaN);
-                    }
-                }
-                // Marqueur de fin de polygon
-                allCoords.add(Double.NEGATIVE_INFINITY);
-                allCoords.add(Double.NEGATIVE_INFINITY);
-            }
+        try {
+            return GeometryCodecs.decodeBase64(encoding, request.getGeometry());
+        } catch (Exception e) {
+            log.error("Erreur lors du décodage de la géométrie {}: {}", encoding, e.getMessage());
+            throw new IllegalArgumentException("Erreur décodage géométrie " + encoding, e);
         }
+    }
 
-        return allCoords.stream().mapToDouble(Double::doubleValue).toArray();
+    // Lecture en flux ; au-dessus du seuil configuré, les coordonnées sont écrites directement hors tas
+    public FeatureGeometry parseGeometry(String geometryJson) {
+        try (JsonParser parser = objectMapper.createParser(geometryJson)) {
+            if (offHeapGeometryReader != null && offHeapGeometryReader.accepts(geometryJson.length())) {
+                return offHeapGeometryReader.read(parser, geometryJson.length());
+            }
+            return GeoJsonGeometries.read(parser);
+        } catch (Exception e) {
+            log.error("Erreur lors du parsing de la géométrie: {}", e.getMessage());
+            throw new IllegalArgumentException("Erreur parsing géométrie", e);
+        }
     }
 }
@@ -0,0 +1,101 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.amine.pfe.drawing_module.domain.model.LayerSchema;
+
+/**
+ * Copie locale compacte des schémas de couches, rechargée au démarrage avant tout appel à GeoServer.
+ * Format binaire versionné ; un fichier illisible ou d'une autre version est ignoré.
+ */
+final class LayerSchemaSnapshot {
+
+    private static final int MAGIC = 0x4C53_4348;
+    private static final int VERSION = 1;
+
+    record Entry(String workspace, String layerName, String revision, LayerSchema schema) {
+    }
+
+    private LayerSchemaSnapshot() {
+    }
+
+    static List<Entry> read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported layer schema snapshot " + file);
+            }
+            int count = in.readInt();
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String workspace = in.readUTF();
+                String layerName = in.readUTF();
+                String revision = readNullable(in);
+                String geometryType = readNullable(in);
+                String srsName = readNullable(in);
+                int attributeCount = in.readInt();
+                List<LayerSchema.Attribute> attributes = new ArrayList<>(attributeCount);
+                for (int j = 0; j < attributeCount; j++) {
+                    attributes.add(new LayerSchema.Attribute(readNullable(in), readNullable(in), readNullable(in)));
+                }
+                entries.add(new Entry(workspace, layerName, revision,
+                        new LayerSchema(geometryType, List.copyOf(attributes), srsName)));
+            }
+            return entries;
+        }
+    }
+
+    // Écriture dans un fichier temporaire puis renommage : un crash ne laisse jamais un snapshot tronqué
+    static void write(Path file, List<Entry> entries) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (Entry entry : entries) {
+                    out.writeUTF(entry.workspace());
+                    out.writeUTF(entry.layerName());
+                    writeNullable(out, entry.revision());
+                    LayerSchema schema = entry.schema();
+                    writeNullable(out, schema.geometryType());
+                    writeNullable(out, schema.srsName());
+                    List<LayerSchema.Attribute> attributes = schema.attributes() != null
+                            ? schema.attributes()
+                            : List.of();
+                    out.writeInt(attributes.size());
+                    for (LayerSchema.Attribute attribute : attributes) {
+                        writeNullable(out, attribute.label());
+                        writeNullable(out, attribute.type());
+                        writeNullable(out, attribute.javaType());
+                    }
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+
+import com.amine.pfe.drawing_module.config.OffHeapGeometryProperties;
+import com.amine.pfe.drawing_module.domain.geometry.CoordinateBufferPool;
+import com.amine.pfe.drawing_module.domain.geometry.GeoJsonGeometries;
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.fasterxml.jackson.core.JsonParser;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Lecture des très grandes géométries GeoJSON directement hors tas, dans des buffers directs mis en pool.
+ * Les géométries obtenues doivent être libérées (FeatureGeometry.release) une fois envoyées à GeoServer.
+ */
+@Component
+public class OffHeapGeometryReader {
+
+    // Capacité initiale d'après la taille du texte ("1000000.123456," ~ 15 caractères) ; le buffer grandit au besoin
+    private static final int CHARS_PER_ORDINATE = 12;
+
+    private final OffHeapGeometryProperties properties;
+    private final CoordinateBufferPool pool;
+
+    public OffHeapGeometryReader(OffHeapGeometryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pool = new CoordinateBufferPool(properties.getMaxPooled().toBytes());
+
+        Gauge.builder("drawing.geometry.offheap.pooled", pool, CoordinateBufferPool::pooledBytes)
+                .description("Direct memory kept in the off-heap coordinate buffer pool")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("drawing.geometry.offheap.buffers", pool, CoordinateBufferPool::allocatedBuffers)
+                .description("Off-heap coordinate buffers handed out, by origin")
+                .tag("origin", "allocated")
+                .register(meterRegistry);
+        FunctionCounter.builder("drawing.geometry.offheap.buffers", pool, CoordinateBufferPool::reusedBuffers)
+                .description("Off-heap coordinate buffers handed out, by origin")
+                .tag("origin", "pooled")
+                .register(meterRegistry);
+    }
+
+    public boolean accepts(int geoJsonLength) {
+        return properties.isEnabled() && geoJsonLength >= properties.getThreshold().toBytes();
+    }
+
+    public FeatureGeometry read(JsonParser parser, int geoJsonLength) throws IOException {
+        return GeoJsonGeometries.readOffHeap(parser, pool, geoJsonLength / CHARS_PER_ORDINATE);
+    }
+}
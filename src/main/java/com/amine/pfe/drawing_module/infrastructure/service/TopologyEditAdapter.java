@@ -0,0 +1,176 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import com.amine.pfe.drawing_module.config.TopologyEditProperties;
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditRequest;
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditResult;
+import com.amine.pfe.drawing_module.domain.exception.LayerNotFoundException;
+import com.amine.pfe.drawing_module.domain.geometry.SharedBoundary;
+import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.FeatureFilter;
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.model.LayerSchema;
+import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.domain.port.out.EditAuditPort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeasePort;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+import com.amine.pfe.drawing_module.domain.port.out.TopologyEditPort;
+import com.amine.pfe.drawing_module.infrastructure.service.crs.CrsTransformer;
+import com.amine.pfe.drawing_module.infrastructure.service.journal.EditJournal;
+import com.amine.pfe.drawing_module.infrastructure.service.sync.FeatureChangeRecorder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Édition d'une frontière partagée : les voisines sont trouvées par un GetFeature sur l'emprise de la frontière
+ * (index spatial de la base), puis toutes les géométries qui portent le sommet ou le tronçon sont modifiées
+ * dans une seule transaction WFS-T. Comme les éditions en masse, ces éditions ne sont pas journalisées.
+ */
+@Service
+@Slf4j
+public class TopologyEditAdapter implements TopologyEditPort {
+
+    private final LayerRepositoryPort catalogRepository;
+    private final CartographicServerPort cartographicServerPort;
+    private final CrsTransformer crsTransformer;
+    private final EditJournal editJournal;
+    private final FeatureTransactionApplier transactions;
+    private final FeatureLeasePort featureLeases;
+    private final TopologyEditProperties properties;
+    private final Timer editTimer;
+
+    public TopologyEditAdapter(LayerRepositoryPort catalogRepository,
+            CartographicServerPort cartographicServerPort,
+            CrsTransformer crsTransformer,
+            EditJournal editJournal,
+            FeatureCache featureCache,
+            FeatureFingerprintStore fingerprints,
+            FeatureChangeRecorder changeRecorder,
+            EditAuditPort editAudit,
+            FeatureLeasePort featureLeases,
+            TopologyEditProperties properties,
+            MeterRegistry meterRegistry) {
+        this.catalogRepository = catalogRepository;
+        this.cartographicServerPort = cartographicServerPort;
+        this.crsTransformer = crsTransformer;
+        this.editJournal = editJournal;
+        this.transactions = new FeatureTransactionApplier(cartographicServerPort, featureCache, fingerprints,
+                changeRecorder, editAudit);
+        this.featureLeases = featureLeases;
+        this.properties = properties;
+        this.editTimer = Timer.builder("drawing.topology.edit")
+                .description("Shared boundary edit, neighbour lookup and transaction included")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public TopologyEditResult editBoundary(UUID layerId, String featureId, TopologyEditRequest request) {
+        long start = System.nanoTime();
+        try {
+            return editBoundary(layerId, featureId, request, start);
+        } finally {
+            editTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private TopologyEditResult editBoundary(UUID layerId, String featureId, TopologyEditRequest request,
+            long start) {
+        log.info("Shared boundary edit of feature {} in layer {}", featureId, layerId);
+        LayerCatalog layerCatalog = catalogRepository.findLayerCatalogById(layerId)
+                .orElseThrow(() -> new LayerNotFoundException("Layer not found: " + layerId));
+        editJournal.requireNoBacklog();
+
+        LayerSchema layerSchema = cartographicServerPort.getLayerSchema(
+                layerCatalog.workspace(), layerCatalog.geoserverLayerName());
+        String layerCrs = layerSchema.srsName();
+        double[] from = positions(request.getFrom(), "from");
+        double[] to = positions(request.getTo(), "to");
+        if (request.getCrs() != null && !request.getCrs().isBlank() && layerCrs != null) {
+            crsTransformer.transformInPlace(from, request.getCrs(), layerCrs);
+            crsTransformer.transformInPlace(to, request.getCrs(), layerCrs);
+        }
+        SharedBoundary boundary = SharedBoundary.of(from, to, properties.getTolerance());
+
+        // 1. Voisines candidates : toutes les features dont l'emprise croise celle de la frontière
+        double[] bounds = boundary.bounds();
+        List<Feature> candidates = cartographicServerPort.findFeatures(layerCatalog,
+                new FeatureFilter.Envelope(bounds[0], bounds[1], bounds[2], bounds[3],
+                        layerCrs != null ? CrsTransformer.normalize(layerCrs) : null),
+                properties.getMaxFeatures() + 1);
+        if (candidates.size() > properties.getMaxFeatures()) {
+            throw new IllegalArgumentException("Boundary touches more than " + properties.getMaxFeatures()
+                    + " features");
+        }
+
+        // 2. Nouvelles géométries de celles qui portent le sommet ou le tronçon, la feature éditée en premier
+        String timestamp = LayerManagerAdapter.timestamp();
+        List<FeatureOperation> operations = new ArrayList<>();
+        Map<String, Feature> previous = new HashMap<>();
+        for (Feature candidate : candidates) {
+            if (candidate.getId() == null || candidate.getGeometry() == null) {
+                continue;
+            }
+            double[] coordinates = boundary.apply(candidate.getGeometry().coordinateBuffer());
+            if (coordinates == null) {
+                continue;
+            }
+            Map<String, Object> changed = new HashMap<>();
+            changed.put("date_modif", timestamp);
+            Feature updated = Feature.builder()
+                    .id(candidate.getId())
+                    .geometry(new FeatureGeometry(candidate.getGeometry().getType(), coordinates, null))
+                    .properties(changed)
+                    .crs(candidate.getCrs() != null ? candidate.getCrs() : layerCrs)
+                    .build();
+            FeatureOperation operation = new FeatureOperation(FeatureOperation.Type.UPDATE, layerCatalog, updated);
+            if (candidate.getId().equals(featureId)) {
+                operations.add(0, operation);
+            } else {
+                operations.add(operation);
+            }
+            previous.put(candidate.getId(), candidate);
+        }
+        if (operations.isEmpty() || !operations.get(0).feature().getId().equals(featureId)) {
+            throw new IllegalArgumentException("Feature " + featureId + " does not carry the edited boundary");
+        }
+
+        // 3. Bail : la feature éditée avec le jeton présenté, les voisines ne doivent être sous bail de personne
+        for (FeatureOperation operation : operations) {
+            String id = operation.feature().getId();
+            featureLeases.checkEdit(layerId, id, id.equals(featureId) ? request.getLeaseToken() : null);
+        }
+
+        // 4. Une seule transaction : les voisines ne sont jamais vues dans un état incohérent
+        return transactions.apply(layerCatalog, "Shared boundary edit", featureId, operations, previous, start);
+    }
+
+    private static double[] positions(List<double[]> positions, String name) {
+        if (positions == null || positions.isEmpty()) {
+            throw new IllegalArgumentException(name + " needs at least one position");
+        }
+        double[] coordinates = new double[positions.size() * 2];
+        for (int i = 0; i < positions.size(); i++) {
+            double[] position = positions.get(i);
+            if (position == null || position.length < 2) {
+                throw new IllegalArgumentException(name + " positions must be [x, y]");
+            }
+            coordinates[2 * i] = position[0];
+            coordinates[2 * i + 1] = position[1];
+        }
+        return coordinates;
+    }
+}
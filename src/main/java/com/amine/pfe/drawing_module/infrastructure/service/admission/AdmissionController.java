@@ -0,0 +1,91 @@
+package com.amine.pfe.drawing_module.infrastructure.service.admission;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.amine.pfe.drawing_module.config.AdmissionProperties;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Contrôle d'admission par classe de requêtes, en amont des appels à GeoServer :
+ * budget de concurrence et file bornée par classe, partage équitable pondéré entre workspaces.
+ */
+@Component
+@Slf4j
+public class AdmissionController {
+
+    // Sessions multi-couches, couche inconnue : file commune
+    static final String SHARED_WORKSPACE = "";
+
+    private final LayerRepositoryPort catalogRepository;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Map<RequestClass, WeightedFairLimiter> limiters = new EnumMap<>(RequestClass.class);
+
+    public AdmissionController(AdmissionProperties properties, LayerRepositoryPort catalogRepository,
+            MeterRegistry meterRegistry) {
+        this.catalogRepository = catalogRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = properties.isEnabled();
+
+        Map<String, Integer> weights = Map.copyOf(properties.getWorkspaceWeights());
+        limiters.put(RequestClass.INTERACTIVE, limiter(RequestClass.INTERACTIVE, properties.getInteractive(), weights));
+        limiters.put(RequestClass.BULK, limiter(RequestClass.BULK, properties.getBulk(), weights));
+    }
+
+    private WeightedFairLimiter limiter(RequestClass requestClass, AdmissionProperties.Budget budget,
+            Map<String, Integer> weights) {
+        String name = requestClass.name().toLowerCase();
+        WeightedFairLimiter limiter = new WeightedFairLimiter(name, budget.getMaxConcurrent(), budget.getMaxQueued(),
+                budget.getLatencyTarget().toNanos(), workspace -> weights.getOrDefault(workspace, 1));
+        Gauge.builder("drawing.admission.queued", limiter, WeightedFairLimiter::queued)
+                .tag("class", name)
+                .register(meterRegistry);
+        Gauge.builder("drawing.admission.in-flight", limiter, WeightedFairLimiter::inFlight)
+                .tag("class", name)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Bloque jusqu'à l'admission ; AdmissionRejectedException si la classe est saturée
+    public void acquire(RequestClass requestClass, UUID layerId) throws InterruptedException {
+        try {
+            limiters.get(requestClass).acquire(workspaceOf(layerId));
+        } catch (AdmissionRejectedException e) {
+            meterRegistry.counter("drawing.admission.rejected", "class", requestClass.name().toLowerCase())
+                    .increment();
+            throw e;
+        }
+    }
+
+    public void release(RequestClass requestClass, long serviceNanos) {
+        limiters.get(requestClass).release(serviceNanos);
+    }
+
+    // Catalogue en cache : pas d'aller-retour base de données par requête
+    private String workspaceOf(UUID layerId) {
+        if (layerId == null) {
+            return SHARED_WORKSPACE;
+        }
+        try {
+            return catalogRepository.findLayerCatalogById(layerId)
+                    .map(LayerCatalog::workspace)
+                    .orElse(SHARED_WORKSPACE);
+        } catch (RuntimeException e) {
+            log.debug("Workspace of layer {} unknown for admission: {}", layerId, e.getMessage());
+            return SHARED_WORKSPACE;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.amine.pfe.drawing_module.infrastructure.service.admission;
+
+import lombok.Getter;
+
+// File pleine ou attente au-delà de l'objectif de latence : à renvoyer en 429 avec Retry-After
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
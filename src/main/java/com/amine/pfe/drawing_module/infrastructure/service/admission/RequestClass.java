@@ -0,0 +1,21 @@
+package com.amine.pfe.drawing_module.infrastructure.service.admission;
+
+import java.util.regex.Pattern;
+
+/**
+ * Classe d'admission d'une requête, déduite de sa route : chaque classe a son propre budget, un import
+ * ou une synchronisation ne peut donc pas affamer les éditions unitaires.
+ */
+public enum RequestClass {
+    INTERACTIVE,
+    BULK;
+
+    private static final Pattern BULK_LAYER_ROUTE = Pattern.compile("^/drawing/layers/[^/]+/(features/bulk-[^/]+|sync)$");
+
+    public static RequestClass of(String path) {
+        if (path.startsWith("/drawing/edit-sessions") || BULK_LAYER_ROUTE.matcher(path).matches()) {
+            return BULK;
+        }
+        return INTERACTIVE;
+    }
+}
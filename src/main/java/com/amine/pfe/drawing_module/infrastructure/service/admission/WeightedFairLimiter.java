@@ -0,0 +1,164 @@
+package com.amine.pfe.drawing_module.infrastructure.service.admission;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Budget de concurrence d'une classe de requêtes, partagé entre workspaces par file équitable pondérée
+ * (start-time fair queuing à coût unitaire) : à charge égale, un workspace de poids 2 est servi deux fois plus
+ * souvent, et un workspace qui inonde la file n'attend que derrière lui-même.
+ */
+public class WeightedFairLimiter {
+
+    private static final double SMOOTHING = 0.2;
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long latencyTargetNanos;
+    private final ToIntFunction<String> weights;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+            Comparator.comparingDouble(Waiter::tag).thenComparingLong(Waiter::sequence));
+    // Étiquette de fin du dernier arrivé de chaque workspace
+    private final Map<String, Double> lastFinish = new HashMap<>();
+    private double virtualTime;
+    private long sequence;
+    private int inFlight;
+    // Durée moyenne d'une requête admise, pour estimer l'attente
+    private double serviceNanos;
+
+    private static final class Waiter {
+        private final double tag;
+        private final long sequence;
+        private final Condition granted;
+        private boolean admitted;
+
+        private Waiter(double tag, long sequence, Condition granted) {
+            this.tag = tag;
+            this.sequence = sequence;
+            this.granted = granted;
+        }
+
+        double tag() {
+            return tag;
+        }
+
+        long sequence() {
+            return sequence;
+        }
+    }
+
+    public WeightedFairLimiter(String name, int maxConcurrent, int maxQueued, long latencyTargetNanos,
+            ToIntFunction<String> weights) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.weights = weights;
+        this.serviceNanos = latencyTargetNanos / 10.0;
+    }
+
+    // Bloque jusqu'à l'admission ; AdmissionRejectedException si la file est pleine ou trop lente
+    public void acquire(String workspace) throws InterruptedException {
+        Waiter waiter;
+        lock.lock();
+        try {
+            if (inFlight < maxConcurrent && queue.isEmpty()) {
+                inFlight++;
+                return;
+            }
+            long estimatedWait = estimatedWaitNanos(queue.size() + 1);
+            if (queue.size() >= maxQueued || estimatedWait > latencyTargetNanos) {
+                throw rejected("queue full", estimatedWait);
+            }
+
+            double start = Math.max(virtualTime, lastFinish.getOrDefault(workspace, 0.0));
+            double tag = start + 1.0 / Math.max(1, weights.applyAsInt(workspace));
+            lastFinish.put(workspace, tag);
+            waiter = new Waiter(tag, sequence++, lock.newCondition());
+            queue.add(waiter);
+
+            long remaining = latencyTargetNanos;
+            try {
+                while (!waiter.admitted && remaining > 0) {
+                    remaining = waiter.granted.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                abandon(waiter);
+                throw e;
+            }
+            if (!waiter.admitted) {
+                queue.remove(waiter);
+                throw rejected("latency target exceeded", estimatedWaitNanos(queue.size() + 1));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long serviceNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            this.serviceNanos += SMOOTHING * (serviceNanos - this.serviceNanos);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch() {
+        while (inFlight < maxConcurrent && !queue.isEmpty()) {
+            Waiter next = queue.poll();
+            virtualTime = next.tag;
+            next.admitted = true;
+            inFlight++;
+            next.granted.signal();
+        }
+    }
+
+    // Interrompu après l'admission : la place est rendue
+    private void abandon(Waiter waiter) {
+        if (waiter.admitted) {
+            inFlight--;
+            dispatch();
+        } else {
+            queue.remove(waiter);
+        }
+    }
+
+    private long estimatedWaitNanos(int position) {
+        return (long) (position * serviceNanos / maxConcurrent);
+    }
+
+    private AdmissionRejectedException rejected(String reason, long estimatedWaitNanos) {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(estimatedWaitNanos) + 1);
+        return new AdmissionRejectedException(name + " " + reason, retryAfter);
+    }
+}
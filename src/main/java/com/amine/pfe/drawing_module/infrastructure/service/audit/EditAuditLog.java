@@ -0,0 +1,195 @@
+package com.amine.pfe.drawing_module.infrastructure.service.audit;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.stereotype.Service;
+
+import com.amine.pfe.drawing_module.config.EditAuditProperties;
+import com.amine.pfe.drawing_module.domain.model.EditAuditRecord;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.port.out.EditAuditPort;
+import com.amine.pfe.drawing_module.domain.port.out.EditAuditStorePort;
+import com.amine.pfe.drawing_module.infrastructure.logging.CorrelationId;
+import com.amine.pfe.drawing_module.infrastructure.logging.Editor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Audit asynchrone des éditions : l'édition dépose sa trace dans une file bornée sans verrou, un écrivain unique
+ * la vide par lots chargés en un COPY. File pleine : la trace est abandonnée (DROP) ou l'édition patiente
+ * (BLOCK) ; une trace abandonnée est comptée dans drawing.audit.dropped, jamais remontée à l'édition.
+ */
+@Service
+@Slf4j
+public class EditAuditLog implements EditAuditPort {
+
+    private record Pending(EditAuditRecord record, long enqueuedNanos) {
+    }
+
+    private final EditAuditStorePort store;
+    private final EditAuditProperties properties;
+    private final AuditQueue<Pending> queue;
+    private final int batchSize;
+    private final Timer lag;
+    private final Timer copy;
+    private final Counter written;
+    private final Counter droppedFull;
+    private final Counter droppedTimeout;
+    private final Counter droppedFailed;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    public EditAuditLog(EditAuditStorePort store, EditAuditProperties properties, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.properties = properties;
+        this.queue = new AuditQueue<>(properties.getQueueCapacity());
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.lag = Timer.builder("drawing.audit.lag")
+                .description("Time from an applied edit to its audit row being committed")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        this.copy = Timer.builder("drawing.audit.copy")
+                .description("Time to load one batch of audit rows with COPY")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        this.written = meterRegistry.counter("drawing.audit.written");
+        this.droppedFull = meterRegistry.counter("drawing.audit.dropped", "reason", "queue-full");
+        this.droppedTimeout = meterRegistry.counter("drawing.audit.dropped", "reason", "block-timeout");
+        this.droppedFailed = meterRegistry.counter("drawing.audit.dropped", "reason", "write-failed");
+        Gauge.builder("drawing.audit.queued", queue, AuditQueue::size)
+                .description("Audit rows waiting for the writer")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::writeLoop, "edit-audit-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+        log.info("Edit audit started: queue of {} rows, batches of {}", queue.capacity(), batchSize);
+    }
+
+    @PreDestroy
+    public void close() {
+        Thread thread = writer;
+        if (!running || thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Edit audit stopped with {} rows not written", queue.size());
+        }
+    }
+
+    @Override
+    public void record(UUID layerId, String featureId, FeatureOperation.Type operation, Map<String, Object> before,
+            Map<String, Object> after) {
+        if (!running) {
+            return;
+        }
+        Pending pending = new Pending(new EditAuditRecord(Instant.now(), Editor.current(), CorrelationId.current(),
+                layerId, featureId, operation, before, after), System.nanoTime());
+
+        if (!queue.offer(pending) && !awaitRoom(pending)) {
+            return;
+        }
+        // Lot complet : inutile d'attendre la fin de l'intervalle
+        if (queue.size() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    private boolean awaitRoom(Pending pending) {
+        if (properties.getOverflow() == EditAuditProperties.OverflowPolicy.DROP) {
+            droppedFull.increment();
+            return false;
+        }
+        long deadline = System.nanoTime() + properties.getBlockTimeout().toNanos();
+        do {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(50_000);
+            if (queue.offer(pending)) {
+                return true;
+            }
+        } while (System.nanoTime() < deadline && running);
+        droppedTimeout.increment();
+        return false;
+    }
+
+    private void writeLoop() {
+        long flushNanos = properties.getFlushInterval().toNanos();
+        List<Pending> batch = new ArrayList<>(batchSize);
+        long batchStart = 0;
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            if (batch.isEmpty()) {
+                batchStart = System.nanoTime();
+            }
+            queue.drainTo(batch, batchSize - batch.size());
+            boolean due = System.nanoTime() - batchStart >= flushNanos || !running;
+            if (batch.size() >= batchSize || (!batch.isEmpty() && due)) {
+                write(batch);
+                batch.clear();
+            } else if (queue.isEmpty()) {
+                LockSupport.parkNanos(this, batch.isEmpty()
+                        ? flushNanos
+                        : Math.max(0, flushNanos - (System.nanoTime() - batchStart)));
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<EditAuditRecord> records = batch.stream().map(Pending::record).toList();
+        long backoff = properties.getRetryBackoff().toMillis();
+        for (int attempt = 0; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                store.append(records);
+                long committed = System.nanoTime();
+                copy.record(committed - start, TimeUnit.NANOSECONDS);
+                written.increment(records.size());
+                batch.forEach(pending -> lag.record(committed - pending.enqueuedNanos(), TimeUnit.NANOSECONDS));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= properties.getMaxRetries() || !running) {
+                    log.error("Dropping {} audit rows after {} attempts: {}", records.size(), attempt + 1,
+                            e.getMessage(), e);
+                    droppedFailed.increment(records.size());
+                    return;
+                }
+                log.warn("Audit batch of {} rows failed, retrying in {} ms: {}", records.size(), backoff,
+                        e.getMessage());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoff));
+                backoff *= 2;
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.amine.pfe.drawing_module.infrastructure.service.audit;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.amine.pfe.drawing_module.config.EditAuditProperties;
+import com.amine.pfe.drawing_module.domain.port.out.EditAuditStorePort;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Création de la table d'audit au démarrage, puis des partitions mensuelles à venir ; suppression des partitions
+ * sorties de la durée de conservation.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EditAuditMaintenance {
+
+    private static final String SCHEMA = "db/edit-audit.sql";
+
+    private final EditAuditProperties properties;
+    private final EditAuditStorePort store;
+    private final DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeSchema() {
+        if (!properties.isEnabled() || !properties.isInitializeSchema()) {
+            return;
+        }
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource(SCHEMA)).execute(dataSource);
+            log.info("Edit audit schema ready");
+        } catch (RuntimeException e) {
+            log.warn("Edit audit schema not initialized: {}", e.getMessage());
+        }
+        maintainPartitions();
+    }
+
+    // Une partition créée alors que la partition par défaut contient déjà des lignes du mois est refusée :
+    // d'où la création à l'avance
+    @Scheduled(fixedDelayString = "${drawing.audit.partition-interval-ms:3600000}",
+            initialDelayString = "${drawing.audit.partition-interval-ms:3600000}")
+    public void maintainPartitions() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        try {
+            for (int i = 0; i <= properties.getPremakeMonths(); i++) {
+                if (store.createPartition(current.plusMonths(i))) {
+                    log.info("Edit audit partition created for {}", current.plusMonths(i));
+                }
+            }
+            if (properties.getRetentionMonths() > 0) {
+                int dropped = store.dropPartitionsBefore(current.minusMonths(properties.getRetentionMonths()));
+                if (dropped > 0) {
+                    log.info("{} edit audit partitions dropped", dropped);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Edit audit partition maintenance failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.amine.pfe.drawing_module.infrastructure.service.crs;
+
+import java.nio.DoubleBuffer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.locationtech.proj4j.CRSFactory;
+import org.locationtech.proj4j.CoordinateReferenceSystem;
+import org.locationtech.proj4j.CoordinateTransform;
+import org.locationtech.proj4j.CoordinateTransformFactory;
+import org.locationtech.proj4j.ProjCoordinate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reprojection des coordonnées "à plat" d'une FeatureGeometry, en place.
+ * Les CoordinateTransform proj4j ne sont pas thread-safe : un petit pool par couple de CRS.
+ */
+@Component
+@Slf4j
+public class CrsTransformer {
+
+    // EPSG:2154, urn:ogc:def:crs:EPSG::2154, http://www.opengis.net/gml/srs/epsg.xml#2154...
+    private static final Pattern EPSG_CODE = Pattern.compile("(?i)EPSG(?::[\\d.]*:|:|\\.xml#)(\\d+)$");
+    // Autres autorités (IGNF:LAMB93...) : le nom finit dans un attribut srsName GML
+    private static final Pattern CRS_NAME = Pattern.compile("[A-Z0-9:._#/-]+");
+
+    private final CRSFactory crsFactory = new CRSFactory();
+    private final CoordinateTransformFactory transformFactory = new CoordinateTransformFactory();
+    private final Map<String, CoordinateReferenceSystem> systems = new ConcurrentHashMap<>();
+    private final Map<String, Queue<CoordinateTransform>> transforms = new ConcurrentHashMap<>();
+
+    public static String normalize(String crs) {
+        if (crs == null || crs.isBlank()) {
+            return null;
+        }
+        Matcher matcher = EPSG_CODE.matcher(crs.trim());
+        if (matcher.find()) {
+            return "EPSG:" + matcher.group(1);
+        }
+        String name = crs.trim().toUpperCase(Locale.ROOT);
+        if (!CRS_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Nom de CRS invalide: " + crs);
+        }
+        return name;
+    }
+
+    public static boolean sameCrs(String first, String second) {
+        String a = normalize(first);
+        return a != null && a.equals(normalize(second));
+    }
+
+    // Ordre des axes x/y (GeoJSON) quel que soit le CRS ; les marqueurs NaN/-Infinity sont conservés
+    public void transformInPlace(double[] coordinates, String sourceCrs, String targetCrs) {
+        transformInPlace(DoubleBuffer.wrap(coordinates), sourceCrs, targetCrs);
+    }
+
+    // Même transformation sur une vue de FeatureGeometry.coordinateBuffer(), sur le tas ou hors tas
+    public void transformInPlace(DoubleBuffer coordinates, String sourceCrs, String targetCrs) {
+        String source = normalize(sourceCrs);
+        String target = normalize(targetCrs);
+        if (source == null || target == null || source.equals(target)) {
+            return;
+        }
+
+        Queue<CoordinateTransform> pool = transforms.computeIfAbsent(source + ">" + target,
+                key -> new ConcurrentLinkedQueue<>());
+        CoordinateTransform transform = pool.poll();
+        if (transform == null) {
+            transform = transformFactory.createTransform(system(source), system(target));
+            log.debug("Created CRS transform {} -> {}", source, target);
+        }
+
+        try {
+            ProjCoordinate in = new ProjCoordinate();
+            ProjCoordinate out = new ProjCoordinate();
+            int length = coordinates.limit();
+            for (int i = 0; i + 1 < length; i += 2) {
+                double x = coordinates.get(i);
+                if (!Double.isFinite(x)) {
+                    continue;
+                }
+                in.x = x;
+                in.y = coordinates.get(i + 1);
+                transform.transform(in, out);
+                coordinates.put(i, out.x);
+                coordinates.put(i + 1, out.y);
+            }
+        } finally {
+            pool.offer(transform);
+        }
+    }
+
+    private CoordinateReferenceSystem system(String crs) {
+        return systems.computeIfAbsent(crs, name -> {
+            try {
+                return crsFactory.createFromName(name);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("CRS inconnu: " + name, e);
+            }
+        });
+    }
+}
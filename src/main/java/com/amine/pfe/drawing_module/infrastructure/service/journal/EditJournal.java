@@ -0,0 +1,607 @@
+package com.amine.pfe.drawing_module.infrastructure.service.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.springframework.stereotype.Component;
+
+import com.amine.pfe.drawing_module.config.EditJournalProperties;
+import com.amine.pfe.drawing_module.domain.exception.CartographicServerUnavailableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Journal local des éditions, en ajout seul dans des segments mappés en mémoire.
+ * Chaque édition acceptée reçoit un numéro de séquence et est rendue durable (fsync groupé)
+ * avant l'envoi à GeoServer ; un marqueur COMMIT ou ABORT la retire des éditions à rejouer.
+ *
+ * Enregistrement : longueur (int), CRC32C (int), type (byte), séquence (long), payload JSON.
+ */
+@Component
+@Slf4j
+public class EditJournal {
+
+    static final byte APPEND = 1;
+    static final byte COMMIT = 2;
+    static final byte ABORT = 3;
+
+    private static final int FRAME_HEADER = 4 + 4;
+    private static final int RECORD_HEADER = 1 + 8;
+    private static final String SEGMENT_PREFIX = "edits-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final byte[] NO_PAYLOAD = new byte[0];
+
+    private final EditJournalProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Timer appendTimer;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ConcurrentSkipListMap<Long, Pending> pending = new ConcurrentSkipListMap<>();
+    // Éditions en attente de rejeu (relues au démarrage ou GeoServer injoignable)
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private Segment active;
+    private long nextSequence = 1;
+    private long writeTicket;
+
+    // Group commit : un seul fsync pour toutes les écritures arrivées pendant le précédent
+    private final Object flushMonitor = new Object();
+    private long requestedTicket;
+    private long durableTicket;
+    private volatile RuntimeException flushFailure;
+    private volatile boolean running;
+    private Thread flusher;
+
+    public EditJournal(EditJournalProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.appendTimer = Timer.builder("drawing.journal.append")
+                .description("Time to journal an accepted edit, fsync included")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        Gauge.builder("drawing.journal.pending", pending, Map::size)
+                .description("Journaled edits not yet confirmed by GeoServer")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        if (properties.getSegmentSize().toBytes() > Integer.MAX_VALUE
+                || properties.getSegmentSize().toBytes() < 4096) {
+            throw new IllegalStateException("drawing.journal.segment-size must be between 4KB and 2GB");
+        }
+
+        Path directory = Paths.get(properties.getDirectory());
+        writeLock.lock();
+        try {
+            Files.createDirectories(directory);
+            recover(directory);
+            pending.values().forEach(edit -> edit.queued.set(true));
+            backlog.set(pending.size());
+            roll(directory);
+            compactLocked();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open edit journal in " + directory, e);
+        } finally {
+            writeLock.unlock();
+        }
+
+        running = true;
+        if (properties.isFsync()) {
+            flusher = new Thread(this::flushLoop, "edit-journal-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+        log.info("Edit journal opened in {}: {} segments, {} pending edits",
+                directory.toAbsolutePath(), segments.size(), pending.size());
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        synchronized (flushMonitor) {
+            flushMonitor.notifyAll();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        writeLock.lock();
+        try {
+            active.forceDirty();
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+            segments.clear();
+            active = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Séquence de l'édition, durable au retour ; -1 si le journal est désactivé
+    public long append(JournalEntry entry) {
+        if (!properties.isEnabled()) {
+            return -1;
+        }
+        long start = System.nanoTime();
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(entry);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Edit cannot be journaled: " + e.getMessage(), e);
+        }
+
+        long sequence;
+        long ticket;
+        writeLock.lock();
+        try {
+            ensureOpen();
+            sequence = nextSequence++;
+            Pending edit = new Pending(payload);
+            edit.inFlight.set(true);
+            ticket = write(APPEND, sequence, payload, edit);
+            pending.put(sequence, edit);
+        } finally {
+            writeLock.unlock();
+        }
+
+        awaitDurable(ticket);
+        appendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return sequence;
+    }
+
+    // Confirmée (COMMIT) ou rejetée par GeoServer (ABORT) : l'édition ne sera pas rejouée
+    public void complete(long sequence, boolean committed) {
+        if (sequence < 0 || !properties.isEnabled()) {
+            return;
+        }
+        long ticket;
+        writeLock.lock();
+        try {
+            ensureOpen();
+            Pending edit = pending.remove(sequence);
+            if (edit == null) {
+                return;
+            }
+            if (edit.queued.get()) {
+                backlog.decrementAndGet();
+            }
+            ticket = write(committed ? COMMIT : ABORT, sequence, NO_PAYLOAD, null);
+        } finally {
+            writeLock.unlock();
+        }
+        // Pas d'attente : au pire, une édition déjà appliquée est rejouée après un crash de l'OS
+        requestFlush(ticket);
+    }
+
+    // GeoServer injoignable : l'édition reste dans le journal et devient rejouable
+    public void release(long sequence) {
+        Pending edit = sequence < 0 ? null : pending.get(sequence);
+        if (edit != null) {
+            if (edit.queued.compareAndSet(false, true)) {
+                backlog.incrementAndGet();
+            }
+            edit.inFlight.set(false);
+        }
+    }
+
+    // Des éditions attendent leur rejeu : les suivantes sont mises en file pour conserver l'ordre
+    public boolean hasBacklog() {
+        return backlog.get() > 0;
+    }
+
+    // Éditions non journalisées (sessions, masse, topologie) : appliquées avant les éditions en attente de rejeu,
+    // elles seraient écrasées par leur rejeu
+    public void requireNoBacklog() {
+        if (hasBacklog()) {
+            throw new CartographicServerUnavailableException("Earlier edits are awaiting replay", null);
+        }
+    }
+
+    public List<Long> pendingSequences() {
+        return new ArrayList<>(pending.keySet());
+    }
+
+    public boolean isPending(long sequence) {
+        return pending.containsKey(sequence);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    // Réserve une édition pour le rejeu ; vide si elle est déjà en cours ou résolue
+    public Optional<JournalEntry> claim(long sequence) {
+        Pending edit = pending.get(sequence);
+        if (edit == null || !edit.inFlight.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(edit.payload, JournalEntry.class));
+        } catch (IOException e) {
+            log.error("Journaled edit #{} is unreadable and will be dropped: {}", sequence, e.getMessage());
+            complete(sequence, false);
+            return Optional.empty();
+        }
+    }
+
+    public void compact() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (active != null) {
+                compactLocked();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ===============================================
+    // ÉCRITURE ET SEGMENTS
+    // ===============================================
+
+    private void ensureOpen() {
+        if (active == null) {
+            throw new IllegalStateException("Edit journal is not open");
+        }
+        if (flushFailure != null) {
+            throw new IllegalStateException("Edit journal is unusable after a flush failure", flushFailure);
+        }
+    }
+
+    private long write(byte type, long sequence, byte[] payload, Pending edit) {
+        int frame = FRAME_HEADER + RECORD_HEADER + payload.length;
+        if (frame > active.capacity()) {
+            throw new IllegalArgumentException("Edit of " + frame + " bytes exceeds the journal segment size");
+        }
+
+        boolean rolled = false;
+        if (active.position + frame > active.capacity()) {
+            roll(active.path.getParent());
+            rolled = true;
+        }
+        long ticket = writeRecord(type, sequence, payload);
+        if (edit != null) {
+            edit.segmentId = active.id;
+        }
+        if (rolled) {
+            compactLocked();
+        }
+        return ticket;
+    }
+
+    // Corps puis CRC, longueur en dernier : un enregistrement incomplet est ignoré à la relecture
+    private long writeRecord(byte type, long sequence, byte[] payload) {
+        MappedByteBuffer buffer = active.buffer;
+        int position = active.position;
+        int length = RECORD_HEADER + payload.length;
+
+        buffer.put(position + FRAME_HEADER, type);
+        buffer.putLong(position + FRAME_HEADER + 1, sequence);
+        buffer.put(position + FRAME_HEADER + RECORD_HEADER, payload);
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position + FRAME_HEADER, length));
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, length);
+
+        active.position = position + FRAME_HEADER + length;
+        active.track(type, sequence);
+        return ++writeTicket;
+    }
+
+    private void roll(Path directory) {
+        try {
+            if (active != null) {
+                active.forceDirty();
+            }
+            long id = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+            Path path = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+            active = Segment.open(id, path, (int) properties.getSegmentSize().toBytes());
+            segments.put(id, active);
+            log.debug("Edit journal rolled to segment {}", path.getFileName());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create journal segment", e);
+        }
+    }
+
+    // Supprime les segments scellés sans édition en attente ; recopie celles des segments peu remplis.
+    // Un segment conservé garde aussi les segments suivants qui portent les COMMIT/ABORT de ses APPEND :
+    // sans eux, des éditions déjà appliquées seraient rejouées au redémarrage
+    private void compactLocked() {
+        Map<Long, Long> pendingBytes = new HashMap<>();
+        for (Pending edit : pending.values()) {
+            pendingBytes.merge(edit.segmentId, (long) FRAME_HEADER + RECORD_HEADER + edit.payload.length, Long::sum);
+        }
+
+        long threshold = (long) (properties.getCompactionRatio() * active.capacity());
+        // Plus grande séquence APPEND des segments conservés jusqu'ici
+        long retainedAppends = 0;
+        Iterator<Segment> iterator = segments.values().iterator();
+        while (iterator.hasNext()) {
+            Segment segment = iterator.next();
+            if (segment == active) {
+                continue;
+            }
+            long bytes = pendingBytes.getOrDefault(segment.id, 0L);
+            if (segment.minMarker <= retainedAppends
+                    || (bytes > 0 && (bytes > threshold || active.position + bytes > active.capacity()))) {
+                retainedAppends = Math.max(retainedAppends, segment.maxAppend);
+                continue;
+            }
+            if (bytes > 0) {
+                for (Map.Entry<Long, Pending> entry : pending.entrySet()) {
+                    if (entry.getValue().segmentId == segment.id) {
+                        writeRecord(APPEND, entry.getKey(), entry.getValue().payload);
+                        entry.getValue().segmentId = active.id;
+                    }
+                }
+                // Les copies doivent être durables avant la suppression de l'original
+                active.forceDirty();
+            }
+            segment.close();
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                log.warn("Cannot delete journal segment {}: {}", segment.path, e.getMessage());
+            }
+            iterator.remove();
+            log.debug("Edit journal segment {} compacted ({} pending bytes moved)", segment.path.getFileName(), bytes);
+        }
+    }
+
+    // ===============================================
+    // RELECTURE AU DÉMARRAGE
+    // ===============================================
+
+    private void recover(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().toList();
+        }
+
+        for (Path path : files) {
+            String name = path.getFileName().toString();
+            long id = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            Segment segment = Segment.open(id, path, (int) Math.min(Files.size(path), Integer.MAX_VALUE));
+            segments.put(id, segment);
+            scan(segment);
+        }
+    }
+
+    private void scan(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int limit = segment.capacity();
+        int position = 0;
+
+        while (position + FRAME_HEADER + RECORD_HEADER <= limit) {
+            int length = buffer.getInt(position);
+            if (length < RECORD_HEADER || position + FRAME_HEADER + length > limit) {
+                break;
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(position + FRAME_HEADER, length));
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                log.warn("Torn record ignored at offset {} of journal segment {}", position, segment.path.getFileName());
+                break;
+            }
+
+            byte type = buffer.get(position + FRAME_HEADER);
+            long sequence = buffer.getLong(position + FRAME_HEADER + 1);
+            if (type == APPEND) {
+                byte[] payload = new byte[length - RECORD_HEADER];
+                buffer.get(position + FRAME_HEADER + RECORD_HEADER, payload);
+                Pending edit = new Pending(payload);
+                edit.segmentId = segment.id;
+                pending.put(sequence, edit);
+            } else {
+                pending.remove(sequence);
+            }
+            segment.track(type, sequence);
+            nextSequence = Math.max(nextSequence, sequence + 1);
+            position += FRAME_HEADER + length;
+        }
+        segment.position = position;
+        segment.flushed = position;
+    }
+
+    // ===============================================
+    // GROUP COMMIT
+    // ===============================================
+
+    private void awaitDurable(long ticket) {
+        if (!properties.isFsync()) {
+            return;
+        }
+        synchronized (flushMonitor) {
+            if (ticket > requestedTicket) {
+                requestedTicket = ticket;
+                flushMonitor.notifyAll();
+            }
+            while (durableTicket < ticket && flushFailure == null && running) {
+                try {
+                    flushMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the edit journal", e);
+                }
+            }
+        }
+        if (flushFailure != null) {
+            throw new IllegalStateException("Edit journal flush failed", flushFailure);
+        }
+    }
+
+    private void requestFlush(long ticket) {
+        if (!properties.isFsync()) {
+            return;
+        }
+        synchronized (flushMonitor) {
+            if (ticket > requestedTicket) {
+                requestedTicket = ticket;
+                flushMonitor.notifyAll();
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            synchronized (flushMonitor) {
+                while (running && requestedTicket <= durableTicket) {
+                    try {
+                        flushMonitor.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!running) {
+                    return;
+                }
+            }
+
+            Segment segment;
+            int from;
+            int to;
+            long ticket;
+            writeLock.lock();
+            try {
+                segment = active;
+                from = segment.flushed;
+                to = segment.position;
+                ticket = writeTicket;
+                segment.flushed = to;
+            } finally {
+                writeLock.unlock();
+            }
+
+            try {
+                // Les segments précédents ont été forcés en entier lors du changement de segment
+                if (to > from) {
+                    segment.buffer.force(from, to - from);
+                }
+            } catch (RuntimeException e) {
+                log.error("Edit journal fsync failed: {}", e.getMessage(), e);
+                flushFailure = e;
+            }
+
+            synchronized (flushMonitor) {
+                durableTicket = Math.max(durableTicket, ticket);
+                flushMonitor.notifyAll();
+            }
+        }
+    }
+
+    // ===============================================
+    // STRUCTURES INTERNES
+    // ===============================================
+
+    private static final class Pending {
+        private final byte[] payload;
+        private final AtomicBoolean inFlight = new AtomicBoolean();
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private volatile long segmentId;
+
+        Pending(byte[] payload) {
+            this.payload = payload;
+        }
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private int flushed;
+        // Séquences écrites dans le segment, pour savoir quels APPEND ses marqueurs résolvent
+        private long maxAppend;
+        private long minMarker = Long.MAX_VALUE;
+
+        private Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(long id, Path path, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+
+        void track(byte type, long sequence) {
+            if (type == APPEND) {
+                maxAppend = Math.max(maxAppend, sequence);
+            } else {
+                minMarker = Math.min(minMarker, sequence);
+            }
+        }
+
+        void forceDirty() {
+            if (position > flushed) {
+                buffer.force(flushed, position - flushed);
+                flushed = position;
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Cannot close journal segment {}: {}", path, e.getMessage());
+            }
+        }
+    }
+}
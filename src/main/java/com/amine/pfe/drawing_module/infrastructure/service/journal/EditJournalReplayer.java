@@ -0,0 +1,102 @@
+package com.amine.pfe.drawing_module.infrastructure.service.journal;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.amine.pfe.drawing_module.domain.exception.CartographicServerUnavailableException;
+import com.amine.pfe.drawing_module.infrastructure.service.LayerManagerAdapter;
+import com.amine.pfe.drawing_module.infrastructure.service.routing.GeoserverRecoveredEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rejoue les éditions journalisées non confirmées, dans l'ordre des séquences :
+ * au démarrage, au retour d'un endpoint GeoServer et périodiquement tant qu'il en reste.
+ * Le rejeu s'arrête à la première panne, ou à la première édition encore en cours, pour ne pas réordonner
+ * les éditions.
+ */
+@Component
+@Slf4j
+public class EditJournalReplayer {
+
+    private final EditJournal editJournal;
+    private final LayerManagerAdapter layerManagerAdapter;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean replaying = new AtomicBoolean();
+
+    public EditJournalReplayer(EditJournal editJournal, LayerManagerAdapter layerManagerAdapter,
+            MeterRegistry meterRegistry) {
+        this.editJournal = editJournal;
+        this.layerManagerAdapter = layerManagerAdapter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Async
+    @EventListener({ ApplicationReadyEvent.class, GeoserverRecoveredEvent.class })
+    public void onStartupOrRecovery() {
+        replayPending();
+    }
+
+    @Scheduled(fixedDelayString = "${drawing.journal.replay-interval-ms:10000}",
+            initialDelayString = "${drawing.journal.replay-interval-ms:10000}")
+    public void replayPeriodically() {
+        if (editJournal.isEnabled() && editJournal.hasBacklog()) {
+            replayPending();
+        }
+    }
+
+    // Nombre d'éditions résolues (appliquées ou rejetées) par ce passage
+    public int replayPending() {
+        if (!editJournal.isEnabled() || !replaying.compareAndSet(false, true)) {
+            return 0;
+        }
+
+        int resolved = 0;
+        try {
+            for (long sequence : editJournal.pendingSequences()) {
+                Optional<JournalEntry> entry = editJournal.claim(sequence);
+                if (entry.isEmpty()) {
+                    // Encore en cours d'exécution : les éditions suivantes attendent le prochain passage
+                    if (editJournal.isPending(sequence)) {
+                        break;
+                    }
+                    continue;
+                }
+
+                boolean committed;
+                try {
+                    committed = layerManagerAdapter.replay(entry.get());
+                } catch (CartographicServerUnavailableException | DataAccessException e) {
+                    editJournal.release(sequence);
+                    log.info("Journal replay paused at edit #{} ({} pending): {}",
+                            sequence, editJournal.pendingCount(), e.getMessage());
+                    break;
+                } catch (RuntimeException e) {
+                    log.error("Journaled edit #{} failed on replay and is dropped: {}", sequence, e.getMessage(), e);
+                    committed = false;
+                }
+
+                editJournal.complete(sequence, committed);
+                meterRegistry.counter("drawing.journal.replayed", "outcome", committed ? "committed" : "aborted")
+                        .increment();
+                resolved++;
+            }
+        } finally {
+            replaying.set(false);
+        }
+
+        if (resolved > 0) {
+            log.info("Journal replay resolved {} edits, {} still pending", resolved, editJournal.pendingCount());
+            editJournal.compact();
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,51 @@
+package com.amine.pfe.drawing_module.infrastructure.service.journal;
+
+import java.util.Map;
+import java.util.UUID;
+
+import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
+
+/**
+ * Édition acceptée telle que reçue du client, rejouable après un crash ou une panne de GeoServer.
+ */
+public record JournalEntry(
+        FeatureOperation.Type operation,
+        UUID layerId,
+        String featureId,
+        String geometry,
+        GeometryEncoding geometryEncoding,
+        Map<String, Object> properties,
+        String crs,
+        long acceptedAt) {
+
+    public static JournalEntry insert(UUID layerId, FeatureUpdateRequest request) {
+        return of(FeatureOperation.Type.INSERT, layerId, null, request);
+    }
+
+    public static JournalEntry update(UUID layerId, String featureId, FeatureUpdateRequest request) {
+        return of(FeatureOperation.Type.UPDATE, layerId, featureId, request);
+    }
+
+    public static JournalEntry delete(UUID layerId, String featureId) {
+        return new JournalEntry(FeatureOperation.Type.DELETE, layerId, featureId, null, null, null, null,
+                System.currentTimeMillis());
+    }
+
+    private static JournalEntry of(FeatureOperation.Type operation, UUID layerId, String featureId,
+            FeatureUpdateRequest request) {
+        return new JournalEntry(operation, layerId, featureId, request.getGeometry(),
+                request.getGeometryEncoding(), request.getProperties(), request.getCrs(),
+                System.currentTimeMillis());
+    }
+
+    public FeatureUpdateRequest toFeatureUpdateRequest() {
+        return FeatureUpdateRequest.builder()
+                .geometry(geometry)
+                .geometryEncoding(geometryEncoding != null ? geometryEncoding : GeometryEncoding.GEOJSON)
+                .properties(properties)
+                .crs(crs)
+                .build();
+    }
+}
@@ -0,0 +1,202 @@
+package com.amine.pfe.drawing_module.infrastructure.service.lease;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Service;
+
+import com.amine.pfe.drawing_module.config.FeatureLeaseProperties;
+import com.amine.pfe.drawing_module.domain.exception.FeatureLeaseConflictException;
+import com.amine.pfe.drawing_module.domain.exception.FeatureLeasesDisabledException;
+import com.amine.pfe.drawing_module.domain.model.FeatureLease;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeasePort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeaseStorePort;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Baux d'édition par feature, arbitrés par PostgreSQL entre les instances.
+ * Dans l'instance, un verrou local par bande fait patienter les demandes concurrentes sur la même bande
+ * avant la base : une seule connexion du pool attend le verrou consultatif.
+ * Le bail est vérifié à l'admission de l'édition : une édition admise juste avant l'attribution peut encore aboutir.
+ */
+@Service
+@Slf4j
+public class FeatureLeaseAdapter implements FeatureLeasePort {
+
+    private record Key(UUID layerId, String featureId) {
+    }
+
+    private final FeatureLeaseStorePort store;
+    private final FeatureLeaseProperties properties;
+    private final ReentrantLock[] stripes;
+    // null si checkCacheTtl vaut 0
+    private final Cache<Key, Optional<FeatureLease>> checks;
+    private final Timer checkTimer;
+    private final Counter conflicts;
+
+    public FeatureLeaseAdapter(FeatureLeaseStorePort store, FeatureLeaseProperties properties,
+            MeterRegistry meterRegistry) {
+        this.store = store;
+        this.properties = properties;
+        this.stripes = new ReentrantLock[Math.max(1, properties.getStripes())];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.checks = properties.getCheckCacheTtl().isZero() ? null
+                : Caffeine.newBuilder()
+                        .maximumSize(100_000)
+                        .expireAfterWrite(properties.getCheckCacheTtl())
+                        .build();
+        this.checkTimer = Timer.builder("drawing.lease.check")
+                .description("Lease lookup added to each update and delete")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        this.conflicts = meterRegistry.counter("drawing.lease.conflicts");
+    }
+
+    @Override
+    public FeatureLease acquire(UUID layerId, String featureId, String holder, Duration ttl) {
+        requireEnabled();
+        if (holder == null || holder.isBlank()) {
+            throw new IllegalArgumentException("A lease needs a holder");
+        }
+        Duration leaseTtl = checkedTtl(ttl);
+        UUID token = UUID.randomUUID();
+
+        FeatureLease lease = underStripe(layerId, featureId,
+                () -> store.acquire(layerId, featureId, holder, token, leaseTtl));
+        cache(layerId, featureId, lease);
+        if (!token.equals(lease.token())) {
+            throw conflict("Feature " + featureId + " is leased by " + lease.holder() + " until "
+                    + lease.expiresAt(), lease);
+        }
+        log.debug("Lease on feature {} of layer {} granted to {} until {}", featureId, layerId, holder,
+                lease.expiresAt());
+        return lease;
+    }
+
+    @Override
+    public FeatureLease renew(UUID layerId, String featureId, UUID token, Duration ttl) {
+        requireEnabled();
+        Duration leaseTtl = checkedTtl(ttl);
+        Optional<FeatureLease> lease = underStripe(layerId, featureId,
+                () -> store.renew(layerId, featureId, token, leaseTtl));
+        if (lease.isEmpty()) {
+            invalidate(layerId, featureId);
+            throw conflict("Lease on feature " + featureId + " has expired or was released", null);
+        }
+        cache(layerId, featureId, lease.get());
+        return lease.get();
+    }
+
+    @Override
+    public boolean release(UUID layerId, String featureId, UUID token) {
+        requireEnabled();
+        boolean released = underStripe(layerId, featureId, () -> store.release(layerId, featureId, token));
+        invalidate(layerId, featureId);
+        return released;
+    }
+
+    @Override
+    public void checkEdit(UUID layerId, String featureId, String leaseToken) {
+        checkEditAny(layerId, featureId, leaseToken != null ? List.of(leaseToken) : List.of());
+    }
+
+    // Bail lu une seule fois, puis comparé à chacun des jetons
+    @Override
+    public void checkEditAny(UUID layerId, String featureId, Collection<String> leaseTokens) {
+        if (!properties.isEnabled() || featureId == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            Optional<FeatureLease> lease = checks != null
+                    ? checks.get(new Key(layerId, featureId), key -> store.current(layerId, featureId))
+                    : store.current(layerId, featureId);
+            if (lease.isEmpty() || lease.get().expiresAt().isBefore(Instant.now())) {
+                return;
+            }
+            String token = lease.get().token().toString();
+            if (leaseTokens == null || leaseTokens.stream().noneMatch(token::equalsIgnoreCase)) {
+                throw conflict("Feature " + featureId + " is leased by " + lease.get().holder() + " until "
+                        + lease.get().expiresAt(), lease.get());
+            }
+        } finally {
+            checkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Jamais mis en cache : un bail accordé sur une autre instance doit bloquer l'édition par filtre suivante
+    @Override
+    public void checkLayerEdit(UUID layerId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            if (store.hasActiveLease(layerId)) {
+                throw conflict("Layer " + layerId + " has leased features: edit them by id with their lease tokens",
+                        null);
+            }
+        } finally {
+            checkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <T> T underStripe(UUID layerId, String featureId, Supplier<T> action) {
+        ReentrantLock lock = stripes[FeatureLease.stripe(layerId, featureId, stripes.length)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Duration checkedTtl(Duration ttl) {
+        if (ttl == null) {
+            return properties.getDefaultTtl();
+        }
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(properties.getMaxTtl()) > 0) {
+            throw new IllegalArgumentException("Lease duration must be positive and at most " + properties.getMaxTtl());
+        }
+        return ttl;
+    }
+
+    private void cache(UUID layerId, String featureId, FeatureLease lease) {
+        if (checks != null) {
+            checks.put(new Key(layerId, featureId), Optional.of(lease));
+        }
+    }
+
+    private void invalidate(UUID layerId, String featureId) {
+        if (checks != null) {
+            checks.invalidate(new Key(layerId, featureId));
+        }
+    }
+
+    private FeatureLeaseConflictException conflict(String message, FeatureLease current) {
+        conflicts.increment();
+        return new FeatureLeaseConflictException(message, current);
+    }
+
+    private void requireEnabled() {
+        if (!properties.isEnabled()) {
+            throw new FeatureLeasesDisabledException("Feature leases are disabled");
+        }
+    }
+}
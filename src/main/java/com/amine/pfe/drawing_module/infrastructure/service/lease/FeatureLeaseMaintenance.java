@@ -0,0 +1,59 @@
+package com.amine.pfe.drawing_module.infrastructure.service.lease;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.amine.pfe.drawing_module.config.FeatureLeaseProperties;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeaseStorePort;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Création de la table des baux au démarrage, puis purge périodique des baux expirés.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FeatureLeaseMaintenance {
+
+    private static final String SCHEMA = "db/feature-lease.sql";
+
+    private final FeatureLeaseProperties properties;
+    private final FeatureLeaseStorePort store;
+    private final DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeSchema() {
+        if (!properties.isEnabled() || !properties.isInitializeSchema()) {
+            return;
+        }
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource(SCHEMA)).execute(dataSource);
+            log.info("Feature lease schema ready");
+        } catch (RuntimeException e) {
+            log.warn("Feature lease schema not initialized: {}", e.getMessage());
+        }
+    }
+
+    // Un bail expiré est remplacé à la prochaine demande ; la purge ne fait que borner la table
+    @Scheduled(fixedDelayString = "${drawing.lease.purge-interval-ms:600000}",
+            initialDelayString = "${drawing.lease.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            int purged = store.purgeExpired();
+            log.debug("{} expired feature leases purged", purged);
+        } catch (RuntimeException e) {
+            log.warn("Feature lease purge failed: {}", e.getMessage());
+        }
+    }
+}
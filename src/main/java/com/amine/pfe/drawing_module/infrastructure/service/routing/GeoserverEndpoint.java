@@ -0,0 +1,141 @@
+package com.amine.pfe.drawing_module.infrastructure.service.routing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Instance GeoServer d'un pool : requêtes en cours, latence EWMA, état d'éjection et métriques.
+ */
+public class GeoserverEndpoint {
+
+    private final String url;
+    private final double ewmaAlpha;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile double ewmaLatencyMillis;
+    private volatile boolean ejected;
+    private volatile long ejectedUntilNanos;
+    private volatile boolean healthy = true;
+    // Disponibilité au dernier contrôle de santé ; une éjection la remet à faux pour que la reprise soit annoncée
+    private volatile boolean reportedAvailable = true;
+
+    private final Timer readTimer;
+    private final Timer writeTimer;
+    private final Counter errorCounter;
+    private final Counter ejectionCounter;
+
+    public GeoserverEndpoint(String url, double ewmaAlpha, MeterRegistry meterRegistry) {
+        this.url = stripTrailingSlash(url);
+        this.ewmaAlpha = ewmaAlpha;
+        this.readTimer = Timer.builder("geoserver.requests")
+                .tag("endpoint", this.url).tag("operation", "read")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.writeTimer = Timer.builder("geoserver.requests")
+                .tag("endpoint", this.url).tag("operation", "write")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.errorCounter = Counter.builder("geoserver.errors")
+                .tag("endpoint", this.url)
+                .register(meterRegistry);
+        this.ejectionCounter = Counter.builder("geoserver.ejections")
+                .tag("endpoint", this.url)
+                .register(meterRegistry);
+        Gauge.builder("geoserver.outstanding", outstanding, AtomicInteger::get)
+                .tag("endpoint", this.url)
+                .register(meterRegistry);
+        Gauge.builder("geoserver.latency.ewma", this, GeoserverEndpoint::ewmaLatencyMillis)
+                .tag("endpoint", this.url)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public String url() {
+        return url;
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    public double ewmaLatencyMillis() {
+        return ewmaLatencyMillis;
+    }
+
+    public boolean isAvailable() {
+        if (ejected && System.nanoTime() - ejectedUntilNanos >= 0) {
+            ejected = false;
+        }
+        return healthy && !ejected;
+    }
+
+    // Score "peak EWMA" : latence lissée pondérée par la charge en cours
+    double ewmaScore() {
+        return (ewmaLatencyMillis + 1.0) * (outstanding.get() + 1);
+    }
+
+    long begin() {
+        outstanding.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    void succeeded(long startNanos, boolean write) {
+        long elapsed = end(startNanos, write);
+        consecutiveFailures.set(0);
+        double millis = elapsed / 1_000_000.0;
+        ewmaLatencyMillis = ewmaLatencyMillis == 0 ? millis : ewmaAlpha * millis + (1 - ewmaAlpha) * ewmaLatencyMillis;
+    }
+
+    void failed(long startNanos, boolean write, int ejectionThreshold, long ejectionDurationMs) {
+        end(startNanos, write);
+        errorCounter.increment();
+        if (consecutiveFailures.incrementAndGet() >= ejectionThreshold) {
+            eject(ejectionDurationMs);
+        }
+    }
+
+    // Appel terminé sans incident imputable à l'endpoint (ex: erreur 4xx)
+    void completed(long startNanos, boolean write) {
+        end(startNanos, write);
+        consecutiveFailures.set(0);
+    }
+
+    private long end(long startNanos, boolean write) {
+        outstanding.decrementAndGet();
+        long elapsed = System.nanoTime() - startNanos;
+        (write ? writeTimer : readTimer).record(elapsed, TimeUnit.NANOSECONDS);
+        return elapsed;
+    }
+
+    void eject(long durationMs) {
+        ejectedUntilNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMs);
+        ejected = true;
+        reportedAvailable = false;
+        consecutiveFailures.set(0);
+        ejectionCounter.increment();
+    }
+
+    // Retourne true si l'endpoint redevient disponible après une indisponibilité.
+    // Une éjection en cours n'est pas levée : elle prend fin à son échéance, dans isAvailable()
+    boolean markHealthy(boolean healthy) {
+        this.healthy = healthy;
+        boolean available = isAvailable();
+        boolean recovered = available && !reportedAvailable;
+        reportedAvailable = available;
+        return recovered;
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    @Override
+    public String toString() {
+        return url;
+    }
+}
@@ -0,0 +1,59 @@
+package com.amine.pfe.drawing_module.infrastructure.service.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.amine.pfe.drawing_module.config.GeoserverRoutingProperties.Balancing;
+
+/**
+ * Pool d'instances GeoServer : écritures épinglées sur le primaire, lectures réparties.
+ */
+public class GeoserverEndpointPool {
+
+    private final String name;
+    private final GeoserverEndpoint primary;
+    private final List<GeoserverEndpoint> members;
+
+    public GeoserverEndpointPool(String name, GeoserverEndpoint primary, List<GeoserverEndpoint> replicas) {
+        this.name = name;
+        this.primary = primary;
+        List<GeoserverEndpoint> all = new ArrayList<>();
+        all.add(primary);
+        all.addAll(replicas);
+        this.members = List.copyOf(all);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public GeoserverEndpoint primary() {
+        return primary;
+    }
+
+    public List<GeoserverEndpoint> members() {
+        return members;
+    }
+
+    // Choisit un endpoint de lecture en excluant ceux déjà essayés ; null si aucun n'est disponible
+    GeoserverEndpoint selectForRead(Balancing balancing, List<GeoserverEndpoint> excluded) {
+        int size = members.size();
+        int offset = size > 1 ? ThreadLocalRandom.current().nextInt(size) : 0;
+
+        GeoserverEndpoint best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            GeoserverEndpoint candidate = members.get((offset + i) % size);
+            if (!candidate.isAvailable() || excluded.contains(candidate))
+                continue;
+
+            double score = balancing == Balancing.EWMA ? candidate.ewmaScore() : candidate.outstanding();
+            if (score < bestScore) {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+}
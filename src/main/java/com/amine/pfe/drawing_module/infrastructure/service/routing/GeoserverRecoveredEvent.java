@@ -0,0 +1,7 @@
+package com.amine.pfe.drawing_module.infrastructure.service.routing;
+
+/**
+ * Publié quand un endpoint GeoServer redevient disponible après une indisponibilité.
+ */
+public record GeoserverRecoveredEvent(String endpoint) {
+}
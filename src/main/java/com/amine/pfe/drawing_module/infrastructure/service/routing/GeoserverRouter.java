@@ -0,0 +1,203 @@
+package com.amine.pfe.drawing_module.infrastructure.service.routing;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.HttpURLConnection;
+import java.net.NoRouteToHostException;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+
+import com.amine.pfe.drawing_module.config.GeoserverRoutingProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Route le trafic GeoServer par workspace/couche vers un pool d'instances.
+ */
+@Component
+@Slf4j
+public class GeoserverRouter {
+
+    @FunctionalInterface
+    public interface GeoserverCall<T> {
+        T call(String baseUrl);
+    }
+
+    private static final String DEFAULT_POOL = "default";
+
+    private final GeoserverRoutingProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String authorization;
+    private final GeoserverEndpointPool defaultPool;
+    private final Map<String, GeoserverEndpointPool> poolsByWorkspace = new HashMap<>();
+    private final Map<String, GeoserverEndpointPool> poolsByLayer = new HashMap<>();
+    private final Map<String, GeoserverEndpoint> endpoints = new LinkedHashMap<>();
+
+    public GeoserverRouter(GeoserverRoutingProperties properties,
+            MeterRegistry meterRegistry,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${geoserver.url}") String geoserverUrl,
+            @Value("${geoserver.username}") String username,
+            @Value("${geoserver.password}") String password) {
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+
+        this.defaultPool = new GeoserverEndpointPool(DEFAULT_POOL,
+                endpoint(geoserverUrl, meterRegistry), List.of());
+
+        properties.getPools().forEach((name, config) -> {
+            if (config.getPrimary() == null) {
+                throw new IllegalStateException("geoserver.routing.pools." + name + ".primary is required");
+            }
+            List<GeoserverEndpoint> replicas = config.getReplicas().stream()
+                    .map(url -> endpoint(url, meterRegistry))
+                    .toList();
+            GeoserverEndpointPool pool = new GeoserverEndpointPool(name,
+                    endpoint(config.getPrimary(), meterRegistry), replicas);
+
+            config.getWorkspaces().forEach(workspace -> poolsByWorkspace.put(workspace, pool));
+            config.getLayers().forEach(layer -> poolsByLayer.put(layer, pool));
+            log.info("GeoServer pool {}: primary {}, replicas {}, workspaces {}, layers {}",
+                    name, pool.primary(), replicas, config.getWorkspaces(), config.getLayers());
+        });
+    }
+
+    private GeoserverEndpoint endpoint(String url, MeterRegistry meterRegistry) {
+        return endpoints.computeIfAbsent(url,
+                key -> new GeoserverEndpoint(key, properties.getEwmaAlpha(), meterRegistry));
+    }
+
+    public GeoserverEndpointPool poolFor(String workspace, String layerName) {
+        GeoserverEndpointPool pool = poolsByLayer.get(workspace + ":" + layerName);
+        if (pool == null) {
+            pool = poolsByWorkspace.getOrDefault(workspace, defaultPool);
+        }
+        return pool;
+    }
+
+    public Collection<GeoserverEndpoint> endpoints() {
+        return endpoints.values();
+    }
+
+    // Lectures (schémas, GetFeature) : répartition de charge avec bascule sur un autre endpoint
+    public <T> T read(String workspace, String layerName, GeoserverCall<T> call) {
+        GeoserverEndpointPool pool = poolFor(workspace, layerName);
+        List<GeoserverEndpoint> tried = new ArrayList<>();
+
+        while (true) {
+            GeoserverEndpoint endpoint = pool.selectForRead(properties.getBalancing(), tried);
+            if (endpoint == null) {
+                if (!tried.isEmpty()) {
+                    throw new GeoserverUnavailableException("No available GeoServer endpoint in pool " + pool.name());
+                }
+                // Tous les endpoints sont éjectés : tenter quand même le primaire
+                endpoint = pool.primary();
+            }
+            tried.add(endpoint);
+
+            try {
+                return invoke(endpoint, false, call);
+            } catch (RuntimeException e) {
+                if (!isEndpointFailure(e) || tried.size() >= pool.members().size()
+                        || pool.selectForRead(properties.getBalancing(), tried) == null) {
+                    throw e;
+                }
+                log.warn("GeoServer read on {} failed ({}), retrying on another endpoint", endpoint, e.getMessage());
+            }
+        }
+    }
+
+    // Écritures (WFS-T) : toujours sur le primaire du pool
+    public <T> T write(String workspace, String layerName, GeoserverCall<T> call) {
+        return invoke(poolFor(workspace, layerName).primary(), true, call);
+    }
+
+    private <T> T invoke(GeoserverEndpoint endpoint, boolean write, GeoserverCall<T> call) {
+        long start = endpoint.begin();
+        try {
+            T result = call.call(endpoint.url());
+            endpoint.succeeded(start, write);
+            return result;
+        } catch (RuntimeException e) {
+            if (isEndpointFailure(e)) {
+                endpoint.failed(start, write, properties.getEjectionThreshold(), properties.getEjectionDurationMs());
+                if (!endpoint.isAvailable()) {
+                    log.warn("GeoServer endpoint {} ejected for {} ms", endpoint, properties.getEjectionDurationMs());
+                }
+            } else {
+                endpoint.completed(start, write);
+            }
+            throw e;
+        }
+    }
+
+    // Erreur réseau ou 5xx, par opposition à un rejet de la requête (4xx, exception WFS)
+    public static boolean isEndpointFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof IOException || t instanceof HttpServerErrorException
+                    || t instanceof GeoserverUnavailableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Requête jamais parvenue à GeoServer (connexion refusée, hôte injoignable, aucun endpoint disponible) :
+    // contrairement à un timeout de lecture ou à un 5xx, l'écriture n'a pas pu être appliquée
+    public static boolean isUndelivered(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ConnectException || t instanceof NoRouteToHostException
+                    || t instanceof UnknownHostException || t instanceof GeoserverUnavailableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${geoserver.routing.health-check-interval-ms:10000}")
+    public void checkHealth() {
+        for (GeoserverEndpoint endpoint : endpoints.values()) {
+            boolean healthy = ping(endpoint);
+            if (endpoint.markHealthy(healthy)) {
+                log.info("GeoServer endpoint {} is available again", endpoint);
+                eventPublisher.publishEvent(new GeoserverRecoveredEvent(endpoint.url()));
+            } else if (!healthy) {
+                log.warn("GeoServer endpoint {} failed its health check", endpoint);
+            }
+        }
+    }
+
+    private boolean ping(GeoserverEndpoint endpoint) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(
+                    endpoint.url() + properties.getHealthCheckPath()).openConnection();
+            connection.setRequestProperty("Authorization", authorization);
+            connection.setConnectTimeout(properties.getHealthCheckTimeoutMs());
+            connection.setReadTimeout(properties.getHealthCheckTimeoutMs());
+            connection.setRequestMethod("GET");
+            int status = connection.getResponseCode();
+            connection.disconnect();
+            // 401, 403 ou 404 : identifiants refusés ou chemin absent, l'instance ne peut pas servir les requêtes
+            return status >= 200 && status < 400;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
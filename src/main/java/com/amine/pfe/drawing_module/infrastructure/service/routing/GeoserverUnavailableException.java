@@ -0,0 +1,5 @@
+package com.amine.pfe.drawing_module.infrastructure.service.routing;
+
+public class GeoserverUnavailableException extends RuntimeException {
+    public GeoserverUnavailableException(String message) { super(message); }
+}
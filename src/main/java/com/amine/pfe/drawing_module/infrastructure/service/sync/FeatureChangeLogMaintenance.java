@@ -0,0 +1,63 @@
+package com.amine.pfe.drawing_module.infrastructure.service.sync;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.amine.pfe.drawing_module.config.FeatureSyncProperties;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureChangeLogPort;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Création des tables du journal des changements au démarrage, puis compaction périodique :
+ * seul le dernier changement de chaque feature est conservé, les suppressions expirent après la rétention.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FeatureChangeLogMaintenance {
+
+    private static final String SCHEMA = "db/feature-change-log.sql";
+
+    private final FeatureSyncProperties properties;
+    private final FeatureChangeLogPort changeLog;
+    private final DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeSchema() {
+        if (!properties.isEnabled() || !properties.isInitializeSchema()) {
+            return;
+        }
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource(SCHEMA)).execute(dataSource);
+            log.info("Feature change log schema ready");
+        } catch (RuntimeException e) {
+            log.warn("Feature change log schema not initialized: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${drawing.sync.compaction-interval-ms:3600000}",
+            initialDelayString = "${drawing.sync.compaction-interval-ms:3600000}")
+    public void compact() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            int removed = changeLog.compact(properties.getTombstoneRetention());
+            log.info("Feature change log compacted: {} superseded changes removed in {} ms", removed,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (RuntimeException e) {
+            log.warn("Feature change log compaction failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.amine.pfe.drawing_module.infrastructure.service.sync;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.amine.pfe.drawing_module.config.FeatureSyncProperties;
+import com.amine.pfe.drawing_module.domain.model.FeatureChange;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureChangeLogPort;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Enregistre les éditions validées par GeoServer dans le journal des changements.
+ * Un échec d'enregistrement ne fait jamais échouer l'édition : la couche est alors remise à zéro pour la
+ * synchronisation, les clients la rechargeront plutôt que de manquer le changement.
+ */
+@Component
+@Slf4j
+public class FeatureChangeRecorder {
+
+    private final FeatureChangeLogPort changeLog;
+    private final boolean enabled;
+
+    public FeatureChangeRecorder(FeatureChangeLogPort changeLog, FeatureSyncProperties properties) {
+        this.changeLog = changeLog;
+        this.enabled = properties.isEnabled();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(UUID layerId, FeatureOperation.Type operation, String featureId) {
+        if (enabled && featureId != null) {
+            recordAll(List.of(FeatureChange.of(layerId, featureId, operation)));
+        }
+    }
+
+    public void recordAll(List<FeatureChange> changes) {
+        if (!enabled || changes.isEmpty()) {
+            return;
+        }
+        try {
+            changeLog.append(changes);
+        } catch (RuntimeException e) {
+            log.error("Failed to record {} feature changes: {}", changes.size(), e.getMessage(), e);
+            changes.stream().map(FeatureChange::layerId).distinct().forEach(this::resetLayer);
+        }
+    }
+
+    // Changements dont les features sont inconnues (édition par filtre)
+    public void resetLayer(UUID layerId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            changeLog.resetLayer(layerId);
+        } catch (RuntimeException e) {
+            log.error("Failed to reset sync state of layer {}: {}", layerId, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.amine.pfe.drawing_module.infrastructure.service.sync;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.amine.pfe.drawing_module.config.FeatureSyncProperties;
+import com.amine.pfe.drawing_module.domain.dto.EditOperation;
+import com.amine.pfe.drawing_module.domain.dto.EditOperationResult;
+import com.amine.pfe.drawing_module.domain.dto.EditSessionRequest;
+import com.amine.pfe.drawing_module.domain.dto.EditSessionResult;
+import com.amine.pfe.drawing_module.domain.dto.FeatureResponse;
+import com.amine.pfe.drawing_module.domain.dto.SyncConflict;
+import com.amine.pfe.drawing_module.domain.dto.SyncUploadRequest;
+import com.amine.pfe.drawing_module.domain.dto.SyncUploadResult;
+import com.amine.pfe.drawing_module.domain.exception.FeatureSyncDisabledException;
+import com.amine.pfe.drawing_module.domain.exception.LayerNotFoundException;
+import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.FeatureChange;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.model.SyncWindow;
+import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.domain.port.out.EditSessionPort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureChangeLogPort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureSyncPort;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Synchronisation incrémentale des clients hors ligne. Le jeton est la séquence du journal des changements :
+ * le client envoie le dernier reçu et obtient le dernier état de chaque feature modifiée depuis, une seule
+ * fois même si elle a changé plusieurs fois. Les éditions du client sont refusées en conflit quand la
+ * feature a changé sur le serveur après son jeton.
+ */
+@Service
+@Slf4j
+public class FeatureSyncAdapter implements FeatureSyncPort {
+
+    private final LayerRepositoryPort catalogRepository;
+    private final FeatureChangeLogPort changeLog;
+    private final CartographicServerPort cartographicServerPort;
+    private final EditSessionPort editSessionPort;
+    private final ObjectMapper objectMapper;
+    private final FeatureSyncProperties properties;
+    private final int maxOperations;
+
+    public FeatureSyncAdapter(LayerRepositoryPort catalogRepository,
+            FeatureChangeLogPort changeLog,
+            CartographicServerPort cartographicServerPort,
+            EditSessionPort editSessionPort,
+            ObjectMapper objectMapper,
+            FeatureSyncProperties properties,
+            @Value("${drawing.edit-session.max-operations:500}") int maxOperations) {
+        this.catalogRepository = catalogRepository;
+        this.changeLog = changeLog;
+        this.cartographicServerPort = cartographicServerPort;
+        this.editSessionPort = editSessionPort;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.maxOperations = maxOperations;
+    }
+
+    @Override
+    public SyncWindow openSync(UUID layerId, Long since) {
+        LayerCatalog layer = syncedLayer(layerId);
+        if (since != null && since < 0) {
+            throw new IllegalArgumentException("since must not be negative");
+        }
+
+        // Jeton antérieur à l'horizon : des suppressions ont été purgées, le client doit recharger la couche
+        boolean reset = since == null || since < changeLog.horizon(layerId);
+        long from = reset ? 0 : since;
+        long token = changeLog.settledToken(layerId, from, properties.getSettleDelay());
+        return new SyncWindow(layer, from, token, reset);
+    }
+
+    @Override
+    public void writeChanges(SyncWindow window, GeometryEncoding encoding, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        int written = 0;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("layerId", window.layer().layerId().toString());
+            json.writeNumberField("since", window.since());
+            json.writeNumberField("token", window.token());
+            json.writeBooleanField("reset", window.reset());
+            json.writeArrayFieldStart("changes");
+
+            // Sur reset, le client recharge la couche : seul le jeton lui est utile
+            long cursor = window.reset() ? window.token() : window.since();
+            while (cursor < window.token()) {
+                List<FeatureChange> page = changeLog.latestChanges(window.layer().layerId(), cursor, window.token(),
+                        properties.getPageSize());
+                if (page.isEmpty()) {
+                    break;
+                }
+                written += writePage(json, window.layer(), page, encoding);
+                cursor = page.get(page.size() - 1).token();
+                // Chaque page part sans attendre la suivante
+                json.flush();
+            }
+
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        log.info("Sync of layer {} from {} to {}: {} changes in {} ms", window.layer().name(), window.since(),
+                window.token(), written, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Une requête GetFeature par page pour toutes les features encore présentes
+    private int writePage(JsonGenerator json, LayerCatalog layer, List<FeatureChange> page, GeometryEncoding encoding)
+            throws IOException {
+        List<String> upserted = page.stream()
+                .filter(change -> change.operation() != FeatureOperation.Type.DELETE)
+                .map(FeatureChange::featureId)
+                .toList();
+        Map<String, Feature> features = cartographicServerPort.getFeatures(layer, upserted).stream()
+                .collect(Collectors.toMap(Feature::getId, Function.identity(), (first, second) -> first));
+
+        for (FeatureChange change : page) {
+            Feature feature = features.get(change.featureId());
+            // Supprimée depuis, sans que la suppression soit encore servie
+            FeatureOperation.Type operation = feature != null ? change.operation() : FeatureOperation.Type.DELETE;
+
+            json.writeStartObject();
+            json.writeNumberField("token", change.token());
+            json.writeStringField("operation", operation.name());
+            json.writeStringField("featureId", change.featureId());
+            if (feature != null) {
+                json.writeFieldName("feature");
+                json.writeObject(FeatureResponse.of(feature, encoding));
+            }
+            json.writeEndObject();
+        }
+        return page.size();
+    }
+
+    @Override
+    public SyncUploadResult upload(UUID layerId, SyncUploadRequest request) {
+        long start = System.nanoTime();
+        syncedLayer(layerId);
+        List<EditOperation> edits = request.getEdits() != null ? request.getEdits() : List.of();
+        long baseToken = request.getBaseToken();
+
+        // Conflits évalués avant toute écriture : les éditions du client ne se gênent pas entre elles
+        List<String> editedIds = edits.stream()
+                .filter(edit -> edit.getType() != FeatureOperation.Type.INSERT && edit.getFeatureId() != null)
+                .map(EditOperation::getFeatureId)
+                .distinct()
+                .toList();
+        boolean expired = changeLog.horizon(layerId) > baseToken;
+        Map<String, Long> serverTokens = expired ? Map.of() : changeLog.lastTokens(layerId, baseToken, editedIds);
+
+        List<SyncConflict> conflicts = new ArrayList<>();
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < edits.size(); i++) {
+            EditOperation edit = edits.get(i);
+            boolean existing = edit.getType() != FeatureOperation.Type.INSERT && edit.getFeatureId() != null;
+            if (existing && expired) {
+                conflicts.add(conflict(i, edit, -1, "Sync token expired, reload the layer"));
+            } else if (existing && serverTokens.containsKey(edit.getFeatureId())) {
+                conflicts.add(conflict(i, edit, serverTokens.get(edit.getFeatureId()),
+                        "Feature changed on the server since token " + baseToken));
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        // Éditions acceptées dans l'ordre, par sessions de taille admise
+        List<EditOperationResult> operations = new ArrayList<>(accepted.size());
+        for (int from = 0; from < accepted.size(); from += maxOperations) {
+            List<Integer> chunk = accepted.subList(from, Math.min(accepted.size(), from + maxOperations));
+            List<EditOperation> sessionOperations = chunk.stream().map(index -> {
+                EditOperation edit = edits.get(index);
+                return EditOperation.builder()
+                        .type(edit.getType())
+                        .layerId(layerId)
+                        .featureId(edit.getFeatureId())
+                        .geometry(edit.getGeometry())
+                        .properties(edit.getProperties())
+                        .crs(edit.getCrs())
+                        .build();
+            }).toList();
+
+            EditSessionResult session = editSessionPort.executeEditSession(EditSessionRequest.builder()
+                    .operations(sessionOperations)
+                    .geometryEncoding(request.getGeometryEncoding())
+                    .leaseTokens(request.getLeaseTokens())
+                    .build());
+            for (EditOperationResult result : session.getOperations()) {
+                result.setIndex(chunk.get(result.getIndex()));
+                operations.add(result);
+            }
+        }
+
+        int applied = (int) operations.stream().filter(EditOperationResult::isSuccess).count();
+        int failed = edits.size() - applied - conflicts.size();
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Sync upload to layer {}: {} applied, {} conflicts, {} failed in {} ms", layerId, applied,
+                conflicts.size(), failed, durationMs);
+
+        return SyncUploadResult.builder()
+                .success(conflicts.isEmpty() && failed == 0)
+                .message(conflicts.isEmpty() && failed == 0
+                        ? "Sync upload completed successfully"
+                        : "Sync upload completed with " + conflicts.size() + " conflicts and " + failed + " failures")
+                .applied(applied)
+                .failed(failed)
+                .conflicts(conflicts)
+                .operations(operations)
+                .durationMs(durationMs)
+                .build();
+    }
+
+    private LayerCatalog syncedLayer(UUID layerId) {
+        if (!properties.isEnabled()) {
+            throw new FeatureSyncDisabledException("Feature sync is disabled");
+        }
+        return catalogRepository.findLayerCatalogById(layerId)
+                .orElseThrow(() -> new LayerNotFoundException("Layer not found: " + layerId));
+    }
+
+    private static SyncConflict conflict(int index, EditOperation edit, long serverToken, String message) {
+        return SyncConflict.builder()
+                .index(index)
+                .featureId(edit.getFeatureId())
+                .serverToken(serverToken)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.amine.pfe.drawing_module.infrastructure.service.wfs;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.amine.pfe.drawing_module.domain.geometry.CoordinateLayout;
+import com.amine.pfe.drawing_module.domain.geometry.GeometryCodec;
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+
+/**
+ * Encodage GML 3.1 d'une FeatureGeometry écrit directement dans le corps de la transaction WFS-T,
+ * depuis les coordonnées sur le tas ou hors tas, sans chaîne intermédiaire.
+ * La géométrie est validée à la construction, avant l'ouverture de la requête HTTP.
+ */
+public final class GmlGeometryWriter implements WfsTransactionTemplate.GeometryFragment {
+
+    private static final byte[] POINT_OPEN = bytes("<gml:Point srsName=\"");
+    private static final byte[] POINT_CLOSE = bytes("</gml:pos></gml:Point>");
+    private static final byte[] LINESTRING_OPEN = bytes("<gml:LineString srsName=\"");
+    private static final byte[] LINESTRING_CLOSE = bytes("</gml:posList></gml:LineString>");
+    private static final byte[] MULTILINESTRING_OPEN = bytes("<gml:MultiLineString srsName=\"");
+    private static final byte[] MULTILINESTRING_CLOSE = bytes("</gml:MultiLineString>");
+    private static final byte[] LINESTRING_MEMBER_OPEN = bytes(
+            "<gml:lineStringMember><gml:LineString srsDimension=\"2\"><gml:posList>");
+    private static final byte[] LINESTRING_MEMBER_CLOSE = bytes(
+            "</gml:posList></gml:LineString></gml:lineStringMember>");
+    private static final byte[] POLYGON_OPEN = bytes("<gml:Polygon srsName=\"");
+    private static final byte[] POLYGON_CLOSE = bytes("</gml:Polygon>");
+    private static final byte[] MULTIPOLYGON_OPEN = bytes("<gml:MultiPolygon srsName=\"");
+    private static final byte[] MULTIPOLYGON_CLOSE = bytes("</gml:MultiPolygon>");
+    private static final byte[] POLYGON_MEMBER_OPEN = bytes("<gml:polygonMember><gml:Polygon srsDimension=\"2\">");
+    private static final byte[] POLYGON_MEMBER_CLOSE = bytes("</gml:Polygon></gml:polygonMember>");
+    private static final byte[] EXTERIOR_OPEN = bytes("<gml:exterior><gml:LinearRing><gml:posList>");
+    private static final byte[] EXTERIOR_CLOSE = bytes("</gml:posList></gml:LinearRing></gml:exterior>");
+    private static final byte[] INTERIOR_OPEN = bytes("<gml:interior><gml:LinearRing><gml:posList>");
+    private static final byte[] INTERIOR_CLOSE = bytes("</gml:posList></gml:LinearRing></gml:interior>");
+    private static final byte[] SRS_2D_POS = bytes("\" srsDimension=\"2\"><gml:pos>");
+    private static final byte[] SRS_2D_POSLIST = bytes("\" srsDimension=\"2\"><gml:posList>");
+    private static final byte[] SRS_2D = bytes("\" srsDimension=\"2\">");
+    private static final byte[] SRS_END = bytes("\">");
+
+    private final int type;
+    private final DoubleBuffer coordinates;
+    private final List<List<int[]>> groups;
+    private final String srsName;
+
+    public GmlGeometryWriter(FeatureGeometry geometry, String srsName) {
+        this.type = GeometryCodec.typeCode(geometry.getType());
+        this.coordinates = geometry.coordinateBuffer();
+        this.groups = CoordinateLayout.of(coordinates).groups();
+        this.srsName = srsName;
+        if (groups.isEmpty()) {
+            throw new IllegalArgumentException("Géométrie vide");
+        }
+    }
+
+    @Override
+    public void writeTo(XmlUtf8Writer out) throws IOException {
+        switch (type) {
+            case GeometryCodec.POINT -> {
+                open(out, POINT_OPEN, SRS_2D_POS);
+                position(out, 0);
+                out.write(POINT_CLOSE);
+            }
+            case GeometryCodec.LINESTRING -> {
+                open(out, LINESTRING_OPEN, SRS_2D_POSLIST);
+                posList(out, groups.get(0).get(0));
+                out.write(LINESTRING_CLOSE);
+            }
+            case GeometryCodec.MULTILINESTRING -> {
+                open(out, MULTILINESTRING_OPEN, SRS_END);
+                for (int[] line : groups.get(0)) {
+                    out.write(LINESTRING_MEMBER_OPEN);
+                    posList(out, line);
+                    out.write(LINESTRING_MEMBER_CLOSE);
+                }
+                out.write(MULTILINESTRING_CLOSE);
+            }
+            case GeometryCodec.POLYGON -> {
+                open(out, POLYGON_OPEN, SRS_2D);
+                rings(out, groups.get(0));
+                out.write(POLYGON_CLOSE);
+            }
+            case GeometryCodec.MULTIPOLYGON -> {
+                open(out, MULTIPOLYGON_OPEN, SRS_END);
+                for (List<int[]> rings : groups) {
+                    out.write(POLYGON_MEMBER_OPEN);
+                    rings(out, rings);
+                    out.write(POLYGON_MEMBER_CLOSE);
+                }
+                out.write(MULTIPOLYGON_CLOSE);
+            }
+            default -> throw new IllegalArgumentException("Type de géométrie non supporté: " + type);
+        }
+    }
+
+    private void open(XmlUtf8Writer out, byte[] element, byte[] attributesEnd) throws IOException {
+        out.write(element);
+        out.writeEscaped(srsName);
+        out.write(attributesEnd);
+    }
+
+    // Premier ring : extérieur, les suivants : trous
+    private void rings(XmlUtf8Writer out, List<int[]> rings) throws IOException {
+        for (int i = 0; i < rings.size(); i++) {
+            out.write(i == 0 ? EXTERIOR_OPEN : INTERIOR_OPEN);
+            posList(out, rings.get(i));
+            out.write(i == 0 ? EXTERIOR_CLOSE : INTERIOR_CLOSE);
+        }
+    }
+
+    private void posList(XmlUtf8Writer out, int[] part) throws IOException {
+        for (int i = part[0]; i < part[1]; i += 2) {
+            if (i > part[0]) {
+                out.writeAscii(' ');
+            }
+            position(out, i);
+        }
+    }
+
+    private void position(XmlUtf8Writer out, int index) throws IOException {
+        out.writeDecimal(coordinates.get(index));
+        out.writeAscii(' ');
+        out.writeDecimal(coordinates.get(index + 1));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
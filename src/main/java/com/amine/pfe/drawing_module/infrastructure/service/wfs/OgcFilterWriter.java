@@ -0,0 +1,117 @@
+package com.amine.pfe.drawing_module.infrastructure.service.wfs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureFilter;
+
+/**
+ * Encodage d'un {@link FeatureFilter} en ogc:Filter (Filter Encoding 1.1), écrit en place dans le corps WFS-T.
+ * Les identifiants donnent une suite de ogc:FeatureId ; emprise et conditions sont combinées par ogc:And.
+ */
+public final class OgcFilterWriter {
+
+    // Nom de la propriété géométrique, comme dans les squelettes WFS-T
+    private static final String GEOMETRY_PROPERTY = "geom";
+
+    private static final byte[] FILTER_OPEN = bytes("<ogc:Filter>");
+    private static final byte[] FILTER_CLOSE = bytes("</ogc:Filter>");
+    private static final byte[] AND_OPEN = bytes("<ogc:And>");
+    private static final byte[] AND_CLOSE = bytes("</ogc:And>");
+    private static final byte[] FEATURE_ID_OPEN = bytes("<ogc:FeatureId fid=\"");
+    private static final byte[] FEATURE_ID_CLOSE = bytes("\"/>");
+    private static final byte[] BBOX_OPEN = bytes("<ogc:BBOX><ogc:PropertyName>" + GEOMETRY_PROPERTY
+            + "</ogc:PropertyName><gml:Envelope");
+    private static final byte[] SRS_NAME_OPEN = bytes(" srsName=\"");
+    private static final byte[] LOWER_CORNER_OPEN = bytes("\"><gml:lowerCorner>");
+    private static final byte[] LOWER_CORNER_OPEN_NO_SRS = bytes("><gml:lowerCorner>");
+    private static final byte[] UPPER_CORNER_OPEN = bytes("</gml:lowerCorner><gml:upperCorner>");
+    private static final byte[] BBOX_CLOSE = bytes("</gml:upperCorner></gml:Envelope></ogc:BBOX>");
+    private static final byte[] PROPERTY_NAME_OPEN = bytes("<ogc:PropertyName>");
+    private static final byte[] PROPERTY_NAME_CLOSE = bytes("</ogc:PropertyName>");
+    private static final byte[] LITERAL_OPEN = bytes("<ogc:Literal>");
+    private static final byte[] LITERAL_CLOSE = bytes("</ogc:Literal>");
+
+    private OgcFilterWriter() {
+    }
+
+    public static void write(XmlUtf8Writer out, FeatureFilter filter) throws IOException {
+        out.write(FILTER_OPEN);
+        if (filter.byIds()) {
+            for (String featureId : filter.featureIds()) {
+                out.write(FEATURE_ID_OPEN);
+                out.writeEscaped(featureId);
+                out.write(FEATURE_ID_CLOSE);
+            }
+        } else {
+            int predicates = filter.conditions().size() + (filter.bbox() != null ? 1 : 0);
+            if (predicates > 1) {
+                out.write(AND_OPEN);
+            }
+            if (filter.bbox() != null) {
+                writeBbox(out, filter.bbox());
+            }
+            for (FeatureFilter.Condition condition : filter.conditions()) {
+                writeCondition(out, condition);
+            }
+            if (predicates > 1) {
+                out.write(AND_CLOSE);
+            }
+        }
+        out.write(FILTER_CLOSE);
+    }
+
+    private static void writeBbox(XmlUtf8Writer out, FeatureFilter.Envelope bbox) throws IOException {
+        out.write(BBOX_OPEN);
+        if (bbox.crs() != null) {
+            out.write(SRS_NAME_OPEN);
+            out.writeEscaped(bbox.crs());
+            out.write(LOWER_CORNER_OPEN);
+        } else {
+            out.write(LOWER_CORNER_OPEN_NO_SRS);
+        }
+        out.writeDecimal(bbox.minX());
+        out.writeAscii(' ');
+        out.writeDecimal(bbox.minY());
+        out.write(UPPER_CORNER_OPEN);
+        out.writeDecimal(bbox.maxX());
+        out.writeAscii(' ');
+        out.writeDecimal(bbox.maxY());
+        out.write(BBOX_CLOSE);
+    }
+
+    private static void writeCondition(XmlUtf8Writer out, FeatureFilter.Condition condition) throws IOException {
+        String element = switch (condition.operator()) {
+            case EQ -> "ogc:PropertyIsEqualTo";
+            case NE -> "ogc:PropertyIsNotEqualTo";
+            case LT -> "ogc:PropertyIsLessThan";
+            case LE -> "ogc:PropertyIsLessThanOrEqualTo";
+            case GT -> "ogc:PropertyIsGreaterThan";
+            case GE -> "ogc:PropertyIsGreaterThanOrEqualTo";
+            case LIKE -> "ogc:PropertyIsLike";
+            case IS_NULL -> "ogc:PropertyIsNull";
+        };
+
+        out.writeAscii('<');
+        out.writeRaw(element);
+        if (condition.operator() == FeatureFilter.Operator.LIKE) {
+            out.writeRaw(" wildCard=\"%\" singleChar=\"_\" escapeChar=\"\\\"");
+        }
+        out.writeAscii('>');
+        out.write(PROPERTY_NAME_OPEN);
+        out.writeEscaped(condition.property());
+        out.write(PROPERTY_NAME_CLOSE);
+        if (condition.operator() != FeatureFilter.Operator.IS_NULL) {
+            out.write(LITERAL_OPEN);
+            out.writeEscaped(String.valueOf(condition.value()));
+            out.write(LITERAL_CLOSE);
+        }
+        out.writeRaw("</");
+        out.writeRaw(element);
+        out.writeAscii('>');
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,21 @@
+package com.amine.pfe.drawing_module.infrastructure.service.wfs;
+
+import java.util.List;
+
+public record WfsTransactionResponse(
+    int totalInserted,
+    int totalUpdated,
+    int totalDeleted,
+    List<String> insertedFeatureIds,
+    List<WfsException> exceptions
+) {
+    public record WfsException(String code, String locator, String text) {}
+
+    public boolean hasExceptions() {
+        return !exceptions.isEmpty();
+    }
+
+    public String firstInsertedFeatureId() {
+        return insertedFeatureIds.isEmpty() ? null : insertedFeatureIds.get(0);
+    }
+}
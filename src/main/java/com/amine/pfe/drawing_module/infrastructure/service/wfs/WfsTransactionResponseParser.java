@@ -0,0 +1,105 @@
+package com.amine.pfe.drawing_module.infrastructure.service.wfs;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Lecteur StAX des réponses WFS-T (TransactionResponse, ExceptionReport, ServiceExceptionReport),
+ * en une seule passe sur le flux HTTP.
+ */
+public final class WfsTransactionResponseParser {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private WfsTransactionResponseParser() {
+    }
+
+    public static WfsTransactionResponse parse(InputStream body) throws XMLStreamException {
+        int totalInserted = 0;
+        int totalUpdated = 0;
+        int totalDeleted = 0;
+        List<String> insertedFeatureIds = new ArrayList<>();
+        List<WfsTransactionResponse.WfsException> exceptions = new ArrayList<>();
+
+        boolean inInsertResults = false;
+        String exceptionCode = null;
+        String exceptionLocator = null;
+        StringBuilder exceptionText = null;
+
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(body);
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "totalInserted" -> totalInserted = parseCount(reader.getElementText());
+                        case "totalUpdated" -> totalUpdated = parseCount(reader.getElementText());
+                        case "totalDeleted" -> totalDeleted = parseCount(reader.getElementText());
+                        case "InsertResults" -> inInsertResults = true;
+                        case "FeatureId" -> {
+                            if (inInsertResults)
+                                insertedFeatureIds.add(reader.getAttributeValue(null, "fid"));
+                        }
+                        case "ResourceId" -> {
+                            if (inInsertResults)
+                                insertedFeatureIds.add(reader.getAttributeValue(null, "rid"));
+                        }
+                        case "Exception", "ServiceException" -> {
+                            exceptionCode = firstNonNull(
+                                    reader.getAttributeValue(null, "exceptionCode"),
+                                    reader.getAttributeValue(null, "code"));
+                            exceptionLocator = reader.getAttributeValue(null, "locator");
+                            exceptionText = new StringBuilder();
+                        }
+                        default -> { }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "InsertResults" -> inInsertResults = false;
+                        case "Exception", "ServiceException" -> {
+                            exceptions.add(new WfsTransactionResponse.WfsException(
+                                    exceptionCode, exceptionLocator, exceptionText.toString().trim()));
+                            exceptionText = null;
+                        }
+                        default -> { }
+                    }
+                } else if (exceptionText != null && (event == XMLStreamConstants.CHARACTERS
+                        || event == XMLStreamConstants.CDATA)) {
+                    exceptionText.append(reader.getText());
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        return new WfsTransactionResponse(totalInserted, totalUpdated, totalDeleted,
+                List.copyOf(insertedFeatureIds), List.copyOf(exceptions));
+    }
+
+    private static int parseCount(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String firstNonNull(String first, String second) {
+        return first != null ? first : second;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
@@ -0,0 +1,350 @@
+package com.amine.pfe.drawing_module.infrastructure.service.wfs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureFilter;
+
+/**
+ * Squelette WFS-T d'une couche, compilé une seule fois en segments UTF-8.
+ * Seules les données de la feature (géométrie, propriétés, fid) sont insérées à chaque requête.
+ */
+public final class WfsTransactionTemplate {
+
+    private static final String INSERT_TEMPLATE = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <wfs:Transaction version="1.1.0" service="WFS"
+                xmlns:wfs="http://www.opengis.net/wfs"
+                xmlns:gml="http://www.opengis.net/gml"
+                xmlns:%1$s="%1$s"
+                xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance">
+              <wfs:Insert>
+                <%1$s:%2$s>
+                  <%1$s:geom>
+                    %3$s
+                  </%1$s:geom>
+                  %4$s
+                </%1$s:%2$s>
+              </wfs:Insert>
+            </wfs:Transaction>
+            """;
+
+    private static final String UPDATE_TEMPLATE = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <wfs:Transaction version="1.1.0" service="WFS"
+                xmlns:wfs="http://www.opengis.net/wfs"
+                xmlns:ogc="http://www.opengis.net/ogc"
+                xmlns:gml="http://www.opengis.net/gml">
+                <wfs:Update typeName="%1$s:%2$s">
+                    <wfs:Property>
+                        <wfs:Name>geom</wfs:Name>
+                        <wfs:Value>%3$s</wfs:Value>
+                    </wfs:Property>
+                    %4$s
+                    <ogc:Filter>
+                        <ogc:FeatureId fid="%5$s"/>
+                    </ogc:Filter>
+                </wfs:Update>
+            </wfs:Transaction>
+            """;
+
+    private static final String DELETE_TEMPLATE = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <wfs:Transaction version="1.1.0" service="WFS"
+                xmlns:wfs="http://www.opengis.net/wfs"
+                xmlns:ogc="http://www.opengis.net/ogc"
+                xmlns:%1$s="%1$s"
+                xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance">
+              <wfs:Delete typeName="%1$s:%2$s">
+                <ogc:Filter>
+                  <ogc:FeatureId fid="%3$s"/>
+                </ogc:Filter>
+              </wfs:Delete>
+            </wfs:Transaction>
+            """;
+
+    // Éditions en masse : une seule action dont le filtre OGC sélectionne les features
+    private static final String DELETE_WHERE_TEMPLATE = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <wfs:Transaction version="1.1.0" service="WFS"
+                xmlns:wfs="http://www.opengis.net/wfs"
+                xmlns:ogc="http://www.opengis.net/ogc"
+                xmlns:gml="http://www.opengis.net/gml"
+                xmlns:%1$s="%1$s">
+              <wfs:Delete typeName="%1$s:%2$s">
+                %3$s
+              </wfs:Delete>
+            </wfs:Transaction>
+            """;
+
+    private static final String UPDATE_WHERE_TEMPLATE = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <wfs:Transaction version="1.1.0" service="WFS"
+                xmlns:wfs="http://www.opengis.net/wfs"
+                xmlns:ogc="http://www.opengis.net/ogc"
+                xmlns:gml="http://www.opengis.net/gml"
+                xmlns:%1$s="%1$s">
+              <wfs:Update typeName="%1$s:%2$s">
+                %3$s
+                %4$s
+              </wfs:Update>
+            </wfs:Transaction>
+            """;
+
+    // Actions d'une transaction combinée (plusieurs couches d'un même workspace), identifiées par handle
+    private static final String TRANSACTION_START = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <wfs:Transaction version="1.1.0" service="WFS"
+                xmlns:wfs="http://www.opengis.net/wfs"
+                xmlns:ogc="http://www.opengis.net/ogc"
+                xmlns:gml="http://www.opengis.net/gml"
+                xmlns:%1$s="%1$s"
+                xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance">
+            """;
+
+    private static final String TRANSACTION_END = """
+            </wfs:Transaction>
+            """;
+
+    private static final String INSERT_ACTION = """
+              <wfs:Insert handle="%3$s">
+                <%1$s:%2$s>
+                  <%1$s:geom>
+                    %4$s
+                  </%1$s:geom>
+                  %5$s
+                </%1$s:%2$s>
+              </wfs:Insert>
+            """;
+
+    private static final String UPDATE_ACTION = """
+              <wfs:Update typeName="%1$s:%2$s" handle="%3$s">
+                <wfs:Property>
+                  <wfs:Name>geom</wfs:Name>
+                  <wfs:Value>%4$s</wfs:Value>
+                </wfs:Property>
+                %5$s
+                <ogc:Filter>
+                  <ogc:FeatureId fid="%6$s"/>
+                </ogc:Filter>
+              </wfs:Update>
+            """;
+
+    private static final String DELETE_ACTION = """
+              <wfs:Delete typeName="%1$s:%2$s" handle="%3$s">
+                <ogc:Filter>
+                  <ogc:FeatureId fid="%4$s"/>
+                </ogc:Filter>
+              </wfs:Delete>
+            """;
+
+    private static final byte[] TRANSACTION_END_BYTES = bytes(TRANSACTION_END);
+
+    // Marqueur des emplacements variables, remplacé au moment de la compilation
+    private static final String SLOT = "\u0000";
+
+    private static final byte[] PROPERTY_SEPARATOR = bytes("\n");
+    private static final byte[] UPDATE_PROPERTY_NAME_OPEN = bytes("<wfs:Property><wfs:Name>");
+    private static final byte[] UPDATE_PROPERTY_VALUE_CLOSE = bytes("</wfs:Value></wfs:Property>");
+
+    // Géométrie GML écrite en place dans le corps (cf. GmlGeometryWriter)
+    @FunctionalInterface
+    public interface GeometryFragment {
+        void writeTo(XmlUtf8Writer out) throws IOException;
+    }
+
+    private final String workspace;
+    private final String layerName;
+    private final byte[][] insertSegments;
+    private final byte[][] updateSegments;
+    private final byte[][] deleteSegments;
+    private final byte[][] deleteWhereSegments;
+    private final byte[][] updateWhereSegments;
+    private final byte[][] insertActionSegments;
+    private final byte[][] updateActionSegments;
+    private final byte[][] deleteActionSegments;
+
+    // Balises des propriétés, encodées une fois par attribut rencontré
+    private final Map<String, byte[][]> insertPropertyTags = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> updatePropertyTags = new ConcurrentHashMap<>();
+
+    private WfsTransactionTemplate(String workspace, String layerName) {
+        this.workspace = workspace;
+        this.layerName = layerName;
+        this.insertSegments = compile(INSERT_TEMPLATE, 3, workspace, layerName, SLOT, SLOT);
+        this.updateSegments = compile(UPDATE_TEMPLATE, 4, workspace, layerName, SLOT, SLOT, SLOT);
+        this.deleteSegments = compile(DELETE_TEMPLATE, 2, workspace, layerName, SLOT);
+        this.deleteWhereSegments = compile(DELETE_WHERE_TEMPLATE, 2, workspace, layerName, SLOT);
+        this.updateWhereSegments = compile(UPDATE_WHERE_TEMPLATE, 3, workspace, layerName, SLOT, SLOT);
+        this.insertActionSegments = compile(INSERT_ACTION, 4, workspace, layerName, SLOT, SLOT, SLOT);
+        this.updateActionSegments = compile(UPDATE_ACTION, 5, workspace, layerName, SLOT, SLOT, SLOT, SLOT);
+        this.deleteActionSegments = compile(DELETE_ACTION, 3, workspace, layerName, SLOT, SLOT);
+    }
+
+    public static WfsTransactionTemplate compile(String workspace, String layerName) {
+        return new WfsTransactionTemplate(workspace, layerName);
+    }
+
+    public String workspace() {
+        return workspace;
+    }
+
+    public String layerName() {
+        return layerName;
+    }
+
+    public void writeInsert(XmlUtf8Writer out, String geometryGml, Map<String, Object> properties)
+            throws IOException {
+        writeInsert(out, gml -> gml.writeRaw(geometryGml), properties);
+    }
+
+    public void writeInsert(XmlUtf8Writer out, GeometryFragment geometry, Map<String, Object> properties)
+            throws IOException {
+        out.write(insertSegments[0]);
+        geometry.writeTo(out);
+        out.write(insertSegments[1]);
+        writeInsertProperties(out, properties);
+        out.write(insertSegments[2]);
+    }
+
+    public void writeUpdate(XmlUtf8Writer out, String featureId, String geometryGml,
+            Map<String, Object> properties) throws IOException {
+        writeUpdate(out, featureId, gml -> gml.writeRaw(geometryGml), properties);
+    }
+
+    public void writeUpdate(XmlUtf8Writer out, String featureId, GeometryFragment geometry,
+            Map<String, Object> properties) throws IOException {
+        out.write(updateSegments[0]);
+        geometry.writeTo(out);
+        out.write(updateSegments[1]);
+        writeUpdateProperties(out, properties);
+        out.write(updateSegments[2]);
+        out.writeEscaped(featureId);
+        out.write(updateSegments[3]);
+    }
+
+    public void writeDelete(XmlUtf8Writer out, String featureId) throws IOException {
+        out.write(deleteSegments[0]);
+        out.writeEscaped(featureId);
+        out.write(deleteSegments[1]);
+    }
+
+    public void writeDeleteWhere(XmlUtf8Writer out, FeatureFilter filter) throws IOException {
+        out.write(deleteWhereSegments[0]);
+        OgcFilterWriter.write(out, filter);
+        out.write(deleteWhereSegments[1]);
+    }
+
+    // Attributs seulement : la géométrie des features sélectionnées est conservée
+    public void writeUpdateWhere(XmlUtf8Writer out, Map<String, Object> properties, FeatureFilter filter)
+            throws IOException {
+        out.write(updateWhereSegments[0]);
+        writeUpdateProperties(out, properties);
+        out.write(updateWhereSegments[1]);
+        OgcFilterWriter.write(out, filter);
+        out.write(updateWhereSegments[2]);
+    }
+
+    public static void writeTransactionStart(XmlUtf8Writer out, String workspace) throws IOException {
+        out.write(bytes(String.format(TRANSACTION_START, workspace)));
+    }
+
+    public static void writeTransactionEnd(XmlUtf8Writer out) throws IOException {
+        out.write(TRANSACTION_END_BYTES);
+    }
+
+    // Le handle (généré côté serveur, ex: "op-3") est renvoyé comme locator des exceptions WFS
+    public void writeInsertAction(XmlUtf8Writer out, String handle, String geometryGml,
+            Map<String, Object> properties) throws IOException {
+        writeInsertAction(out, handle, gml -> gml.writeRaw(geometryGml), properties);
+    }
+
+    public void writeInsertAction(XmlUtf8Writer out, String handle, GeometryFragment geometry,
+            Map<String, Object> properties) throws IOException {
+        out.write(insertActionSegments[0]);
+        out.writeEscaped(handle);
+        out.write(insertActionSegments[1]);
+        geometry.writeTo(out);
+        out.write(insertActionSegments[2]);
+        writeInsertProperties(out, properties);
+        out.write(insertActionSegments[3]);
+    }
+
+    public void writeUpdateAction(XmlUtf8Writer out, String handle, String featureId, String geometryGml,
+            Map<String, Object> properties) throws IOException {
+        writeUpdateAction(out, handle, featureId, gml -> gml.writeRaw(geometryGml), properties);
+    }
+
+    public void writeUpdateAction(XmlUtf8Writer out, String handle, String featureId, GeometryFragment geometry,
+            Map<String, Object> properties) throws IOException {
+        out.write(updateActionSegments[0]);
+        out.writeEscaped(handle);
+        out.write(updateActionSegments[1]);
+        geometry.writeTo(out);
+        out.write(updateActionSegments[2]);
+        writeUpdateProperties(out, properties);
+        out.write(updateActionSegments[3]);
+        out.writeEscaped(featureId);
+        out.write(updateActionSegments[4]);
+    }
+
+    public void writeDeleteAction(XmlUtf8Writer out, String handle, String featureId) throws IOException {
+        out.write(deleteActionSegments[0]);
+        out.writeEscaped(handle);
+        out.write(deleteActionSegments[1]);
+        out.writeEscaped(featureId);
+        out.write(deleteActionSegments[2]);
+    }
+
+    private void writeInsertProperties(XmlUtf8Writer out, Map<String, Object> properties) throws IOException {
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            if (!first)
+                out.write(PROPERTY_SEPARATOR);
+            first = false;
+
+            byte[][] tags = insertPropertyTags.computeIfAbsent(entry.getKey(), key -> new byte[][] {
+                    bytes("<" + workspace + ":" + key + ">"),
+                    bytes("</" + workspace + ":" + key + ">")
+            });
+            out.write(tags[0]);
+            out.writeEscaped(String.valueOf(entry.getValue()));
+            out.write(tags[1]);
+        }
+    }
+
+    private void writeUpdateProperties(XmlUtf8Writer out, Map<String, Object> properties) throws IOException {
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            if (!first)
+                out.write(PROPERTY_SEPARATOR);
+            first = false;
+
+            out.write(UPDATE_PROPERTY_NAME_OPEN);
+            out.write(updatePropertyTags.computeIfAbsent(entry.getKey(),
+                    key -> bytes(key + "</wfs:Name><wfs:Value>")));
+            out.writeEscaped(String.valueOf(entry.getValue()));
+            out.write(UPDATE_PROPERTY_VALUE_CLOSE);
+        }
+    }
+
+    private static byte[][] compile(String template, int expectedSegments, Object... args) {
+        String[] parts = String.format(template, args).split(SLOT, -1);
+        if (parts.length != expectedSegments) {
+            throw new IllegalArgumentException("Invalid workspace or layer name for WFS-T template: " + args[0]
+                    + ":" + args[1]);
+        }
+
+        byte[][] segments = new byte[parts.length][];
+        for (int i = 0; i < parts.length; i++) {
+            segments[i] = bytes(parts[i]);
+        }
+        return segments;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
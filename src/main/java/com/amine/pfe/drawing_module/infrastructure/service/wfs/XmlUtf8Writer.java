@@ -0,0 +1,163 @@
+package com.amine.pfe.drawing_module.infrastructure.service.wfs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * Writer UTF-8 bufferisé qui écrit directement dans le flux HTTP.
+ * L'échappement XML et l'encodage UTF-8 se font en une seule passe par valeur.
+ */
+public final class XmlUtf8Writer {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    // Au-delà, value * 1e6 n'a plus assez de bits après la virgule pour arrondir comme String.format
+    private static final double MAX_FAST_DECIMAL = 1e8;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+    private long flushed;
+
+    public XmlUtf8Writer(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public XmlUtf8Writer(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+    }
+
+    public void write(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            flushBuffer();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                flushed += bytes.length;
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    public void writeRaw(String value) throws IOException {
+        write(value, false);
+    }
+
+    public void writeEscaped(String value) throws IOException {
+        write(value, true);
+    }
+
+    private void write(String value, boolean escape) throws IOException {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+
+            // Réserver la place du pire cas (entité "&quot;" ou 4 octets UTF-8)
+            if (buffer.length - position < 6) {
+                flushBuffer();
+            }
+
+            if (c < 0x80) {
+                if (escape) {
+                    switch (c) {
+                        case '&' -> { appendAscii("&amp;"); continue; }
+                        case '<' -> { appendAscii("&lt;"); continue; }
+                        case '>' -> { appendAscii("&gt;"); continue; }
+                        case '"' -> { appendAscii("&quot;"); continue; }
+                        case '\'' -> { appendAscii("&apos;"); continue; }
+                        default -> { }
+                    }
+                }
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Surrogate orphelin : même remplacement que String.getBytes(UTF_8)
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    public void writeAscii(char c) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = (byte) c;
+    }
+
+    // Équivalent de String.format(Locale.US, "%.6f", value) sans allocation pour les coordonnées usuelles
+    public void writeDecimal(double value) throws IOException {
+        double scaledValue = Math.abs(value) * 1e6;
+        double half = scaledValue - Math.floor(scaledValue) - 0.5;
+        // Hors bornes, ou trop proche d'une demi-unité pour trancher sans passer par le décimal
+        if (!(Math.abs(value) < MAX_FAST_DECIMAL) || Math.abs(half) <= 4 * Math.ulp(scaledValue)) {
+            writeRaw(String.format(Locale.US, "%.6f", value));
+            return;
+        }
+        if (buffer.length - position < 32) {
+            flushBuffer();
+        }
+
+        long scaled = (long) Math.floor(scaledValue) + (half > 0 ? 1 : 0);
+        if (Double.doubleToRawLongBits(value) < 0) {
+            buffer[position++] = '-';
+        }
+        long integerPart = scaled / 1_000_000;
+        int fraction = (int) (scaled % 1_000_000);
+
+        int digits = 1;
+        for (long rest = integerPart / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + integerPart % 10);
+            integerPart /= 10;
+        }
+        position += digits;
+
+        buffer[position++] = '.';
+        for (int i = position + 5; i >= position; i--) {
+            buffer[i] = (byte) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        position += 6;
+    }
+
+    private void appendAscii(String entity) {
+        for (int i = 0; i < entity.length(); i++) {
+            buffer[position++] = (byte) entity.charAt(i);
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            flushed += position;
+            position = 0;
+        }
+    }
+
+    // Octets écrits depuis la création, avant une éventuelle compression
+    public long bytesWritten() {
+        return flushed + position;
+    }
+
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+}
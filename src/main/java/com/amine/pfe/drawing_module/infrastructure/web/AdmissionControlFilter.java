@@ -0,0 +1,87 @@
+package com.amine.pfe.drawing_module.infrastructure.web;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.amine.pfe.drawing_module.infrastructure.service.admission.AdmissionController;
+import com.amine.pfe.drawing_module.infrastructure.service.admission.AdmissionRejectedException;
+import com.amine.pfe.drawing_module.infrastructure.service.admission.RequestClass;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Admission des requêtes /drawing/** avant les contrôleurs : attente dans la file de leur classe,
+ * ou 429 avec Retry-After quand la file est pleine ou trop lente.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+@RequiredArgsConstructor
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Pattern LAYER_ID = Pattern.compile("^/drawing/layers/([0-9a-fA-F-]{36})(/.*)?$");
+
+    private final AdmissionController admissionController;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !admissionController.isEnabled() || !request.getRequestURI().startsWith("/drawing/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI();
+        RequestClass requestClass = RequestClass.of(path);
+        try {
+            admissionController.acquire(requestClass, layerId(path));
+        } catch (AdmissionRejectedException e) {
+            log.warn("Request {} {} shed: {}", request.getMethod(), path, e.getMessage());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"success\":false,\"message\":\"Too many requests, retry later\"}");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // Réponse en flux (synchronisation) : la place est rendue dès que la fenêtre est ouverte, l'écriture
+            // est bornée par son propre délai et ne bloque pas les éditions en masse derrière un client lent
+            admissionController.release(requestClass, System.nanoTime() - start);
+        }
+    }
+
+    private static UUID layerId(String path) {
+        Matcher matcher = LAYER_ID.matcher(path);
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(matcher.group(1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.amine.pfe.drawing_module.infrastructure.web;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+/**
+ * Délai d'une réponse asynchrone fixé par son gestionnaire : spring.mvc.async.request-timeout vaut pour toutes
+ * les réponses, et un StreamingResponseBody n'a pas de délai propre.
+ */
+public class AsyncTimeoutInterceptor implements CallableProcessingInterceptor {
+
+    private static final String TIMEOUT_ATTRIBUTE = AsyncTimeoutInterceptor.class.getName() + ".timeout";
+
+    // Depuis le gestionnaire, avant de rendre la réponse asynchrone
+    public static void setTimeout(Duration timeout) {
+        RequestContextHolder.currentRequestAttributes()
+                .setAttribute(TIMEOUT_ATTRIBUTE, timeout, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    // Appelé avant startAsync, qui applique le délai au contexte asynchrone du conteneur
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        Object timeout = request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (request instanceof AsyncWebRequest asyncRequest && timeout instanceof Duration duration) {
+            asyncRequest.setTimeout(duration.toMillis());
+        }
+    }
+}
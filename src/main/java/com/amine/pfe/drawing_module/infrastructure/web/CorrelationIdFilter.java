@@ -0,0 +1,49 @@
+package com.amine.pfe.drawing_module.infrastructure.web;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.amine.pfe.drawing_module.infrastructure.logging.CorrelationId;
+import com.amine.pfe.drawing_module.infrastructure.logging.Editor;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    private static final int MAX_LENGTH = 64;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String correlationId = request.getHeader(CorrelationId.HEADER);
+        if (correlationId == null || correlationId.isBlank() || correlationId.length() > MAX_LENGTH) {
+            correlationId = UUID.randomUUID().toString();
+        }
+
+        // Auteur des éditions pour l'audit : utilisateur authentifié, sinon déclaré par le client
+        String editor = request.getRemoteUser() != null ? request.getRemoteUser() : request.getHeader(Editor.HEADER);
+
+        MDC.put(CorrelationId.MDC_KEY, correlationId);
+        if (editor != null && !editor.isBlank() && editor.length() <= MAX_LENGTH) {
+            MDC.put(Editor.MDC_KEY, editor);
+        }
+        response.setHeader(CorrelationId.HEADER, correlationId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(CorrelationId.MDC_KEY);
+            MDC.remove(Editor.MDC_KEY);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.amine.pfe.drawing_module.infrastructure.web;
 
+import java.util.List;
 import java.util.UUID;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,11 +11,25 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.amine.pfe.drawing_module.domain.dto.BulkEditRequest;
+import com.amine.pfe.drawing_module.domain.dto.BulkEditResult;
+import com.amine.pfe.drawing_module.domain.dto.FeatureLeaseRequest;
+import com.amine.pfe.drawing_module.domain.dto.FeatureLeaseResult;
+import com.amine.pfe.drawing_module.domain.dto.FeatureOverlayRequest;
+import com.amine.pfe.drawing_module.domain.dto.FeatureResponse;
 import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
 import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateResult;
+import com.amine.pfe.drawing_module.domain.dto.SyncUploadRequest;
+import com.amine.pfe.drawing_module.domain.dto.SyncUploadResult;
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditRequest;
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditResult;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
 import com.amine.pfe.drawing_module.domain.model.LayerSchema;
 import com.amine.pfe.drawing_module.domain.port.in.DrawingWebPort;
 
@@ -24,6 +40,9 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class DrawingRestController {
 
+    // Jeton du bail d'édition, exigé sur les features sous bail
+    static final String LEASE_HEADER = "X-Feature-Lease";
+
     private final DrawingWebPort drawingWebPort;
 
     @GetMapping(value = "/{layerId}/schema")
@@ -31,27 +50,168 @@ public class DrawingRestController {
         return drawingWebPort.getLayerSchema(layerId);
     }
 
-    @PostMapping(value = "/{layerId}/features", consumes = "application/json; charset=UTF-8",
+    @GetMapping(value = "/{layerId}/features/{featureId}", produces = { "application/json; charset=UTF-8",
+                                                                        GeometryEncoding.WKB_JSON_VALUE,
+                                                                        GeometryEncoding.TWKB_JSON_VALUE })
+    public ResponseEntity<FeatureResponse> getFeature(
+            @PathVariable UUID layerId,
+            @PathVariable String featureId,
+            @RequestParam(required = false) String crs,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return drawingWebPort.getFeature(layerId, featureId, crs, GeometryEncoding.fromAcceptHeader(accept));
+    }
+
+    @PostMapping(value = "/{layerId}/features", consumes = { "application/json; charset=UTF-8",
+                                                                GeometryEncoding.WKB_JSON_VALUE,
+                                                                GeometryEncoding.TWKB_JSON_VALUE },
                                                             produces = "application/json; charset=UTF-8")
     public ResponseEntity<FeatureUpdateResult> insertFeature(
         @PathVariable UUID layerId,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
         @RequestBody FeatureUpdateRequest insertRequest) {
+        insertRequest.setGeometryEncoding(GeometryEncoding.fromMediaType(contentType));
         return drawingWebPort.insertFeature(layerId, insertRequest);
     }
 
-    @PutMapping(value = "/{layerId}/features/{featureId}", consumes = "application/json; charset=UTF-8",
+    @PutMapping(value = "/{layerId}/features/{featureId}", consumes = { "application/json; charset=UTF-8",
+                                                                            GeometryEncoding.WKB_JSON_VALUE,
+                                                                            GeometryEncoding.TWKB_JSON_VALUE },
                                                             produces = "application/json; charset=UTF-8")
     public ResponseEntity<FeatureUpdateResult> updateFeature(
             @PathVariable UUID layerId,
             @PathVariable String featureId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = LEASE_HEADER, required = false) String leaseToken,
             @RequestBody FeatureUpdateRequest updateRequest) {
+        updateRequest.setGeometryEncoding(GeometryEncoding.fromMediaType(contentType));
+        updateRequest.setLeaseToken(leaseToken);
         return drawingWebPort.updateFeature(layerId, featureId, updateRequest);
     }
 
     @DeleteMapping(value = "/{layerId}/features/{featureId}", produces = "application/json; charset=UTF-8")
     public ResponseEntity<FeatureUpdateResult> deleteFeature(
         @PathVariable UUID layerId,
-        @PathVariable String featureId) {
-        return drawingWebPort.deleteFeature(layerId, featureId);
+        @PathVariable String featureId,
+        @RequestHeader(value = LEASE_HEADER, required = false) String leaseToken) {
+        return drawingWebPort.deleteFeature(layerId, featureId, leaseToken);
+    }
+
+    // Bail d'édition exclusif : les autres éditeurs reçoivent 409 jusqu'à sa libération ou son expiration
+    @PostMapping(value = "/{layerId}/features/{featureId}/lease", consumes = "application/json; charset=UTF-8",
+                                                                    produces = "application/json; charset=UTF-8")
+    public ResponseEntity<FeatureLeaseResult> acquireLease(
+            @PathVariable UUID layerId,
+            @PathVariable String featureId,
+            @RequestBody FeatureLeaseRequest request) {
+        return drawingWebPort.acquireLease(layerId, featureId, request);
+    }
+
+    @PutMapping(value = "/{layerId}/features/{featureId}/lease", produces = "application/json; charset=UTF-8")
+    public ResponseEntity<FeatureLeaseResult> renewLease(
+            @PathVariable UUID layerId,
+            @PathVariable String featureId,
+            @RequestHeader(LEASE_HEADER) String leaseToken,
+            @RequestBody(required = false) FeatureLeaseRequest request) {
+        return drawingWebPort.renewLease(layerId, featureId, leaseToken, request);
+    }
+
+    @DeleteMapping(value = "/{layerId}/features/{featureId}/lease")
+    public ResponseEntity<Void> releaseLease(
+            @PathVariable UUID layerId,
+            @PathVariable String featureId,
+            @RequestHeader(LEASE_HEADER) String leaseToken) {
+        return drawingWebPort.releaseLease(layerId, featureId, leaseToken);
+    }
+
+    // Sommet ou tronçon de frontière déplacé sur la feature et sur les voisines qui le partagent, en une transaction
+    @PostMapping(value = "/{layerId}/features/{featureId}/boundary", consumes = "application/json; charset=UTF-8",
+                                                                        produces = "application/json; charset=UTF-8")
+    public ResponseEntity<TopologyEditResult> editBoundary(
+            @PathVariable UUID layerId,
+            @PathVariable String featureId,
+            @RequestHeader(value = LEASE_HEADER, required = false) String leaseToken,
+            @RequestBody TopologyEditRequest request) {
+        request.setLeaseToken(leaseToken);
+        return drawingWebPort.editBoundary(layerId, featureId, request);
+    }
+
+    // Découpe, fusion et découpage par emprise calculés côté serveur ; créations, modifications et suppressions
+    // en une transaction. X-Feature-Lease peut porter un jeton par feature sous bail
+    @PostMapping(value = "/{layerId}/features/{featureId}:split", consumes = "application/json; charset=UTF-8",
+                                                                    produces = "application/json; charset=UTF-8")
+    public ResponseEntity<TopologyEditResult> splitFeature(
+            @PathVariable UUID layerId,
+            @PathVariable String featureId,
+            @RequestHeader(value = LEASE_HEADER, required = false) List<String> leaseTokens,
+            @RequestBody FeatureOverlayRequest request) {
+        request.setLeaseTokens(leaseTokens);
+        return drawingWebPort.splitFeature(layerId, featureId, request);
+    }
+
+    @PostMapping(value = "/{layerId}/features:merge", consumes = "application/json; charset=UTF-8",
+                                                        produces = "application/json; charset=UTF-8")
+    public ResponseEntity<TopologyEditResult> mergeFeatures(
+            @PathVariable UUID layerId,
+            @RequestHeader(value = LEASE_HEADER, required = false) List<String> leaseTokens,
+            @RequestBody FeatureOverlayRequest request) {
+        request.setLeaseTokens(leaseTokens);
+        return drawingWebPort.mergeFeatures(layerId, request);
+    }
+
+    @PostMapping(value = "/{layerId}/features/{featureId}:clip", consumes = "application/json; charset=UTF-8",
+                                                                   produces = "application/json; charset=UTF-8")
+    public ResponseEntity<TopologyEditResult> clipFeature(
+            @PathVariable UUID layerId,
+            @PathVariable String featureId,
+            @RequestHeader(value = LEASE_HEADER, required = false) List<String> leaseTokens,
+            @RequestBody FeatureOverlayRequest request) {
+        request.setLeaseTokens(leaseTokens);
+        return drawingWebPort.clipFeature(layerId, featureId, request);
+    }
+
+    // Sélection par ids, bbox et/ou conditions : un seul wfs:Delete / wfs:Update, quel que soit le nombre de features
+    @PostMapping(value = "/{layerId}/features/bulk-delete", consumes = "application/json; charset=UTF-8",
+                                                            produces = "application/json; charset=UTF-8")
+    public ResponseEntity<BulkEditResult> deleteFeatures(
+            @PathVariable UUID layerId,
+            @RequestHeader(value = LEASE_HEADER, required = false) List<String> leaseTokens,
+            @RequestBody BulkEditRequest request) {
+        request.setLeaseTokens(leaseTokens);
+        return drawingWebPort.deleteFeatures(layerId, request);
+    }
+
+    @PostMapping(value = "/{layerId}/features/bulk-update", consumes = "application/json; charset=UTF-8",
+                                                            produces = "application/json; charset=UTF-8")
+    public ResponseEntity<BulkEditResult> updateFeatures(
+            @PathVariable UUID layerId,
+            @RequestHeader(value = LEASE_HEADER, required = false) List<String> leaseTokens,
+            @RequestBody BulkEditRequest request) {
+        request.setLeaseTokens(leaseTokens);
+        return drawingWebPort.updateFeatures(layerId, request);
+    }
+
+    // Synchronisation hors ligne : dernier état des features modifiées depuis le jeton since, en flux
+    @GetMapping(value = "/{layerId}/sync", produces = { "application/json; charset=UTF-8",
+                                                        GeometryEncoding.WKB_JSON_VALUE,
+                                                        GeometryEncoding.TWKB_JSON_VALUE })
+    public ResponseEntity<StreamingResponseBody> getChanges(
+            @PathVariable UUID layerId,
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return drawingWebPort.getChanges(layerId, since, GeometryEncoding.fromAcceptHeader(accept));
+    }
+
+    @PostMapping(value = "/{layerId}/sync", consumes = { "application/json; charset=UTF-8",
+                                                        GeometryEncoding.WKB_JSON_VALUE,
+                                                        GeometryEncoding.TWKB_JSON_VALUE },
+                                                    produces = "application/json; charset=UTF-8")
+    public ResponseEntity<SyncUploadResult> uploadSync(
+            @PathVariable UUID layerId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = LEASE_HEADER, required = false) List<String> leaseTokens,
+            @RequestBody SyncUploadRequest request) {
+        request.setGeometryEncoding(GeometryEncoding.fromMediaType(contentType));
+        request.setLeaseTokens(leaseTokens);
+        return drawingWebPort.uploadSync(layerId, request);
     }
-}
\ No newline at end of file
+}
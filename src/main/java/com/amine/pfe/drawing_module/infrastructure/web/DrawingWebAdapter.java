@@ -1,14 +1,43 @@
 package com.amine.pfe.drawing_module.infrastructure.web;
 
+import java.time.Duration;
 import java.util.UUID;
+import java.util.function.Supplier;
 
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.amine.pfe.drawing_module.application.service.DrawingService;
+import com.amine.pfe.drawing_module.config.FeatureSyncProperties;
+import com.amine.pfe.drawing_module.domain.dto.BulkEditRequest;
+import com.amine.pfe.drawing_module.domain.dto.BulkEditResult;
+import com.amine.pfe.drawing_module.domain.dto.EditSessionRequest;
+import com.amine.pfe.drawing_module.domain.dto.EditSessionResult;
+import com.amine.pfe.drawing_module.domain.dto.FeatureLeaseRequest;
+import com.amine.pfe.drawing_module.domain.dto.FeatureLeaseResult;
+import com.amine.pfe.drawing_module.domain.dto.FeatureOverlayRequest;
+import com.amine.pfe.drawing_module.domain.dto.FeatureResponse;
 import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
 import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateResult;
+import com.amine.pfe.drawing_module.domain.dto.SyncUploadRequest;
+import com.amine.pfe.drawing_module.domain.dto.SyncUploadResult;
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditRequest;
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditResult;
+import com.amine.pfe.drawing_module.domain.exception.CartographicServerUnavailableException;
+import com.amine.pfe.drawing_module.domain.exception.FeatureLeaseConflictException;
+import com.amine.pfe.drawing_module.domain.exception.FeatureLeasesDisabledException;
+import com.amine.pfe.drawing_module.domain.exception.FeatureSyncDisabledException;
+import com.amine.pfe.drawing_module.domain.exception.LayerNotFoundException;
+import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.FeatureLease;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
 import com.amine.pfe.drawing_module.domain.model.LayerSchema;
+import com.amine.pfe.drawing_module.domain.model.SyncWindow;
 import com.amine.pfe.drawing_module.domain.port.in.DrawingWebPort;
+import com.amine.pfe.drawing_module.infrastructure.metrics.StartupMetrics;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,12 +48,40 @@ import lombok.extern.slf4j.Slf4j;
 public class DrawingWebAdapter implements DrawingWebPort {
 
     private final DrawingService drawingService;
+    private final StartupMetrics startupMetrics;
+    private final FeatureSyncProperties syncProperties;
 
     @Override
     public LayerSchema getLayerSchema(UUID layerId) {
         return drawingService.getLayerSchema(layerId);
     }
 
+    @Override
+    public ResponseEntity<FeatureResponse> getFeature(UUID layerId, String featureId, String crs,
+            GeometryEncoding encoding) {
+        try {
+            Feature feature = drawingService.getFeature(layerId, featureId, crs);
+            if (feature == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(encoding.mediaType()))
+                    .body(FeatureResponse.of(feature, encoding));
+
+        } catch (LayerNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid feature read request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (CartographicServerUnavailableException e) {
+            log.warn("Feature {} unavailable: {}", featureId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            log.error("Error reading feature {} in layer {}: {}", featureId, layerId, e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @Override
     public ResponseEntity<FeatureUpdateResult> insertFeature(UUID layerId, FeatureUpdateRequest insertRequest) {
 
@@ -34,9 +91,16 @@ public class DrawingWebAdapter implements DrawingWebPort {
         try {
             FeatureUpdateResult result = drawingService.insertFeature(layerId, insertRequest);
 
-            if (result.isSuccess()) {
+            if (result.isQueued()) {
+                log.info("Feature creation queued for replay: {}", result.getMessage());
+                return ResponseEntity.accepted().body(result);
+            } else if (result.isSuccess()) {
+                startupMetrics.recordSuccessfulInsert();
                 log.info("Feature {} created successfully", result.getFeatureId());
                 return ResponseEntity.ok(result);
+            } else if (result.isUnconfirmed()) {
+                log.warn("Feature creation unconfirmed: {}", result.getMessage());
+                return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(result);
             } else {
                 log.warn("Feature creation failed: {}", result.getMessage());
                 return ResponseEntity.badRequest().body(result);
@@ -58,7 +122,13 @@ public class DrawingWebAdapter implements DrawingWebPort {
         try {
             FeatureUpdateResult result = drawingService.updateFeature(layerId, featureId, updateRequest);
 
-            if (result.isSuccess()) {
+            if (result.isQueued()) {
+                log.info("Update of feature {} queued for replay: {}", featureId, result.getMessage());
+                return ResponseEntity.accepted().body(result);
+            } else if (result.isUnchanged()) {
+                log.info("Feature {} unchanged, nothing written", featureId);
+                return ResponseEntity.ok(result);
+            } else if (result.isSuccess()) {
                 log.info("Feature {} updated successfully", featureId);
                 return ResponseEntity.ok(result);
             } else {
@@ -66,6 +136,8 @@ public class DrawingWebAdapter implements DrawingWebPort {
                 return ResponseEntity.badRequest().body(result);
             }
 
+        } catch (FeatureLeaseConflictException e) {
+            return leaseConflict(featureId, e);
         } catch (Exception e) {
             log.error("Unexpected error updating feature {}: {}", featureId, e.getMessage(), e);
             return ResponseEntity.internalServerError().body(null);
@@ -73,16 +145,20 @@ public class DrawingWebAdapter implements DrawingWebPort {
     }
 
     @Override
-    public ResponseEntity<FeatureUpdateResult> deleteFeature(UUID layerId, String featureId) {
+    public ResponseEntity<FeatureUpdateResult> deleteFeature(UUID layerId, String featureId, String leaseToken) {
         try {
-            FeatureUpdateResult result = drawingService.deleteFeature(layerId, featureId);
+            FeatureUpdateResult result = drawingService.deleteFeature(layerId, featureId, leaseToken);
 
-            if (result.isSuccess()) {
+            if (result.isQueued()) {
+                return ResponseEntity.accepted().body(result);
+            } else if (result.isSuccess()) {
                 return ResponseEntity.ok(result);
             } else {
                 return ResponseEntity.badRequest().body(result);
             }
 
+        } catch (FeatureLeaseConflictException e) {
+            return leaseConflict(featureId, e);
         } catch (Exception e) {
             log.error("Error in deleteFeature web port: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
@@ -92,4 +168,290 @@ public class DrawingWebAdapter implements DrawingWebPort {
                             .build());
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public ResponseEntity<BulkEditResult> deleteFeatures(UUID layerId, BulkEditRequest request) {
+        return bulkEdit(layerId, request, false);
+    }
+
+    @Override
+    public ResponseEntity<BulkEditResult> updateFeatures(UUID layerId, BulkEditRequest request) {
+        return bulkEdit(layerId, request, true);
+    }
+
+    private ResponseEntity<BulkEditResult> bulkEdit(UUID layerId, BulkEditRequest request, boolean update) {
+        log.debug("Bulk {} request: {}", update ? "update" : "delete", request);
+        try {
+            BulkEditResult result = update
+                    ? drawingService.updateFeatures(layerId, request)
+                    : drawingService.deleteFeatures(layerId, request);
+            return result.isSuccess() ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+
+        } catch (LayerNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (FeatureLeaseConflictException e) {
+            log.info("Bulk edit of layer {} refused: {}", layerId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(bulkFailure(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid bulk edit request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(bulkFailure(e.getMessage()));
+        } catch (CartographicServerUnavailableException e) {
+            log.warn("Bulk edit in layer {} unavailable: {}", layerId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(bulkFailure(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error in bulk edit of layer {}: {}", layerId, e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(bulkFailure("Internal server error: " + e.getMessage()));
+        }
+    }
+
+    private static BulkEditResult bulkFailure(String message) {
+        return BulkEditResult.builder()
+                .success(false)
+                .message(message)
+                .build();
+    }
+
+    @Override
+    public ResponseEntity<EditSessionResult> executeEditSession(EditSessionRequest request) {
+        try {
+            EditSessionResult result = drawingService.executeEditSession(request);
+
+            if (result.isSuccess()) {
+                return ResponseEntity.ok(result);
+            } else if (result.getSucceeded() > 0) {
+                // Succès partiel : certains workspaces ont été validés
+                return ResponseEntity.status(HttpStatus.MULTI_STATUS).body(result);
+            } else {
+                return ResponseEntity.badRequest().body(result);
+            }
+
+        } catch (CartographicServerUnavailableException e) {
+            log.warn("Edit session unavailable: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(EditSessionResult.builder()
+                            .success(false)
+                            .message(e.getMessage())
+                            .build());
+        } catch (Exception e) {
+            log.error("Error in executeEditSession web port: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body(EditSessionResult.builder()
+                            .success(false)
+                            .message("Internal server error: " + e.getMessage())
+                            .build());
+        }
+    }
+
+    @Override
+    public ResponseEntity<TopologyEditResult> editBoundary(UUID layerId, String featureId,
+            TopologyEditRequest request) {
+        log.debug("Shared boundary edit request for feature {}: {}", featureId, request);
+        return topologyEdit("shared boundary edit", layerId, featureId,
+                () -> drawingService.editBoundary(layerId, featureId, request));
+    }
+
+    @Override
+    public ResponseEntity<TopologyEditResult> splitFeature(UUID layerId, String featureId,
+            FeatureOverlayRequest request) {
+        log.debug("Split request for feature {}: {}", featureId, request);
+        return topologyEdit("split", layerId, featureId,
+                () -> drawingService.splitFeature(layerId, featureId, request));
+    }
+
+    @Override
+    public ResponseEntity<TopologyEditResult> mergeFeatures(UUID layerId, FeatureOverlayRequest request) {
+        log.debug("Merge request in layer {}: {}", layerId, request);
+        return topologyEdit("merge", layerId, String.valueOf(request.getFeatureIds()),
+                () -> drawingService.mergeFeatures(layerId, request));
+    }
+
+    @Override
+    public ResponseEntity<TopologyEditResult> clipFeature(UUID layerId, String featureId,
+            FeatureOverlayRequest request) {
+        log.debug("Clip request for feature {}: {}", featureId, request);
+        return topologyEdit("clip", layerId, featureId,
+                () -> drawingService.clipFeature(layerId, featureId, request));
+    }
+
+    // Éditions de plusieurs features en une transaction : mêmes statuts pour la frontière, la découpe,
+    // la fusion et le découpage par emprise
+    private ResponseEntity<TopologyEditResult> topologyEdit(String operation, UUID layerId, String featureId,
+            Supplier<TopologyEditResult> edit) {
+        try {
+            TopologyEditResult result = edit.get();
+            return result.isSuccess() ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+
+        } catch (FeatureLeaseConflictException e) {
+            log.info("The {} of feature {} was refused: {}", operation, featureId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(topologyFailure(e.getMessage()));
+        } catch (LayerNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid {}: {}", operation, e.getMessage());
+            return ResponseEntity.badRequest().body(topologyFailure(e.getMessage()));
+        } catch (CartographicServerUnavailableException e) {
+            log.warn("The {} in layer {} is unavailable: {}", operation, layerId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(topologyFailure(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error in the {} of feature {}: {}", operation, featureId, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body(topologyFailure("Internal server error: " + e.getMessage()));
+        }
+    }
+
+    private static TopologyEditResult topologyFailure(String message) {
+        return TopologyEditResult.builder()
+                .success(false)
+                .message(message)
+                .build();
+    }
+
+    // Fenêtre ouverte avant la réponse pour que les erreurs aient leur statut ; au-delà, une panne en cours
+    // de flux tronque le document JSON et le client garde son ancien jeton
+    @Override
+    public ResponseEntity<StreamingResponseBody> getChanges(UUID layerId, Long since, GeometryEncoding encoding) {
+        try {
+            SyncWindow window = drawingService.openSync(layerId, since);
+            StreamingResponseBody body = out -> {
+                try {
+                    drawingService.writeChanges(window, encoding, out);
+                } catch (RuntimeException e) {
+                    log.error("Sync of layer {} interrupted: {}", layerId, e.getMessage(), e);
+                    throw e;
+                }
+            };
+            // Au-delà, la connexion est fermée : le document tronqué est rejeté et le client reprend à son jeton
+            AsyncTimeoutInterceptor.setTimeout(syncProperties.getStreamTimeout());
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(encoding.mediaType()))
+                    .body(body);
+
+        } catch (FeatureSyncDisabledException e) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+        } catch (LayerNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid sync request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (CartographicServerUnavailableException | DataAccessException e) {
+            log.warn("Sync of layer {} unavailable: {}", layerId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            log.error("Error opening sync of layer {}: {}", layerId, e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @Override
+    public ResponseEntity<SyncUploadResult> uploadSync(UUID layerId, SyncUploadRequest request) {
+        try {
+            SyncUploadResult result = drawingService.uploadSync(layerId, request);
+
+            if (result.isSuccess()) {
+                return ResponseEntity.ok(result);
+            } else if (!result.getConflicts().isEmpty()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+            } else if (result.getApplied() > 0) {
+                return ResponseEntity.status(HttpStatus.MULTI_STATUS).body(result);
+            } else {
+                return ResponseEntity.badRequest().body(result);
+            }
+
+        } catch (FeatureSyncDisabledException e) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+        } catch (LayerNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (CartographicServerUnavailableException | DataAccessException e) {
+            log.warn("Sync upload to layer {} unavailable: {}", layerId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(SyncUploadResult.builder()
+                            .success(false)
+                            .message("Sync unavailable: " + e.getMessage())
+                            .build());
+        } catch (Exception e) {
+            log.error("Error in sync upload to layer {}: {}", layerId, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body(SyncUploadResult.builder()
+                            .success(false)
+                            .message("Internal server error: " + e.getMessage())
+                            .build());
+        }
+    }
+
+    @Override
+    public ResponseEntity<FeatureLeaseResult> acquireLease(UUID layerId, String featureId,
+            FeatureLeaseRequest request) {
+        return lease(layerId, featureId, () -> drawingService.acquireLease(layerId, featureId,
+                request.getHolder(), ttl(request)));
+    }
+
+    @Override
+    public ResponseEntity<FeatureLeaseResult> renewLease(UUID layerId, String featureId, String leaseToken,
+            FeatureLeaseRequest request) {
+        return lease(layerId, featureId, () -> drawingService.renewLease(layerId, featureId,
+                UUID.fromString(leaseToken), ttl(request)));
+    }
+
+    @Override
+    public ResponseEntity<Void> releaseLease(UUID layerId, String featureId, String leaseToken) {
+        try {
+            boolean released = drawingService.releaseLease(layerId, featureId, UUID.fromString(leaseToken));
+            return released ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        } catch (FeatureLeasesDisabledException e) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (DataAccessException e) {
+            log.warn("Lease release on feature {} unavailable: {}", featureId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    private ResponseEntity<FeatureLeaseResult> lease(UUID layerId, String featureId,
+            Supplier<FeatureLease> action) {
+        try {
+            FeatureLease lease = action.get();
+            return ResponseEntity.ok(FeatureLeaseResult.builder()
+                    .success(true)
+                    .featureId(featureId)
+                    .holder(lease.holder())
+                    .token(lease.token().toString())
+                    .expiresAt(lease.expiresAt())
+                    .message("Lease granted")
+                    .build());
+        } catch (FeatureLeaseConflictException e) {
+            FeatureLease current = e.getCurrent();
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(FeatureLeaseResult.builder()
+                    .success(false)
+                    .featureId(featureId)
+                    .holder(current != null ? current.holder() : null)
+                    .expiresAt(current != null ? current.expiresAt() : null)
+                    .message(e.getMessage())
+                    .build());
+        } catch (FeatureLeasesDisabledException e) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(FeatureLeaseResult.builder()
+                    .success(false)
+                    .featureId(featureId)
+                    .message(e.getMessage())
+                    .build());
+        } catch (DataAccessException e) {
+            log.warn("Lease on feature {} of layer {} unavailable: {}", featureId, layerId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    private static Duration ttl(FeatureLeaseRequest request) {
+        return request != null && request.getTtlSeconds() != null ? Duration.ofSeconds(request.getTtlSeconds()) : null;
+    }
+
+    private static ResponseEntity<FeatureUpdateResult> leaseConflict(String featureId, FeatureLeaseConflictException e) {
+        log.info("Edit of feature {} refused: {}", featureId, e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(FeatureUpdateResult.builder()
+                .success(false)
+                .featureId(featureId)
+                .message(e.getMessage())
+                .build());
+    }
+}
@@ -0,0 +1,39 @@
+package com.amine.pfe.drawing_module.infrastructure.web;
+
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.amine.pfe.drawing_module.domain.dto.EditSessionRequest;
+import com.amine.pfe.drawing_module.domain.dto.EditSessionResult;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
+import com.amine.pfe.drawing_module.domain.port.in.DrawingWebPort;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/drawing/edit-sessions")
+@RequiredArgsConstructor
+public class EditSessionRestController {
+
+    private final DrawingWebPort drawingWebPort;
+
+    @PostMapping(consumes = { "application/json; charset=UTF-8",
+                                GeometryEncoding.WKB_JSON_VALUE,
+                                GeometryEncoding.TWKB_JSON_VALUE },
+                    produces = "application/json; charset=UTF-8")
+    public ResponseEntity<EditSessionResult> executeEditSession(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = DrawingRestController.LEASE_HEADER, required = false) List<String> leaseTokens,
+            @RequestBody EditSessionRequest editSessionRequest) {
+        editSessionRequest.setGeometryEncoding(GeometryEncoding.fromMediaType(contentType));
+        editSessionRequest.setLeaseTokens(leaseTokens);
+        return drawingWebPort.executeEditSession(editSessionRequest);
+    }
+}
@@ -0,0 +1,46 @@
+package com.amine.pfe.drawing_module.infrastructure.web;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.amine.pfe.drawing_module.infrastructure.diagnostics.EditRequestEvent;
+import com.amine.pfe.drawing_module.infrastructure.diagnostics.FlightRecorderService;
+import com.amine.pfe.drawing_module.infrastructure.logging.CorrelationId;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+// Après CorrelationIdFilter : l'identifiant de corrélation est dans le MDC
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@RequiredArgsConstructor
+public class FlightRecorderFilter extends OncePerRequestFilter {
+
+    private final FlightRecorderService flightRecorderService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/drawing/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        EditRequestEvent event = EditRequestEvent.begin(request.getMethod(), request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            event.finish(response.getStatus(), CorrelationId.current());
+            flightRecorderService.onRequestCompleted(request.getMethod() + " " + request.getRequestURI(),
+                    System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+-- Audit des éditions (drawing.audit.*), partitionné par mois sur edited_at ; les partitions mensuelles sont
+-- créées à l'avance par l'application, la partition par défaut ne reçoit que les lignes hors de ces mois
+CREATE TABLE IF NOT EXISTS drawing.edit_audit (
+    edited_at          timestamptz NOT NULL,
+    editor             text,
+    correlation_id     text,
+    layer_id           uuid        NOT NULL,
+    feature_id         text,
+    operation          text        NOT NULL,
+    before_properties  jsonb,
+    after_properties   jsonb
+) PARTITION BY RANGE (edited_at);
+
+CREATE TABLE IF NOT EXISTS drawing.edit_audit_default
+    PARTITION OF drawing.edit_audit DEFAULT;
+
+CREATE INDEX IF NOT EXISTS edit_audit_feature_idx
+    ON drawing.edit_audit (layer_id, feature_id, edited_at);
@@ -0,0 +1,20 @@
+-- Journal des changements servis aux clients de synchronisation (drawing.sync.*)
+CREATE TABLE IF NOT EXISTS drawing.feature_change (
+    seq         bigserial   PRIMARY KEY,
+    layer_id    uuid        NOT NULL,
+    feature_id  text        NOT NULL,
+    -- INSERT, UPDATE, DELETE, ou RESET (édition par filtre, features inconnues)
+    operation   varchar(6)  NOT NULL,
+    changed_at  timestamptz NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS feature_change_layer_seq_idx
+    ON drawing.feature_change (layer_id, seq);
+CREATE INDEX IF NOT EXISTS feature_change_layer_feature_idx
+    ON drawing.feature_change (layer_id, feature_id, seq);
+
+-- Un client dont le jeton est inférieur doit recharger la couche
+CREATE TABLE IF NOT EXISTS drawing.feature_change_horizon (
+    layer_id    uuid        PRIMARY KEY,
+    seq         bigint      NOT NULL
+);
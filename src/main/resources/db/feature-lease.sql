@@ -0,0 +1,12 @@
+-- Baux d'édition partagés entre les instances (drawing.lease.*)
+CREATE TABLE IF NOT EXISTS drawing.feature_lease (
+    layer_id    uuid        NOT NULL,
+    feature_id  text        NOT NULL,
+    holder      text        NOT NULL,
+    token       uuid        NOT NULL,
+    expires_at  timestamptz NOT NULL,
+    PRIMARY KEY (layer_id, feature_id)
+);
+
+CREATE INDEX IF NOT EXISTS feature_lease_expires_idx
+    ON drawing.feature_lease (expires_at);
@@ -0,0 +1,59 @@
+package com.amine.pfe.drawing_module.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+final class BenchmarkSupport {
+
+	private static final com.sun.management.ThreadMXBean THREADS =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private BenchmarkSupport() {
+	}
+
+	static long allocatedBytes() {
+		return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	// Octets alloués par exécution, après une phase de chauffe
+	static long allocationPerRun(Runnable task, int warmup, int runs) {
+		for (int i = 0; i < warmup; i++) {
+			task.run();
+		}
+		long before = allocatedBytes();
+		for (int i = 0; i < runs; i++) {
+			task.run();
+		}
+		return (allocatedBytes() - before) / runs;
+	}
+
+	// Temps moyen par exécution en microsecondes, après une phase de chauffe
+	static double microsPerRun(Runnable task, int warmup, int runs) {
+		for (int i = 0; i < warmup; i++) {
+			task.run();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < runs; i++) {
+			task.run();
+		}
+		return (System.nanoTime() - start) / 1_000.0 / runs;
+	}
+
+	static void report(String benchmark, String variant, String metric, double value) {
+		System.out.println(String.format(Locale.US, "[benchmark] %-28s %-34s %-16s %,.1f",
+				benchmark, variant, metric, value));
+	}
+
+	// Polygone régulier de n sommets, ring fermé, au format GeoJSON
+	static String polygonGeoJson(int vertices) {
+		StringBuilder json = new StringBuilder(vertices * 40).append("{\"type\":\"Polygon\",\"coordinates\":[[");
+		for (int i = 0; i <= vertices; i++) {
+			double angle = 2 * Math.PI * (i % vertices) / vertices;
+			if (i > 0)
+				json.append(',');
+			json.append('[').append(1_000_000 + 5_000 * Math.cos(angle))
+					.append(',').append(4_000_000 + 5_000 * Math.sin(angle)).append(']');
+		}
+		return json.append("]]}").toString();
+	}
+}
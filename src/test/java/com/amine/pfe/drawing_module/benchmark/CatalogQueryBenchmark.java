@@ -0,0 +1,165 @@
+package com.amine.pfe.drawing_module.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+import com.amine.pfe.drawing_module.infrastructure.repository.JdbcLayerRepositoryAdapter;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Latence des requêtes du catalogue de couches : lecture par identifiant avec et sans le cache Caffeine, lot de
+ * couches lu un par un ou en un aller-retour (= ANY), et, contre PostgreSQL, requêtes préparées côté serveur dès
+ * la première exécution (prepareThreshold=1) ou à la cinquième (valeur par défaut du pilote).
+ * Contre PostgreSQL avec -Dcatalog.jdbc-url=jdbc:postgresql://localhost:5432/pfe_db (-Dcatalog.jdbc-user,
+ * -Dcatalog.jdbc-password) et un catalogue non vide ; sinon base simulée par un aller-retour de
+ * -Dcatalog.db-latency-us (200 par défaut).
+ */
+@Tag("benchmark")
+class CatalogQueryBenchmark {
+
+	private static final int BATCH_SIZE = 20;
+	private static final int RUNS = Integer.getInteger("catalog.runs", 2_000);
+
+	@Test
+	void catalogLookupLatency() {
+		String url = System.getProperty("catalog.jdbc-url");
+		if (url == null) {
+			measure("simulated", new SimulatedJdbcTemplate(Long.getLong("catalog.db-latency-us", 200) * 1_000));
+			return;
+		}
+		for (int prepareThreshold : new int[] { 5, 1 }) {
+			try (HikariDataSource dataSource = dataSource(url, prepareThreshold)) {
+				measure("postgres, prepareThreshold=" + prepareThreshold, new JdbcTemplate(dataSource));
+			}
+		}
+	}
+
+	private static void measure(String backend, JdbcTemplate jdbcTemplate) {
+		LayerRepositoryPort uncached = new JdbcLayerRepositoryAdapter(jdbcTemplate);
+		List<UUID> ids = layerIds(uncached);
+		UUID layerId = ids.get(0);
+
+		BenchmarkSupport.report("catalog-query", backend + ", by id uncached", "us/lookup",
+				BenchmarkSupport.microsPerRun(() -> uncached.findLayerCatalogById(layerId), RUNS / 10, RUNS));
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.registerBean(JdbcTemplate.class, () -> jdbcTemplate);
+			context.register(CachedCatalog.class);
+			context.refresh();
+			LayerRepositoryPort cached = context.getBean(LayerRepositoryPort.class);
+			BenchmarkSupport.report("catalog-query", backend + ", by id cached", "us/lookup",
+					BenchmarkSupport.microsPerRun(() -> cached.findLayerCatalogById(layerId), RUNS, RUNS * 10));
+		}
+
+		List<UUID> batch = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			batch.add(ids.get(i % ids.size()));
+		}
+		BenchmarkSupport.report("catalog-query", backend + ", " + BATCH_SIZE + " ids one by one", "us/batch",
+				BenchmarkSupport.microsPerRun(() -> batch.forEach(uncached::findLayerCatalogById), RUNS / 100, RUNS / 10));
+		BenchmarkSupport.report("catalog-query", backend + ", " + BATCH_SIZE + " ids = ANY", "us/batch",
+				BenchmarkSupport.microsPerRun(() -> uncached.findLayerCatalogsByIds(batch), RUNS / 10, RUNS));
+	}
+
+	private static List<UUID> layerIds(LayerRepositoryPort repository) {
+		List<UUID> ids = repository.findAllLayerCatalogs().stream().map(LayerCatalog::layerId).toList();
+		if (ids.isEmpty()) {
+			throw new IllegalStateException("drawing.layer_catalog is empty");
+		}
+		return ids;
+	}
+
+	// Mêmes réglages que spring.datasource.hikari.* sur une seule connexion, pour garder le cache de requêtes
+	private static HikariDataSource dataSource(String url, int prepareThreshold) {
+		Properties properties = new Properties();
+		properties.setProperty("prepareThreshold", String.valueOf(prepareThreshold));
+		properties.setProperty("preparedStatementCacheQueries", "256");
+		HikariConfig config = new HikariConfig();
+		config.setJdbcUrl(url);
+		config.setUsername(System.getProperty("catalog.jdbc-user", "postgres"));
+		config.setPassword(System.getProperty("catalog.jdbc-password", "postgres"));
+		config.setMaximumPoolSize(1);
+		config.setConnectionInitSql("SET search_path TO drawing, public");
+		config.setDataSourceProperties(properties);
+		return new HikariDataSource(config);
+	}
+
+	// Même spécification que spring.cache.caffeine.spec
+	@Configuration(proxyBeanMethods = false)
+	@EnableCaching
+	static class CachedCatalog {
+
+		@Bean
+		CacheManager cacheManager() {
+			CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+			cacheManager.setCacheSpecification("maximumSize=5000,expireAfterWrite=10m,recordStats");
+			return cacheManager;
+		}
+
+		@Bean
+		LayerRepositoryPort layerRepository(JdbcTemplate jdbcTemplate) {
+			return new JdbcLayerRepositoryAdapter(jdbcTemplate);
+		}
+	}
+
+	// Un aller-retour par requête, une ligne par identifiant demandé
+	private static final class SimulatedJdbcTemplate extends JdbcTemplate {
+
+		private static final List<UUID> CATALOG = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+		private final long latencyNanos;
+
+		SimulatedJdbcTemplate(long latencyNanos) {
+			this.latencyNanos = latencyNanos;
+		}
+
+		// Pas de DataSource derrière la base simulée
+		@Override
+		public void afterPropertiesSet() {
+		}
+
+		@Override
+		public <T> List<T> query(String sql, PreparedStatementSetter pss, RowMapper<T> rowMapper) {
+			return rows(1);
+		}
+
+		@Override
+		public <T> List<T> query(PreparedStatementCreator psc, RowMapper<T> rowMapper) {
+			return rows(BATCH_SIZE);
+		}
+
+		@Override
+		public <T> List<T> query(String sql, RowMapper<T> rowMapper) {
+			return rows(CATALOG.size());
+		}
+
+		@SuppressWarnings("unchecked")
+		private <T> List<T> rows(int count) {
+			LockSupport.parkNanos(latencyNanos);
+			List<T> rows = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				UUID id = CATALOG.get(i % CATALOG.size());
+				rows.add((T) new LayerCatalog(id, "Couche " + i, "couche_" + i, "cadastre", "couche_" + i));
+			}
+			return rows;
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package com.amine.pfe.drawing_module.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.infrastructure.service.LayerManagerAdapter;
+import com.amine.pfe.drawing_module.infrastructure.service.crs.CrsTransformer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Tag("benchmark")
+class CrsTransformBenchmark {
+
+	@Test
+	void reprojectionCostPerFeature() {
+		LayerManagerAdapter adapter = new LayerManagerAdapter(null, null, new ObjectMapper(), null, null, null, null, null, null, null, null, null);
+		CrsTransformer transformer = new CrsTransformer();
+
+		for (int vertices : new int[] { 100, 10_000, 100_000 }) {
+			FeatureGeometry geometry = adapter.parseGeometry(BenchmarkSupport.polygonGeoJson(vertices));
+			double[] source = geometry.getCoordinates();
+			double[] coordinates = source.clone();
+			int runs = Math.max(5, 500_000 / vertices);
+
+			Runnable reproject = () -> {
+				System.arraycopy(source, 0, coordinates, 0, source.length);
+				transformer.transformInPlace(coordinates, "EPSG:3857", "EPSG:2154");
+			};
+
+			String variant = vertices + " vertices 3857->2154";
+			BenchmarkSupport.report("crs-transform", variant, "us/feature",
+					BenchmarkSupport.microsPerRun(reproject, runs, runs));
+			BenchmarkSupport.report("crs-transform", variant, "bytes/feature",
+					BenchmarkSupport.allocationPerRun(reproject, runs, runs));
+		}
+	}
+}
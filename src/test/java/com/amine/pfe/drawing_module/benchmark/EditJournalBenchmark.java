@@ -0,0 +1,105 @@
+package com.amine.pfe.drawing_module.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+
+import com.amine.pfe.drawing_module.config.EditJournalProperties;
+import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
+import com.amine.pfe.drawing_module.infrastructure.service.journal.EditJournal;
+import com.amine.pfe.drawing_module.infrastructure.service.journal.JournalEntry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Tag("benchmark")
+class EditJournalBenchmark {
+
+	private static final int EDITS_PER_THREAD = 2_000;
+
+	@Test
+	void journalOverheadPerEdit() throws Exception {
+		FeatureUpdateRequest request = FeatureUpdateRequest.builder()
+				.geometry(BenchmarkSupport.polygonGeoJson(100))
+				.properties(Map.of("nature", "parcelle", "surface", 1250.5))
+				.build();
+		JournalEntry entry = JournalEntry.insert(UUID.randomUUID(), request);
+
+		for (boolean fsync : new boolean[] { false, true }) {
+			for (int threads : new int[] { 1, 8 }) {
+				Path directory = Files.createTempDirectory("edit-journal-bench");
+				EditJournal journal = open(directory, fsync);
+				try {
+					run(journal, entry, threads);
+					long[] latencies = run(journal, entry, threads);
+					Arrays.sort(latencies);
+					String variant = (fsync ? "group fsync" : "no fsync") + ", " + threads + " threads";
+					BenchmarkSupport.report("edit-journal", variant, "p50 us/edit", percentile(latencies, 0.50));
+					BenchmarkSupport.report("edit-journal", variant, "p99 us/edit", percentile(latencies, 0.99));
+					BenchmarkSupport.report("edit-journal", variant, "p999 us/edit", percentile(latencies, 0.999));
+				} finally {
+					journal.close();
+					deleteQuietly(directory);
+				}
+			}
+		}
+	}
+
+	// Journalisation avant envoi puis marqueur COMMIT, comme sur le chemin d'édition
+	private static long[] run(EditJournal journal, JournalEntry entry, int threads) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			Future<?>[] futures = new Future<?>[threads];
+			long[] latencies = new long[threads * EDITS_PER_THREAD];
+			for (int t = 0; t < threads; t++) {
+				int offset = t * EDITS_PER_THREAD;
+				futures[t] = executor.submit(() -> {
+					for (int i = 0; i < EDITS_PER_THREAD; i++) {
+						long start = System.nanoTime();
+						long sequence = journal.append(entry);
+						journal.complete(sequence, true);
+						latencies[offset + i] = System.nanoTime() - start;
+					}
+				});
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			return latencies;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static double percentile(long[] sorted, double quantile) {
+		return sorted[(int) Math.min(sorted.length - 1, Math.round(quantile * sorted.length))] / 1_000.0;
+	}
+
+	private static EditJournal open(Path directory, boolean fsync) {
+		EditJournalProperties properties = new EditJournalProperties();
+		properties.setEnabled(true);
+		properties.setFsync(fsync);
+		properties.setDirectory(directory.toString());
+		EditJournal journal = new EditJournal(properties, new ObjectMapper(), new SimpleMeterRegistry());
+		journal.open();
+		return journal;
+	}
+
+	private static void deleteQuietly(Path directory) {
+		try {
+			FileSystemUtils.deleteRecursively(directory);
+		} catch (IOException e) {
+			// répertoire temporaire
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package com.amine.pfe.drawing_module.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+
+/**
+ * Suite de charge hors ligne : l'application complète, un GeoServer bouchon et un catalogue en mémoire.
+ * Scénario réglable par propriétés système, par exemple :
+ * mvn test -Pbenchmark -Dtest=EditLoadBenchmark -Dload.concurrency=32 -Dload.geometry-mix=100:50,100000:50
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"logging.level.com.amine.pfe.drawing_module=WARN",
+		"drawing.cache.warmup.snapshot-file=" })
+class EditLoadBenchmark {
+
+	private static final int LAYERS = Integer.getInteger("load.layers", 20);
+	private static final List<LayerCatalog> CATALOGS = IntStream.range(0, LAYERS)
+			.mapToObj(i -> new LayerCatalog(UUID.nameUUIDFromBytes(("layer-" + i).getBytes()), "couche_" + i,
+					"couche_" + i, "charge", "couche_" + i))
+			.toList();
+
+	private static StubGeoserver geoserver;
+
+	@LocalServerPort
+	private int port;
+
+	@DynamicPropertySource
+	static void stubGeoserver(DynamicPropertyRegistry registry) {
+		try {
+			geoserver = new StubGeoserver(new StubGeoserver.Options(
+					new StubGeoserver.Latency(doubleProperty("load.stub.median-ms", 5),
+							doubleProperty("load.stub.p99-ms", 40)),
+					doubleProperty("load.stub.error-rate", 0),
+					doubleProperty("load.stub.exception-rate", 0),
+					Integer.getInteger("load.stub.feature-vertices", 1_000),
+					Long.getLong("load.seed", 42)));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		registry.add("geoserver.url", geoserver::url);
+	}
+
+	@AfterAll
+	static void stopStubGeoserver() {
+		geoserver.close();
+	}
+
+	@TestConfiguration
+	static class InMemoryCatalog {
+
+		@Bean
+		@Primary
+		LayerRepositoryPort inMemoryLayerRepository() {
+			Map<UUID, LayerCatalog> catalogs = CATALOGS.stream()
+					.collect(Collectors.toMap(LayerCatalog::layerId, Function.identity()));
+			return new LayerRepositoryPort() {
+				@Override
+				public Optional<LayerCatalog> findLayerCatalogById(UUID layerId) {
+					return Optional.ofNullable(catalogs.get(layerId));
+				}
+
+				@Override
+				public List<LayerCatalog> findLayerCatalogsByIds(Collection<UUID> layerIds) {
+					return layerIds.stream().map(catalogs::get).filter(catalog -> catalog != null).toList();
+				}
+
+				@Override
+				public List<LayerCatalog> findAllLayerCatalogs() {
+					return CATALOGS;
+				}
+			};
+		}
+	}
+
+	@Test
+	void editLoad() throws Exception {
+		LoadGenerator.Options options = new LoadGenerator.Options(
+				Integer.getInteger("load.concurrency", 16),
+				Duration.ofSeconds(Long.getLong("load.warmup-seconds", 5)),
+				Duration.ofSeconds(Long.getLong("load.duration-seconds", 20)),
+				LoadGenerator.parseMix(System.getProperty("load.geometry-mix", "100:90,10000:9,100000:1"),
+						Integer::valueOf),
+				LoadGenerator.parseMix(System.getProperty("load.operation-mix", "insert:50,update:30,get:20"),
+						name -> LoadGenerator.Operation.valueOf(name.toUpperCase())),
+				Long.getLong("load.seed", 42));
+
+		LoadGenerator.Report report = new LoadGenerator(URI.create("http://127.0.0.1:" + port),
+				CATALOGS.stream().map(LayerCatalog::layerId).toList(), options).run();
+
+		String variant = options.concurrency() + " clients";
+		for (LoadGenerator.Operation operation : LoadGenerator.Operation.values()) {
+			String metric = operation.name().toLowerCase();
+			BenchmarkSupport.report("edit-load", variant, metric + " requests", report.requests(operation));
+			BenchmarkSupport.report("edit-load", variant, metric + " errors", report.errors().get(operation));
+			BenchmarkSupport.report("edit-load", variant, metric + " p50 ms", report.percentileMillis(operation, 0.50));
+			BenchmarkSupport.report("edit-load", variant, metric + " p99 ms", report.percentileMillis(operation, 0.99));
+			BenchmarkSupport.report("edit-load", variant, metric + " p999 ms",
+					report.percentileMillis(operation, 0.999));
+		}
+		BenchmarkSupport.report("edit-load", variant, "requests/s", report.throughput());
+		BenchmarkSupport.report("edit-load", variant, "WFS-T/s", geoserver.transactions() / report.seconds());
+	}
+
+	private static double doubleProperty(String name, double defaultValue) {
+		String value = System.getProperty(name);
+		return value != null ? Double.parseDouble(value) : defaultValue;
+	}
+}
@@ -0,0 +1,212 @@
+package com.amine.pfe.drawing_module.benchmark;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amine.pfe.drawing_module.config.FeatureLeaseProperties;
+import com.amine.pfe.drawing_module.domain.exception.FeatureLeaseConflictException;
+import com.amine.pfe.drawing_module.domain.model.FeatureLease;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeaseStorePort;
+import com.amine.pfe.drawing_module.infrastructure.repository.JdbcFeatureLeaseAdapter;
+import com.amine.pfe.drawing_module.infrastructure.service.lease.FeatureLeaseAdapter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Surcoût du bail par édition sous contention : vérification à chaque édition, prises et libérations concurrentes
+ * sur un petit nombre de features chaudes ou sur beaucoup de features.
+ * Contre PostgreSQL avec -Dlease.jdbc-url=jdbc:postgresql://localhost:5432/pfe_db (-Dlease.jdbc-user,
+ * -Dlease.jdbc-password) ; sinon base simulée par un aller-retour de -Dlease.db-latency-us (200 par défaut).
+ */
+@Tag("benchmark")
+class FeatureLeaseBenchmark {
+
+	private static final int OPERATIONS_PER_THREAD = Integer.getInteger("lease.operations", 2_000);
+	// Part des opérations qui prennent puis libèrent un bail, le reste vérifie une édition
+	private static final double LEASE_RATIO = 0.1;
+
+	@Test
+	void leaseOverheadPerEdit() throws Exception {
+		FeatureLeaseStorePort store = store();
+		String backend = System.getProperty("lease.jdbc-url") != null ? "postgres" : "simulated";
+
+		for (int features : new int[] { 8, 10_000 }) {
+			for (int threads : new int[] { 1, 8, 32 }) {
+				FeatureLeaseProperties properties = new FeatureLeaseProperties();
+				properties.setEnabled(true);
+				FeatureLeaseAdapter leases = new FeatureLeaseAdapter(store, properties, new SimpleMeterRegistry());
+				UUID layerId = UUID.randomUUID();
+
+				run(leases, layerId, features, threads);
+				Result result = run(leases, layerId, features, threads);
+				String variant = backend + ", " + features + " features, " + threads + " threads";
+				BenchmarkSupport.report("feature-lease", variant, "check p50 us", percentile(result.checks, 0.50));
+				BenchmarkSupport.report("feature-lease", variant, "check p99 us", percentile(result.checks, 0.99));
+				BenchmarkSupport.report("feature-lease", variant, "acquire p50 us", percentile(result.acquires, 0.50));
+				BenchmarkSupport.report("feature-lease", variant, "acquire p99 us", percentile(result.acquires, 0.99));
+				BenchmarkSupport.report("feature-lease", variant, "conflicts %",
+						100.0 * result.conflicts / Math.max(1, result.acquires.length));
+			}
+		}
+	}
+
+	private record Result(long[] checks, long[] acquires, long conflicts) {
+	}
+
+	private static Result run(FeatureLeaseAdapter leases, UUID layerId, int features, int threads) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		AtomicLong conflicts = new AtomicLong();
+		try {
+			Future<?>[] futures = new Future<?>[threads];
+			long[][] checks = new long[threads][];
+			long[][] acquires = new long[threads][];
+			for (int t = 0; t < threads; t++) {
+				int thread = t;
+				futures[t] = executor.submit(() -> {
+					SplittableRandom random = new SplittableRandom(thread);
+					long[] checkLatencies = new long[OPERATIONS_PER_THREAD];
+					long[] acquireLatencies = new long[OPERATIONS_PER_THREAD];
+					int checkCount = 0;
+					int acquireCount = 0;
+					for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+						String featureId = "f." + random.nextInt(features);
+						long start = System.nanoTime();
+						if (random.nextDouble() < LEASE_RATIO) {
+							try {
+								FeatureLease lease = leases.acquire(layerId, featureId, "editor-" + thread,
+										Duration.ofSeconds(30));
+								acquireLatencies[acquireCount++] = System.nanoTime() - start;
+								leases.release(layerId, featureId, lease.token());
+							} catch (FeatureLeaseConflictException e) {
+								acquireLatencies[acquireCount++] = System.nanoTime() - start;
+								conflicts.incrementAndGet();
+							}
+						} else {
+							try {
+								leases.checkEdit(layerId, featureId, null);
+							} catch (FeatureLeaseConflictException e) {
+								// feature sous bail d'un autre éditeur : refus attendu
+							}
+							checkLatencies[checkCount++] = System.nanoTime() - start;
+						}
+					}
+					checks[thread] = Arrays.copyOf(checkLatencies, checkCount);
+					acquires[thread] = Arrays.copyOf(acquireLatencies, acquireCount);
+				});
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			return new Result(sorted(checks), sorted(acquires), conflicts.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static long[] sorted(long[][] perThread) {
+		long[] all = Arrays.stream(perThread).flatMapToLong(Arrays::stream).toArray();
+		Arrays.sort(all);
+		return all;
+	}
+
+	private static double percentile(long[] sorted, double quantile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		return sorted[(int) Math.min(sorted.length - 1, Math.round(quantile * sorted.length))] / 1_000.0;
+	}
+
+	private static FeatureLeaseStorePort store() {
+		String url = System.getProperty("lease.jdbc-url");
+		if (url == null) {
+			return new SimulatedStore(Long.getLong("lease.db-latency-us", 200) * 1_000);
+		}
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(url,
+				System.getProperty("lease.jdbc-user", "postgres"), System.getProperty("lease.jdbc-password", "postgres"));
+		new ResourceDatabasePopulator(new ClassPathResource("db/feature-lease.sql")).execute(dataSource);
+		return new JdbcFeatureLeaseAdapter(new JdbcTemplate(dataSource),
+				new TransactionTemplate(new DataSourceTransactionManager(dataSource)), new FeatureLeaseProperties());
+	}
+
+	// Un aller-retour par appel ; l'attribution est sérialisée par bande, comme sous le verrou consultatif
+	private static final class SimulatedStore implements FeatureLeaseStorePort {
+
+		private final long latencyNanos;
+		private final Map<String, FeatureLease> leases = new ConcurrentHashMap<>();
+		private final Object[] stripes = new Object[1024];
+
+		SimulatedStore(long latencyNanos) {
+			this.latencyNanos = latencyNanos;
+			Arrays.setAll(stripes, i -> new Object());
+		}
+
+		@Override
+		public FeatureLease acquire(UUID layerId, String featureId, String holder, UUID token, Duration ttl) {
+			synchronized (stripes[FeatureLease.stripe(layerId, featureId, stripes.length)]) {
+				roundTrip();
+				return leases.compute(featureId, (key, current) -> current != null
+						&& current.expiresAt().isAfter(Instant.now()) ? current
+								: new FeatureLease(layerId, featureId, holder, token, Instant.now().plus(ttl)));
+			}
+		}
+
+		@Override
+		public Optional<FeatureLease> renew(UUID layerId, String featureId, UUID token, Duration ttl) {
+			roundTrip();
+			return Optional.ofNullable(leases.computeIfPresent(featureId, (key, current) -> current.token()
+					.equals(token) ? new FeatureLease(layerId, featureId, current.holder(), token,
+							Instant.now().plus(ttl)) : current))
+					.filter(lease -> lease.token().equals(token));
+		}
+
+		@Override
+		public boolean release(UUID layerId, String featureId, UUID token) {
+			roundTrip();
+			FeatureLease current = leases.get(featureId);
+			return current != null && current.token().equals(token) && leases.remove(featureId, current);
+		}
+
+		@Override
+		public Optional<FeatureLease> current(UUID layerId, String featureId) {
+			roundTrip();
+			return Optional.ofNullable(leases.get(featureId))
+					.filter(lease -> lease.expiresAt().isAfter(Instant.now()));
+		}
+
+		@Override
+		public boolean hasActiveLease(UUID layerId) {
+			roundTrip();
+			return leases.values().stream()
+					.anyMatch(lease -> lease.layerId().equals(layerId) && lease.expiresAt().isAfter(Instant.now()));
+		}
+
+		@Override
+		public int purgeExpired() {
+			return 0;
+		}
+
+		private void roundTrip() {
+			LockSupport.parkNanos(latencyNanos);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.amine.pfe.drawing_module.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
+import com.amine.pfe.drawing_module.domain.geometry.GeometryCodecs;
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
+import com.amine.pfe.drawing_module.infrastructure.service.LayerManagerAdapter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Tag("benchmark")
+class GeometryEncodingBenchmark {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final LayerManagerAdapter adapter = new LayerManagerAdapter(null, null, objectMapper, null, null, null, null, null, null, null, null, null);
+
+	@Test
+	void bytesAndDecodeCostPerFeature() throws IOException {
+		for (int vertices : new int[] { 100, 10_000, 100_000 }) {
+			String geoJson = BenchmarkSupport.polygonGeoJson(vertices);
+			FeatureGeometry geometry = adapter.parseGeometry(geoJson);
+			int runs = Math.max(5, 200_000 / vertices);
+
+			for (GeometryEncoding encoding : GeometryEncoding.values()) {
+				String encoded = encoding == GeometryEncoding.GEOJSON
+						? geoJson
+						: GeometryCodecs.encodeBase64(encoding, geometry);
+				FeatureUpdateRequest request = FeatureUpdateRequest.builder()
+						.geometry(encoded)
+						.properties(Map.of("nom", "Parcelle", "surface", 125.5))
+						.geometryEncoding(encoding)
+						.build();
+				byte[] body = objectMapper.writeValueAsBytes(request);
+
+				// Désérialisation du corps + décodage de la géométrie, comme côté contrôleur/adapter
+				double decodeMicros = BenchmarkSupport.microsPerRun(() -> {
+					try {
+						FeatureUpdateRequest parsed = objectMapper.readValue(body, FeatureUpdateRequest.class);
+						parsed.setGeometryEncoding(encoding);
+						adapter.parseGeometry(parsed);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}, runs, runs);
+				double gzipMicros = BenchmarkSupport.microsPerRun(() -> gzip(body), runs, runs);
+
+				String variant = vertices + " vertices " + encoding;
+				BenchmarkSupport.report("geometry-encoding", variant, "body bytes", body.length);
+				BenchmarkSupport.report("geometry-encoding", variant, "gzip bytes", gzip(body).length);
+				BenchmarkSupport.report("geometry-encoding", variant, "decode us", decodeMicros);
+				BenchmarkSupport.report("geometry-encoding", variant, "gzip us", gzipMicros);
+			}
+		}
+	}
+
+	private static byte[] gzip(byte[] body) {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+				gzip.write(body);
+			}
+			return out.toByteArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
@@ -0,0 +1,232 @@
+package com.amine.pfe.drawing_module.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Générateur de charge sur l'API REST d'édition : N clients en boucle fermée, mélange d'opérations et de tailles
+ * de géométries pondéré, graine fixe par client. Les latences de la phase de chauffe sont ignorées.
+ */
+final class LoadGenerator {
+
+	enum Operation {
+		INSERT,
+		UPDATE,
+		GET
+	}
+
+	record Options(int concurrency, Duration warmup, Duration duration, Map<Integer, Integer> geometryMix,
+			Map<Operation, Integer> operationMix, long seed) {
+	}
+
+	record Report(Map<Operation, long[]> latencies, Map<Operation, Long> errors, double seconds) {
+
+		long requests(Operation operation) {
+			return latencies.get(operation).length;
+		}
+
+		double throughput() {
+			return latencies.values().stream().mapToLong(values -> values.length).sum() / seconds;
+		}
+
+		// Latence en millisecondes au quantile demandé (tableaux déjà triés)
+		double percentileMillis(Operation operation, double quantile) {
+			long[] sorted = latencies.get(operation);
+			if (sorted.length == 0) {
+				return 0;
+			}
+			return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))] / 1_000_000.0;
+		}
+	}
+
+	private static final int MAX_REMEMBERED_FEATURES = 1_000;
+
+	private final URI baseUri;
+	private final List<UUID> layerIds;
+	private final Options options;
+	private final HttpClient client;
+	private final Map<Integer, byte[]> bodies = new LinkedHashMap<>();
+
+	LoadGenerator(URI baseUri, List<UUID> layerIds, Options options) {
+		this.baseUri = baseUri;
+		this.layerIds = layerIds;
+		this.options = options;
+		this.client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+		// Corps préparés une fois : le coût de génération ne pèse pas sur la mesure
+		for (int vertices : options.geometryMix().keySet()) {
+			String geometry = BenchmarkSupport.polygonGeoJson(vertices).replace("\"", "\\\"");
+			bodies.put(vertices, ("{\"geometry\":\"" + geometry + "\",\"properties\":{\"nom\":\"charge\","
+					+ "\"surface\":\"42.5\"},\"crs\":\"EPSG:3857\"}").getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	Report run() throws Exception {
+		long start = System.nanoTime();
+		long measureFrom = start + options.warmup().toNanos();
+		long deadline = measureFrom + options.duration().toNanos();
+
+		ExecutorService executor = Executors.newFixedThreadPool(options.concurrency());
+		List<Future<Client>> clients = new ArrayList<>();
+		try {
+			for (int i = 0; i < options.concurrency(); i++) {
+				Client client = new Client(new SplittableRandom(options.seed() + i));
+				clients.add(executor.submit(() -> client.run(measureFrom, deadline)));
+			}
+
+			Map<Operation, long[]> latencies = new EnumMap<>(Operation.class);
+			Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+			for (Operation operation : Operation.values()) {
+				latencies.put(operation, new long[0]);
+				errors.put(operation, 0L);
+			}
+			for (Future<Client> future : clients) {
+				Client client = future.get();
+				for (Operation operation : Operation.values()) {
+					latencies.merge(operation, client.latencies(operation), LoadGenerator::concat);
+					errors.merge(operation, client.errors[operation.ordinal()], Long::sum);
+				}
+			}
+			latencies.values().forEach(Arrays::sort);
+			return new Report(latencies, errors, options.duration().toNanos() / 1e9);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static long[] concat(long[] first, long[] second) {
+		long[] merged = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, merged, first.length, second.length);
+		return merged;
+	}
+
+	// Tirage pondéré : la clé i a une probabilité poids(i) / somme des poids
+	private static <K> K pick(Map<K, Integer> weights, SplittableRandom random) {
+		int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+		int ticket = random.nextInt(total);
+		for (Map.Entry<K, Integer> entry : weights.entrySet()) {
+			ticket -= entry.getValue();
+			if (ticket < 0) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException("Empty mix");
+	}
+
+	private final class Client {
+
+		private final SplittableRandom random;
+		private final long[][] latencies = new long[Operation.values().length][1024];
+		private final int[] counts = new int[Operation.values().length];
+		private final long[] errors = new long[Operation.values().length];
+		private final List<String> featureIds = new ArrayList<>();
+
+		Client(SplittableRandom random) {
+			this.random = random;
+		}
+
+		Client run(long measureFrom, long deadline) {
+			for (long now = System.nanoTime(); now < deadline; now = System.nanoTime()) {
+				Operation operation = featureIds.isEmpty() ? Operation.INSERT : pick(options.operationMix(), random);
+				UUID layerId = layerIds.get(random.nextInt(layerIds.size()));
+				HttpRequest request = request(operation, layerId);
+
+				long start = System.nanoTime();
+				boolean success;
+				try {
+					HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+					success = response.statusCode() / 100 == 2 && !response.body().contains("\"success\":false");
+					if (success && operation == Operation.INSERT) {
+						rememberFeatureId(response.body());
+					}
+				} catch (Exception e) {
+					success = false;
+				}
+				long elapsed = System.nanoTime() - start;
+
+				if (start >= measureFrom) {
+					record(operation, elapsed);
+					if (!success) {
+						errors[operation.ordinal()]++;
+					}
+				}
+			}
+			return this;
+		}
+
+		private HttpRequest request(Operation operation, UUID layerId) {
+			String features = baseUri + "/drawing/layers/" + layerId + "/features";
+			return switch (operation) {
+				case INSERT -> HttpRequest.newBuilder(URI.create(features))
+						.header("Content-Type", "application/json; charset=UTF-8")
+						.POST(HttpRequest.BodyPublishers.ofByteArray(bodies.get(pick(options.geometryMix(), random))))
+						.build();
+				case UPDATE -> HttpRequest.newBuilder(URI.create(features + "/" + anyFeatureId()))
+						.header("Content-Type", "application/json; charset=UTF-8")
+						.PUT(HttpRequest.BodyPublishers.ofByteArray(bodies.get(pick(options.geometryMix(), random))))
+						.build();
+				case GET -> HttpRequest.newBuilder(URI.create(features + "/" + anyFeatureId()))
+						.header("Accept", "application/json")
+						.GET()
+						.build();
+			};
+		}
+
+		private String anyFeatureId() {
+			return featureIds.get(random.nextInt(featureIds.size()));
+		}
+
+		private void rememberFeatureId(String body) {
+			int start = body.indexOf("\"featureId\":\"");
+			if (start >= 0) {
+				start += "\"featureId\":\"".length();
+				String featureId = body.substring(start, body.indexOf('"', start));
+				if (featureIds.size() < MAX_REMEMBERED_FEATURES) {
+					featureIds.add(featureId);
+				} else {
+					featureIds.set(random.nextInt(featureIds.size()), featureId);
+				}
+			}
+		}
+
+		private void record(Operation operation, long nanos) {
+			int index = operation.ordinal();
+			if (counts[index] == latencies[index].length) {
+				latencies[index] = Arrays.copyOf(latencies[index], counts[index] * 2);
+			}
+			latencies[index][counts[index]++] = nanos;
+		}
+
+		long[] latencies(Operation operation) {
+			return Arrays.copyOf(latencies[operation.ordinal()], counts[operation.ordinal()]);
+		}
+	}
+
+	// "100:80,10000:20" : clé et poids, dans l'ordre de la chaîne
+	static <K> Map<K, Integer> parseMix(String mix, Function<String, K> key) {
+		Map<K, Integer> weights = new LinkedHashMap<>();
+		for (String entry : mix.split(",")) {
+			String[] parts = entry.trim().split(":");
+			weights.put(key.apply(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+		}
+		return weights;
+	}
+}
@@ -0,0 +1,62 @@
+package com.amine.pfe.drawing_module.benchmark;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.helpers.MessageFormatter;
+
+import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.infrastructure.service.LayerManagerAdapter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Tag("benchmark")
+class LogAllocationBenchmark {
+
+	private static final UUID LAYER_ID = UUID.randomUUID();
+
+	@Test
+	void perRequestLogAllocation() {
+		LayerManagerAdapter adapter = new LayerManagerAdapter(null, null, new ObjectMapper(), null, null, null, null, null, null, null, null, null);
+
+		for (int vertices : new int[] { 100, 10_000, 100_000 }) {
+			FeatureUpdateRequest request = FeatureUpdateRequest.builder()
+					.geometry(BenchmarkSupport.polygonGeoJson(vertices))
+					.properties(Map.of("nom", "Parcelle", "surface", 125.5))
+					.build();
+			FeatureGeometry geometry = adapter.parseGeometry(request.getGeometry());
+
+			// Avant : requête complète et tableau de coordonnées rendus en INFO
+			String legacyRequest = "FeatureUpdateRequest(geometry=" + request.getGeometry()
+					+ ", properties=" + request.getProperties() + ")";
+			long before = BenchmarkSupport.allocationPerRun(() -> {
+				MessageFormatter.arrayFormat("Creating feature with request {} in layer {}",
+						new Object[] { "FeatureUpdateRequest(geometry=" + request.getGeometry()
+								+ ", properties=" + request.getProperties() + ")", LAYER_ID }).getMessage();
+				MessageFormatter.format("Parsed geometry: {}",
+						"FeatureGeometry(type=" + geometry.getType() + ", coordinates="
+								+ Arrays.toString(geometry.getCoordinates()) + ")").getMessage();
+			}, 5, 20);
+
+			// Après, niveau INFO : seul le message court est formaté
+			long afterInfo = BenchmarkSupport.allocationPerRun(() -> MessageFormatter
+					.format("Creating feature in layer {}", LAYER_ID).getMessage(), 5, 20);
+
+			// Après, niveau DEBUG : descripteurs résumés de la requête et de la géométrie
+			long afterDebug = BenchmarkSupport.allocationPerRun(() -> {
+				MessageFormatter.format("Creating feature in layer {}", LAYER_ID).getMessage();
+				MessageFormatter.format("Create request: {}", request).getMessage();
+				MessageFormatter.format("Parsed geometry: {}", geometry).getMessage();
+			}, 5, 20);
+
+			String variant = vertices + " vertices";
+			BenchmarkSupport.report("log-allocation", variant + " (legacy, " + legacyRequest.length() / 1024 + " KiB)",
+					"bytes/request", before);
+			BenchmarkSupport.report("log-allocation", variant + " (summary, INFO)", "bytes/request", afterInfo);
+			BenchmarkSupport.report("log-allocation", variant + " (summary, DEBUG)", "bytes/request", afterDebug);
+		}
+	}
+}
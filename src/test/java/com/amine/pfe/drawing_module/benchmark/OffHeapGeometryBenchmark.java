@@ -0,0 +1,127 @@
+package com.amine.pfe.drawing_module.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.amine.pfe.drawing_module.config.OffHeapGeometryProperties;
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.infrastructure.service.LayerManagerAdapter;
+import com.amine.pfe.drawing_module.infrastructure.service.OffHeapGeometryReader;
+import com.amine.pfe.drawing_module.infrastructure.service.wfs.GmlGeometryWriter;
+import com.amine.pfe.drawing_module.infrastructure.service.wfs.XmlUtf8Writer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Tag("benchmark")
+class OffHeapGeometryBenchmark {
+
+	private static final int LARGE_VERTICES = 1_000_000;
+	private static final int LARGE_EDITS = 30;
+
+	// Éditions d'un polygone d'un million de sommets (parsing, encodage GML) pendant qu'une sonde mesure
+	// la latence de petites éditions : les pauses GC provoquées par les grandes géométries la font décrocher
+	@Test
+	void gcPausesUnderLargeGeometryLoad() throws Exception {
+		String large = BenchmarkSupport.polygonGeoJson(LARGE_VERTICES);
+		String small = BenchmarkSupport.polygonGeoJson(100);
+
+		OffHeapGeometryProperties properties = new OffHeapGeometryProperties();
+		properties.setEnabled(true);
+		LayerManagerAdapter heap = adapter(null);
+		LayerManagerAdapter offHeap = adapter(new OffHeapGeometryReader(properties, new SimpleMeterRegistry()));
+
+		for (int round = 0; round < 2; round++) {
+			for (LayerManagerAdapter adapter : List.of(heap, offHeap)) {
+				String variant = (adapter == heap ? "heap" : "off-heap") + " 1M vertices";
+				long[] gcBefore = gcTotals();
+				long allocatedBefore = BenchmarkSupport.allocatedBytes();
+				long[] probe = runWithProbe(adapter, large, small);
+				long allocated = BenchmarkSupport.allocatedBytes() - allocatedBefore;
+				long[] gcAfter = gcTotals();
+
+				// Premier tour : chauffe
+				if (round == 0)
+					continue;
+				Arrays.sort(probe);
+				BenchmarkSupport.report("off-heap-geometry", variant, "MB alloc/edit",
+						allocated / (double) LARGE_EDITS / (1 << 20));
+				BenchmarkSupport.report("off-heap-geometry", variant, "GC count", gcAfter[0] - gcBefore[0]);
+				BenchmarkSupport.report("off-heap-geometry", variant, "GC ms", gcAfter[1] - gcBefore[1]);
+				BenchmarkSupport.report("off-heap-geometry", variant, "probe p50 us", percentile(probe, 0.50));
+				BenchmarkSupport.report("off-heap-geometry", variant, "probe p99 us", percentile(probe, 0.99));
+				BenchmarkSupport.report("off-heap-geometry", variant, "probe max us", probe[probe.length - 1] / 1_000.0);
+			}
+		}
+	}
+
+	private static LayerManagerAdapter adapter(OffHeapGeometryReader offHeapGeometryReader) {
+		return new LayerManagerAdapter(null, null, new ObjectMapper(), null, null, null, null, offHeapGeometryReader, null, null, null, null);
+	}
+
+	// Le thread courant enchaîne les grandes éditions ; la sonde tourne en parallèle
+	private static long[] runWithProbe(LayerManagerAdapter adapter, String large, String small) throws Exception {
+		AtomicBoolean running = new AtomicBoolean(true);
+		long[] latencies = new long[1 << 20];
+		int[] count = new int[1];
+		Thread probe = new Thread(() -> {
+			while (running.get() && count[0] < latencies.length) {
+				long start = System.nanoTime();
+				encode(adapter, small);
+				latencies[count[0]++] = System.nanoTime() - start;
+				try {
+					Thread.sleep(1);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		}, "probe");
+		probe.start();
+		try {
+			for (int i = 0; i < LARGE_EDITS; i++) {
+				encode(adapter, large);
+			}
+		} finally {
+			running.set(false);
+			probe.join();
+		}
+		return Arrays.copyOf(latencies, count[0]);
+	}
+
+	// Même chaîne que l'édition : parsing, encodage GML dans le corps de la requête, libération
+	private static void encode(LayerManagerAdapter adapter, String geoJson) {
+		FeatureGeometry geometry = adapter.parseGeometry(geoJson);
+		try {
+			XmlUtf8Writer out = new XmlUtf8Writer(OutputStream.nullOutputStream());
+			new GmlGeometryWriter(geometry, "EPSG:3857").writeTo(out);
+			out.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			LayerManagerAdapter.release(geometry);
+		}
+	}
+
+	private static long[] gcTotals() {
+		long count = 0;
+		long millis = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, collector.getCollectionCount());
+			millis += Math.max(0, collector.getCollectionTime());
+		}
+		return new long[] { count, millis };
+	}
+
+	private static double percentile(long[] sorted, double quantile) {
+		return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))] / 1_000.0;
+	}
+}
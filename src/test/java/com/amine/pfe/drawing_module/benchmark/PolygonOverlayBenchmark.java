@@ -0,0 +1,70 @@
+package com.amine.pfe.drawing_module.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.DoubleBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.amine.pfe.drawing_module.domain.geometry.PackedCoordinatesBuilder;
+import com.amine.pfe.drawing_module.domain.geometry.PolygonOverlay;
+import com.amine.pfe.drawing_module.domain.geometry.PolygonOverlay.ClipMode;
+
+@Tag("benchmark")
+class PolygonOverlayBenchmark {
+
+	private static final double TOLERANCE = 1e-6;
+
+	@Test
+	void splitMergeAndClipCostOnLargePolygons() {
+		for (int vertices : new int[] { 1_000, 10_000, 100_000 }) {
+			double[] polygon = regularPolygon(vertices);
+			double area = PolygonOverlay.area(DoubleBuffer.wrap(polygon));
+			// Ligne en zigzag à travers le centre : deux pièces, sommets de coupe hors des sommets du polygone
+			double[] line = { 999_000.5, 3_990_000, 1_000_300.5, 4_000_000, 999_700.5, 4_010_000 };
+			// Rectangle couvrant un quart du polygone
+			double[] extent = { 1_000_000.25, 4_000_000.25, 1_010_000, 4_000_000.25, 1_010_000, 4_010_000,
+					1_000_000.25, 4_010_000, 1_000_000.25, 4_000_000.25, Double.NaN, Double.NaN };
+			int runs = Math.max(5, 2_000_000 / vertices);
+
+			List<double[]> halves = PolygonOverlay.split(DoubleBuffer.wrap(polygon), DoubleBuffer.wrap(line),
+					TOLERANCE);
+			assertEquals(2, halves.size());
+			List<DoubleBuffer> neighbours = List.of(DoubleBuffer.wrap(halves.get(0)),
+					DoubleBuffer.wrap(halves.get(1)));
+			List<double[]> merged = PolygonOverlay.merge(neighbours, TOLERANCE);
+			assertEquals(1, merged.size());
+			assertEquals(area, PolygonOverlay.area(DoubleBuffer.wrap(merged.get(0))), area * 1e-9);
+
+			Runnable split = () -> PolygonOverlay.split(DoubleBuffer.wrap(polygon), DoubleBuffer.wrap(line),
+					TOLERANCE);
+			Runnable merge = () -> PolygonOverlay.merge(neighbours, TOLERANCE);
+			Runnable clip = () -> PolygonOverlay.clip(DoubleBuffer.wrap(polygon), DoubleBuffer.wrap(extent),
+					ClipMode.INSIDE, TOLERANCE);
+
+			report("split", vertices, split, runs);
+			report("merge", vertices, merge, runs);
+			report("clip", vertices, clip, runs);
+		}
+	}
+
+	private static void report(String operation, int vertices, Runnable task, int runs) {
+		String variant = operation + " " + vertices + " vertices";
+		BenchmarkSupport.report("polygon-overlay", variant, "us/op",
+				BenchmarkSupport.microsPerRun(task, runs, runs));
+		BenchmarkSupport.report("polygon-overlay", variant, "bytes/op",
+				BenchmarkSupport.allocationPerRun(task, runs, runs));
+	}
+
+	// Même polygone régulier que BenchmarkSupport.polygonGeoJson, en coordonnées "à plat"
+	private static double[] regularPolygon(int vertices) {
+		PackedCoordinatesBuilder coordinates = new PackedCoordinatesBuilder(2 * vertices + 4);
+		for (int i = 0; i <= vertices; i++) {
+			double angle = 2 * Math.PI * (i % vertices) / vertices;
+			coordinates.add(1_000_000 + 5_000 * Math.cos(angle), 4_000_000 + 5_000 * Math.sin(angle));
+		}
+		return coordinates.endRing().toArray();
+	}
+}
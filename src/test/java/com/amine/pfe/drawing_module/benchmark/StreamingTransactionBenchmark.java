@@ -0,0 +1,98 @@
+package com.amine.pfe.drawing_module.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.amine.pfe.drawing_module.domain.geometry.GeoJsonGeometries;
+import com.amine.pfe.drawing_module.infrastructure.service.wfs.GmlGeometryWriter;
+import com.amine.pfe.drawing_module.infrastructure.service.wfs.WfsTransactionTemplate;
+import com.amine.pfe.drawing_module.infrastructure.service.wfs.XmlUtf8Writer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+@Tag("benchmark")
+class StreamingTransactionBenchmark {
+
+	// Insertion WFS-T d'un polygone de 10k à 1M sommets vers un GeoServer bouchon : corps construit en chaîne
+	// puis copié par RestTemplate, contre corps encodé au fil de l'envoi en chunked
+	@Test
+	void transactionBodyLatencyAndAllocation() throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			try (InputStream body = exchange.getRequestBody()) {
+				body.transferTo(OutputStream.nullOutputStream());
+			}
+			// Réponse vide : en-têtes et corps en deux écritures font attendre l'ACK retardé (~40 ms)
+			exchange.sendResponseHeaders(200, -1);
+			exchange.close();
+		});
+		server.start();
+
+		try {
+			String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/geoserver/wfs";
+			SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+			requestFactory.setChunkSize(8192);
+			RestTemplate restTemplate = new RestTemplate(requestFactory);
+			WfsTransactionTemplate template = WfsTransactionTemplate.compile("cadastre", "parcelles");
+			ObjectMapper objectMapper = new ObjectMapper();
+
+			for (int vertices : new int[] { 10_000, 100_000, 1_000_000 }) {
+				GmlGeometryWriter geometry = new GmlGeometryWriter(
+						GeoJsonGeometries.read(objectMapper.readTree(BenchmarkSupport.polygonGeoJson(vertices))),
+						"EPSG:3857");
+				int runs = vertices >= 1_000_000 ? 5 : 20;
+				String size = vertices / 1_000 + "k vertices";
+
+				Runnable stringBody = () -> restTemplate.postForObject(url, transactionString(template, geometry),
+						String.class);
+				Runnable streamedBody = () -> restTemplate.execute(url, HttpMethod.POST,
+						request -> ((StreamingHttpOutputMessage) request)
+								.setBody(out -> writeTransaction(out, template, geometry)),
+						response -> null);
+
+				report("string body " + size, stringBody, runs);
+				report("streamed chunked " + size, streamedBody, runs);
+			}
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	private static void report(String variant, Runnable task, int runs) {
+		BenchmarkSupport.report("streaming-transaction", variant, "ms/request",
+				BenchmarkSupport.microsPerRun(task, 3, runs) / 1_000.0);
+		BenchmarkSupport.report("streaming-transaction", variant, "MB alloc/request",
+				BenchmarkSupport.allocationPerRun(task, 1, runs) / (double) (1 << 20));
+	}
+
+	// Ancien chemin : transaction complète en mémoire avant l'envoi
+	private static String transactionString(WfsTransactionTemplate template, GmlGeometryWriter geometry) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		writeTransaction(bytes, template, geometry);
+		return bytes.toString(StandardCharsets.UTF_8);
+	}
+
+	private static void writeTransaction(OutputStream out, WfsTransactionTemplate template,
+			GmlGeometryWriter geometry) {
+		try {
+			XmlUtf8Writer writer = new XmlUtf8Writer(out);
+			template.writeInsert(writer, geometry, Map.of("nom", "parcelle"));
+			writer.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
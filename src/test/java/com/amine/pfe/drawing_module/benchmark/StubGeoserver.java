@@ -0,0 +1,245 @@
+package com.amine.pfe.drawing_module.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * GeoServer bouchon pour les tests de charge : DescribeFeatureType, configuration REST du featuretype,
+ * GetFeature GeoJSON et Transaction WFS-T, avec latence, taux d'erreur et taille des features réglables.
+ */
+final class StubGeoserver implements AutoCloseable {
+
+	// Latence log-normale définie par sa médiane et son p99
+	record Latency(double medianMillis, double p99Millis) {
+
+		private static final double Z_99 = 2.3263;
+
+		long sampleNanos(Random random) {
+			if (medianMillis <= 0) {
+				return 0;
+			}
+			double sigma = Math.log(Math.max(p99Millis, medianMillis) / medianMillis) / Z_99;
+			return (long) (medianMillis * Math.exp(sigma * random.nextGaussian()) * 1_000_000);
+		}
+	}
+
+	// errorRate : réponses HTTP 503 ; exceptionRate : ExceptionReport WFS (rejet de la transaction)
+	record Options(Latency latency, double errorRate, double exceptionRate, int featureVertices, long seed) {
+	}
+
+	private static final byte[] PREFIX = "<wfs:".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] EXCEPTION_REPORT = """
+			<ows:ExceptionReport xmlns:ows="http://www.opengis.net/ows" version="1.0.0">\
+			<ows:Exception exceptionCode="InvalidParameterValue" locator="op-0">\
+			<ows:ExceptionText>Stub rejected the transaction</ows:ExceptionText></ows:Exception>\
+			</ows:ExceptionReport>""".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] DESCRIBE_FEATURE_TYPE = """
+			<xsd:schema xmlns:xsd="http://www.w3.org/2001/XMLSchema" xmlns:gml="http://www.opengis.net/gml">\
+			<xsd:complexType name="stubType"><xsd:complexContent><xsd:extension base="gml:AbstractFeatureType">\
+			<xsd:sequence><xsd:element name="fid" type="xsd:int"/>\
+			<xsd:element name="geom" type="gml:MultiPolygonPropertyType"/>\
+			<xsd:element name="nom" type="xsd:string"/><xsd:element name="surface" type="xsd:double"/>\
+			<xsd:element name="date_creation" type="xsd:dateTime"/><xsd:element name="date_modif" type="xsd:dateTime"/>\
+			</xsd:sequence></xsd:extension></xsd:complexContent></xsd:complexType></xsd:schema>"""
+			.getBytes(StandardCharsets.UTF_8);
+	private static final byte[] FEATURE_TYPE = "{\"featureType\":{\"name\":\"stub\",\"srs\":\"EPSG:3857\"}}"
+			.getBytes(StandardCharsets.UTF_8);
+
+	private final Options options;
+	private final Random random;
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final byte[] featureHead;
+	private final byte[] featureTail;
+
+	private final AtomicInteger nextFeatureId = new AtomicInteger();
+	private final AtomicLong transactions = new AtomicLong();
+	private final AtomicLong getFeatures = new AtomicLong();
+	private final AtomicLong injectedFailures = new AtomicLong();
+
+	StubGeoserver(Options options) throws IOException {
+		this.options = options;
+		this.random = new Random(options.seed());
+		this.featureHead = "{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"Feature\",\"id\":\""
+				.getBytes(StandardCharsets.UTF_8);
+		String geometry = BenchmarkSupport.polygonGeoJson(Math.max(3, options.featureVertices()));
+		this.featureTail = ("\",\"geometry\":" + geometry
+				+ ",\"properties\":{\"nom\":\"stub\",\"surface\":12.5}}]}").getBytes(StandardCharsets.UTF_8);
+
+		AtomicInteger threads = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(64, runnable -> {
+			Thread thread = new Thread(runnable, "stub-geoserver-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+		this.server.createContext("/geoserver", this::handle);
+		this.server.setExecutor(executor);
+		this.server.start();
+	}
+
+	String url() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + "/geoserver";
+	}
+
+	long transactions() {
+		return transactions.get();
+	}
+
+	long getFeatures() {
+		return getFeatures.get();
+	}
+
+	long injectedFailures() {
+		return injectedFailures.get();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			String path = exchange.getRequestURI().getPath();
+			String query = Objects.toString(exchange.getRequestURI().getRawQuery(), "");
+
+			// Sonde de santé du routeur : ni latence ni erreur injectée
+			if (path.endsWith("/rest/about/version.json")) {
+				respond(exchange, 200, "application/json", "{\"about\":{}}".getBytes(StandardCharsets.UTF_8));
+				return;
+			}
+
+			int[] operations = "POST".equals(exchange.getRequestMethod())
+					? countOperations(exchange.getRequestBody())
+					: null;
+			pause(options.latency().sampleNanos(random));
+
+			if (path.contains("/rest/workspaces/")) {
+				respond(exchange, 200, "application/json", FEATURE_TYPE);
+			} else if (query.contains("request=DescribeFeatureType")) {
+				respond(exchange, 200, "text/xml", DESCRIBE_FEATURE_TYPE);
+			} else if (query.contains("request=GetFeature")) {
+				getFeatures.incrementAndGet();
+				if (failure(options.errorRate())) {
+					respond(exchange, 503, "text/plain", new byte[0]);
+				} else {
+					respondFeature(exchange, parameter(query, "featureID"));
+				}
+			} else if (path.endsWith("/wfs") && operations != null) {
+				transactions.incrementAndGet();
+				if (failure(options.errorRate())) {
+					respond(exchange, 503, "text/plain", new byte[0]);
+				} else if (failure(options.exceptionRate())) {
+					respond(exchange, 200, "text/xml", EXCEPTION_REPORT);
+				} else {
+					respond(exchange, 200, "text/xml", transactionResponse(operations));
+				}
+			} else {
+				respond(exchange, 404, "text/plain", new byte[0]);
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private boolean failure(double rate) {
+		if (rate > 0 && random.nextDouble() < rate) {
+			injectedFailures.incrementAndGet();
+			return true;
+		}
+		return false;
+	}
+
+	private void respondFeature(HttpExchange exchange, String featureId) throws IOException {
+		byte[] id = (featureId != null ? featureId : "stub.0").getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, featureHead.length + id.length + featureTail.length);
+		OutputStream body = exchange.getResponseBody();
+		body.write(featureHead);
+		body.write(id);
+		body.write(featureTail);
+	}
+
+	private byte[] transactionResponse(int[] operations) {
+		StringBuilder xml = new StringBuilder(256)
+				.append("<wfs:TransactionResponse xmlns:wfs=\"http://www.opengis.net/wfs\"")
+				.append(" xmlns:ogc=\"http://www.opengis.net/ogc\" version=\"1.1.0\"><wfs:TransactionSummary>")
+				.append("<wfs:totalInserted>").append(operations[0]).append("</wfs:totalInserted>")
+				.append("<wfs:totalUpdated>").append(operations[1]).append("</wfs:totalUpdated>")
+				.append("<wfs:totalDeleted>").append(operations[2]).append("</wfs:totalDeleted>")
+				.append("</wfs:TransactionSummary><wfs:InsertResults>");
+		for (int i = 0; i < operations[0]; i++) {
+			xml.append("<wfs:Feature><ogc:FeatureId fid=\"stub.").append(nextFeatureId.incrementAndGet())
+					.append("\"/></wfs:Feature>");
+		}
+		return xml.append("</wfs:InsertResults></wfs:TransactionResponse>").toString()
+				.getBytes(StandardCharsets.UTF_8);
+	}
+
+	// Compte les actions Insert, Update et Delete en lisant le corps au fil de l'eau
+	private static int[] countOperations(InputStream body) throws IOException {
+		int[] counts = new int[3];
+		byte[] buffer = new byte[8192];
+		int matched = 0;
+		for (int read; (read = body.read(buffer)) > 0;) {
+			for (int i = 0; i < read; i++) {
+				byte b = buffer[i];
+				if (matched == PREFIX.length) {
+					switch (b) {
+						case 'I' -> counts[0]++;
+						case 'U' -> counts[1]++;
+						case 'D' -> counts[2]++;
+						default -> { }
+					}
+					matched = 0;
+				}
+				matched = b == PREFIX[matched] ? matched + 1 : b == '<' ? 1 : 0;
+			}
+		}
+		return counts;
+	}
+
+	private static void respond(HttpExchange exchange, int status, String contentType, byte[] body)
+			throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", contentType);
+		exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+		if (body.length > 0) {
+			exchange.getResponseBody().write(body);
+		}
+	}
+
+	private static String parameter(String query, String name) {
+		for (String pair : query.split("&")) {
+			if (pair.startsWith(name + "=")) {
+				return URLDecoder.decode(pair.substring(name.length() + 1), StandardCharsets.UTF_8);
+			}
+		}
+		return null;
+	}
+
+	private static void pause(long nanos) {
+		if (nanos > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(nanos);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
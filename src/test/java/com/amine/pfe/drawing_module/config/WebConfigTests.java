@@ -0,0 +1,92 @@
+package com.amine.pfe.drawing_module.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.web.client.RestTemplate;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.infrastructure.service.wfs.GmlGeometryWriter;
+import com.amine.pfe.drawing_module.infrastructure.service.wfs.WfsTransactionTemplate;
+import com.amine.pfe.drawing_module.infrastructure.service.wfs.XmlUtf8Writer;
+import com.sun.net.httpserver.HttpServer;
+
+class WebConfigTests {
+
+	private HttpServer server;
+	private final AtomicReference<String> transferEncoding = new AtomicReference<>();
+	private final AtomicReference<String> contentLength = new AtomicReference<>();
+	private final AtomicLong receivedBytes = new AtomicLong();
+
+	@BeforeEach
+	void startStubServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			transferEncoding.set(exchange.getRequestHeaders().getFirst("Transfer-Encoding"));
+			contentLength.set(exchange.getRequestHeaders().getFirst("Content-Length"));
+			try (InputStream body = exchange.getRequestBody()) {
+				receivedBytes.set(body.transferTo(OutputStream.nullOutputStream()));
+			}
+			exchange.sendResponseHeaders(200, -1);
+			exchange.close();
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void stopStubServer() {
+		server.stop(0);
+	}
+
+	@Test
+	void transactionBodyIsStreamedWithChunkedTransferEncoding() throws IOException {
+		WfsTransactionTemplate template = WfsTransactionTemplate.compile("cadastre", "parcelles");
+		GmlGeometryWriter geometry = new GmlGeometryWriter(staircase(50_000), "EPSG:2154");
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		write(expected, template, geometry);
+
+		RestTemplate restTemplate = new WebConfig().restTemplate(8192);
+		restTemplate.execute("http://127.0.0.1:" + server.getAddress().getPort() + "/wfs", HttpMethod.POST,
+				request -> ((StreamingHttpOutputMessage) request).setBody(out -> write(out, template, geometry)),
+				response -> null);
+
+		assertEquals("chunked", transferEncoding.get());
+		assertNull(contentLength.get());
+		assertEquals(expected.size(), receivedBytes.get());
+	}
+
+	private static void write(OutputStream out, WfsTransactionTemplate template, GmlGeometryWriter geometry)
+			throws IOException {
+		XmlUtf8Writer writer = new XmlUtf8Writer(out);
+		template.writeInsert(writer, geometry, Map.of("nom", "é"));
+		writer.flush();
+	}
+
+	// Ring fermé en escalier de n sommets
+	private static FeatureGeometry staircase(int vertices) {
+		double[] coordinates = new double[vertices * 2 + 4];
+		for (int i = 0; i < vertices; i++) {
+			coordinates[2 * i] = 650_000 + i;
+			coordinates[2 * i + 1] = 6_860_000 + (i % 2);
+		}
+		coordinates[2 * vertices] = coordinates[0];
+		coordinates[2 * vertices + 1] = coordinates[1];
+		coordinates[2 * vertices + 2] = Double.NaN;
+		coordinates[2 * vertices + 3] = Double.NaN;
+		return FeatureGeometry.builder().type("Polygon").coordinates(coordinates).build();
+	}
+}
@@ -0,0 +1,149 @@
+package com.amine.pfe.drawing_module.domain.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class GeometryCodecsTests {
+
+	private static final double NaN = Double.NaN;
+	private static final double END = Double.NEGATIVE_INFINITY;
+
+	private static final FeatureGeometry[] GEOMETRIES = {
+			geometry("Point", 2.5, -3.25),
+			geometry("LineString", 0, 0, 10.123456, 20.654321, -5, 7),
+			geometry("Polygon", 0, 0, 10, 0, 10, 10, 0, 0, NaN, NaN, 2, 2, 3, 2, 3, 3, 2, 2, NaN, NaN),
+			geometry("MultiLineString", 0, 0, 1, 1, NaN, NaN, 5, 5, 6, 7, 8, 9, NaN, NaN),
+			geometry("MultiPolygon", 0, 0, 1, 0, 1, 1, 0, 0, NaN, NaN, END, END,
+					5, 5, 6, 5, 6, 6, 5, 5, NaN, NaN, 5.2, 5.2, 5.4, 5.2, 5.4, 5.4, 5.2, 5.2, NaN, NaN, END, END),
+	};
+
+	@ParameterizedTest
+	@EnumSource(value = GeometryEncoding.class, names = { "WKB", "TWKB" })
+	void roundTripsEveryGeometryType(GeometryEncoding encoding) {
+		for (FeatureGeometry geometry : GEOMETRIES) {
+			FeatureGeometry decoded = GeometryCodecs.decodeBase64(encoding,
+					GeometryCodecs.encodeBase64(encoding, geometry));
+
+			assertEquals(geometry.getType(), decoded.getType());
+			assertArrayEquals(geometry.getCoordinates(), decoded.getCoordinates(), 1e-9, geometry.getType());
+		}
+	}
+
+	@Test
+	void geoJsonRoundTripsEveryGeometryType() throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		for (FeatureGeometry geometry : GEOMETRIES) {
+			FeatureGeometry decoded = GeoJsonGeometries.read(objectMapper.readTree(GeoJsonGeometries.write(geometry)));
+
+			assertEquals(geometry.getType(), decoded.getType());
+			assertArrayEquals(geometry.getCoordinates(), decoded.getCoordinates(), 0, geometry.getType());
+		}
+	}
+
+	@Test
+	void streamingReaderAcceptsTypeAfterCoordinates() throws Exception {
+		String geoJson = "{\"coordinates\":[[[0,0],[1,0,9],[1,1],[0,0]]],\"bbox\":[0,0,1,1],\"type\":\"Polygon\"}";
+
+		FeatureGeometry decoded = GeoJsonGeometries.read(new ObjectMapper().createParser(geoJson));
+
+		assertEquals("Polygon", decoded.getType());
+		assertArrayEquals(new double[] { 0, 0, 1, 0, 1, 1, 0, 0, NaN, NaN }, decoded.getCoordinates(), 0);
+	}
+
+	@Test
+	void streamingReaderRejectsInconsistentNesting() {
+		ObjectMapper objectMapper = new ObjectMapper();
+
+		assertThrows(IllegalArgumentException.class, () -> GeoJsonGeometries.read(
+				objectMapper.createParser("{\"type\":\"Polygon\",\"coordinates\":[[0,0],[1,1]]}")));
+		assertThrows(IllegalArgumentException.class, () -> GeoJsonGeometries.read(
+				objectMapper.createParser("{\"type\":\"LineString\",\"coordinates\":[[0,0],[[1,1]]]}")));
+		assertThrows(IllegalArgumentException.class, () -> GeoJsonGeometries.read(
+				objectMapper.createParser("{\"type\":\"LineString\",\"coordinates\":[[0,0]]}")));
+	}
+
+	@Test
+	void offHeapReadMatchesHeapAndReusesPooledBuffers() throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		CoordinateBufferPool pool = new CoordinateBufferPool(1 << 24);
+
+		for (int round = 0; round < 3; round++) {
+			for (FeatureGeometry geometry : GEOMETRIES) {
+				String geoJson = GeoJsonGeometries.write(geometry);
+				// Capacité initiale minimale : force la croissance du buffer hors tas
+				FeatureGeometry offHeap = GeoJsonGeometries.readOffHeap(objectMapper.createParser(geoJson), pool, 1);
+
+				assertTrue(offHeap.isOffHeap());
+				assertArrayEquals(geometry.getCoordinates(), offHeap.getCoordinates(), 0, geometry.getType());
+				assertArrayEquals(GeometryCodecs.encodeBase64(GeometryEncoding.WKB, geometry).getBytes(),
+						GeometryCodecs.encodeBase64(GeometryEncoding.WKB, offHeap).getBytes());
+				offHeap.release();
+			}
+		}
+
+		assertEquals(1, pool.allocatedBuffers());
+		assertTrue(pool.reusedBuffers() >= GEOMETRIES.length * 3 - 1);
+	}
+
+	@Test
+	void wkbPointMatchesTheOgcLayout() {
+		byte[] wkb = new WkbGeometryCodec().encode(geometry("Point", 1, 2));
+
+		assertEquals("0101000000000000000000f03f0000000000000040", HexFormat.of().formatHex(wkb));
+	}
+
+	@Test
+	void wkbDecoderAcceptsBigEndianAndEwkbSrid() {
+		// Point(1 2) big-endian avec SRID 3857
+		byte[] ewkb = HexFormat.of().parseHex("0020000001" + "00000f11" + "3ff0000000000000" + "4000000000000000");
+
+		FeatureGeometry decoded = new WkbGeometryCodec().decode(ewkb);
+
+		assertEquals("Point", decoded.getType());
+		assertArrayEquals(new double[] { 1, 2 }, decoded.getCoordinates());
+	}
+
+	@Test
+	void twkbIsSmallerThanWkbForDenseLines() {
+		double[] coordinates = new double[2_000];
+		for (int i = 0; i < coordinates.length; i += 2) {
+			coordinates[i] = 1_000_000 + i * 0.5;
+			coordinates[i + 1] = 4_000_000 - i * 0.25;
+		}
+		FeatureGeometry line = geometry("LineString", coordinates);
+
+		int wkb = new WkbGeometryCodec().encode(line).length;
+		int twkb = new TwkbGeometryCodec().encode(line).length;
+
+		assertEquals(5 + 4 + 16 * 1_000, wkb);
+		assertTrue(twkb * 2 < wkb, "TWKB " + twkb + " bytes vs WKB " + wkb);
+	}
+
+	@Test
+	void truncatedPayloadsAreRejected() {
+		byte[] wkb = new WkbGeometryCodec().encode(GEOMETRIES[2]);
+		byte[] twkb = new TwkbGeometryCodec().encode(GEOMETRIES[2]);
+
+		assertThrows(IllegalArgumentException.class,
+				() -> new WkbGeometryCodec().decode(Arrays.copyOf(wkb, wkb.length - 3)));
+		assertThrows(IllegalArgumentException.class,
+				() -> new TwkbGeometryCodec().decode(Arrays.copyOf(twkb, twkb.length - 3)));
+	}
+
+	private static FeatureGeometry geometry(String type, double... coordinates) {
+		return FeatureGeometry.builder().type(type).coordinates(coordinates).build();
+	}
+}
@@ -0,0 +1,106 @@
+package com.amine.pfe.drawing_module.domain.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.DoubleBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.amine.pfe.drawing_module.domain.geometry.PolygonOverlay.ClipMode;
+
+class PolygonOverlayTests {
+
+	private static final double NaN = Double.NaN;
+
+	// Carré 10 x 10 percé d'un trou 2 x 2 centré en (7, 5), rings dans le sens des aiguilles d'une montre
+	private static final double[] SQUARE_WITH_HOLE = {
+			0, 0, 0, 10, 10, 10, 10, 0, 0, 0, NaN, NaN,
+			6, 4, 8, 4, 8, 6, 6, 6, 6, 4, NaN, NaN };
+
+	@Test
+	void aLineAcrossThePolygonSplitsItAndTheHoleFollowsItsPiece() {
+		List<double[]> pieces = PolygonOverlay.split(wrap(SQUARE_WITH_HOLE),
+				wrap(new double[] { 4, -5, 4, 15 }), 1e-9);
+
+		assertEquals(2, pieces.size());
+		// Du plus grand au plus petit : la pièce de droite garde le trou
+		assertEquals(60 - 4, area(pieces.get(0)), 1e-9);
+		assertEquals(40, area(pieces.get(1)), 1e-9);
+		assertEquals(2, CoordinateLayout.of(pieces.get(0)).groups().get(0).size());
+
+		// Ligne qui entre et ressort deux fois par un bord en créneau : trois pièces
+		double[] comb = { 0, 0, 10, 0, 10, 10, 7, 10, 7, 3, 3, 3, 3, 10, 0, 10, 0, 0, NaN, NaN };
+		assertEquals(3, PolygonOverlay.split(wrap(comb), wrap(new double[] { -1, 5, 11, 5 }), 1e-9).size());
+
+		// Ligne qui s'arrête à l'intérieur : rien n'est coupé
+		assertThrows(IllegalArgumentException.class, () -> PolygonOverlay.split(wrap(SQUARE_WITH_HOLE),
+				wrap(new double[] { 2, -5, 2, 5 }), 1e-9));
+	}
+
+	@Test
+	void neighboursMergeAcrossTheirSharedBoundaryEvenWithExtraVertices() {
+		double[] left = { 0, 0, 5, 0, 5, 10, 0, 10, 0, 0, NaN, NaN };
+		// Sommet supplémentaire (5, 4) sur la frontière commune, absent du polygone de gauche
+		double[] right = { 5, 0, 10, 0, 10, 10, 5, 10, 5, 4, 5, 0, NaN, NaN };
+
+		List<double[]> merged = PolygonOverlay.merge(List.of(wrap(left), wrap(right)), 1e-9);
+
+		assertEquals(1, merged.size());
+		assertEquals(100, area(merged.get(0)), 1e-9);
+		// Plus aucun sommet de la frontière commune à l'intérieur de l'union
+		double[] ring = merged.get(0);
+		for (int i = 0; i + 1 < ring.length; i += 2) {
+			assertTrue(ring[i] != 5 || ring[i + 1] == 0 || ring[i + 1] == 10, "shared boundary left in the union");
+		}
+
+		double[] overlapping = { 4, 0, 10, 0, 10, 10, 4, 10, 4, 0, NaN, NaN };
+		assertThrows(IllegalArgumentException.class,
+				() -> PolygonOverlay.merge(List.of(wrap(left), wrap(overlapping)), 1e-9));
+	}
+
+	@Test
+	void aClipKeepsThePartInsideOrOutsideTheExtent() {
+		double[] extent = { 5, -1, 12, -1, 12, 11, 5, 11, 5, -1, NaN, NaN };
+
+		List<double[]> inside = PolygonOverlay.clip(wrap(SQUARE_WITH_HOLE), wrap(extent), ClipMode.INSIDE, 1e-9);
+		assertEquals(1, inside.size());
+		assertEquals(50 - 4, area(inside.get(0)), 1e-9);
+
+		List<double[]> outside = PolygonOverlay.clip(wrap(SQUARE_WITH_HOLE), wrap(extent), ClipMode.OUTSIDE, 1e-9);
+		assertEquals(1, outside.size());
+		assertEquals(50, area(outside.get(0)), 1e-9);
+
+		// Emprise entièrement à l'intérieur : OUTSIDE la retire comme un trou
+		double[] inner = { 1, 1, 3, 1, 3, 3, 1, 3, 1, 1, NaN, NaN };
+		List<double[]> pierced = PolygonOverlay.clip(wrap(SQUARE_WITH_HOLE), wrap(inner), ClipMode.OUTSIDE, 1e-9);
+		assertEquals(100 - 4 - 4, area(pierced.get(0)), 1e-9);
+		assertEquals(4, area(PolygonOverlay.clip(wrap(SQUARE_WITH_HOLE), wrap(inner), ClipMode.INSIDE, 1e-9)
+				.get(0)), 1e-9);
+
+		double[] far = { 20, 20, 30, 20, 30, 30, 20, 20, NaN, NaN };
+		assertTrue(PolygonOverlay.clip(wrap(SQUARE_WITH_HOLE), wrap(far), ClipMode.INSIDE, 1e-9).isEmpty());
+	}
+
+	@Test
+	void aMultiPolygonIsPackedOnePolygonPerGroup() {
+		double[] a = { 0, 0, 1, 0, 1, 1, 0, 0, NaN, NaN };
+		double[] b = { 5, 5, 6, 5, 6, 6, 5, 5, NaN, NaN };
+
+		double[] packed = PolygonOverlay.pack(List.of(a, b), true);
+
+		assertEquals(2, CoordinateLayout.of(packed).groups().size());
+		assertEquals(1, PolygonOverlay.area(wrap(packed)), 1e-12);
+		assertThrows(IllegalArgumentException.class, () -> PolygonOverlay.pack(List.of(a, b), false));
+	}
+
+	private static double area(double[] polygon) {
+		return PolygonOverlay.area(wrap(polygon));
+	}
+
+	private static DoubleBuffer wrap(double[] coordinates) {
+		return DoubleBuffer.wrap(coordinates);
+	}
+}
@@ -0,0 +1,50 @@
+package com.amine.pfe.drawing_module.domain.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.DoubleBuffer;
+
+import org.junit.jupiter.api.Test;
+
+class SharedBoundaryTests {
+
+	private static final double NaN = Double.NaN;
+
+	// Deux parcelles voisines le long de x = 10, parcourues en sens opposés sur l'arête commune ;
+	// le ring de gauche commence au milieu de l'arête
+	private static final double[] LEFT = { 10, 10, 0, 10, 0, 0, 10, 0, 10, 10, NaN, NaN };
+	private static final double[] RIGHT = { 10, 0, 20, 0, 20, 10, 10, 10, 10, 0, NaN, NaN };
+	private static final double[] FAR = { 30, 0, 40, 0, 40, 10, 30, 0, NaN, NaN };
+
+	@Test
+	void aMovedVertexMovesInEveryFeatureThatSharesIt() {
+		SharedBoundary boundary = SharedBoundary.of(new double[] { 10, 10 }, new double[] { 11, 12 }, 1e-9);
+
+		assertArrayEquals(new double[] { 11, 12, 0, 10, 0, 0, 10, 0, 11, 12, NaN, NaN }, apply(boundary, LEFT));
+		assertArrayEquals(new double[] { 10, 0, 20, 0, 20, 10, 11, 12, 10, 0, NaN, NaN }, apply(boundary, RIGHT));
+		assertNull(apply(boundary, FAR));
+	}
+
+	@Test
+	void aReshapedEdgeIsReplacedInBothDirectionsAndKeepsItsEnds() {
+		SharedBoundary boundary = SharedBoundary.of(new double[] { 10, 0, 10, 10 },
+				new double[] { 10, 0, 12, 4, 12, 6, 10, 10 }, 1e-9);
+
+		// Tronçon à cheval sur la fermeture du ring : réécrit à partir de son début
+		assertArrayEquals(new double[] { 10, 0, 12, 4, 12, 6, 10, 10, 0, 10, 0, 0, 10, 0, NaN, NaN },
+				apply(boundary, LEFT));
+		// Parcouru à l'envers : sommets intérieurs inversés
+		assertArrayEquals(new double[] { 10, 10, 12, 6, 12, 4, 10, 0, 20, 0, 20, 10, 10, 10, NaN, NaN },
+				apply(boundary, RIGHT));
+		assertNull(apply(boundary, FAR));
+
+		assertThrows(IllegalArgumentException.class, () -> SharedBoundary.of(new double[] { 10, 0, 10, 10 },
+				new double[] { 10, 0, 12, 12 }, 1e-9));
+	}
+
+	private static double[] apply(SharedBoundary boundary, double[] coordinates) {
+		return boundary.apply(DoubleBuffer.wrap(coordinates));
+	}
+}
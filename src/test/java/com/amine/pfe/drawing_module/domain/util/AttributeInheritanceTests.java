@@ -0,0 +1,69 @@
+package com.amine.pfe.drawing_module.domain.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.amine.pfe.drawing_module.domain.model.AttributeRule;
+import com.amine.pfe.drawing_module.domain.model.LayerSchema;
+
+class AttributeInheritanceTests {
+
+	private static final LayerSchema SCHEMA = new LayerSchema("Polygon", List.of(
+			new LayerSchema.Attribute("nom", "string", "String"),
+			new LayerSchema.Attribute("habitants", "int", "Integer"),
+			new LayerSchema.Attribute("surface", "double", "Double"),
+			new LayerSchema.Attribute("proprietaire", "string", "String"),
+			new LayerSchema.Attribute("date_modif", "dateTime", "LocalDateTime")), "EPSG:2154");
+
+	@Test
+	void aSplitCopiesProratesOrDropsEachAttributeByItsRule() {
+		AttributeInheritance inheritance = AttributeInheritance.of(SCHEMA,
+				Map.of("surface", AttributeRule.AREA, "nom", AttributeRule.AREA),
+				Map.of("habitants", AttributeRule.AREA, "proprietaire", AttributeRule.NONE));
+
+		// AREA configuré sur un texte : retombe sur COPY
+		assertEquals(AttributeRule.COPY, inheritance.rule("nom"));
+
+		List<Map<String, Object>> pieces = inheritance.split(
+				Map.of("nom", "Parcelle", "habitants", 10, "surface", 90.0, "proprietaire", "Dupont",
+						"date_modif", "2024-01-01T00:00:00"),
+				new double[] { 50, 25, 15 }, 90);
+
+		// Feature modifiée : seules les valeurs AREA qui changent
+		assertEquals(Map.of("habitants", 5, "surface", 50.0), pieces.get(0));
+		// Features créées : COPY et AREA, jamais NONE ni les dates de suivi ; les entiers s'additionnent
+		assertEquals(Map.of("nom", "Parcelle", "habitants", 3, "surface", 25.0), pieces.get(1));
+		assertEquals(Map.of("nom", "Parcelle", "habitants", 2, "surface", 15.0), pieces.get(2));
+	}
+
+	@Test
+	void aMergeSumsAreaAttributesIntoTheKeptFeature() {
+		AttributeInheritance inheritance = AttributeInheritance.of(SCHEMA, Map.of("surface", AttributeRule.AREA),
+				Map.of("habitants", AttributeRule.AREA));
+
+		Map<String, Object> merged = inheritance.merge(List.of(
+				Map.of("nom", "A", "habitants", 4, "surface", 30.0),
+				Map.of("nom", "B", "surface", 20.5)));
+
+		assertEquals(Map.of("surface", 50.5), merged);
+		assertFalse(merged.containsKey("nom"));
+		assertTrue(inheritance.merge(List.of(Map.of("habitants", 4), Map.of("nom", "B"))).isEmpty());
+	}
+
+	@Test
+	void requestedRulesMustTargetKnownAttributesOfTheRightType() {
+		assertThrows(IllegalArgumentException.class,
+				() -> AttributeInheritance.of(SCHEMA, Map.of(), Map.of("inconnu", AttributeRule.COPY)));
+		assertThrows(IllegalArgumentException.class,
+				() -> AttributeInheritance.of(SCHEMA, Map.of(), Map.of("nom", AttributeRule.AREA)));
+		assertThrows(IllegalArgumentException.class,
+				() -> AttributeInheritance.of(SCHEMA, Map.of(), Map.of("date_modif", AttributeRule.NONE)));
+	}
+}
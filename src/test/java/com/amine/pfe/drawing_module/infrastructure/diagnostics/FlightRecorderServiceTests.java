@@ -0,0 +1,87 @@
+package com.amine.pfe.drawing_module.infrastructure.diagnostics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.amine.pfe.drawing_module.config.FlightRecorderProperties;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class FlightRecorderServiceTests {
+
+	@TempDir
+	Path directory;
+
+	private FlightRecorderService service;
+
+	@AfterEach
+	void tearDown() {
+		if (service != null) {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	void slowRequestDumpsTheRingBufferWithEditStages() throws Exception {
+		FlightRecorderProperties properties = new FlightRecorderProperties();
+		properties.setDirectory(directory.toString());
+		properties.setRingBufferEnabled(true);
+		properties.setSlowRequestThreshold(Duration.ofMillis(100));
+		service = new FlightRecorderService(properties);
+		service.startRingBuffer();
+
+		UUID layerId = UUID.randomUUID();
+		EditStageEvent.begin(EditStageEvent.Stage.GML_BUILD).layerId(layerId).layer("cadastre:parcelles")
+				.finish(1_000, 48_000);
+
+		service.onRequestCompleted("POST /drawing/layers", Duration.ofMillis(50).toNanos());
+		service.onRequestCompleted("POST /drawing/layers", Duration.ofMillis(150).toNanos());
+		// Limité à un vidage par intervalle
+		service.onRequestCompleted("POST /drawing/layers", Duration.ofMillis(150).toNanos());
+
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		while (dumps().isEmpty() && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+		Thread.sleep(200);
+		assertEquals(1, dumps().size());
+
+		List<RecordedEvent> stages = RecordingFile.readAllEvents(dumps().get(0)).stream()
+				.filter(event -> event.getEventType().getName().equals("com.amine.pfe.drawing.EditStage"))
+				.toList();
+		assertTrue(stages.stream().anyMatch(event -> "GML_BUILD".equals(event.getString("stage"))
+				&& layerId.toString().equals(event.getString("layerId"))
+				&& event.getInt("vertices") == 1_000
+				&& event.getLong("bytes") == 48_000));
+	}
+
+	@Test
+	void recordingsAreTimeBoxed() {
+		FlightRecorderProperties properties = new FlightRecorderProperties();
+		properties.setDirectory(directory.toString());
+		service = new FlightRecorderService(properties);
+
+		assertThrows(IllegalArgumentException.class, () -> service.startRecording(Duration.ofHours(2)));
+		assertThrows(IllegalStateException.class, () -> service.dumpRingBuffer("test"));
+	}
+
+	private List<Path> dumps() throws Exception {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> file.getFileName().toString().startsWith(FlightRecorderService.RING_BUFFER))
+					.toList();
+		}
+	}
+}
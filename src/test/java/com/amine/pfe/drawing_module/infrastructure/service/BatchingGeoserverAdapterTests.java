@@ -0,0 +1,253 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.amine.pfe.drawing_module.config.FeatureBatchingProperties;
+import com.amine.pfe.drawing_module.domain.exception.CartographicServerUnavailableException;
+import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperationOutcome;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.infrastructure.service.routing.GeoserverRouter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BatchingGeoserverAdapterTests {
+
+	private final LayerCatalog parcels = new LayerCatalog(UUID.randomUUID(), "parcelles", "parcelles", "cadastre",
+			"parcelles");
+
+	@Test
+	void concurrentInsertsShareTransactionsAndRolledBackOnesAreRetriedAlone() throws Exception {
+		AtomicInteger transactions = new AtomicInteger();
+		AtomicInteger batchedInserts = new AtomicInteger();
+		GeoserverAdapter delegate = mock(GeoserverAdapter.class);
+		// L'édition "bad" fait échouer la transaction combinée ; les autres sont annulées avec elle
+		when(delegate.executeTransaction(anyList())).thenAnswer(invocation -> {
+			List<FeatureOperation> operations = invocation.getArgument(0);
+			transactions.incrementAndGet();
+			batchedInserts.addAndGet(operations.size());
+			boolean failed = operations.stream().anyMatch(operation -> isBad(operation.feature()));
+			List<FeatureOperationOutcome> outcomes = new ArrayList<>();
+			for (FeatureOperation operation : operations) {
+				String name = (String) operation.feature().getProperties().get("nom");
+				outcomes.add(!failed ? FeatureOperationOutcome.succeeded("parcelles." + name)
+						: isBad(operation.feature()) ? FeatureOperationOutcome.failed(null, "Invalid geometry")
+								: FeatureOperationOutcome.failed(null, GeoserverAdapter.ROLLED_BACK_PREFIX + "op-0 failed"));
+			}
+			return outcomes;
+		});
+		when(delegate.insertFeature(any(), any())).thenAnswer(invocation -> {
+			Feature feature = invocation.getArgument(1);
+			return isBad(feature) ? null : "parcelles." + feature.getProperties().get("nom");
+		});
+
+		FeatureBatchingProperties properties = new FeatureBatchingProperties();
+		properties.setMaxDelay(Duration.ofMillis(200));
+		properties.setMaxBatchSize(8);
+		BatchingGeoserverAdapter adapter = new BatchingGeoserverAdapter(delegate, properties, new SimpleMeterRegistry());
+
+		int edits = 24;
+		ExecutorService executor = Executors.newFixedThreadPool(edits);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<String>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < edits; i++) {
+				String name = i == 5 ? "bad" : "p" + i;
+				results.add(executor.submit(() -> {
+					start.await();
+					return adapter.insertFeature(parcels, Feature.builder().properties(Map.of("nom", name)).build());
+				}));
+			}
+			start.countDown();
+
+			for (int i = 0; i < edits; i++) {
+				if (i == 5) {
+					assertNull(results.get(i).get());
+				} else {
+					assertEquals("parcelles.p" + i, results.get(i).get());
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertTrue(transactions.get() > 0 && transactions.get() < batchedInserts.get(),
+				transactions.get() + " transactions for " + batchedInserts.get() + " batched inserts");
+	}
+
+	@Test
+	void aBatchCarriesAtMostOneUpdateSoAMissingFeatureFailsOnlyItsOwnEdit() throws Exception {
+		AtomicInteger maxUpdates = new AtomicInteger();
+		GeoserverAdapter delegate = mock(GeoserverAdapter.class);
+		// GeoServer ne renvoie que le total mis à jour : si "missing" ne correspond à aucune feature, toutes les
+		// mises à jour de la transaction validée sont marquées en échec
+		when(delegate.executeTransaction(anyList())).thenAnswer(invocation -> {
+			List<FeatureOperation> operations = invocation.getArgument(0);
+			List<FeatureOperation> updates = operations.stream()
+					.filter(operation -> operation.type() == FeatureOperation.Type.UPDATE)
+					.toList();
+			maxUpdates.accumulateAndGet(updates.size(), Math::max);
+			long matched = updates.stream().filter(operation -> !"missing".equals(operation.feature().getId())).count();
+			List<FeatureOperationOutcome> outcomes = new ArrayList<>();
+			for (FeatureOperation operation : operations) {
+				String id = operation.feature().getId();
+				outcomes.add(operation.type() == FeatureOperation.Type.INSERT
+						? FeatureOperationOutcome.succeeded("parcelles.new")
+						: matched == updates.size()
+						? FeatureOperationOutcome.succeeded(id)
+						: FeatureOperationOutcome.failed(id, "Transaction committed but only " + matched + "/"
+								+ updates.size() + " updates matched a feature"));
+			}
+			return outcomes;
+		});
+		when(delegate.updateFeature(any(), any()))
+				.thenAnswer(invocation -> !"missing".equals(((Feature) invocation.getArgument(1)).getId()));
+		when(delegate.insertFeature(any(), any())).thenReturn("parcelles.new");
+
+		FeatureBatchingProperties properties = new FeatureBatchingProperties();
+		properties.setMaxDelay(Duration.ofMillis(200));
+		properties.setMaxBatchSize(8);
+		BatchingGeoserverAdapter adapter = new BatchingGeoserverAdapter(delegate, properties, new SimpleMeterRegistry());
+
+		int edits = 12;
+		ExecutorService executor = Executors.newFixedThreadPool(edits);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < edits; i++) {
+				String id = i == 4 ? "missing" : "parcelles." + i;
+				boolean insert = i % 2 == 1;
+				results.add(executor.submit(() -> {
+					start.await();
+					return insert
+							? adapter.insertFeature(parcels, Feature.builder().properties(Map.of()).build()) != null
+							: adapter.updateFeature(parcels, Feature.builder().id(id).properties(Map.of()).build());
+				}));
+			}
+			start.countDown();
+
+			for (int i = 0; i < edits; i++) {
+				assertEquals(i != 4, results.get(i).get(), "edit " + i);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertTrue(maxUpdates.get() <= 1, maxUpdates.get() + " updates in one transaction");
+	}
+
+	@Test
+	void aTransactionWithoutResponseFailsEveryEditWithoutResendingThem() throws Exception {
+		AtomicInteger batchedInserts = new AtomicInteger();
+		AtomicInteger individualInserts = new AtomicInteger();
+		GeoserverAdapter delegate = mock(GeoserverAdapter.class);
+		// Timeout après envoi : la transaction a pu être validée
+		when(delegate.executeTransaction(anyList())).thenAnswer(invocation -> {
+			List<FeatureOperation> operations = invocation.getArgument(0);
+			batchedInserts.addAndGet(operations.size());
+			return operations.stream()
+					.map(operation -> FeatureOperationOutcome.failed(null,
+							GeoserverAdapter.TRANSACTION_FAILED_PREFIX + "Read timed out"))
+					.toList();
+		});
+		when(delegate.insertFeature(any(), any())).thenAnswer(invocation -> {
+			individualInserts.incrementAndGet();
+			throw new CartographicServerUnavailableException("GeoServer unavailable", null);
+		});
+
+		FeatureBatchingProperties properties = new FeatureBatchingProperties();
+		properties.setMaxDelay(Duration.ofMillis(200));
+		properties.setMaxBatchSize(8);
+		BatchingGeoserverAdapter adapter = new BatchingGeoserverAdapter(delegate, properties, new SimpleMeterRegistry());
+
+		int edits = 16;
+		ExecutorService executor = Executors.newFixedThreadPool(edits);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<String>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < edits; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return adapter.insertFeature(parcels, Feature.builder().properties(Map.of()).build());
+				}));
+			}
+			start.countDown();
+
+			for (Future<String> result : results) {
+				ExecutionException failure = assertThrows(ExecutionException.class, result::get);
+				assertInstanceOf(CartographicServerUnavailableException.class, failure.getCause());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		// Seules les éditions restées seules dans leur lot passent par l'appel unitaire
+		assertTrue(batchedInserts.get() > 0);
+		assertEquals(edits, batchedInserts.get() + individualInserts.get());
+	}
+
+	@Test
+	void anUndeliveredTransactionKeepsItsEditsReplayable() throws Exception {
+		GeoserverAdapter delegate = mock(GeoserverAdapter.class);
+		when(delegate.executeTransaction(anyList())).thenAnswer(invocation -> {
+			List<FeatureOperation> operations = invocation.getArgument(0);
+			return operations.stream()
+					.map(operation -> FeatureOperationOutcome.failed(null,
+							GeoserverAdapter.UNDELIVERED_PREFIX + "Connection refused"))
+					.toList();
+		});
+		when(delegate.insertFeature(any(), any())).thenThrow(new CartographicServerUnavailableException(
+				"GeoServer unavailable", new ConnectException("Connection refused")));
+
+		FeatureBatchingProperties properties = new FeatureBatchingProperties();
+		properties.setMaxDelay(Duration.ofMillis(200));
+		properties.setMaxBatchSize(8);
+		BatchingGeoserverAdapter adapter = new BatchingGeoserverAdapter(delegate, properties, new SimpleMeterRegistry());
+
+		int edits = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(edits);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<String>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < edits; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return adapter.insertFeature(parcels, Feature.builder().properties(Map.of()).build());
+				}));
+			}
+			start.countDown();
+
+			for (Future<String> result : results) {
+				ExecutionException failure = assertThrows(ExecutionException.class, result::get);
+				assertTrue(GeoserverRouter.isUndelivered(failure.getCause()));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static boolean isBad(Feature feature) {
+		return "bad".equals(feature.getProperties().get("nom"));
+	}
+}
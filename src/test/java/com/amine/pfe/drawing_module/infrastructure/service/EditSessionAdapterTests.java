@@ -0,0 +1,260 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amine.pfe.drawing_module.config.FeatureFingerprintProperties;
+import com.amine.pfe.drawing_module.config.FeatureSyncProperties;
+import com.amine.pfe.drawing_module.domain.dto.EditOperation;
+import com.amine.pfe.drawing_module.domain.dto.EditSessionRequest;
+import com.amine.pfe.drawing_module.domain.dto.EditSessionResult;
+import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
+import com.amine.pfe.drawing_module.domain.exception.CartographicServerUnavailableException;
+import com.amine.pfe.drawing_module.domain.exception.FeatureLeaseConflictException;
+import com.amine.pfe.drawing_module.domain.model.FeatureChange;
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperationOutcome;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.model.LayerSchema;
+import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.domain.port.out.EditAuditPort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeasePort;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+import com.amine.pfe.drawing_module.infrastructure.service.journal.EditJournal;
+import com.amine.pfe.drawing_module.infrastructure.service.sync.FeatureChangeRecorder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EditSessionAdapterTests {
+
+	private static final String SQUARE = "{\"type\":\"Polygon\",\"coordinates\":[[[0,0],[1,0],[1,1],[0,0]]]}";
+
+	private final LayerCatalog parcels = layer("cadastre", "parcelles");
+	private final LayerCatalog buildings = layer("cadastre", "batiments");
+	private final LayerCatalog roads = layer("voirie", "routes");
+
+	private final Map<String, List<FeatureOperation>> transactions = new ConcurrentHashMap<>();
+	private final CountDownLatch bothWorkspacesStarted = new CountDownLatch(2);
+
+	private LayerRepositoryPort repository;
+	private CartographicServerPort cartographicServerPort;
+	private EditJournal editJournal;
+	private FeatureLeasePort featureLeases;
+	private EditSessionAdapter adapter;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(LayerRepositoryPort.class);
+		when(repository.findLayerCatalogsByIds(any()))
+				.thenReturn(List.of(parcels, buildings, roads));
+
+		cartographicServerPort = mock(CartographicServerPort.class);
+		when(cartographicServerPort.getLayerSchema(anyString(), anyString()))
+				.thenReturn(new LayerSchema("Polygon", List.of(), "EPSG:3857"));
+		when(cartographicServerPort.executeTransaction(anyList())).thenAnswer(invocation -> {
+			List<FeatureOperation> operations = invocation.getArgument(0);
+			transactions.put(operations.get(0).layer().workspace(), operations);
+			// Chaque workspace attend l'autre : échoue si les transactions sont séquentielles
+			bothWorkspacesStarted.countDown();
+			bothWorkspacesStarted.await(5, TimeUnit.SECONDS);
+			return operations.stream()
+					.map(operation -> FeatureOperationOutcome.succeeded(
+							operation.type() == FeatureOperation.Type.INSERT ? "new.1" : operation.feature().getId()))
+					.toList();
+		});
+
+		LayerManagerAdapter layerManager = new LayerManagerAdapter(repository, cartographicServerPort,
+				new ObjectMapper(), null, null, null, null, null, null, null, null, null);
+		editJournal = mock(EditJournal.class);
+		featureLeases = mock(FeatureLeasePort.class);
+		adapter = new EditSessionAdapter(repository, layerManager, cartographicServerPort,
+				new FeatureCache(10_000, 60, new SimpleMeterRegistry()),
+				new FeatureFingerprintStore(new FeatureFingerprintProperties(), new SimpleMeterRegistry()),
+				new FeatureChangeRecorder(null, new FeatureSyncProperties()), mock(EditAuditPort.class), editJournal,
+				featureLeases, 4, 100, 10_000);
+	}
+
+	@Test
+	void operationsAreGroupedPerWorkspaceAndRunInParallel() {
+		EditSessionResult result = adapter.executeEditSession(session(
+				operation(FeatureOperation.Type.UPDATE, parcels, "parcelles.1"),
+				operation(FeatureOperation.Type.UPDATE, roads, "routes.9"),
+				operation(FeatureOperation.Type.INSERT, parcels, null),
+				operation(FeatureOperation.Type.DELETE, buildings, "batiments.4"),
+				operation(FeatureOperation.Type.DELETE, parcels, "parcelles.1")));
+
+		assertTrue(result.isSuccess(), result.getMessage());
+		assertEquals(5, result.getSucceeded());
+		assertEquals(0, bothWorkspacesStarted.getCount());
+
+		List<String> cadastre = transactions.get("cadastre").stream()
+				.map(operation -> operation.type() + " " + operation.layer().geoserverLayerName())
+				.toList();
+		assertEquals(List.of("UPDATE parcelles", "INSERT parcelles", "DELETE batiments", "DELETE parcelles"),
+				cadastre);
+		assertEquals(1, transactions.get("voirie").size());
+		assertEquals("new.1", result.getOperations().get(2).getFeatureId());
+	}
+
+	@Test
+	void invalidOperationSkipsItsWorkspaceOnly() {
+		bothWorkspacesStarted.countDown();
+
+		EditSessionResult result = adapter.executeEditSession(session(
+				operation(FeatureOperation.Type.UPDATE, parcels, "parcelles.1"),
+				operation(FeatureOperation.Type.UPDATE, buildings, null),
+				operation(FeatureOperation.Type.DELETE, roads, "routes.9")));
+
+		assertFalse(result.isSuccess());
+		assertEquals(1, result.getSucceeded());
+		assertTrue(result.getOperations().get(0).getMessage().startsWith("Skipped"));
+		assertEquals("Feature ID is required for UPDATE", result.getOperations().get(1).getMessage());
+		assertTrue(result.getOperations().get(2).isSuccess());
+		assertFalse(transactions.containsKey("cadastre"));
+	}
+
+	@Test
+	void sessionsWaitForJournaledEditsToBeReplayed() {
+		when(editJournal.hasBacklog()).thenReturn(true);
+		doCallRealMethod().when(editJournal).requireNoBacklog();
+
+		assertThrows(CartographicServerUnavailableException.class, () -> adapter.executeEditSession(session(
+				operation(FeatureOperation.Type.UPDATE, parcels, "parcelles.1"))));
+		assertTrue(transactions.isEmpty());
+	}
+
+	@Test
+	void leasedFeaturesAreCheckedAgainstTheSessionTokens() {
+		bothWorkspacesStarted.countDown();
+		List<String> tokens = List.of("jeton-1", "jeton-2");
+		doThrow(new FeatureLeaseConflictException("Feature parcelles.1 is leased by alice", null))
+				.when(featureLeases).checkEditAny(parcels.layerId(), "parcelles.1", tokens);
+
+		EditSessionRequest request = session(
+				operation(FeatureOperation.Type.UPDATE, parcels, "parcelles.1"),
+				operation(FeatureOperation.Type.DELETE, roads, "routes.9"));
+		request.setLeaseTokens(tokens);
+		EditSessionResult result = adapter.executeEditSession(request);
+
+		assertEquals("Feature parcelles.1 is leased by alice", result.getOperations().get(0).getMessage());
+		assertTrue(result.getOperations().get(1).isSuccess());
+		assertFalse(transactions.containsKey("cadastre"));
+		verify(featureLeases).checkEditAny(eq(roads.layerId()), eq("routes.9"), eq(tokens));
+	}
+
+	@Test
+	void aCommitThatGeoserverOnlyPartlyConfirmsIsRecordedAsUnconfirmed() {
+		EditAuditPort editAudit = mock(EditAuditPort.class);
+		FeatureChangeRecorder changeRecorder = mock(FeatureChangeRecorder.class);
+		doReturn(List.of(FeatureOperationOutcome
+				.unconfirmed("parcelles.1", "Transaction committed but only 0/1 updates matched a feature")))
+				.when(cartographicServerPort).executeTransaction(anyList());
+
+		EditSessionResult result = sessions(editAudit, changeRecorder, 10_000).executeEditSession(session(
+				operation(FeatureOperation.Type.UPDATE, parcels, "parcelles.1")));
+
+		assertTrue(result.getOperations().get(0).isSuccess());
+		assertTrue(result.getOperations().get(0).isUnconfirmed());
+		assertTrue(result.getOperations().get(0).getMessage().startsWith("Transaction committed but only"));
+		verify(changeRecorder).recordAll(List.of(
+				FeatureChange.of(parcels.layerId(), "parcelles.1", FeatureOperation.Type.UPDATE)));
+		verify(editAudit).record(eq(parcels.layerId()), eq("parcelles.1"), eq(FeatureOperation.Type.UPDATE), any(),
+				any());
+	}
+
+	@Test
+	void aTransactionCommittedAfterTheSessionTimeoutIsStillRecorded() throws InterruptedException {
+		EditAuditPort editAudit = mock(EditAuditPort.class);
+		FeatureChangeRecorder changeRecorder = mock(FeatureChangeRecorder.class);
+		CountDownLatch geoserverAnswers = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			geoserverAnswers.await(5, TimeUnit.SECONDS);
+			return List.of(FeatureOperationOutcome.succeeded("parcelles.1"));
+		}).when(cartographicServerPort).executeTransaction(anyList());
+
+		EditSessionResult result = sessions(editAudit, changeRecorder, 50).executeEditSession(session(
+				operation(FeatureOperation.Type.DELETE, parcels, "parcelles.1")));
+
+		assertFalse(result.getOperations().get(0).isSuccess());
+		assertTrue(result.getOperations().get(0).isUnconfirmed());
+		geoserverAnswers.countDown();
+		verify(changeRecorder, timeout(5_000)).recordAll(List.of(
+				FeatureChange.of(parcels.layerId(), "parcelles.1", FeatureOperation.Type.DELETE)));
+		verify(editAudit, timeout(5_000)).record(eq(parcels.layerId()), eq("parcelles.1"),
+				eq(FeatureOperation.Type.DELETE), any(), any());
+	}
+
+	@Test
+	void anOperationThatCannotBeBuiltReleasesItsGeometry() {
+		LayerManagerAdapter layerManager = mock(LayerManagerAdapter.class);
+		FeatureGeometry geometry = mock(FeatureGeometry.class);
+		when(layerManager.parseGeometry(any(FeatureUpdateRequest.class))).thenReturn(geometry);
+		when(layerManager.buildFeature(any(), any(), any(), any(), anyBoolean()))
+				.thenThrow(new IllegalArgumentException("Unknown attribute: hauteur"));
+		EditSessionAdapter sessions = new EditSessionAdapter(repository, layerManager, cartographicServerPort,
+				new FeatureCache(10_000, 60, new SimpleMeterRegistry()),
+				new FeatureFingerprintStore(new FeatureFingerprintProperties(), new SimpleMeterRegistry()),
+				new FeatureChangeRecorder(null, new FeatureSyncProperties()), mock(EditAuditPort.class), editJournal,
+				featureLeases, 4, 100, 10_000);
+
+		EditSessionResult result = sessions.executeEditSession(session(
+				operation(FeatureOperation.Type.UPDATE, parcels, "parcelles.1")));
+
+		assertEquals("Unknown attribute: hauteur", result.getOperations().get(0).getMessage());
+		verify(geometry).release();
+	}
+
+	private EditSessionAdapter sessions(EditAuditPort editAudit, FeatureChangeRecorder changeRecorder, long timeoutMs) {
+		LayerManagerAdapter layerManager = new LayerManagerAdapter(repository, cartographicServerPort,
+				new ObjectMapper(), null, null, null, null, null, null, null, null, null);
+		return new EditSessionAdapter(repository, layerManager, cartographicServerPort,
+				new FeatureCache(10_000, 60, new SimpleMeterRegistry()),
+				new FeatureFingerprintStore(new FeatureFingerprintProperties(), new SimpleMeterRegistry()),
+				changeRecorder, editAudit, editJournal, featureLeases, 4, 100, timeoutMs);
+	}
+
+	private static EditSessionRequest session(EditOperation... operations) {
+		return EditSessionRequest.builder().operations(List.of(operations)).build();
+	}
+
+	private static EditOperation operation(FeatureOperation.Type type, LayerCatalog layer, String featureId) {
+		return EditOperation.builder()
+				.type(type)
+				.layerId(layer.layerId())
+				.featureId(featureId)
+				.geometry(type == FeatureOperation.Type.DELETE ? null : SQUARE)
+				.properties(Map.of())
+				.build();
+	}
+
+	private static LayerCatalog layer(String workspace, String name) {
+		return new LayerCatalog(UUID.randomUUID(), name, name, workspace, name);
+	}
+}
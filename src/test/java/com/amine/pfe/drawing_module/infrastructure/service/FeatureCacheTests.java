@@ -0,0 +1,160 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amine.pfe.drawing_module.config.EditJournalProperties;
+import com.amine.pfe.drawing_module.config.FeatureFingerprintProperties;
+import com.amine.pfe.drawing_module.config.FeatureSyncProperties;
+import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
+import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.model.LayerSchema;
+import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.domain.port.out.EditAuditPort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeasePort;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+import com.amine.pfe.drawing_module.infrastructure.logging.PayloadLogSampler;
+import com.amine.pfe.drawing_module.infrastructure.service.crs.CrsTransformer;
+import com.amine.pfe.drawing_module.infrastructure.service.journal.EditJournal;
+import com.amine.pfe.drawing_module.infrastructure.service.sync.FeatureChangeRecorder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FeatureCacheTests {
+
+	private static final UUID LAYER_ID = UUID.randomUUID();
+	private static final LayerCatalog PARCELS = new LayerCatalog(LAYER_ID, "Parcelles", "parcelles", "cadastre", "parcelles");
+
+	private CartographicServerPort cartographicServerPort;
+	private FeatureCache featureCache;
+	private LayerManagerAdapter layerManager;
+
+	@BeforeEach
+	void setUp() {
+		LayerRepositoryPort repository = mock(LayerRepositoryPort.class);
+		when(repository.findLayerCatalogById(LAYER_ID)).thenReturn(Optional.of(PARCELS));
+
+		cartographicServerPort = mock(CartographicServerPort.class);
+		when(cartographicServerPort.getLayerSchema(anyString(), anyString()))
+				.thenReturn(new LayerSchema("Point", List.of(new LayerSchema.Attribute("nature", "text", "String")),
+						"EPSG:2154"));
+		when(cartographicServerPort.getFeature(eq(PARCELS), anyString())).thenAnswer(invocation -> feature(
+				invocation.getArgument(1), 700_000, 6_600_000, Map.of("nature", "bâti", "section", "AB")));
+		when(cartographicServerPort.updateFeature(eq(PARCELS), any())).thenReturn(true);
+		when(cartographicServerPort.deleteFeature(eq(PARCELS), anyString())).thenReturn(true);
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		featureCache = new FeatureCache(1_000, 60, new SimpleMeterRegistry());
+		EditJournal journal = new EditJournal(new EditJournalProperties(), objectMapper, new SimpleMeterRegistry());
+		layerManager = new LayerManagerAdapter(repository, cartographicServerPort, objectMapper,
+				mock(PayloadLogSampler.class), new CrsTransformer(), journal, featureCache, null,
+				new FeatureChangeRecorder(null, new FeatureSyncProperties()),
+				new FeatureFingerprintStore(new FeatureFingerprintProperties(), new SimpleMeterRegistry()),
+				mock(FeatureLeasePort.class), mock(EditAuditPort.class));
+	}
+
+	@Test
+	void hotReadsAreServedWithoutGeoserver() {
+		for (int i = 0; i < 10; i++) {
+			assertEquals("bâti", layerManager.getFeature(LAYER_ID, "parcelles.1", null).getProperties().get("nature"));
+		}
+		verify(cartographicServerPort, times(1)).getFeature(PARCELS, "parcelles.1");
+	}
+
+	@Test
+	void readsInAnotherCrsDoNotAlterTheCachedFeature() {
+		Feature wgs84 = layerManager.getFeature(LAYER_ID, "parcelles.1", "EPSG:4326");
+		Feature layerCrs = layerManager.getFeature(LAYER_ID, "parcelles.1", null);
+
+		assertEquals("EPSG:4326", wgs84.getCrs());
+		assertTrue(Math.abs(wgs84.getGeometry().getCoordinates()[0] - 3) < 0.1);
+		assertArrayEquals(new double[] { 700_000, 6_600_000 }, layerCrs.getGeometry().getCoordinates());
+	}
+
+	@Test
+	void updatesWriteThroughAndDeletesInvalidate() {
+		layerManager.getFeature(LAYER_ID, "parcelles.1", null);
+
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("nature", "jardin");
+		layerManager.updateFeature(LAYER_ID, "parcelles.1", FeatureUpdateRequest.builder()
+				.geometry("{\"type\":\"Point\",\"coordinates\":[700010,6600020]}")
+				.properties(properties)
+				.crs("EPSG:2154")
+				.build());
+
+		Feature updated = layerManager.getFeature(LAYER_ID, "parcelles.1", null);
+		assertEquals("jardin", updated.getProperties().get("nature"));
+		assertEquals("AB", updated.getProperties().get("section"));
+		assertArrayEquals(new double[] { 700_010, 6_600_020 }, updated.getGeometry().getCoordinates());
+		verify(cartographicServerPort, times(1)).getFeature(PARCELS, "parcelles.1");
+
+		layerManager.deleteFeature(LAYER_ID, "parcelles.1", null);
+		assertNull(featureCache.getIfPresent(LAYER_ID, "parcelles.1"));
+	}
+
+	@Test
+	void readsDuringTheTransactionDoNotLeaveTheOldStateCached() {
+		// Feature absente du cache : une lecture concurrente la charge pendant la transaction
+		when(cartographicServerPort.updateFeature(eq(PARCELS), any())).thenAnswer(invocation -> {
+			layerManager.getFeature(LAYER_ID, "parcelles.1", null);
+			return true;
+		});
+		when(cartographicServerPort.deleteFeature(eq(PARCELS), anyString())).thenAnswer(invocation -> {
+			layerManager.getFeature(LAYER_ID, "parcelles.2", null);
+			return false;
+		});
+
+		layerManager.updateFeature(LAYER_ID, "parcelles.1", FeatureUpdateRequest.builder()
+				.geometry("{\"type\":\"Point\",\"coordinates\":[700010,6600020]}")
+				.properties(new HashMap<>(Map.of("nature", "jardin")))
+				.crs("EPSG:2154")
+				.build());
+		layerManager.deleteFeature(LAYER_ID, "parcelles.2", null);
+
+		assertNull(featureCache.getIfPresent(LAYER_ID, "parcelles.1"));
+		assertNull(featureCache.getIfPresent(LAYER_ID, "parcelles.2"));
+	}
+
+	@Test
+	void cacheIsBoundedByVertexCount() {
+		for (int i = 0; i < 50; i++) {
+			featureCache.put(LAYER_ID, Feature.builder()
+					.id("routes." + i)
+					.geometry(FeatureGeometry.builder().type("LineString").coordinates(new double[200]).build())
+					.build());
+		}
+		// 101 sommets pondérés par entrée, 1 000 au total
+		assertTrue(featureCache.size() <= 9, "entries: " + featureCache.size());
+	}
+
+	private static Feature feature(String id, double x, double y, Map<String, Object> properties) {
+		return Feature.builder()
+				.id(id)
+				.geometry(FeatureGeometry.builder().type("Point").coordinates(new double[] { x, y }).build())
+				.properties(properties)
+				.crs("EPSG:2154")
+				.build();
+	}
+}
@@ -0,0 +1,136 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amine.pfe.drawing_module.config.EditJournalProperties;
+import com.amine.pfe.drawing_module.config.FeatureFingerprintProperties;
+import com.amine.pfe.drawing_module.config.FeatureSyncProperties;
+import com.amine.pfe.drawing_module.domain.dto.BulkEditRequest;
+import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
+import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateResult;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.model.LayerSchema;
+import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.domain.port.out.EditAuditPort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeasePort;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+import com.amine.pfe.drawing_module.infrastructure.logging.PayloadLogSampler;
+import com.amine.pfe.drawing_module.infrastructure.service.crs.CrsTransformer;
+import com.amine.pfe.drawing_module.infrastructure.service.journal.EditJournal;
+import com.amine.pfe.drawing_module.infrastructure.service.sync.FeatureChangeRecorder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FeatureFingerprintStoreTests {
+
+	private static final UUID LAYER_ID = UUID.randomUUID();
+	private static final LayerCatalog PARCELS = new LayerCatalog(LAYER_ID, "Parcelles", "parcelles", "cadastre", "parcelles");
+
+	private CartographicServerPort cartographicServerPort;
+	private FeatureFingerprintStore fingerprints;
+	private LayerManagerAdapter layerManager;
+
+	@BeforeEach
+	void setUp() {
+		LayerRepositoryPort repository = mock(LayerRepositoryPort.class);
+		when(repository.findLayerCatalogById(LAYER_ID)).thenReturn(Optional.of(PARCELS));
+
+		cartographicServerPort = mock(CartographicServerPort.class);
+		when(cartographicServerPort.getLayerSchema(anyString(), anyString()))
+				.thenReturn(new LayerSchema("Point", List.of(new LayerSchema.Attribute("surface", "numeric", "Double")),
+						"EPSG:2154"));
+		when(cartographicServerPort.updateFeature(eq(PARCELS), any())).thenReturn(true);
+		when(cartographicServerPort.updateFeatures(eq(PARCELS), any(), any())).thenReturn(3);
+
+		FeatureFingerprintProperties properties = new FeatureFingerprintProperties();
+		properties.setEnabled(true);
+		properties.setMaxEntries(4_096);
+		fingerprints = new FeatureFingerprintStore(properties, new SimpleMeterRegistry());
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		EditJournal journal = new EditJournal(new EditJournalProperties(), objectMapper, new SimpleMeterRegistry());
+		layerManager = new LayerManagerAdapter(repository, cartographicServerPort, objectMapper,
+				mock(PayloadLogSampler.class), new CrsTransformer(), journal,
+				new FeatureCache(1_000, 60, new SimpleMeterRegistry()), null,
+				new FeatureChangeRecorder(null, new FeatureSyncProperties()), fingerprints, mock(FeatureLeasePort.class),
+				mock(EditAuditPort.class));
+	}
+
+	@Test
+	void identicalUpdatesAreSkippedUntilTheContentChanges() {
+		FeatureUpdateResult first = layerManager.updateFeature(LAYER_ID, "parcelles.1", update(700_010, "12.5"));
+		// Même contenu, valeur textuelle convertie selon le schéma : rien n'est envoyé à GeoServer
+		FeatureUpdateResult resent = layerManager.updateFeature(LAYER_ID, "parcelles.1", update(700_010, 12.5));
+		FeatureUpdateResult moved = layerManager.updateFeature(LAYER_ID, "parcelles.1", update(700_011, 12.5));
+
+		assertTrue(first.isSuccess() && !first.isUnchanged());
+		assertTrue(resent.isSuccess() && resent.isUnchanged());
+		assertFalse(moved.isUnchanged());
+		verify(cartographicServerPort, times(2)).updateFeature(eq(PARCELS), any());
+
+		// Édition en masse par filtre : les features touchées sont inconnues, la prochaine écriture passe
+		layerManager.updateFeatures(LAYER_ID, BulkEditRequest.builder()
+				.bbox(Arrays.asList(0d, 0d, 1e7, 1e7))
+				.properties(Map.of("surface", 1))
+				.build());
+		assertFalse(layerManager.updateFeature(LAYER_ID, "parcelles.1", update(700_011, 12.5)).isUnchanged());
+		verify(cartographicServerPort, times(3)).updateFeature(eq(PARCELS), any());
+	}
+
+	@Test
+	void overlappingWritesLeaveNoFingerprintAndTheTableStaysBounded() {
+		long x = 42;
+		long y = 43;
+		long first = fingerprints.begin(LAYER_ID, "parcelles.1");
+		long second = fingerprints.begin(LAYER_ID, "parcelles.1");
+		fingerprints.complete(LAYER_ID, "parcelles.1", second, y);
+		fingerprints.complete(LAYER_ID, "parcelles.1", first, x);
+		// L'ordre appliqué par GeoServer est inconnu : ni x ni y ne peuvent être tenus pour courants
+		assertFalse(fingerprints.matches(LAYER_ID, "parcelles.1", x));
+		assertFalse(fingerprints.matches(LAYER_ID, "parcelles.1", y));
+
+		for (int i = 0; i < 100_000; i++) {
+			fingerprints.put(LAYER_ID, "parcelles." + i, i);
+		}
+		assertTrue(fingerprints.size() > 4_000 && fingerprints.size() <= 4_096, "entries: " + fingerprints.size());
+		assertTrue(fingerprints.matches(LAYER_ID, "parcelles.99999", 99_999));
+	}
+
+	@Test
+	void byDefaultEveryUpdateReachesGeoServer() {
+		// Une autre instance ou QGIS a pu écrire entre-temps : sans activation explicite, rien n'est tenu pour courant
+		FeatureFingerprintStore shared = new FeatureFingerprintStore(new FeatureFingerprintProperties(),
+				new SimpleMeterRegistry());
+		shared.put(LAYER_ID, "parcelles.1", 42);
+		assertFalse(shared.matches(LAYER_ID, "parcelles.1", 42));
+	}
+
+	private static FeatureUpdateRequest update(double x, Object surface) {
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("surface", surface);
+		return FeatureUpdateRequest.builder()
+				.geometry("{\"type\":\"Point\",\"coordinates\":[" + x + ",6600020]}")
+				.properties(properties)
+				.crs("EPSG:2154")
+				.build();
+	}
+}
@@ -0,0 +1,204 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amine.pfe.drawing_module.config.FeatureFingerprintProperties;
+import com.amine.pfe.drawing_module.config.FeatureSyncProperties;
+import com.amine.pfe.drawing_module.config.TopologyEditProperties;
+import com.amine.pfe.drawing_module.domain.dto.FeatureOverlayRequest;
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditResult;
+import com.amine.pfe.drawing_module.domain.exception.CartographicServerUnavailableException;
+import com.amine.pfe.drawing_module.domain.exception.FeatureLeaseConflictException;
+import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperationOutcome;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.model.LayerSchema;
+import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.domain.port.out.EditAuditPort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeasePort;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+import com.amine.pfe.drawing_module.infrastructure.service.crs.CrsTransformer;
+import com.amine.pfe.drawing_module.infrastructure.service.journal.EditJournal;
+import com.amine.pfe.drawing_module.infrastructure.service.sync.FeatureChangeRecorder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FeatureOverlayAdapterTests {
+
+	private static final double NaN = Double.NaN;
+	private static final UUID LAYER_ID = UUID.randomUUID();
+	private static final LayerCatalog PARCELS = new LayerCatalog(LAYER_ID, "Parcelles", "parcelles", "cadastre", "parcelles");
+	// Ligne verticale x = 4 à travers le carré 10 x 10
+	private static final String CUT = "{\"type\":\"LineString\",\"coordinates\":[[4,-5],[4,15]]}";
+
+	private final List<List<FeatureOperation>> transactions = new ArrayList<>();
+
+	private CartographicServerPort cartographicServerPort;
+	private EditJournal editJournal;
+	private FeatureLeasePort featureLeases;
+	private FeatureCache featureCache;
+	private FeatureOverlayAdapter adapter;
+
+	@BeforeEach
+	void setUp() {
+		LayerRepositoryPort repository = mock(LayerRepositoryPort.class);
+		when(repository.findLayerCatalogById(LAYER_ID)).thenReturn(Optional.of(PARCELS));
+
+		cartographicServerPort = mock(CartographicServerPort.class);
+		when(cartographicServerPort.getLayerSchema(anyString(), anyString()))
+				.thenReturn(new LayerSchema("Polygon", List.of(new LayerSchema.Attribute("nom", "string", "String")),
+						"EPSG:2154"));
+		when(cartographicServerPort.getFeature(eq(PARCELS), anyString()))
+				.thenAnswer(invocation -> square(invocation.getArgument(1), 0));
+		when(cartographicServerPort.getFeatures(eq(PARCELS), anyList()))
+				.thenReturn(List.of(square("parcelles.1", 0), square("parcelles.2", 10)));
+		when(cartographicServerPort.executeTransaction(anyList())).thenAnswer(invocation -> {
+			List<FeatureOperation> operations = invocation.getArgument(0);
+			transactions.add(operations);
+			List<FeatureOperationOutcome> outcomes = new ArrayList<>();
+			int inserted = 41;
+			for (FeatureOperation operation : operations) {
+				outcomes.add(FeatureOperationOutcome.succeeded(operation.type() == FeatureOperation.Type.INSERT
+						? "parcelles." + ++inserted
+						: operation.feature().getId()));
+			}
+			return outcomes;
+		});
+
+		editJournal = mock(EditJournal.class);
+		featureLeases = mock(FeatureLeasePort.class);
+		featureCache = new FeatureCache(10_000, 60, new SimpleMeterRegistry());
+		adapter = new FeatureOverlayAdapter(repository, cartographicServerPort, new CrsTransformer(), editJournal,
+				featureCache, new FeatureFingerprintStore(new FeatureFingerprintProperties(), new SimpleMeterRegistry()),
+				new FeatureChangeRecorder(null, new FeatureSyncProperties()), mock(EditAuditPort.class), featureLeases,
+				new TopologyEditProperties(), new ObjectMapper(), new SimpleMeterRegistry());
+	}
+
+	@Test
+	void aSplitUpdatesTheFeatureAndReportsTheInsertedIds() {
+		TopologyEditResult result = adapter.split(LAYER_ID, "parcelles.1", overlay(CUT));
+
+		assertTrue(result.isSuccess(), result.getMessage());
+		assertEquals(List.of("parcelles.1"), result.getFeatureIds());
+		assertEquals(List.of("parcelles.42"), result.getInsertedIds());
+		assertEquals(1, transactions.size());
+		assertEquals(FeatureOperation.Type.UPDATE, transactions.get(0).get(0).type());
+		assertEquals(FeatureOperation.Type.INSERT, transactions.get(0).get(1).type());
+		// La pièce créée hérite des attributs COPY
+		assertEquals("Parcelle parcelles.1", transactions.get(0).get(1).feature().getProperties().get("nom"));
+	}
+
+	@Test
+	void aMergeKeepsTheFirstFeatureAndDeletesTheOthers() {
+		FeatureOverlayRequest request = overlay(null);
+		request.setFeatureIds(List.of("parcelles.1", "parcelles.2"));
+
+		TopologyEditResult result = adapter.merge(LAYER_ID, request);
+
+		assertTrue(result.isSuccess(), result.getMessage());
+		assertEquals(List.of("parcelles.1"), result.getFeatureIds());
+		assertEquals(List.of("parcelles.2"), result.getDeletedIds());
+		verify(featureLeases).checkEditAny(LAYER_ID, "parcelles.1", request.getLeaseTokens());
+		verify(featureLeases).checkEditAny(LAYER_ID, "parcelles.2", request.getLeaseTokens());
+	}
+
+	@Test
+	void aLeasedFeatureIsNeitherSplitNorClipped() {
+		doThrow(new FeatureLeaseConflictException("Feature parcelles.1 is leased by alice", null))
+				.when(featureLeases).checkEditAny(eq(LAYER_ID), eq("parcelles.1"), eq(List.of("jeton")));
+
+		assertThrows(FeatureLeaseConflictException.class, () -> adapter.split(LAYER_ID, "parcelles.1", overlay(CUT)));
+		FeatureOverlayRequest clip = overlay(
+				"{\"type\":\"Polygon\",\"coordinates\":[[[-1,-1],[-1,11],[4,11],[4,-1],[-1,-1]]]}");
+		assertThrows(FeatureLeaseConflictException.class, () -> adapter.clip(LAYER_ID, "parcelles.1", clip));
+		assertTrue(transactions.isEmpty());
+	}
+
+	@Test
+	void overlaysWaitForJournaledEditsToBeReplayed() {
+		when(editJournal.hasBacklog()).thenReturn(true);
+		doCallRealMethod().when(editJournal).requireNoBacklog();
+
+		assertThrows(CartographicServerUnavailableException.class,
+				() -> adapter.split(LAYER_ID, "parcelles.1", overlay(CUT)));
+		verify(cartographicServerPort, never()).getFeature(eq(PARCELS), anyString());
+		assertTrue(transactions.isEmpty());
+	}
+
+	@Test
+	void cachedFeaturesAreInvalidatedEvenWhenTheTransactionFails() {
+		// Lecture concurrente pendant la transaction, qui échoue ensuite sans réponse
+		when(cartographicServerPort.executeTransaction(anyList())).thenAnswer(invocation -> {
+			featureCache.put(LAYER_ID, square("parcelles.1", 0));
+			throw new CartographicServerUnavailableException("GeoServer unavailable", null);
+		});
+
+		assertThrows(CartographicServerUnavailableException.class,
+				() -> adapter.split(LAYER_ID, "parcelles.1", overlay(CUT)));
+		assertNull(featureCache.getIfPresent(LAYER_ID, "parcelles.1"));
+	}
+
+	@Test
+	void aFailedOperationReportsNoInsertedFeature() {
+		when(cartographicServerPort.executeTransaction(anyList())).thenAnswer(invocation -> {
+			List<FeatureOperation> operations = invocation.getArgument(0);
+			return operations.stream()
+					.map(operation -> FeatureOperationOutcome.failed(operation.feature().getId(), "Transaction rolled back"))
+					.toList();
+		});
+
+		TopologyEditResult result = adapter.split(LAYER_ID, "parcelles.1", overlay(CUT));
+
+		assertFalse(result.isSuccess());
+		assertEquals("Transaction rolled back", result.getMessage());
+		assertTrue(result.getInsertedIds().isEmpty());
+	}
+
+	private static FeatureOverlayRequest overlay(String geometry) {
+		return FeatureOverlayRequest.builder()
+				.geometry(geometry)
+				.leaseTokens(List.of("jeton"))
+				.build();
+	}
+
+	// Carré 10 x 10 décalé de dx, ring dans le sens des aiguilles d'une montre
+	private static Feature square(String id, double dx) {
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("nom", "Parcelle " + id);
+		return Feature.builder()
+				.id(id)
+				.geometry(FeatureGeometry.builder()
+						.type("Polygon")
+						.coordinates(new double[] { dx, 0, dx, 10, dx + 10, 10, dx + 10, 0, dx, 0, NaN, NaN })
+						.build())
+				.properties(properties)
+				.crs("EPSG:2154")
+				.build();
+	}
+}
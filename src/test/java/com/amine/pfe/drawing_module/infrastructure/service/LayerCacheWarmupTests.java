@@ -0,0 +1,100 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import com.amine.pfe.drawing_module.config.CacheConfig;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.model.LayerSchema;
+import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+
+class LayerCacheWarmupTests {
+
+	private static final LayerSchema PARCELS = new LayerSchema("MultiPolygon",
+			List.of(new LayerSchema.Attribute("nom", "string", "java.lang.String"),
+					new LayerSchema.Attribute("surface", "double", null)),
+			"EPSG:2154");
+	private static final LayerSchema ROADS = new LayerSchema("LineString", List.of(), null);
+
+	@TempDir
+	Path directory;
+
+	private LayerRepositoryPort repository;
+	private CartographicServerPort cartographicServerPort;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(LayerRepositoryPort.class);
+		// Deux catalogues sur la même couche GeoServer : un seul schéma à lire
+		when(repository.findAllLayerCatalogs()).thenReturn(List.of(
+				layer("cadastre", "parcelles"), layer("cadastre", "parcelles"), layer("voirie", "routes")));
+		cartographicServerPort = mock(CartographicServerPort.class);
+		when(cartographicServerPort.getLayerRevision(anyString(), anyString())).thenReturn("r1");
+		when(cartographicServerPort.refreshLayerSchema("cadastre", "parcelles")).thenReturn(PARCELS);
+		when(cartographicServerPort.refreshLayerSchema("voirie", "routes")).thenReturn(ROADS);
+	}
+
+	@Test
+	void snapshotIsReloadedAndOnlyChangedLayersAreFetchedAgain() {
+		Path snapshot = directory.resolve("schemas.snapshot");
+		warmup(new ConcurrentMapCacheManager(), snapshot).refresh("warm-up");
+		verify(cartographicServerPort, times(1)).refreshLayerSchema("cadastre", "parcelles");
+		assertTrue(Files.exists(snapshot));
+
+		// Redémarrage : schémas en cache avant tout appel à GeoServer, puis simple vérification des révisions
+		CacheManager cacheManager = new ConcurrentMapCacheManager();
+		LayerCacheWarmup restarted = warmup(cacheManager, snapshot);
+		restarted.loadSnapshot();
+		assertEquals(PARCELS, cacheManager.getCache(CacheConfig.LAYER_SCHEMAS)
+				.get(new SimpleKey("cadastre", "parcelles"), LayerSchema.class));
+		assertEquals(ROADS, cacheManager.getCache(CacheConfig.LAYER_SCHEMAS)
+				.get(new SimpleKey("voirie", "routes"), LayerSchema.class));
+
+		when(cartographicServerPort.getLayerRevision("voirie", "routes")).thenReturn("r2");
+		restarted.refresh("refresh");
+		verify(cartographicServerPort, times(1)).refreshLayerSchema("cadastre", "parcelles");
+		verify(cartographicServerPort, times(2)).refreshLayerSchema("voirie", "routes");
+		verify(cartographicServerPort, never()).getLayerSchema(anyString(), anyString());
+	}
+
+	@Test
+	void expiredSchemasAreDescribedAgainRatherThanRestoredFromTheSnapshot() {
+		CacheManager cacheManager = new ConcurrentMapCacheManager();
+		LayerCacheWarmup warmup = warmup(cacheManager, directory.resolve("schemas.snapshot"));
+		warmup.refresh("warm-up");
+
+		// Révisions inchangées ; seul le schéma des parcelles est encore en cache, celui des routes a expiré
+		cacheManager.getCache(CacheConfig.LAYER_SCHEMAS).put(new SimpleKey("cadastre", "parcelles"), PARCELS);
+		warmup.refresh("refresh");
+
+		verify(cartographicServerPort, times(1)).refreshLayerSchema("cadastre", "parcelles");
+		verify(cartographicServerPort, times(2)).refreshLayerSchema("voirie", "routes");
+	}
+
+	private LayerCacheWarmup warmup(CacheManager cacheManager, Path snapshot) {
+		return new LayerCacheWarmup(repository, cartographicServerPort, cacheManager, true, 2, snapshot.toString());
+	}
+
+	private static LayerCatalog layer(String workspace, String name) {
+		return new LayerCatalog(UUID.randomUUID(), name, name, workspace, name);
+	}
+}
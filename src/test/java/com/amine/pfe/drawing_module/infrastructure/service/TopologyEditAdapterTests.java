@@ -0,0 +1,238 @@
+package com.amine.pfe.drawing_module.infrastructure.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amine.pfe.drawing_module.config.FeatureFingerprintProperties;
+import com.amine.pfe.drawing_module.config.TopologyEditProperties;
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditRequest;
+import com.amine.pfe.drawing_module.domain.dto.TopologyEditResult;
+import com.amine.pfe.drawing_module.domain.exception.CartographicServerUnavailableException;
+import com.amine.pfe.drawing_module.domain.exception.FeatureLeaseConflictException;
+import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.FeatureChange;
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperationOutcome;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.model.LayerSchema;
+import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.domain.port.out.EditAuditPort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeasePort;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+import com.amine.pfe.drawing_module.infrastructure.service.crs.CrsTransformer;
+import com.amine.pfe.drawing_module.infrastructure.service.journal.EditJournal;
+import com.amine.pfe.drawing_module.infrastructure.service.sync.FeatureChangeRecorder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TopologyEditAdapterTests {
+
+	private static final double NaN = Double.NaN;
+	private static final UUID LAYER_ID = UUID.randomUUID();
+	private static final LayerCatalog PARCELS = new LayerCatalog(LAYER_ID, "Parcelles", "parcelles", "cadastre", "parcelles");
+
+	private final List<List<FeatureOperation>> transactions = new ArrayList<>();
+
+	private CartographicServerPort cartographicServerPort;
+	private EditJournal editJournal;
+	private FeatureLeasePort featureLeases;
+	private FeatureCache featureCache;
+	private FeatureFingerprintStore fingerprints;
+	private EditAuditPort editAudit;
+	private FeatureChangeRecorder changeRecorder;
+	private TopologyEditAdapter adapter;
+
+	@BeforeEach
+	void setUp() {
+		LayerRepositoryPort repository = mock(LayerRepositoryPort.class);
+		when(repository.findLayerCatalogById(LAYER_ID)).thenReturn(Optional.of(PARCELS));
+
+		cartographicServerPort = mock(CartographicServerPort.class);
+		when(cartographicServerPort.getLayerSchema(anyString(), anyString()))
+				.thenReturn(new LayerSchema("Polygon", List.of(), "EPSG:2154"));
+		// Deux parcelles voisines le long de x = 10, et une troisième dans l'emprise sans porter la frontière
+		when(cartographicServerPort.findFeatures(eq(PARCELS), any(), anyInt())).thenReturn(List.of(
+				parcel("parcelles.1", 10, 10, 0, 10, 0, 0, 10, 0, 10, 10),
+				parcel("parcelles.2", 10, 0, 20, 0, 20, 10, 10, 10, 10, 0),
+				parcel("parcelles.3", 10, 11, 12, 11, 12, 13, 10, 11)));
+		when(cartographicServerPort.executeTransaction(anyList())).thenAnswer(invocation -> {
+			List<FeatureOperation> operations = invocation.getArgument(0);
+			transactions.add(operations);
+			return operations.stream()
+					.map(operation -> FeatureOperationOutcome.succeeded(operation.feature().getId()))
+					.toList();
+		});
+
+		FeatureFingerprintProperties fingerprintProperties = new FeatureFingerprintProperties();
+		fingerprintProperties.setEnabled(true);
+		editJournal = mock(EditJournal.class);
+		featureLeases = mock(FeatureLeasePort.class);
+		featureCache = new FeatureCache(10_000, 60, new SimpleMeterRegistry());
+		fingerprints = new FeatureFingerprintStore(fingerprintProperties, new SimpleMeterRegistry());
+		editAudit = mock(EditAuditPort.class);
+		changeRecorder = mock(FeatureChangeRecorder.class);
+		adapter = new TopologyEditAdapter(repository, cartographicServerPort, new CrsTransformer(), editJournal,
+				featureCache, fingerprints, changeRecorder,
+				editAudit, featureLeases, new TopologyEditProperties(), new SimpleMeterRegistry());
+	}
+
+	@Test
+	void onlyNeighboursCarryingTheVertexAreUpdatedWithTheEditedFeatureFirst() {
+		TopologyEditResult result = adapter.editBoundary(LAYER_ID, "parcelles.2", moveVertex("jeton"));
+
+		assertTrue(result.isSuccess(), result.getMessage());
+		assertEquals(List.of("parcelles.2", "parcelles.1"), result.getFeatureIds());
+		assertEquals(1, transactions.size());
+		assertEquals(11, transactions.get(0).get(1).feature().getGeometry().getCoordinates()[0]);
+	}
+
+	@Test
+	void neighboursMustNotBeLeasedByAnyone() {
+		doThrow(new FeatureLeaseConflictException("Feature parcelles.1 is leased by alice", null))
+				.when(featureLeases).checkEdit(LAYER_ID, "parcelles.1", null);
+
+		assertThrows(FeatureLeaseConflictException.class,
+				() -> adapter.editBoundary(LAYER_ID, "parcelles.2", moveVertex("jeton")));
+		// Le jeton présenté ne vaut que pour la feature éditée
+		verify(featureLeases).checkEdit(LAYER_ID, "parcelles.2", "jeton");
+		assertTrue(transactions.isEmpty());
+	}
+
+	@Test
+	void boundaryEditsWaitForJournaledEditsToBeReplayed() {
+		when(editJournal.hasBacklog()).thenReturn(true);
+		doCallRealMethod().when(editJournal).requireNoBacklog();
+
+		assertThrows(CartographicServerUnavailableException.class,
+				() -> adapter.editBoundary(LAYER_ID, "parcelles.2", moveVertex(null)));
+		verify(cartographicServerPort, never()).findFeatures(any(), any(), anyInt());
+		assertTrue(transactions.isEmpty());
+	}
+
+	@Test
+	void cachedStateAndFingerprintsAreInvalidatedEvenWhenTheTransactionFails() {
+		featureCache.put(LAYER_ID, parcel("parcelles.1", 10, 10, 0, 10, 0, 0, 10, 0, 10, 10));
+		fingerprints.put(LAYER_ID, "parcelles.1", 42);
+		when(cartographicServerPort.executeTransaction(anyList()))
+				.thenThrow(new CartographicServerUnavailableException("GeoServer unavailable", null));
+
+		assertThrows(CartographicServerUnavailableException.class,
+				() -> adapter.editBoundary(LAYER_ID, "parcelles.2", moveVertex(null)));
+		assertNull(featureCache.getIfPresent(LAYER_ID, "parcelles.1"));
+		assertFalse(fingerprints.matches(LAYER_ID, "parcelles.1", 42));
+	}
+
+	@Test
+	void aCommitThatGeoserverOnlyPartlyConfirmsIsReportedAndAudited() {
+		when(cartographicServerPort.executeTransaction(anyList())).thenAnswer(invocation -> {
+			List<FeatureOperation> operations = invocation.getArgument(0);
+			return operations.stream()
+					.map(operation -> FeatureOperationOutcome.unconfirmed(operation.feature().getId(),
+							"Transaction committed but only 1/2 updates matched a feature"))
+					.toList();
+		});
+
+		TopologyEditResult result = adapter.editBoundary(LAYER_ID, "parcelles.2", moveVertex(null));
+
+		assertTrue(result.isSuccess());
+		assertTrue(result.isUnconfirmed());
+		assertTrue(result.getMessage().endsWith("only 1/2 updates matched a feature"), result.getMessage());
+		verify(editAudit).record(eq(LAYER_ID), eq("parcelles.1"), eq(FeatureOperation.Type.UPDATE), any(), any());
+	}
+
+	@Test
+	void aTransactionLeftWithoutResponseSignalsItsFeaturesToSyncedClients() {
+		doThrow(new CartographicServerUnavailableException("GeoServer unavailable: Read timed out",
+				new SocketTimeoutException("Read timed out")))
+				.when(cartographicServerPort).executeTransaction(anyList());
+
+		assertThrows(CartographicServerUnavailableException.class,
+				() -> adapter.editBoundary(LAYER_ID, "parcelles.2", moveVertex(null)));
+		verify(changeRecorder).recordAll(List.of(
+				FeatureChange.of(LAYER_ID, "parcelles.2", FeatureOperation.Type.UPDATE),
+				FeatureChange.of(LAYER_ID, "parcelles.1", FeatureOperation.Type.UPDATE)));
+		verify(editAudit, never()).record(any(), any(), any(), any(), any());
+	}
+
+	@Test
+	void aTransactionThatMayHaveCommittedIsReportedUnconfirmed() {
+		doAnswer(invocation -> {
+			List<FeatureOperation> operations = invocation.getArgument(0);
+			return operations.stream()
+					.map(operation -> FeatureOperationOutcome.failed(operation.feature().getId(),
+							GeoserverAdapter.TRANSACTION_FAILED_PREFIX + "503 Service Unavailable"))
+					.toList();
+		}).when(cartographicServerPort).executeTransaction(anyList());
+
+		TopologyEditResult result = adapter.editBoundary(LAYER_ID, "parcelles.2", moveVertex(null));
+
+		assertFalse(result.isSuccess());
+		assertTrue(result.isUnconfirmed());
+		verify(changeRecorder).recordAll(anyList());
+	}
+
+	@Test
+	void aRolledBackTransactionLeavesNoChange() {
+		doAnswer(invocation -> {
+			List<FeatureOperation> operations = invocation.getArgument(0);
+			return operations.stream()
+					.map(operation -> FeatureOperationOutcome.failed(operation.feature().getId(),
+							GeoserverAdapter.ROLLED_BACK_PREFIX + "operation op-1 failed"))
+					.toList();
+		}).when(cartographicServerPort).executeTransaction(anyList());
+
+		TopologyEditResult result = adapter.editBoundary(LAYER_ID, "parcelles.2", moveVertex(null));
+
+		assertFalse(result.isSuccess());
+		assertFalse(result.isUnconfirmed());
+		verify(changeRecorder, never()).recordAll(anyList());
+		verify(changeRecorder, never()).resetLayer(any());
+	}
+
+	private static TopologyEditRequest moveVertex(String leaseToken) {
+		return TopologyEditRequest.builder()
+				.from(List.of(new double[] { 10, 10 }))
+				.to(List.of(new double[] { 11, 12 }))
+				.leaseToken(leaseToken)
+				.build();
+	}
+
+	private static Feature parcel(String id, double... ring) {
+		double[] coordinates = new double[ring.length + 2];
+		System.arraycopy(ring, 0, coordinates, 0, ring.length);
+		coordinates[ring.length] = NaN;
+		coordinates[ring.length + 1] = NaN;
+		return Feature.builder()
+				.id(id)
+				.geometry(FeatureGeometry.builder().type("Polygon").coordinates(coordinates).build())
+				.properties(Map.of("nom", id))
+				.crs("EPSG:2154")
+				.build();
+	}
+}
@@ -0,0 +1,91 @@
+package com.amine.pfe.drawing_module.infrastructure.service.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class WeightedFairLimiterTests {
+
+	// Un thread par attente : le pool commun peut n'en avoir qu'un
+	private final ExecutorService threads = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void tearDown() {
+		threads.shutdownNow();
+	}
+
+	@Test
+	void workspacesShareTheBudgetByWeight() throws Exception {
+		Map<String, Integer> weights = Map.of("A", 2);
+		WeightedFairLimiter limiter = new WeightedFairLimiter("interactive", 1, 100,
+				Duration.ofSeconds(10).toNanos(), workspace -> weights.getOrDefault(workspace, 1));
+		limiter.acquire("A");
+
+		List<String> admitted = Collections.synchronizedList(new ArrayList<>());
+		List<CompletableFuture<Void>> waiters = new ArrayList<>();
+		// Le workspace A inonde la file avant que B n'arrive
+		for (String workspace : List.of("A", "A", "A", "A", "A", "A", "B", "B")) {
+			int queued = limiter.queued();
+			waiters.add(CompletableFuture.runAsync(() -> {
+				try {
+					limiter.acquire(workspace);
+					admitted.add(workspace);
+					limiter.release(0);
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+			}, threads));
+			awaitQueued(limiter, queued + 1);
+		}
+
+		limiter.release(0);
+		CompletableFuture.allOf(waiters.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+		assertEquals(List.of("A", "A", "B", "A", "A", "B", "A", "A"), admitted);
+	}
+
+	@Test
+	void saturatedClassIsShedWithRetryAfter() throws Exception {
+		WeightedFairLimiter limiter = new WeightedFairLimiter("bulk", 1, 1, Duration.ofMillis(200).toNanos(),
+				workspace -> 1);
+		limiter.acquire("A");
+
+		CompletableFuture<Void> waiter = CompletableFuture.runAsync(() -> {
+			try {
+				limiter.acquire("A");
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		}, threads);
+		awaitQueued(limiter, 1);
+
+		AdmissionRejectedException full = assertThrows(AdmissionRejectedException.class, () -> limiter.acquire("B"));
+		assertTrue(full.getRetryAfterSeconds() >= 1);
+
+		// Jamais libéré : l'attente dépasse l'objectif de latence
+		Exception timedOut = assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS));
+		assertTrue(timedOut.getCause() instanceof AdmissionRejectedException, timedOut.toString());
+		assertEquals(0, limiter.queued());
+		assertEquals(1, limiter.inFlight());
+	}
+
+	private static void awaitQueued(WeightedFairLimiter limiter, int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (limiter.queued() < expected && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		assertEquals(expected, limiter.queued());
+	}
+}
@@ -0,0 +1,140 @@
+package com.amine.pfe.drawing_module.infrastructure.service.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import com.amine.pfe.drawing_module.config.EditAuditProperties;
+import com.amine.pfe.drawing_module.domain.model.EditAuditRecord;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.port.out.EditAuditStorePort;
+import com.amine.pfe.drawing_module.infrastructure.logging.Editor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EditAuditLogTests {
+
+	private static final UUID LAYER_ID = UUID.randomUUID();
+
+	static class BlockingStore implements EditAuditStorePort {
+
+		final List<EditAuditRecord> rows = new CopyOnWriteArrayList<>();
+		final List<Integer> batches = new CopyOnWriteArrayList<>();
+		final CountDownLatch open = new CountDownLatch(1);
+
+		@Override
+		public void append(List<EditAuditRecord> records) {
+			try {
+				open.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			batches.add(records.size());
+			rows.addAll(records);
+		}
+
+		@Override
+		public boolean createPartition(YearMonth month) {
+			return true;
+		}
+
+		@Override
+		public int dropPartitionsBefore(YearMonth month) {
+			return 0;
+		}
+	}
+
+	@Test
+	void concurrentProducersLoseNothingAndKeepTheirOrder() throws Exception {
+		AuditQueue<long[]> queue = new AuditQueue<>(1_000);
+		assertEquals(1_024, queue.capacity());
+		int producers = 4;
+		int perProducer = 200_000;
+
+		ExecutorService executor = Executors.newFixedThreadPool(producers);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int p = 0; p < producers; p++) {
+				long producer = p;
+				futures.add(executor.submit(() -> {
+					for (long i = 0; i < perProducer; i++) {
+						while (!queue.offer(new long[] { producer, i })) {
+							Thread.onSpinWait();
+						}
+					}
+				}));
+			}
+
+			long[] next = new long[producers];
+			List<long[]> drained = new ArrayList<>();
+			int received = 0;
+			while (received < producers * perProducer) {
+				drained.clear();
+				received += queue.drainTo(drained, 256);
+				for (long[] element : drained) {
+					assertEquals(next[(int) element[0]]++, element[1]);
+				}
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			assertTrue(queue.isEmpty());
+		} finally {
+			executor.shutdown();
+		}
+
+		AuditQueue<Integer> full = new AuditQueue<>(2);
+		assertTrue(full.offer(1) && full.offer(2));
+		assertFalse(full.offer(3));
+	}
+
+	@Test
+	void aSlowDatabaseDropsAuditRowsInsteadOfDelayingEdits() {
+		EditAuditProperties properties = new EditAuditProperties();
+		properties.setEnabled(true);
+		properties.setQueueCapacity(4);
+		properties.setBatchSize(2);
+		properties.setFlushInterval(Duration.ofMillis(10));
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		BlockingStore store = new BlockingStore();
+		EditAuditLog audit = new EditAuditLog(store, properties, registry);
+		audit.start();
+
+		MDC.put(Editor.MDC_KEY, "alice");
+		long start = System.nanoTime();
+		try {
+			for (int i = 0; i < 20; i++) {
+				audit.record(LAYER_ID, "parcelles." + i, FeatureOperation.Type.UPDATE, null, Map.of("surface", i));
+			}
+		} finally {
+			MDC.remove(Editor.MDC_KEY);
+		}
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+
+		store.open.countDown();
+		audit.close();
+
+		double dropped = registry.get("drawing.audit.dropped").tag("reason", "queue-full").counter().count();
+		assertTrue(dropped >= 14, "dropped: " + dropped);
+		assertEquals(20, store.rows.size() + dropped);
+		assertEquals(store.rows.size(), registry.get("drawing.audit.written").counter().count());
+		assertTrue(store.batches.stream().allMatch(size -> size <= 2));
+		assertTrue(store.rows.stream().allMatch(row -> "alice".equals(row.editor())));
+	}
+}
@@ -0,0 +1,60 @@
+package com.amine.pfe.drawing_module.infrastructure.service.crs;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CrsTransformerTests {
+
+	private final CrsTransformer transformer = new CrsTransformer();
+
+	@Test
+	void normalizesCommonCrsNotations() {
+		assertEquals("EPSG:2154", CrsTransformer.normalize("EPSG:2154"));
+		assertEquals("EPSG:2154", CrsTransformer.normalize("epsg:2154"));
+		assertEquals("EPSG:2154", CrsTransformer.normalize("urn:ogc:def:crs:EPSG::2154"));
+		assertEquals("EPSG:2154", CrsTransformer.normalize("urn:ogc:def:crs:EPSG:6.9:2154"));
+		assertEquals("EPSG:2154", CrsTransformer.normalize("http://www.opengis.net/gml/srs/epsg.xml#2154"));
+		assertTrue(CrsTransformer.sameCrs("EPSG:3857", "urn:ogc:def:crs:EPSG::3857"));
+		assertThrows(IllegalArgumentException.class, () -> CrsTransformer.normalize("EPSG\"/><x"));
+	}
+
+	@Test
+	void transformsInPlaceAndKeepsPartMarkers() {
+		double[] coordinates = {
+				0, 0, 20037508.342789244, 0, Double.NaN, Double.NaN,
+				Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY };
+
+		transformer.transformInPlace(coordinates, "EPSG:3857", "EPSG:4326");
+
+		assertEquals(0, coordinates[0], 1e-9);
+		assertEquals(0, coordinates[1], 1e-9);
+		assertEquals(180, coordinates[2], 1e-9);
+		assertEquals(0, coordinates[3], 1e-9);
+		assertTrue(Double.isNaN(coordinates[4]) && Double.isNaN(coordinates[5]));
+		assertEquals(Double.NEGATIVE_INFINITY, coordinates[6]);
+	}
+
+	@Test
+	void webMercatorToLambert93RoundTrips() {
+		// Paris (Notre-Dame) en Web Mercator
+		double[] original = { 261_838.0, 6_250_233.0 };
+		double[] coordinates = original.clone();
+
+		transformer.transformInPlace(coordinates, "EPSG:3857", "EPSG:2154");
+		assertEquals(652_000, coordinates[0], 2_000);
+		assertEquals(6_861_000, coordinates[1], 2_000);
+
+		transformer.transformInPlace(coordinates, "EPSG:2154", "EPSG:3857");
+		assertArrayEquals(original, coordinates, 1e-3);
+	}
+
+	@Test
+	void unknownCrsIsRejected() {
+		assertThrows(IllegalArgumentException.class,
+				() -> transformer.transformInPlace(new double[] { 1, 2 }, "EPSG:3857", "EPSG:999999"));
+	}
+}
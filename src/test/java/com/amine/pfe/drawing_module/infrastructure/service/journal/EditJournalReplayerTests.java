@@ -0,0 +1,163 @@
+package com.amine.pfe.drawing_module.infrastructure.service.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.amine.pfe.drawing_module.config.EditJournalProperties;
+import com.amine.pfe.drawing_module.config.FeatureFingerprintProperties;
+import com.amine.pfe.drawing_module.config.FeatureSyncProperties;
+import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
+import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateResult;
+import com.amine.pfe.drawing_module.domain.exception.CartographicServerUnavailableException;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.model.LayerSchema;
+import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.domain.port.out.EditAuditPort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeasePort;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+import com.amine.pfe.drawing_module.infrastructure.logging.PayloadLogSampler;
+import com.amine.pfe.drawing_module.infrastructure.service.FeatureCache;
+import com.amine.pfe.drawing_module.infrastructure.service.FeatureFingerprintStore;
+import com.amine.pfe.drawing_module.infrastructure.service.LayerManagerAdapter;
+import com.amine.pfe.drawing_module.infrastructure.service.crs.CrsTransformer;
+import com.amine.pfe.drawing_module.infrastructure.service.sync.FeatureChangeRecorder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EditJournalReplayerTests {
+
+	private static final UUID LAYER_ID = UUID.randomUUID();
+	private static final LayerCatalog PARCELS = new LayerCatalog(LAYER_ID, "Parcelles", "parcelles", "cadastre", "parcelles");
+
+	@TempDir
+	Path directory;
+
+	private CartographicServerPort cartographicServerPort;
+	private EditJournal journal;
+	private LayerManagerAdapter layerManager;
+	private EditJournalReplayer replayer;
+
+	@BeforeEach
+	void setUp() {
+		LayerRepositoryPort repository = mock(LayerRepositoryPort.class);
+		when(repository.findLayerCatalogById(LAYER_ID)).thenReturn(Optional.of(PARCELS));
+
+		cartographicServerPort = mock(CartographicServerPort.class);
+		when(cartographicServerPort.getLayerSchema(anyString(), anyString()))
+				.thenReturn(new LayerSchema("Point", List.of(new LayerSchema.Attribute("nature", "text", "String")),
+						"EPSG:2154"));
+
+		EditJournalProperties properties = new EditJournalProperties();
+		properties.setEnabled(true);
+		properties.setDirectory(directory.toString());
+		ObjectMapper objectMapper = new ObjectMapper();
+		journal = new EditJournal(properties, objectMapper, new SimpleMeterRegistry());
+		journal.open();
+		layerManager = new LayerManagerAdapter(repository, cartographicServerPort, objectMapper,
+				mock(PayloadLogSampler.class), new CrsTransformer(), journal,
+				new FeatureCache(1_000, 60, new SimpleMeterRegistry()), null,
+				new FeatureChangeRecorder(null, new FeatureSyncProperties()),
+				new FeatureFingerprintStore(new FeatureFingerprintProperties(), new SimpleMeterRegistry()),
+				mock(FeatureLeasePort.class), mock(EditAuditPort.class));
+		replayer = new EditJournalReplayer(journal, layerManager, new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	void closeJournal() {
+		journal.close();
+	}
+
+	@Test
+	void anInsertThatNeverReachedGeoserverIsQueuedAndReplayedOnce() {
+		when(cartographicServerPort.insertFeature(eq(PARCELS), any()))
+				.thenThrow(unavailable(new ConnectException("Connection refused")))
+				.thenReturn("parcelles.9");
+
+		FeatureUpdateResult result = layerManager.insertFeature(LAYER_ID, point());
+
+		assertTrue(result.isQueued());
+		assertEquals(1, replayer.replayPending());
+		assertFalse(journal.hasBacklog());
+		assertEquals(0, replayer.replayPending());
+		verify(cartographicServerPort, times(2)).insertFeature(eq(PARCELS), any());
+	}
+
+	@Test
+	void anInsertWithoutResponseIsReportedUnconfirmedAndNeverResent() {
+		when(cartographicServerPort.insertFeature(eq(PARCELS), any()))
+				.thenThrow(unavailable(new SocketTimeoutException("Read timed out")));
+
+		FeatureUpdateResult result = layerManager.insertFeature(LAYER_ID, point());
+
+		assertFalse(result.isSuccess());
+		assertFalse(result.isQueued());
+		assertTrue(result.isUnconfirmed());
+		assertEquals(0, journal.pendingCount());
+		assertEquals(0, replayer.replayPending());
+		verify(cartographicServerPort, times(1)).insertFeature(eq(PARCELS), any());
+	}
+
+	@Test
+	void aReplayedInsertWithoutResponseIsDroppedRatherThanResent() {
+		when(cartographicServerPort.insertFeature(eq(PARCELS), any()))
+				.thenThrow(unavailable(new ConnectException("Connection refused")))
+				.thenThrow(unavailable(new SocketTimeoutException("Read timed out")));
+		layerManager.insertFeature(LAYER_ID, point());
+
+		assertEquals(1, replayer.replayPending());
+		assertEquals(0, journal.pendingCount());
+		assertEquals(0, replayer.replayPending());
+		verify(cartographicServerPort, times(2)).insertFeature(eq(PARCELS), any());
+	}
+
+	@Test
+	void replayStopsAtAnEditStillInFlight() {
+		long inFlight = journal.append(JournalEntry.delete(LAYER_ID, "parcelles.1"));
+		long queued = journal.append(JournalEntry.delete(LAYER_ID, "parcelles.1"));
+		journal.release(queued);
+
+		assertEquals(0, replayer.replayPending());
+		verify(cartographicServerPort, never()).deleteFeature(any(), anyString());
+
+		journal.complete(inFlight, true);
+		when(cartographicServerPort.deleteFeature(PARCELS, "parcelles.1")).thenReturn(true);
+		assertEquals(1, replayer.replayPending());
+		assertFalse(journal.isPending(queued));
+	}
+
+	private static CartographicServerUnavailableException unavailable(Exception cause) {
+		return new CartographicServerUnavailableException("GeoServer unavailable for WFS-T Insert in layer Parcelles: "
+				+ cause.getMessage(), cause);
+	}
+
+	private static FeatureUpdateRequest point() {
+		return FeatureUpdateRequest.builder()
+				.geometry("{\"type\":\"Point\",\"coordinates\":[700000,6600000]}")
+				.properties(Map.of("nature", "bâti"))
+				.crs("EPSG:2154")
+				.build();
+	}
+}
@@ -0,0 +1,173 @@
+package com.amine.pfe.drawing_module.infrastructure.service.journal;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.amine.pfe.drawing_module.config.EditJournalProperties;
+import com.amine.pfe.drawing_module.domain.dto.FeatureUpdateRequest;
+import com.amine.pfe.drawing_module.domain.exception.CartographicServerUnavailableException;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EditJournalTests {
+
+	private static final UUID LAYER_ID = UUID.randomUUID();
+
+	@TempDir
+	Path directory;
+
+	private EditJournal journal;
+
+	@AfterEach
+	void closeJournal() {
+		if (journal != null) {
+			journal.close();
+		}
+	}
+
+	@Test
+	void onlyUnresolvedEditsAreReplayedAfterRestart() {
+		journal = open(DataSize.ofMegabytes(1));
+		long committed = journal.append(JournalEntry.insert(LAYER_ID, request("{\"type\":\"Point\",\"coordinates\":[1,2]}")));
+		long aborted = journal.append(JournalEntry.delete(LAYER_ID, "parcelles.7"));
+		long unresolved = journal.append(JournalEntry.update(LAYER_ID, "parcelles.12",
+				request("{\"type\":\"Point\",\"coordinates\":[3,4]}")));
+		journal.complete(committed, true);
+		journal.complete(aborted, false);
+		journal.close();
+
+		journal = open(DataSize.ofMegabytes(1));
+		assertEquals(List.of(unresolved), journal.pendingSequences());
+		assertTrue(journal.hasBacklog());
+		assertThrows(CartographicServerUnavailableException.class, journal::requireNoBacklog);
+
+		JournalEntry entry = journal.claim(unresolved).orElseThrow();
+		assertEquals(FeatureOperation.Type.UPDATE, entry.operation());
+		assertEquals("parcelles.12", entry.featureId());
+		assertEquals("EPSG:4326", entry.crs());
+		assertEquals("route", entry.properties().get("nature"));
+		assertTrue(journal.claim(unresolved).isEmpty());
+
+		journal.complete(unresolved, true);
+		assertFalse(journal.hasBacklog());
+		assertDoesNotThrow(journal::requireNoBacklog);
+		assertTrue(journal.append(JournalEntry.delete(LAYER_ID, "parcelles.1")) > unresolved);
+	}
+
+	@Test
+	void tornRecordIsIgnoredOnRecovery() throws IOException {
+		journal = open(DataSize.ofMegabytes(1));
+		long first = journal.append(JournalEntry.delete(LAYER_ID, "parcelles.1"));
+		journal.append(JournalEntry.delete(LAYER_ID, "parcelles.2"));
+		journal.close();
+
+		// Écriture interrompue : dernier octet du second enregistrement corrompu
+		Path segment = segments().get(0);
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer header = ByteBuffer.allocate(4);
+			channel.read(header, 0);
+			int secondRecord = 8 + header.flip().getInt();
+			header.clear();
+			channel.read(header, secondRecord);
+			int end = secondRecord + 8 + header.flip().getInt();
+			channel.write(ByteBuffer.wrap(new byte[] { 0x7f }), end - 1);
+		}
+
+		journal = open(DataSize.ofMegabytes(1));
+		assertEquals(List.of(first), journal.pendingSequences());
+	}
+
+	@Test
+	void resolvedSegmentsAreCompactedAndPendingEditsMovedForward() throws IOException {
+		journal = open(DataSize.ofKilobytes(4));
+		long pending = journal.append(JournalEntry.delete(LAYER_ID, "parcelles.pending"));
+		journal.release(pending);
+
+		for (int i = 0; i < 500; i++) {
+			long sequence = journal.append(JournalEntry.delete(LAYER_ID, "parcelles." + i));
+			journal.complete(sequence, true);
+		}
+		assertTrue(segments().size() <= 2, "segments: " + segments());
+		journal.close();
+
+		journal = open(DataSize.ofKilobytes(4));
+		assertEquals(List.of(pending), journal.pendingSequences());
+		assertEquals("parcelles.pending", journal.claim(pending).orElseThrow().featureId());
+	}
+
+	@Test
+	void markersOfARetainedSegmentSurviveCompaction() throws IOException {
+		// Ratio nul : le segment 1 est conservé tant qu'il porte une édition en attente
+		journal = open(DataSize.ofKilobytes(4), 0);
+		long pending = journal.append(JournalEntry.delete(LAYER_ID, "parcelles.pending"));
+		journal.release(pending);
+
+		// Éditions du segment 1 dont les COMMIT sont écrits dans les segments suivants
+		List<Long> committed = new ArrayList<>();
+		while (segments().size() < 2) {
+			committed.add(journal.append(JournalEntry.delete(LAYER_ID, "parcelles." + committed.size())));
+		}
+		for (long sequence : committed) {
+			journal.complete(sequence, true);
+		}
+		for (int i = 0; i < 200; i++) {
+			journal.complete(journal.append(JournalEntry.delete(LAYER_ID, "parcelles.next" + i)), true);
+		}
+		journal.compact();
+		journal.close();
+
+		journal = open(DataSize.ofKilobytes(4), 0);
+		assertEquals(List.of(pending), journal.pendingSequences());
+	}
+
+	private EditJournal open(DataSize segmentSize) {
+		return open(segmentSize, new EditJournalProperties().getCompactionRatio());
+	}
+
+	private EditJournal open(DataSize segmentSize, double compactionRatio) {
+		EditJournalProperties properties = new EditJournalProperties();
+		properties.setCompactionRatio(compactionRatio);
+		properties.setEnabled(true);
+		properties.setDirectory(directory.toString());
+		properties.setSegmentSize(segmentSize);
+		EditJournal opened = new EditJournal(properties, new ObjectMapper(), new SimpleMeterRegistry());
+		opened.open();
+		return opened;
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.sorted().toList();
+		}
+	}
+
+	private static FeatureUpdateRequest request(String geometry) {
+		return FeatureUpdateRequest.builder()
+				.geometry(geometry)
+				.properties(Map.of("nature", "route"))
+				.crs("EPSG:4326")
+				.build();
+	}
+}
@@ -0,0 +1,158 @@
+package com.amine.pfe.drawing_module.infrastructure.service.lease;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amine.pfe.drawing_module.config.FeatureLeaseProperties;
+import com.amine.pfe.drawing_module.domain.exception.FeatureLeaseConflictException;
+import com.amine.pfe.drawing_module.domain.exception.FeatureLeasesDisabledException;
+import com.amine.pfe.drawing_module.domain.model.FeatureLease;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureLeaseStorePort;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FeatureLeaseAdapterTests {
+
+	private static final UUID LAYER_ID = UUID.randomUUID();
+
+	private FeatureLeaseAdapter leases;
+	private SimpleMeterRegistry meterRegistry;
+
+	// Même contrat que drawing.feature_lease : un bail par feature, remplacé une fois expiré
+	static class InMemoryLeaseStore implements FeatureLeaseStorePort {
+
+		private final Map<String, FeatureLease> leases = new ConcurrentHashMap<>();
+
+		@Override
+		public synchronized FeatureLease acquire(UUID layerId, String featureId, String holder, UUID token,
+				Duration ttl) {
+			Optional<FeatureLease> current = current(layerId, featureId);
+			if (current.isPresent()) {
+				return current.get();
+			}
+			FeatureLease lease = new FeatureLease(layerId, featureId, holder, token, Instant.now().plus(ttl));
+			leases.put(layerId + "/" + featureId, lease);
+			return lease;
+		}
+
+		@Override
+		public synchronized Optional<FeatureLease> renew(UUID layerId, String featureId, UUID token, Duration ttl) {
+			return current(layerId, featureId)
+					.filter(lease -> lease.token().equals(token))
+					.map(lease -> {
+						FeatureLease renewed = new FeatureLease(layerId, featureId, lease.holder(), token,
+								Instant.now().plus(ttl));
+						leases.put(layerId + "/" + featureId, renewed);
+						return renewed;
+					});
+		}
+
+		@Override
+		public synchronized boolean release(UUID layerId, String featureId, UUID token) {
+			return leases.remove(layerId + "/" + featureId, current(layerId, featureId)
+					.filter(lease -> lease.token().equals(token)).orElse(null));
+		}
+
+		@Override
+		public Optional<FeatureLease> current(UUID layerId, String featureId) {
+			return Optional.ofNullable(leases.get(layerId + "/" + featureId))
+					.filter(lease -> lease.expiresAt().isAfter(Instant.now()));
+		}
+
+		@Override
+		public boolean hasActiveLease(UUID layerId) {
+			return leases.values().stream()
+					.anyMatch(lease -> lease.layerId().equals(layerId) && lease.expiresAt().isAfter(Instant.now()));
+		}
+
+		@Override
+		public int purgeExpired() {
+			return 0;
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+		FeatureLeaseProperties properties = new FeatureLeaseProperties();
+		properties.setEnabled(true);
+		meterRegistry = new SimpleMeterRegistry();
+		leases = new FeatureLeaseAdapter(new InMemoryLeaseStore(), properties, meterRegistry);
+	}
+
+	@Test
+	void onlyTheHolderEditsALeasedFeature() {
+		FeatureLease lease = leases.acquire(LAYER_ID, "parcelles.1", "alice", null);
+
+		FeatureLeaseConflictException conflict = assertThrows(FeatureLeaseConflictException.class,
+				() -> leases.acquire(LAYER_ID, "parcelles.1", "bob", null));
+		assertEquals("alice", conflict.getCurrent().holder());
+		assertThrows(FeatureLeaseConflictException.class, () -> leases.checkEdit(LAYER_ID, "parcelles.1", null));
+		assertDoesNotThrow(() -> leases.checkEdit(LAYER_ID, "parcelles.1", lease.token().toString()));
+		assertDoesNotThrow(() -> leases.checkEdit(LAYER_ID, "parcelles.2", null));
+
+		assertTrue(leases.release(LAYER_ID, "parcelles.1", lease.token()));
+		assertDoesNotThrow(() -> leases.checkEdit(LAYER_ID, "parcelles.1", null));
+		assertEquals("bob", leases.acquire(LAYER_ID, "parcelles.1", "bob", null).holder());
+	}
+
+	@Test
+	void anExpiredLeaseCannotBeRenewedAndFreesTheFeature() throws InterruptedException {
+		FeatureLease lease = leases.acquire(LAYER_ID, "parcelles.1", "alice", Duration.ofMillis(50));
+		Thread.sleep(100);
+
+		assertThrows(FeatureLeaseConflictException.class,
+				() -> leases.renew(LAYER_ID, "parcelles.1", lease.token(), null));
+		assertDoesNotThrow(() -> leases.checkEdit(LAYER_ID, "parcelles.1", null));
+		assertThrows(IllegalArgumentException.class,
+				() -> leases.acquire(LAYER_ID, "parcelles.1", "bob", Duration.ofHours(2)));
+	}
+
+	@Test
+	void anyOfSeveralTokensUnlocksTheFeatureItLeases() {
+		FeatureLease first = leases.acquire(LAYER_ID, "parcelles.1", "alice", null);
+		FeatureLease second = leases.acquire(LAYER_ID, "parcelles.2", "alice", null);
+		List<String> tokens = List.of(first.token().toString(), second.token().toString());
+
+		assertDoesNotThrow(() -> leases.checkEditAny(LAYER_ID, "parcelles.1", tokens));
+		assertDoesNotThrow(() -> leases.checkEditAny(LAYER_ID, "parcelles.2", tokens));
+		assertThrows(FeatureLeaseConflictException.class,
+				() -> leases.checkEditAny(LAYER_ID, "parcelles.2", List.of(first.token().toString())));
+		// Un seul conflit compté par feature refusée, quel que soit le nombre de jetons
+		assertEquals(1, meterRegistry.counter("drawing.lease.conflicts").count());
+	}
+
+	@Test
+	void anEditByFilterIsRefusedWhileTheLayerHasALease() {
+		FeatureLease lease = leases.acquire(LAYER_ID, "parcelles.1", "alice", null);
+
+		assertThrows(FeatureLeaseConflictException.class, () -> leases.checkLayerEdit(LAYER_ID));
+		assertDoesNotThrow(() -> leases.checkLayerEdit(UUID.randomUUID()));
+
+		leases.release(LAYER_ID, "parcelles.1", lease.token());
+		assertDoesNotThrow(() -> leases.checkLayerEdit(LAYER_ID));
+	}
+
+	@Test
+	void leaseOperationsAreRefusedWhenLeasesAreDisabled() {
+		FeatureLeaseAdapter disabled = new FeatureLeaseAdapter(new InMemoryLeaseStore(), new FeatureLeaseProperties(),
+				new SimpleMeterRegistry());
+
+		assertThrows(FeatureLeasesDisabledException.class,
+				() -> disabled.acquire(LAYER_ID, "parcelles.1", "alice", null));
+		assertDoesNotThrow(() -> disabled.checkEdit(LAYER_ID, "parcelles.1", null));
+		assertDoesNotThrow(() -> disabled.checkLayerEdit(LAYER_ID));
+	}
+}
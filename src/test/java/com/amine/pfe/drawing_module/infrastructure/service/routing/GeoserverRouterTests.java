@@ -0,0 +1,137 @@
+package com.amine.pfe.drawing_module.infrastructure.service.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amine.pfe.drawing_module.config.GeoserverRoutingProperties;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class GeoserverRouterTests {
+
+	private final List<HttpServer> servers = new ArrayList<>();
+	private final List<AtomicInteger> hits = new ArrayList<>();
+	private GeoserverRouter router;
+
+	@BeforeEach
+	void startStubServers() throws IOException {
+		for (int i = 0; i < 3; i++) {
+			String name = "gs" + i;
+			AtomicInteger counter = new AtomicInteger();
+			HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+			server.createContext("/", exchange -> {
+				counter.incrementAndGet();
+				byte[] body = name.getBytes(StandardCharsets.UTF_8);
+				exchange.sendResponseHeaders(200, body.length);
+				exchange.getResponseBody().write(body);
+				exchange.close();
+			});
+			server.start();
+			servers.add(server);
+			hits.add(counter);
+		}
+
+		GeoserverRoutingProperties.Pool pool = new GeoserverRoutingProperties.Pool();
+		pool.setPrimary(url(0));
+		pool.setReplicas(List.of(url(1), url(2)));
+		pool.setWorkspaces(List.of("cadastre"));
+
+		GeoserverRoutingProperties properties = new GeoserverRoutingProperties();
+		properties.setEjectionThreshold(2);
+		properties.setPools(Map.of("cadastre", pool));
+
+		router = new GeoserverRouter(properties, new SimpleMeterRegistry(), event -> {
+		}, "http://127.0.0.1:1/geoserver",
+				"admin", "geoserver");
+	}
+
+	@AfterEach
+	void stopStubServers() {
+		servers.forEach(server -> server.stop(0));
+	}
+
+	@Test
+	void writesArePinnedToThePrimary() {
+		for (int i = 0; i < 20; i++) {
+			assertEquals("gs0", router.write("cadastre", "parcelles", GeoserverRouterTests::get));
+		}
+		assertEquals(20, hits.get(0).get());
+	}
+
+	@Test
+	void readsAreSpreadAcrossThePool() {
+		for (int i = 0; i < 90; i++) {
+			router.read("cadastre", "parcelles", GeoserverRouterTests::get);
+		}
+		hits.forEach(counter -> assertTrue(counter.get() > 0));
+	}
+
+	@Test
+	void failingEndpointIsEjectedAndReadsFailOver() {
+		servers.get(2).stop(0);
+
+		for (int i = 0; i < 50; i++) {
+			String served = router.read("cadastre", "parcelles", GeoserverRouterTests::get);
+			assertFalse("gs2".equals(served));
+		}
+
+		GeoserverEndpoint failed = router.poolFor("cadastre", "parcelles").members().get(2);
+		assertFalse(failed.isAvailable());
+		assertEquals(50, hits.get(0).get() + hits.get(1).get());
+	}
+
+	@Test
+	void healthChecksDoNotCancelAnEjectionAndRequireASuccessStatus() {
+		List<GeoserverEndpoint> members = router.poolFor("cadastre", "parcelles").members();
+		members.get(1).eject(60_000);
+		servers.get(2).createContext("/geoserver/rest/about/version.json", exchange -> {
+			exchange.sendResponseHeaders(401, -1);
+			exchange.close();
+		});
+
+		router.checkHealth();
+
+		assertTrue(members.get(0).isAvailable());
+		assertFalse(members.get(1).isAvailable());
+		assertFalse(members.get(2).isAvailable());
+	}
+
+	@Test
+	void unknownWorkspacesUseTheDefaultPool() {
+		assertEquals("http://127.0.0.1:1/geoserver", router.poolFor("autre", "couche").primary().url());
+	}
+
+	private String url(int index) {
+		return "http://127.0.0.1:" + servers.get(index).getAddress().getPort() + "/geoserver";
+	}
+
+	private static String get(String baseUrl) {
+		try {
+			HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/wfs").openConnection();
+			connection.setConnectTimeout(500);
+			try (InputStream in = connection.getInputStream()) {
+				return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package com.amine.pfe.drawing_module.infrastructure.service.sync;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amine.pfe.drawing_module.config.FeatureSyncProperties;
+import com.amine.pfe.drawing_module.domain.dto.EditOperation;
+import com.amine.pfe.drawing_module.domain.dto.EditOperationResult;
+import com.amine.pfe.drawing_module.domain.dto.EditSessionRequest;
+import com.amine.pfe.drawing_module.domain.dto.EditSessionResult;
+import com.amine.pfe.drawing_module.domain.dto.SyncUploadRequest;
+import com.amine.pfe.drawing_module.domain.dto.SyncUploadResult;
+import com.amine.pfe.drawing_module.domain.exception.FeatureSyncDisabledException;
+import com.amine.pfe.drawing_module.domain.model.Feature;
+import com.amine.pfe.drawing_module.domain.model.FeatureChange;
+import com.amine.pfe.drawing_module.domain.model.FeatureOperation;
+import com.amine.pfe.drawing_module.domain.model.GeometryEncoding;
+import com.amine.pfe.drawing_module.domain.model.LayerCatalog;
+import com.amine.pfe.drawing_module.domain.model.SyncWindow;
+import com.amine.pfe.drawing_module.domain.port.out.CartographicServerPort;
+import com.amine.pfe.drawing_module.domain.port.out.EditSessionPort;
+import com.amine.pfe.drawing_module.domain.port.out.FeatureChangeLogPort;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class FeatureSyncAdapterTests {
+
+	private final LayerCatalog parcels = new LayerCatalog(UUID.randomUUID(), "Parcelles", "parcelles", "cadastre",
+			"parcelles");
+	private final InMemoryChangeLog changeLog = new InMemoryChangeLog();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private LayerRepositoryPort repository;
+	private CartographicServerPort cartographicServerPort;
+	private EditSessionPort editSessionPort;
+	private FeatureSyncAdapter adapter;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(LayerRepositoryPort.class);
+		when(repository.findLayerCatalogById(parcels.layerId())).thenReturn(Optional.of(parcels));
+		cartographicServerPort = mock(CartographicServerPort.class);
+		editSessionPort = mock(EditSessionPort.class);
+
+		FeatureSyncProperties properties = new FeatureSyncProperties();
+		properties.setEnabled(true);
+		properties.setPageSize(2);
+		adapter = new FeatureSyncAdapter(repository, changeLog, cartographicServerPort, editSessionPort,
+				objectMapper, properties, 500);
+	}
+
+	@Test
+	void eachChangedFeatureIsSentOnceWithItsLatestState() throws Exception {
+		changeLog.record("parcelles.1", FeatureOperation.Type.INSERT);
+		changeLog.record("parcelles.2", FeatureOperation.Type.INSERT);
+		changeLog.record("parcelles.1", FeatureOperation.Type.UPDATE);
+		changeLog.record("parcelles.3", FeatureOperation.Type.UPDATE);
+		changeLog.record("parcelles.2", FeatureOperation.Type.DELETE);
+		// parcelles.3 a disparu de GeoServer sans que sa suppression soit journalisée
+		when(cartographicServerPort.getFeatures(any(), anyCollection())).thenAnswer(invocation -> {
+			Collection<String> ids = invocation.getArgument(1);
+			return ids.stream().filter("parcelles.1"::equals)
+					.map(id -> Feature.builder().id(id).properties(Map.of("nom", "A")).build())
+					.toList();
+		});
+
+		SyncWindow window = adapter.openSync(parcels.layerId(), 0L);
+		JsonNode response = sync(window);
+
+		assertFalse(response.path("reset").asBoolean());
+		assertEquals(5, response.path("token").asLong());
+		List<String> changes = new ArrayList<>();
+		response.path("changes").forEach(change -> changes.add(change.path("token").asLong() + " "
+				+ change.path("operation").asText() + " " + change.path("featureId").asText()));
+		assertEquals(List.of("3 UPDATE parcelles.1", "4 DELETE parcelles.3", "5 DELETE parcelles.2"), changes);
+		assertEquals("A", response.path("changes").get(0).path("feature").path("properties").path("nom").asText());
+	}
+
+	@Test
+	void aDisabledSyncRefusesDownloadsAndUploads() {
+		FeatureSyncAdapter disabled = new FeatureSyncAdapter(repository, changeLog, cartographicServerPort,
+				editSessionPort, objectMapper, new FeatureSyncProperties(), 500);
+
+		assertThrows(FeatureSyncDisabledException.class, () -> disabled.openSync(parcels.layerId(), 0L));
+		assertThrows(FeatureSyncDisabledException.class, () -> disabled.upload(parcels.layerId(),
+				SyncUploadRequest.builder().edits(List.of()).build()));
+	}
+
+	@Test
+	void expiredTokenForcesReloadAndStaleEditsConflict() throws Exception {
+		changeLog.record("parcelles.1", FeatureOperation.Type.UPDATE);
+		changeLog.record("parcelles.2", FeatureOperation.Type.DELETE);
+		changeLog.horizon = 2;
+		changeLog.record("parcelles.1", FeatureOperation.Type.UPDATE);
+
+		SyncWindow window = adapter.openSync(parcels.layerId(), 1L);
+		assertTrue(window.reset());
+		assertEquals(0, sync(window).path("changes").size());
+
+		when(editSessionPort.executeEditSession(any())).thenAnswer(invocation -> {
+			EditSessionRequest session = invocation.getArgument(0);
+			List<EditOperationResult> results = new ArrayList<>();
+			for (int i = 0; i < session.getOperations().size(); i++) {
+				assertEquals(parcels.layerId(), session.getOperations().get(i).getLayerId());
+				results.add(EditOperationResult.builder().index(i).success(true).build());
+			}
+			return EditSessionResult.builder().operations(results).build();
+		});
+		SyncUploadResult result = adapter.upload(parcels.layerId(), SyncUploadRequest.builder()
+				.baseToken(2)
+				.edits(List.of(
+						edit(FeatureOperation.Type.UPDATE, "parcelles.1"),
+						edit(FeatureOperation.Type.INSERT, null),
+						edit(FeatureOperation.Type.DELETE, "parcelles.4")))
+				.build());
+
+		assertFalse(result.isSuccess());
+		assertEquals(2, result.getApplied());
+		assertEquals(1, result.getConflicts().size());
+		assertEquals(0, result.getConflicts().get(0).getIndex());
+		assertEquals(3, result.getConflicts().get(0).getServerToken());
+		assertEquals(List.of(1, 2), result.getOperations().stream().map(EditOperationResult::getIndex).toList());
+
+		SyncUploadResult expired = adapter.upload(parcels.layerId(), SyncUploadRequest.builder()
+				.baseToken(1)
+				.edits(List.of(edit(FeatureOperation.Type.DELETE, "parcelles.4")))
+				.build());
+		assertEquals(-1, expired.getConflicts().get(0).getServerToken());
+	}
+
+	private JsonNode sync(SyncWindow window) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		adapter.writeChanges(window, GeometryEncoding.GEOJSON, out);
+		return objectMapper.readTree(out.toByteArray());
+	}
+
+	private static EditOperation edit(FeatureOperation.Type type, String featureId) {
+		return EditOperation.builder().type(type).featureId(featureId).build();
+	}
+
+	// Mêmes règles que le journal PostgreSQL, sans délai de stabilisation
+	private class InMemoryChangeLog implements FeatureChangeLogPort {
+
+		private final List<FeatureChange> changes = new ArrayList<>();
+		private long horizon;
+
+		void record(String featureId, FeatureOperation.Type operation) {
+			changes.add(new FeatureChange(changes.size() + 1, parcels.layerId(), featureId, operation));
+		}
+
+		@Override
+		public void append(List<FeatureChange> appended) {
+			appended.forEach(change -> record(change.featureId(), change.operation()));
+		}
+
+		@Override
+		public void resetLayer(UUID layerId) {
+			horizon = changes.size();
+		}
+
+		@Override
+		public long settledToken(UUID layerId, long since, Duration settleDelay) {
+			return Math.max(since, changes.size());
+		}
+
+		@Override
+		public long horizon(UUID layerId) {
+			return horizon;
+		}
+
+		@Override
+		public List<FeatureChange> latestChanges(UUID layerId, long since, long upTo, int limit) {
+			Map<String, FeatureChange> latest = new HashMap<>();
+			changes.stream().filter(change -> change.token() <= upTo)
+					.forEach(change -> latest.put(change.featureId(), change));
+			return latest.values().stream()
+					.filter(change -> change.token() > since)
+					.sorted((a, b) -> Long.compare(a.token(), b.token()))
+					.limit(limit)
+					.toList();
+		}
+
+		@Override
+		public Map<String, Long> lastTokens(UUID layerId, long since, Collection<String> featureIds) {
+			Map<String, Long> tokens = new HashMap<>();
+			changes.stream().filter(change -> change.token() > since && featureIds.contains(change.featureId()))
+					.forEach(change -> tokens.put(change.featureId(), change.token()));
+			return tokens;
+		}
+
+		@Override
+		public int compact(Duration tombstoneRetention) {
+			return 0;
+		}
+	}
+}
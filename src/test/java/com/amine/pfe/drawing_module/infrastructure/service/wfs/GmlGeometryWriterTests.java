@@ -0,0 +1,113 @@
+package com.amine.pfe.drawing_module.infrastructure.service.wfs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.amine.pfe.drawing_module.domain.geometry.CoordinateBufferPool;
+import com.amine.pfe.drawing_module.domain.geometry.GeoJsonGeometries;
+import com.amine.pfe.drawing_module.domain.model.FeatureGeometry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class GmlGeometryWriterTests {
+
+	private static final double NaN = Double.NaN;
+	private static final double END = Double.NEGATIVE_INFINITY;
+
+	@Test
+	void polygonWithHoleUsesExteriorThenInteriorRings() throws IOException {
+		FeatureGeometry polygon = geometry("Polygon", 0, 0, 10, 0, 10, 10, 0, 0, NaN, NaN, 2, 2, 3, 2, 3, 3, 2, 2, NaN, NaN);
+
+		assertEquals("<gml:Polygon srsName=\"EPSG:2154\" srsDimension=\"2\">"
+				+ "<gml:exterior><gml:LinearRing><gml:posList>0.000000 0.000000 10.000000 0.000000 10.000000 10.000000"
+				+ " 0.000000 0.000000</gml:posList></gml:LinearRing></gml:exterior>"
+				+ "<gml:interior><gml:LinearRing><gml:posList>2.000000 2.000000 3.000000 2.000000 3.000000 3.000000"
+				+ " 2.000000 2.000000</gml:posList></gml:LinearRing></gml:interior></gml:Polygon>",
+				write(polygon));
+	}
+
+	@Test
+	void multiPolygonHasNoEmptyTrailingMember() throws IOException {
+		FeatureGeometry multiPolygon = geometry("MultiPolygon",
+				0, 0, 1, 0, 1, 1, 0, 0, NaN, NaN, END, END, 5, 5, 6, 5, 6, 6, 5, 5, NaN, NaN, END, END);
+
+		String gml = write(multiPolygon);
+
+		assertEquals(2, gml.split("<gml:polygonMember>", -1).length - 1);
+		assertEquals(-1, gml.indexOf("<gml:Polygon srsDimension=\"2\"></gml:Polygon>"));
+	}
+
+	@Test
+	void lastLineIsWrittenWithoutTrailingMarker() throws IOException {
+		FeatureGeometry multiLine = geometry("MultiLineString", 0, 0, 1, 1, NaN, NaN, 5, 5, 6, 7);
+
+		assertEquals("<gml:MultiLineString srsName=\"EPSG:2154\">"
+				+ "<gml:lineStringMember><gml:LineString srsDimension=\"2\"><gml:posList>0.000000 0.000000 1.000000 1.000000"
+				+ "</gml:posList></gml:LineString></gml:lineStringMember>"
+				+ "<gml:lineStringMember><gml:LineString srsDimension=\"2\"><gml:posList>5.000000 5.000000 6.000000 7.000000"
+				+ "</gml:posList></gml:LineString></gml:lineStringMember></gml:MultiLineString>",
+				write(multiLine));
+	}
+
+	@Test
+	void emptyGeometryIsRejectedBeforeWriting() {
+		assertThrows(IllegalArgumentException.class,
+				() -> new GmlGeometryWriter(geometry("Polygon", NaN, NaN), "EPSG:2154"));
+	}
+
+	@Test
+	void decimalsMatchStringFormat() throws IOException {
+		Random random = new Random(42);
+		double[] values = new double[100_000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(14));
+		}
+		values[0] = -0.0;
+		values[1] = 1e15;
+		values[2] = -0.0000004;
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		XmlUtf8Writer out = new XmlUtf8Writer(bytes, 64);
+		StringBuilder expected = new StringBuilder();
+		for (double value : values) {
+			out.writeDecimal(value);
+			out.writeAscii(' ');
+			expected.append(String.format(Locale.US, "%.6f", value)).append(' ');
+		}
+		out.flush();
+
+		assertEquals(expected.toString(), bytes.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void offHeapGeometryIsWrittenLikeItsHeapCopy() throws IOException {
+		String geoJson = "{\"type\":\"Polygon\",\"coordinates\":[[[0,0],[10.5,0],[10.5,10.25],[0,0]]]}";
+		ObjectMapper objectMapper = new ObjectMapper();
+		FeatureGeometry offHeap = GeoJsonGeometries.readOffHeap(objectMapper.createParser(geoJson),
+				new CoordinateBufferPool(1 << 20), 4);
+		try {
+			assertEquals(write(GeoJsonGeometries.read(objectMapper.readTree(geoJson))), write(offHeap));
+		} finally {
+			offHeap.release();
+		}
+	}
+
+	private static String write(FeatureGeometry geometry) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		XmlUtf8Writer out = new XmlUtf8Writer(bytes);
+		new GmlGeometryWriter(geometry, "EPSG:2154").writeTo(out);
+		out.flush();
+		return bytes.toString(StandardCharsets.UTF_8);
+	}
+
+	private static FeatureGeometry geometry(String type, double... coordinates) {
+		return FeatureGeometry.builder().type(type).coordinates(coordinates).build();
+	}
+}
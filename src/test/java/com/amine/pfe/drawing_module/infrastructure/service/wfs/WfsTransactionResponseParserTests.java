@@ -0,0 +1,84 @@
+package com.amine.pfe.drawing_module.infrastructure.service.wfs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class WfsTransactionResponseParserTests {
+
+	@Test
+	void parsesTransactionSummaryAndOrderedInsertResults() throws Exception {
+		WfsTransactionResponse response = parse("""
+				<?xml version="1.0" encoding="UTF-8"?>
+				<wfs:TransactionResponse xmlns:wfs="http://www.opengis.net/wfs" xmlns:ogc="http://www.opengis.net/ogc" version="1.1.0">
+				  <wfs:TransactionSummary>
+				    <wfs:totalInserted>2</wfs:totalInserted>
+				    <wfs:totalUpdated>1</wfs:totalUpdated>
+				    <wfs:totalDeleted>3</wfs:totalDeleted>
+				  </wfs:TransactionSummary>
+				  <wfs:TransactionResults/>
+				  <wfs:InsertResults>
+				    <wfs:Feature><ogc:FeatureId fid="parcelles.12"/></wfs:Feature>
+				    <wfs:Feature><ogc:FeatureId fid="parcelles.13"/></wfs:Feature>
+				  </wfs:InsertResults>
+				</wfs:TransactionResponse>
+				""");
+
+		assertEquals(2, response.totalInserted());
+		assertEquals(1, response.totalUpdated());
+		assertEquals(3, response.totalDeleted());
+		assertEquals(List.of("parcelles.12", "parcelles.13"), response.insertedFeatureIds());
+		assertFalse(response.hasExceptions());
+	}
+
+	@Test
+	void updateWithoutSummaryIsNotReportedAsUpdated() throws Exception {
+		WfsTransactionResponse response = parse("""
+				<wfs:TransactionResponse xmlns:wfs="http://www.opengis.net/wfs">
+				  <wfs:TransactionSummary><wfs:totalUpdated>0</wfs:totalUpdated></wfs:TransactionSummary>
+				</wfs:TransactionResponse>
+				""");
+
+		assertEquals(0, response.totalUpdated());
+		assertFalse(response.hasExceptions());
+	}
+
+	@Test
+	void parsesOwsExceptionReport() throws Exception {
+		WfsTransactionResponse response = parse("""
+				<ows:ExceptionReport xmlns:ows="http://www.opengis.net/ows" version="1.0.0">
+				  <ows:Exception exceptionCode="InvalidParameterValue" locator="typeName">
+				    <ows:ExceptionText>Feature type drawing:unknown unknown</ows:ExceptionText>
+				  </ows:Exception>
+				</ows:ExceptionReport>
+				""");
+
+		assertTrue(response.hasExceptions());
+		assertEquals(new WfsTransactionResponse.WfsException(
+				"InvalidParameterValue", "typeName", "Feature type drawing:unknown unknown"),
+				response.exceptions().get(0));
+	}
+
+	@Test
+	void parsesServiceExceptionReport() throws Exception {
+		WfsTransactionResponse response = parse("""
+				<ServiceExceptionReport version="1.2.0">
+				  <ServiceException code="NoApplicableCode"><![CDATA[Error performing insert]]></ServiceException>
+				</ServiceExceptionReport>
+				""");
+
+		assertEquals(1, response.exceptions().size());
+		assertEquals("NoApplicableCode", response.exceptions().get(0).code());
+		assertEquals("Error performing insert", response.exceptions().get(0).text());
+	}
+
+	private static WfsTransactionResponse parse(String xml) throws Exception {
+		return WfsTransactionResponseParser.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+	}
+}
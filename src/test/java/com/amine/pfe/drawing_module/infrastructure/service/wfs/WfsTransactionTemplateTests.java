@@ -0,0 +1,278 @@
+package com.amine.pfe.drawing_module.infrastructure.service.wfs;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.amine.pfe.drawing_module.domain.model.FeatureFilter;
+
+class WfsTransactionTemplateTests {
+
+	private static final String WFS_NS = "http://www.opengis.net/wfs";
+	private static final String OGC_NS = "http://www.opengis.net/ogc";
+	private static final String GML_NS = "http://www.opengis.net/gml";
+	private static final String WORKSPACE = "drawing";
+	private static final String LAYER = "parcelles";
+	private static final String GML = "<gml:Polygon srsName=\"EPSG:3857\" srsDimension=\"2\"><gml:exterior>"
+			+ "<gml:LinearRing><gml:posList>0.000000 0.000000 1.000000 0.000000 1.000000 1.000000 0.000000 0.000000"
+			+ "</gml:posList></gml:LinearRing></gml:exterior></gml:Polygon>";
+
+	private final WfsTransactionTemplate template = WfsTransactionTemplate.compile(WORKSPACE, LAYER);
+
+	@Test
+	void insertMatchesLegacyBuilder() throws IOException {
+		Map<String, Object> properties = properties();
+
+		byte[] actual = write(out -> template.writeInsert(out, GML, properties));
+
+		assertArrayEquals(legacyInsert(properties).getBytes(StandardCharsets.UTF_8), actual);
+	}
+
+	@Test
+	void insertWithoutPropertiesMatchesLegacyBuilder() throws IOException {
+		Map<String, Object> properties = Map.of();
+
+		byte[] actual = write(out -> template.writeInsert(out, GML, properties));
+
+		assertArrayEquals(legacyInsert(properties).getBytes(StandardCharsets.UTF_8), actual);
+	}
+
+	@Test
+	void updateMatchesLegacyBuilder() throws IOException {
+		Map<String, Object> properties = properties();
+
+		byte[] actual = write(out -> template.writeUpdate(out, "parcelles.42", GML, properties));
+
+		assertArrayEquals(legacyUpdate(properties, "parcelles.42").getBytes(StandardCharsets.UTF_8), actual);
+	}
+
+	@Test
+	void deleteMatchesLegacyBuilder() throws IOException {
+		byte[] actual = write(out -> template.writeDelete(out, "parcelles.42"));
+
+		assertArrayEquals(legacyDelete("parcelles.42").getBytes(StandardCharsets.UTF_8), actual);
+	}
+
+	@Test
+	void largeValuesAreSplitAcrossBufferFlushes() throws IOException {
+		Map<String, Object> properties = new LinkedHashMap<>();
+		properties.put("description", "é<&>\"'😀".repeat(5_000));
+
+		byte[] actual = write(out -> template.writeInsert(out, GML, properties));
+
+		assertArrayEquals(legacyInsert(properties).getBytes(StandardCharsets.UTF_8), actual);
+	}
+
+	@Test
+	void combinedTransactionKeepsActionOrderAcrossLayers() throws Exception {
+		WfsTransactionTemplate roads = WfsTransactionTemplate.compile(WORKSPACE, "routes");
+
+		byte[] actual = write(out -> {
+			WfsTransactionTemplate.writeTransactionStart(out, WORKSPACE);
+			template.writeUpdateAction(out, "op-0", "parcelles.42", GML, properties());
+			template.writeInsertAction(out, "op-1", GML, properties());
+			roads.writeDeleteAction(out, "op-2", "routes.7");
+			WfsTransactionTemplate.writeTransactionEnd(out);
+		});
+
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		Element transaction = factory.newDocumentBuilder()
+				.parse(new ByteArrayInputStream(actual)).getDocumentElement();
+
+		List<String> actions = new ArrayList<>();
+		NodeList children = transaction.getChildNodes();
+		for (int i = 0; i < children.getLength(); i++) {
+			if (children.item(i) instanceof Element action) {
+				actions.add(action.getLocalName() + " " + action.getAttribute("handle") + " "
+						+ action.getAttribute("typeName"));
+			}
+		}
+		assertEquals(List.of("Update op-0 drawing:parcelles", "Insert op-1 ", "Delete op-2 drawing:routes"), actions);
+		assertEquals("Parcelle <A> & \"B\" l'été", transaction.getElementsByTagNameNS(WORKSPACE, "nom")
+				.item(0).getTextContent());
+	}
+
+	@Test
+	void bulkEditsCarryASingleOgcFilter() throws Exception {
+		FeatureFilter area = new FeatureFilter(null,
+				new FeatureFilter.Envelope(2.25, 48.8, 2.5, 48.95, "EPSG:4326"),
+				List.of(new FeatureFilter.Condition("nom", FeatureFilter.Operator.EQ, "A & B"),
+						new FeatureFilter.Condition("commentaire", FeatureFilter.Operator.IS_NULL, null)));
+
+		Element delete = action(write(out -> template.writeDeleteWhere(out, area)));
+		assertEquals("Delete drawing:parcelles", delete.getLocalName() + " " + delete.getAttribute("typeName"));
+		assertEquals(List.of("BBOX", "PropertyIsEqualTo", "PropertyIsNull"),
+				childNames(firstChild(firstChild(delete))));
+		Element envelope = (Element) delete.getElementsByTagNameNS(GML_NS, "Envelope").item(0);
+		assertEquals("EPSG:4326", envelope.getAttribute("srsName"));
+		assertEquals("2.250000 48.800000", envelope.getElementsByTagNameNS(GML_NS, "lowerCorner").item(0)
+				.getTextContent());
+		assertEquals("A & B", delete.getElementsByTagNameNS(OGC_NS, "Literal").item(0).getTextContent());
+
+		FeatureFilter ids = new FeatureFilter(List.of("parcelles.1", "parcelles.2"), null, null);
+		Map<String, Object> properties = new LinkedHashMap<>();
+		properties.put("nom", "reclassée");
+
+		Element update = action(write(out -> template.writeUpdateWhere(out, properties, ids)));
+		assertEquals(List.of("Property", "Filter"), childNames(update));
+		assertEquals("nom", update.getElementsByTagNameNS(WFS_NS, "Name").item(0).getTextContent());
+		Element filter = (Element) update.getElementsByTagNameNS(OGC_NS, "Filter").item(0);
+		assertEquals(List.of("FeatureId", "FeatureId"), childNames(filter));
+		assertEquals("parcelles.2", ((Element) filter.getElementsByTagNameNS(OGC_NS, "FeatureId").item(1))
+				.getAttribute("fid"));
+	}
+
+	// Unique action de la transaction
+	private static Element action(byte[] transaction) throws Exception {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		return firstChild(factory.newDocumentBuilder().parse(new ByteArrayInputStream(transaction))
+				.getDocumentElement());
+	}
+
+	private static Element firstChild(Element parent) {
+		NodeList children = parent.getChildNodes();
+		for (int i = 0; i < children.getLength(); i++) {
+			if (children.item(i) instanceof Element child) {
+				return child;
+			}
+		}
+		return null;
+	}
+
+	private static List<String> childNames(Element parent) {
+		List<String> names = new ArrayList<>();
+		NodeList children = parent.getChildNodes();
+		for (int i = 0; i < children.getLength(); i++) {
+			if (children.item(i) instanceof Element child) {
+				names.add(child.getLocalName());
+			}
+		}
+		return names;
+	}
+
+	private static Map<String, Object> properties() {
+		Map<String, Object> properties = new LinkedHashMap<>();
+		properties.put("nom", "Parcelle <A> & \"B\" l'été");
+		properties.put("surface", 125.5);
+		properties.put("proprietaire", null);
+		properties.put("commentaire", "日本語 😀");
+		return properties;
+	}
+
+	private static byte[] write(TemplateCall call) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		XmlUtf8Writer writer = new XmlUtf8Writer(out, 64);
+		call.writeTo(writer);
+		writer.flush();
+		return out.toByteArray();
+	}
+
+	@FunctionalInterface
+	private interface TemplateCall {
+		void writeTo(XmlUtf8Writer writer) throws IOException;
+	}
+
+	// Anciens builders String.format, conservés comme référence
+	private static String legacyInsert(Map<String, Object> properties) {
+		String propertyElements = properties.entrySet().stream()
+				.map(entry -> String.format(
+						"<%s:%s>%s</%s:%s>",
+						WORKSPACE, entry.getKey(),
+						escapeXml(String.valueOf(entry.getValue())),
+						WORKSPACE, entry.getKey()))
+				.collect(Collectors.joining("\n"));
+
+		return String.format("""
+				<?xml version="1.0" encoding="UTF-8"?>
+				<wfs:Transaction version="1.1.0" service="WFS"
+				    xmlns:wfs="http://www.opengis.net/wfs"
+				    xmlns:gml="http://www.opengis.net/gml"
+				    xmlns:%1$s="%1$s"
+				    xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance">
+				  <wfs:Insert>
+				    <%1$s:%2$s>
+				      <%1$s:geom>
+				        %3$s
+				      </%1$s:geom>
+				      %4$s
+				    </%1$s:%2$s>
+				  </wfs:Insert>
+				</wfs:Transaction>
+				""",
+				WORKSPACE, LAYER, GML, propertyElements);
+	}
+
+	private static String legacyUpdate(Map<String, Object> properties, String featureId) {
+		String propertyUpdates = properties.entrySet().stream()
+				.map(entry -> String.format(
+						"<wfs:Property><wfs:Name>%s</wfs:Name><wfs:Value>%s</wfs:Value></wfs:Property>",
+						entry.getKey(),
+						escapeXml(String.valueOf(entry.getValue()))))
+				.collect(Collectors.joining("\n"));
+
+		return String.format("""
+				<?xml version="1.0" encoding="UTF-8"?>
+				<wfs:Transaction version="1.1.0" service="WFS"
+				    xmlns:wfs="http://www.opengis.net/wfs"
+				    xmlns:ogc="http://www.opengis.net/ogc"
+				    xmlns:gml="http://www.opengis.net/gml">
+				    <wfs:Update typeName="%s:%s">
+				        <wfs:Property>
+				            <wfs:Name>geom</wfs:Name>
+				            <wfs:Value>%s</wfs:Value>
+				        </wfs:Property>
+				        %s
+				        <ogc:Filter>
+				            <ogc:FeatureId fid="%s"/>
+				        </ogc:Filter>
+				    </wfs:Update>
+				</wfs:Transaction>
+				""",
+				WORKSPACE, LAYER, GML, propertyUpdates, featureId);
+	}
+
+	private static String legacyDelete(String featureId) {
+		return String.format("""
+				<?xml version="1.0" encoding="UTF-8"?>
+				<wfs:Transaction version="1.1.0" service="WFS"
+				    xmlns:wfs="http://www.opengis.net/wfs"
+				    xmlns:ogc="http://www.opengis.net/ogc"
+				    xmlns:%1$s="%1$s"
+				    xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance">
+				  <wfs:Delete typeName="%1$s:%2$s">
+				    <ogc:Filter>
+				      <ogc:FeatureId fid="%3$s"/>
+				    </ogc:Filter>
+				  </wfs:Delete>
+				</wfs:Transaction>
+				""",
+				WORKSPACE, LAYER, featureId);
+	}
+
+	private static String escapeXml(String value) {
+		if (value == null)
+			return "";
+		return value.replace("&", "&amp;")
+				.replace("<", "&lt;")
+				.replace(">", "&gt;")
+				.replace("\"", "&quot;")
+				.replace("'", "&apos;");
+	}
+}
@@ -0,0 +1,93 @@
+package com.amine.pfe.drawing_module.infrastructure.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.amine.pfe.drawing_module.config.AdmissionProperties;
+import com.amine.pfe.drawing_module.domain.port.out.LayerRepositoryPort;
+import com.amine.pfe.drawing_module.infrastructure.service.admission.AdmissionController;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+class AdmissionControlFilterTests {
+
+	private static final String SYNC = "/drawing/layers/" + UUID.randomUUID() + "/sync";
+
+	private SimpleMeterRegistry meterRegistry;
+	private AdmissionControlFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		AdmissionProperties properties = new AdmissionProperties();
+		properties.setEnabled(true);
+		properties.setBulk(new AdmissionProperties.Budget(1, 0, Duration.ofSeconds(1)));
+		meterRegistry = new SimpleMeterRegistry();
+		filter = new AdmissionControlFilter(new AdmissionController(properties, mock(LayerRepositoryPort.class),
+				meterRegistry));
+	}
+
+	@Test
+	void aStreamedSyncReleasesItsSlotOnceTheHandlerReturns() throws Exception {
+		MockHttpServletRequest request = request(SYNC);
+		request.setAsyncSupported(true);
+
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+		assertTrue(request.isAsyncStarted());
+		assertEquals(0, bulkInFlight());
+		// Le flux toujours ouvert ne retient pas la seule place de la classe
+		MockHttpServletResponse next = new MockHttpServletResponse();
+		filter.doFilter(request("/drawing/edit-sessions"), next, (req, res) -> {
+		});
+		assertEquals(200, next.getStatus());
+	}
+
+	@Test
+	void aSynchronousRequestReleasesItsSlotEvenWhenItFails() {
+		assertThrows(ServletException.class, () -> filter.doFilter(request(SYNC), new MockHttpServletResponse(),
+				(req, res) -> {
+					assertEquals(1, bulkInFlight());
+					throw new ServletException("handler failed");
+				}));
+
+		assertEquals(0, bulkInFlight());
+	}
+
+	@Test
+	void aSaturatedClassIsShedWithRetryAfter() throws Exception {
+		MockHttpServletResponse shed = new MockHttpServletResponse();
+		filter.doFilter(request(SYNC), new MockHttpServletResponse(), (req, res) -> {
+			try {
+				filter.doFilter(request("/drawing/edit-sessions"), shed, (inner, innerRes) -> {
+				});
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+
+		assertEquals(429, shed.getStatus());
+		assertTrue(shed.getHeader("Retry-After") != null);
+		assertEquals(0, bulkInFlight());
+	}
+
+	private double bulkInFlight() {
+		return meterRegistry.get("drawing.admission.in-flight").tag("class", "bulk").gauge().value();
+	}
+
+	private static MockHttpServletRequest request(String path) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		request.setRequestURI(path);
+		return request;
+	}
+}
@@ -0,0 +1,58 @@
+package com.amine.pfe.drawing_module.infrastructure.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+
+class AsyncTimeoutInterceptorTests {
+
+	private final AsyncTimeoutInterceptor interceptor = new AsyncTimeoutInterceptor();
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void theHandlerTimeoutReplacesTheGlobalOne() throws Exception {
+		MockHttpServletRequest request = asyncRequest();
+		AsyncTimeoutInterceptor.setTimeout(Duration.ofMinutes(10));
+
+		start(request);
+
+		assertEquals(600_000, request.getAsyncContext().getTimeout());
+	}
+
+	@Test
+	void otherAsyncResponsesKeepTheGlobalTimeout() throws Exception {
+		MockHttpServletRequest request = asyncRequest();
+
+		start(request);
+
+		assertEquals(30_000, request.getAsyncContext().getTimeout());
+	}
+
+	private static MockHttpServletRequest asyncRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/drawing/layers/x/sync");
+		request.setAsyncSupported(true);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+		return request;
+	}
+
+	// Même ordre que WebAsyncManager : délai global, intercepteurs, puis startAsync
+	private void start(MockHttpServletRequest request) throws Exception {
+		StandardServletAsyncWebRequest asyncRequest = new StandardServletAsyncWebRequest(request,
+				new MockHttpServletResponse());
+		asyncRequest.setTimeout(30_000L);
+		interceptor.beforeConcurrentHandling(asyncRequest, () -> null);
+		asyncRequest.startAsync();
+	}
+}